@@ -11,6 +11,8 @@ import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.MarkersQueryDefinition;
 import com.sap.cx.boosters.commercedbsync.OffsetQueryDefinition;
 import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
+import com.sap.cx.boosters.commercedbsync.repository.DataSetCursor;
 import java.util.List;
 
 public interface DataRepositoryAdapter {
@@ -22,8 +24,14 @@ public interface DataRepositoryAdapter {
 
     DataSet getBatchOrderedByColumn(MigrationContext context, SeekQueryDefinition queryDefinition) throws Exception;
 
+    DataSetCursor openBatchCursorOrderedByColumn(MigrationContext context, SeekQueryDefinition queryDefinition)
+            throws Exception;
+
     DataSet getBatchMarkersOrderedByColumn(MigrationContext context, MarkersQueryDefinition queryDefinition)
             throws Exception;
 
+    void streamBatchMarkersOrderedByColumn(MigrationContext context, MarkersQueryDefinition queryDefinition,
+            BatchMarkerHandler handler) throws Exception;
+
     List<String> getPartitions(String table) throws Exception;
 }
@@ -13,6 +13,8 @@ import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
 import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
 import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
+import com.sap.cx.boosters.commercedbsync.repository.DataSetCursor;
 import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
 import java.time.Instant;
 import java.util.List;
@@ -72,6 +74,13 @@ public class ContextualDataRepositoryAdapter implements DataRepositoryAdapter {
         }
     }
 
+    @Override
+    public DataSetCursor openBatchCursorOrderedByColumn(MigrationContext context, SeekQueryDefinition queryDefinition)
+            throws Exception {
+        return repository.openBatchCursorOrderedByColumn(queryDefinition,
+                context.isIncrementalModeEnabled() ? getIncrementalTimestamp(context) : null);
+    }
+
     @Override
     public DataSet getBatchMarkersOrderedByColumn(MigrationContext context, MarkersQueryDefinition queryDefinition)
             throws Exception {
@@ -82,6 +91,16 @@ public class ContextualDataRepositoryAdapter implements DataRepositoryAdapter {
         }
     }
 
+    @Override
+    public void streamBatchMarkersOrderedByColumn(MigrationContext context, MarkersQueryDefinition queryDefinition,
+            BatchMarkerHandler handler) throws Exception {
+        if (context.isIncrementalModeEnabled()) {
+            repository.streamBatchMarkersOrderedByColumn(queryDefinition, getIncrementalTimestamp(context), handler);
+        } else {
+            repository.streamBatchMarkersOrderedByColumn(queryDefinition, handler);
+        }
+    }
+
     @Override
     public List<String> getPartitions(String table) throws Exception {
         return repository.getPartitions(table);
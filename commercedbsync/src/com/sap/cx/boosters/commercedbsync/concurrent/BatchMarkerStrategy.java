@@ -0,0 +1,45 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent;
+
+import com.sap.cx.boosters.commercedbsync.MarkersQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
+
+import java.util.List;
+
+/**
+ * Determines the markers splitting a table into the batches read in parallel. Each marker is the first value of the
+ * batch column in its batch.
+ */
+public interface BatchMarkerStrategy {
+
+    /**
+     * @param queryDefinition
+     *            table, column and batch size to determine the markers for
+     * @return the marker rows ordered by the batch column, holding the column value first
+     */
+    List<List<Object>> getBatchMarkers(CopyContext context, CopyContext.DataCopyItem copyItem,
+            DataRepositoryAdapter dataRepositoryAdapter, MarkersQueryDefinition queryDefinition) throws Exception;
+
+    /**
+     * Passes the markers to the handler in the order of the batch column as soon as they are read
+     *
+     * @see #getBatchMarkers(CopyContext, CopyContext.DataCopyItem, DataRepositoryAdapter, MarkersQueryDefinition)
+     */
+    void streamBatchMarkers(CopyContext context, CopyContext.DataCopyItem copyItem,
+            DataRepositoryAdapter dataRepositoryAdapter, MarkersQueryDefinition queryDefinition,
+            BatchMarkerHandler handler) throws Exception;
+
+    /**
+     * @return true if the batches between the markers may hold more rows than the batch size, which readers then
+     *         read in several pages
+     */
+    boolean isApproximate(CopyContext context, CopyContext.DataCopyItem copyItem,
+            MarkersQueryDefinition queryDefinition);
+}
@@ -19,6 +19,12 @@ import javax.annotation.concurrent.ThreadSafe;
 public interface DataPipe<T> {
     void requestAbort(Exception e);
 
+    /**
+     * @return true if the pipe or the whole migration was aborted, no more values should be produced then
+     * @throws Exception
+     */
+    boolean isAborted() throws Exception;
+
     void put(MaybeFinished<T> value) throws Exception;
 
     MaybeFinished<T> get() throws Exception;
@@ -0,0 +1,58 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent;
+
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+
+/**
+ * Memory budget shared by all data pipes of a node. Readers reserve the estimated size of a page before putting it
+ * into a pipe, writers release the reservation once the page is written.
+ */
+public interface DataPipeMemoryBudget {
+
+    /**
+     * @return true if pages are reserved against the budget for the given migration
+     */
+    boolean isEnabled(CopyContext context);
+
+    /**
+     * Reserves the estimated size of the page, waiting while the budget is exhausted. A page is always admitted if
+     * nothing else is reserved, even if it exceeds the budget.
+     *
+     * @param pipe
+     *            pipe the page is put into, waiting stops if it is aborted
+     * @throws PipeAbortedException
+     *             if the pipe was aborted while waiting
+     */
+    void reserve(CopyContext context, DataSet page, DataPipe<DataSet> pipe) throws Exception;
+
+    /**
+     * Releases the reservation of the page, if any
+     */
+    void release(DataSet page);
+
+    /**
+     * Releases all reservations of pages put into the given pipe that have not been released by their writers
+     */
+    void releaseAll(DataPipe<DataSet> pipe);
+
+    /**
+     * @return size of the budget in bytes, as resolved by the last reservation
+     */
+    long getCapacity();
+
+    /**
+     * @return estimated size of all reserved pages in bytes
+     */
+    long getReserved();
+
+    /**
+     * @return number of reservations that had to wait for the budget
+     */
+    long getWaitCount();
+}
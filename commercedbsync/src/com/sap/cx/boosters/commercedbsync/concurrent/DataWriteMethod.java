@@ -0,0 +1,34 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent;
+
+public enum DataWriteMethod {
+    /**
+     * single row insert/upsert statement, rows are sent as JDBC batch
+     */
+    BATCH,
+    /**
+     * multi row insert statement, as many rows per statement as the target database allows
+     */
+    MULTIROW,
+    /**
+     * rows are streamed with COPY ... FROM STDIN, PostgreSQL target only
+     */
+    COPY,
+    /**
+     * rows are written with the SQL Server bulk copy API, SQL Server target only
+     */
+    BULKCOPY,
+    /**
+     * rows are streamed with LOAD DATA LOCAL INFILE, MySQL target only
+     */
+    LOADDATA,
+    /**
+     * single row direct-path insert statement, rows are sent as JDBC batch (array binding), Oracle target only
+     */
+    DIRECTPATH
+}
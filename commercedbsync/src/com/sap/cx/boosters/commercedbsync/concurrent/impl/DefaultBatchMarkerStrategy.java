@@ -0,0 +1,83 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import com.sap.cx.boosters.commercedbsync.MarkersQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
+import com.sap.cx.boosters.commercedbsync.concurrent.BatchMarkerStrategy;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Numbers all rows of a table to place a marker every batch size rows. For tables above the sampling threshold the
+ * markers are derived from a sample of the batch column instead, so readers can start without a full scan of the
+ * table.
+ */
+public class DefaultBatchMarkerStrategy implements BatchMarkerStrategy {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultBatchMarkerStrategy.class);
+
+    private static final int SAMPLED_VALUES_PER_BATCH = 4;
+    private static final double MAX_SAMPLE_PERCENT = 50;
+
+    @Override
+    public List<List<Object>> getBatchMarkers(CopyContext context, CopyContext.DataCopyItem copyItem,
+            DataRepositoryAdapter dataRepositoryAdapter, MarkersQueryDefinition queryDefinition) throws Exception {
+        queryDefinition.setSamplePercent(getSamplePercent(context, copyItem, queryDefinition));
+        return dataRepositoryAdapter.getBatchMarkersOrderedByColumn(context.getMigrationContext(), queryDefinition)
+                .getAllResults();
+    }
+
+    /**
+     * The handler may block until reader workers are free, so the markers are only streamed if the source keeps the
+     * result set open meanwhile. Otherwise they are read completely before they are passed to the handler.
+     */
+    @Override
+    public void streamBatchMarkers(CopyContext context, CopyContext.DataCopyItem copyItem,
+            DataRepositoryAdapter dataRepositoryAdapter, MarkersQueryDefinition queryDefinition,
+            BatchMarkerHandler handler) throws Exception {
+        if (!context.getMigrationContext().getDataSourceRepository().isLongLivedResultSetSupported()) {
+            LOG.debug("Reading all batch markers of table {} before scheduling its batches",
+                    queryDefinition.getTable());
+            for (List<Object> marker : getBatchMarkers(context, copyItem, dataRepositoryAdapter, queryDefinition)) {
+                handler.accept(marker);
+            }
+            return;
+        }
+        queryDefinition.setSamplePercent(getSamplePercent(context, copyItem, queryDefinition));
+        dataRepositoryAdapter.streamBatchMarkersOrderedByColumn(context.getMigrationContext(), queryDefinition,
+                handler);
+    }
+
+    @Override
+    public boolean isApproximate(CopyContext context, CopyContext.DataCopyItem copyItem,
+            MarkersQueryDefinition queryDefinition) {
+        return getSamplePercent(context, copyItem, queryDefinition) > 0;
+    }
+
+    /**
+     * Sampling is limited to single batch columns of tables that are neither partitioned nor chunked, as the batches
+     * of those are assigned by their position. Keyset markers record their row number and their readers do not
+     * continue after a full page, so they are always exact.
+     *
+     * @return the percentage of the table to sample, 0 to number all rows
+     */
+    private double getSamplePercent(CopyContext context, CopyContext.DataCopyItem copyItem,
+            MarkersQueryDefinition queryDefinition) {
+        final long threshold = context.getMigrationContext().getBatchMarkersSamplingThreshold();
+        if (threshold <= 0 || copyItem.getRowCount() < threshold || copyItem.getChunkData() != null
+                || queryDefinition.getPartition() != null || queryDefinition.isDeletionEnabled()
+                || queryDefinition.isLpTableEnabled() || queryDefinition.isKeyset()) {
+            return 0;
+        }
+        final double samplePercent = 100d * SAMPLED_VALUES_PER_BATCH / queryDefinition.getBatchSize();
+        return samplePercent > MAX_SAMPLE_PERCENT ? 0 : samplePercent;
+    }
+}
@@ -76,7 +76,8 @@ public class DefaultDataPipe<T> implements DataPipe<T> {
         queue.clear();
     }
 
-    private boolean isAborted() throws Exception {
+    @Override
+    public boolean isAborted() throws Exception {
         if (this.abortException.get() == null && scheduler.isAborted(this.context)) {
             requestAbort(new PipeAbortedException("Migration aborted"));
         }
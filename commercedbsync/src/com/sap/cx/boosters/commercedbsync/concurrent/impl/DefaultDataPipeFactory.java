@@ -9,18 +9,23 @@ package com.sap.cx.boosters.commercedbsync.concurrent.impl;
 import com.google.common.collect.Lists;
 import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
 import com.sap.cx.boosters.commercedbsync.adapter.impl.ContextualDataRepositoryAdapter;
+import com.sap.cx.boosters.commercedbsync.concurrent.BatchMarkerStrategy;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataCopyMethod;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeFactory;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataThreadPoolConfigBuilder;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataThreadPoolFactory;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataWorkerExecutor;
 import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
+import com.sap.cx.boosters.commercedbsync.concurrent.PipeAbortedException;
 import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.*;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceCategory;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
 import com.sap.cx.boosters.commercedbsync.scheduler.DatabaseCopyScheduler;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
 import com.sap.cx.boosters.commercedbsync.views.TableViewGenerator;
@@ -36,28 +41,37 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultDataPipeFactory.class);
+    private static final int BATCH_SCHEDULING_CHUNK_SIZE = 1000;
 
     private final DatabaseCopyTaskRepository taskRepository;
     private final DatabaseCopyScheduler scheduler;
     private final AsyncTaskExecutor executor;
     private final DataThreadPoolFactory dataReadWorkerPoolFactory;
+    private final DataPipeMemoryBudget memoryBudget;
+    private final BatchMarkerStrategy batchMarkerStrategy;
 
     public DefaultDataPipeFactory(DatabaseCopyScheduler scheduler, DatabaseCopyTaskRepository taskRepository,
-            AsyncTaskExecutor executor, DataThreadPoolFactory dataReadWorkerPoolFactory) {
+            AsyncTaskExecutor executor, DataThreadPoolFactory dataReadWorkerPoolFactory,
+            DataPipeMemoryBudget memoryBudget, BatchMarkerStrategy batchMarkerStrategy) {
         this.scheduler = scheduler;
         this.taskRepository = taskRepository;
         this.executor = executor;
         this.dataReadWorkerPoolFactory = dataReadWorkerPoolFactory;
+        this.memoryBudget = memoryBudget;
+        this.batchMarkerStrategy = batchMarkerStrategy;
     }
 
     @Override
@@ -69,7 +83,9 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
         DataThreadPoolConfig threadPoolConfig = new DataThreadPoolConfigBuilder(context.getMigrationContext())
                 .withPoolSize(context.getMigrationContext().getMaxParallelReaderWorkers()).build();
         final ThreadPoolTaskExecutor taskExecutor = dataReadWorkerPoolFactory.create(context, threadPoolConfig);
-        DataWorkerExecutor<Boolean> workerExecutor = new DefaultDataWorkerExecutor<>(taskExecutor);
+        // reader tasks are created while earlier ones finish, bounded by what the pipe and the workers can take
+        DataWorkerExecutor<Boolean> workerExecutor = new DefaultDataWorkerExecutor<>(taskExecutor,
+                context.getMigrationContext().getMaxParallelReaderWorkers() + dataPipeCapacity);
         try {
             executor.submit(() -> {
                 try {
@@ -118,9 +134,6 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
                     getRecorderName(copyItem, chunkedTable));
             recorder.start();
 
-            PipeTaskContext pipeTaskContext = new PipeTaskContext(context, pipe, table, dataRepositoryAdapter,
-                    batchSize, recorder, taskRepository);
-
             String batchColumn = "";
             // help.sap.com/viewer/d0224eca81e249cb821f2cdf45a82ace/LATEST/en-US/08a27931a21441b59094c8a6aa2a880e.html
             final Set<String> allColumnNames = context.getMigrationContext().getDataSourceRepository()
@@ -133,41 +146,25 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
             }
             LOG.debug("Using batchColumn: {}", batchColumn.isEmpty() ? "NONE" : batchColumn);
 
+            PipeTaskContext pipeTaskContext = new PipeTaskContext(context, pipe, table, dataRepositoryAdapter,
+                    batchSize, recorder, taskRepository,
+                    getColumnsToRead(context, copyItem, allColumnNames, batchColumn), memoryBudget, copyItem);
+
             if (batchColumn.isEmpty()) {
                 // trying offset queries with unique index columns
                 Set<String> batchColumns = getBatchColumns(context, table);
-                if (!batchColumns.isEmpty()) {
+                if (!batchColumns.isEmpty() && isKeysetApplicable(context, table, batchColumns)) {
+                    // seek by the unique columns, so no batch has to skip the rows of the batches before it
+                    taskRepository.updateTaskCopyMethod(context, copyItem, DataCopyMethod.SEEK.toString());
+                    taskRepository.updateTaskKeyColumns(context, copyItem, batchColumns);
+                    createKeysetDataReaderTasks(workerExecutor, pipeTaskContext, dataRepositoryAdapter,
+                            new ArrayList<>(batchColumns), copyItem, chunkedTable);
+                } else if (!batchColumns.isEmpty()) {
                     taskRepository.updateTaskCopyMethod(context, copyItem, DataCopyMethod.OFFSET.toString());
                     taskRepository.updateTaskKeyColumns(context, copyItem, batchColumns);
 
-                    List<Pair<Long, Long>> batches;
-                    if (context.getMigrationContext().isSchedulerResumeEnabled()) {
-                        Set<DatabaseCopyBatch> pendingBatchesForPipeline = taskRepository
-                                .findPendingBatchesForPipeline(context, copyItem);
-                        batches = pendingBatchesForPipeline.stream()
-                                .map(b -> Pair.of(Long.valueOf(b.getLowerBoundary().toString()),
-                                        Long.valueOf(b.getUpperBoundary().toString())))
-                                .collect(Collectors.toList());
-                        taskRepository.resetPipelineBatches(context, copyItem);
-                    } else {
-                        batches = new ArrayList<>();
-                        long chunkOffset = chunkedTable
-                                ? copyItem.getChunkData().getChunkSize() * copyItem.getChunkData().getCurrentChunk()
-                                : 0;
-                        for (long offset = 0; offset < totalRows; offset += batchSize) {
-                            batches.add(Pair.of(chunkOffset + offset, chunkOffset + offset + batchSize));
-                        }
-                    }
-
-                    Pair<Long, Long> boundaries;
-                    for (int batchId = 0; batchId < batches.size(); batchId++) {
-                        boundaries = batches.get(batchId);
-                        DataReaderTask dataReaderTask = new BatchOffsetDataReaderTask(pipeTaskContext, batchId,
-                                boundaries.getLeft(), batchColumns);
-                        taskRepository.scheduleBatch(context, copyItem, batchId, boundaries.getLeft(),
-                                boundaries.getRight());
-                        workerExecutor.safelyExecute(dataReaderTask);
-                    }
+                    createOffsetDataReaderTasks(workerExecutor, pipeTaskContext, batchColumns, copyItem,
+                            chunkedTable);
                 } else {
                     // If no unique columns available to do batch sorting, fallback to read all
                     LOG.warn(
@@ -185,7 +182,6 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
                 // do the pagination by value comparison
                 taskRepository.updateTaskCopyMethod(context, copyItem, DataCopyMethod.SEEK.toString());
                 taskRepository.updateTaskKeyColumns(context, copyItem, Lists.newArrayList(batchColumn));
-                List<List<Object>> batchMarkersList;
                 if (context.getMigrationContext().isSchedulerResumeEnabled()) {
                     if (context.getMigrationContext().getPartitionedTables().contains(table)) {
                         LOG.debug("Resuming partitioned table {}", table);
@@ -193,20 +189,16 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
                         for (String partition : partitions) {
                             Set<DatabaseCopyBatch> pendingBatchesForPipeline = taskRepository
                                     .findPendingBatchesForPipeline(context, copyItem, partition);
-                            batchMarkersList = new ArrayList<>(pendingBatchesForPipeline.stream()
-                                    .map(b -> Collections.list(b.getLowerBoundary())).toList());
                             taskRepository.resetPipelineBatches(context, copyItem, partition);
-                            createDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn, batchMarkersList,
-                                    copyItem, chunkedTable, partition);
+                            createResumedDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn,
+                                    pendingBatchesForPipeline, copyItem, partition);
                         }
                     } else {
                         Set<DatabaseCopyBatch> pendingBatchesForPipeline = taskRepository
                                 .findPendingBatchesForPipeline(context, copyItem);
-                        batchMarkersList = pendingBatchesForPipeline.stream()
-                                .map(b -> Collections.list(b.getLowerBoundary())).collect(Collectors.toList());
                         taskRepository.resetPipelineBatches(context, copyItem);
-                        createDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn, batchMarkersList, copyItem,
-                                chunkedTable, null);
+                        createResumedDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn,
+                                pendingBatchesForPipeline, copyItem, null);
                     }
                 } else {
                     if (context.getMigrationContext().getPartitionedTables().contains(table)) {
@@ -215,18 +207,17 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
                         for (String partition : partitions) {
                             MarkersQueryDefinition queryDefinition = new MarkersQueryDefinition();
                             queryDefinition.setPartition(partition);
-                            LOG.debug("getBatchMarkers for partition {}", partition);
-                            final var batchMarkers = getBatchMarkers(context, dataRepositoryAdapter, table, batchSize,
-                                    batchColumn, queryDefinition);
-                            createDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn, batchMarkers, copyItem,
-                                    chunkedTable, partition);
+                            LOG.debug("streamBatchMarkers for partition {}", partition);
+                            createMarkerDataReaderTasks(workerExecutor, pipeTaskContext, dataRepositoryAdapter,
+                                    batchColumn, queryDefinition, copyItem, chunkedTable, partition);
                         }
+                    } else if (isCursorApplicable(context, chunkedTable)) {
+                        createCursorDataReaderTasks(workerExecutor, pipeTaskContext, dataRepositoryAdapter,
+                                batchColumn, copyItem);
                     } else {
                         MarkersQueryDefinition queryDefinition = new MarkersQueryDefinition();
-                        final var batchMarkers = getBatchMarkers(context, dataRepositoryAdapter, table, batchSize,
-                                batchColumn, queryDefinition);
-                        createDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn, batchMarkers, copyItem,
-                                chunkedTable, null);
+                        createMarkerDataReaderTasks(workerExecutor, pipeTaskContext, dataRepositoryAdapter,
+                                batchColumn, queryDefinition, copyItem, chunkedTable, null);
                     }
                 }
             }
@@ -240,6 +231,84 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
         }
     }
 
+    /**
+     * Schedules the offset batches of a table in chunks while they are generated, so no list of all batch boundaries
+     * is held: the batches are either the pending batches to resume or computed from the row count.
+     */
+    protected void createOffsetDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor,
+            PipeTaskContext pipeTaskContext, Set<String> batchColumns, CopyContext.DataCopyItem copyItem,
+            boolean chunkedTable) throws Exception {
+        final CopyContext context = pipeTaskContext.getContext();
+        final List<DatabaseCopyBatch> copyBatches = new ArrayList<>(BATCH_SCHEDULING_CHUNK_SIZE);
+        final List<DataReaderTask> dataReaderTasks = new ArrayList<>(BATCH_SCHEDULING_CHUNK_SIZE);
+        int batchId = 0;
+        if (context.getMigrationContext().isSchedulerResumeEnabled()) {
+            Set<DatabaseCopyBatch> pendingBatchesForPipeline = taskRepository.findPendingBatchesForPipeline(context,
+                    copyItem);
+            taskRepository.resetPipelineBatches(context, copyItem);
+            for (DatabaseCopyBatch pendingBatch : pendingBatchesForPipeline) {
+                addOffsetBatch(workerExecutor, pipeTaskContext, batchColumns, copyItem, copyBatches, dataReaderTasks,
+                        batchId++, Long.parseLong(pendingBatch.getLowerBoundary().toString()),
+                        Long.parseLong(pendingBatch.getUpperBoundary().toString()));
+            }
+        } else {
+            long batchSize = copyItem.getBatchSize();
+            long chunkOffset = chunkedTable
+                    ? copyItem.getChunkData().getChunkSize() * copyItem.getChunkData().getCurrentChunk()
+                    : 0;
+            for (long offset = 0; offset < copyItem.getRowCount(); offset += batchSize) {
+                addOffsetBatch(workerExecutor, pipeTaskContext, batchColumns, copyItem, copyBatches, dataReaderTasks,
+                        batchId++, chunkOffset + offset, chunkOffset + offset + batchSize);
+            }
+        }
+        scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks, null);
+    }
+
+    private void addOffsetBatch(DataWorkerExecutor<Boolean> workerExecutor, PipeTaskContext pipeTaskContext,
+            Set<String> batchColumns, CopyContext.DataCopyItem copyItem, List<DatabaseCopyBatch> copyBatches,
+            List<DataReaderTask> dataReaderTasks, int batchId, long lowerBoundary, long upperBoundary)
+            throws Exception {
+        dataReaderTasks.add(new BatchOffsetDataReaderTask(pipeTaskContext, batchId, lowerBoundary, batchColumns));
+        copyBatches.add(createCopyBatch(batchId, lowerBoundary, upperBoundary));
+        if (copyBatches.size() == BATCH_SCHEDULING_CHUNK_SIZE) {
+            scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks, null);
+        }
+    }
+
+    /**
+     * Determines the columns the writer needs from the source table. Excluded columns, columns written as null and
+     * columns with a value override are not read, the batch column is always read.
+     *
+     * @return the columns to read, null to read all columns
+     */
+    static List<String> getColumnsToRead(CopyContext context, CopyContext.DataCopyItem copyItem,
+            Set<String> allColumnNames, String batchColumn) {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        if (migrationContext.isDeletionEnabled() || migrationContext.isLpTableMigrationEnabled()) {
+            // those read from dedicated tables and queries
+            return null;
+        }
+        final Set<String> skippedColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        final String targetTable = copyItem.getTargetItem();
+        if (migrationContext.getExcludedColumns().containsKey(targetTable)) {
+            skippedColumns.addAll(migrationContext.getExcludedColumns().get(targetTable));
+        }
+        if (migrationContext.getNullifyColumns().containsKey(targetTable)) {
+            skippedColumns.addAll(migrationContext.getNullifyColumns().get(targetTable));
+        }
+        if (copyItem.getColumnMap() != null) {
+            skippedColumns.addAll(copyItem.getColumnMap().keySet());
+        }
+        skippedColumns.remove(batchColumn);
+        final List<String> columnsToRead = allColumnNames.stream().filter(c -> !skippedColumns.contains(c))
+                .toList();
+        if (columnsToRead.isEmpty() || columnsToRead.size() == allColumnNames.size()) {
+            return null;
+        }
+        LOG.debug("Not reading column(s) {} of table {}", skippedColumns, copyItem.getSourceItem());
+        return columnsToRead;
+    }
+
     private static boolean isCurrentChunkBatch(CopyContext.DataCopyItem copyItem, boolean chunkedTable, int i) {
         boolean processBatch = true;
         if (chunkedTable) {
@@ -252,54 +321,383 @@ public class DefaultDataPipeFactory implements DataPipeFactory<DataSet> {
         return processBatch;
     }
 
-    protected List<List<Object>> getBatchMarkers(CopyContext context, DataRepositoryAdapter dataRepositoryAdapter,
-            String table, long batchSize, String batchColumn, MarkersQueryDefinition queryDefinition) throws Exception {
+    protected List<List<Object>> getBatchMarkers(CopyContext context, CopyContext.DataCopyItem copyItem,
+            DataRepositoryAdapter dataRepositoryAdapter, String table, long batchSize, String batchColumn,
+            MarkersQueryDefinition queryDefinition) throws Exception {
+        initMarkersQueryDefinition(context, table, batchSize, batchColumn, queryDefinition);
+        List<List<Object>> batchMarkersList = batchMarkerStrategy.getBatchMarkers(context, copyItem,
+                dataRepositoryAdapter, queryDefinition);
+        if (batchMarkersList.isEmpty()) {
+            throw new RuntimeException("Could not retrieve batch values for table " + table);
+        }
+        return batchMarkersList;
+    }
+
+    private static void initMarkersQueryDefinition(CopyContext context, String table, long batchSize,
+            String batchColumn, MarkersQueryDefinition queryDefinition) {
         queryDefinition.setTable(table);
         queryDefinition.setColumn(batchColumn);
         queryDefinition.setBatchSize(batchSize);
         queryDefinition.setDeletionEnabled(context.getMigrationContext().isDeletionEnabled());
         queryDefinition.setLpTableEnabled(context.getMigrationContext().isLpTableMigrationEnabled());
-        DataSet batchMarkers = dataRepositoryAdapter.getBatchMarkersOrderedByColumn(context.getMigrationContext(),
-                queryDefinition);
-        List<List<Object>> batchMarkersList = batchMarkers.getAllResults();
-        if (batchMarkersList.isEmpty()) {
-            throw new RuntimeException("Could not retrieve batch values for table " + table);
+    }
+
+    /**
+     * Streams exact batch markers into reader tasks while the markers query is still running, so reading overlaps
+     * with the computation of the markers. Approximate markers and markers of adaptively sized batches are collected
+     * first, as their readers allocate batch ids after the ids of all markers.
+     */
+    protected void createMarkerDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor,
+            PipeTaskContext pipeTaskContext, DataRepositoryAdapter dataRepositoryAdapter, String batchColumn,
+            MarkersQueryDefinition queryDefinition, final CopyContext.DataCopyItem copyItem,
+            final boolean chunkedTable, String partition) throws Exception {
+        final CopyContext context = pipeTaskContext.getContext();
+        final String table = copyItem.getSourceItem();
+        initMarkersQueryDefinition(context, table, copyItem.getBatchSize(), batchColumn, queryDefinition);
+        if (batchMarkerStrategy.isApproximate(context, copyItem, queryDefinition)
+                || pipeTaskContext.getBatchSizer().isEnabled()) {
+            final List<List<Object>> batchMarkers = getBatchMarkers(context, copyItem, dataRepositoryAdapter, table,
+                    copyItem.getBatchSize(), batchColumn, queryDefinition);
+            createDataReaderTasks(workerExecutor, pipeTaskContext, batchColumn, batchMarkers, copyItem, chunkedTable,
+                    partition, true);
+            return;
         }
-        return batchMarkersList;
+        final MarkerRangeScheduler rangeScheduler = new MarkerRangeScheduler(workerExecutor, pipeTaskContext,
+                copyItem, chunkedTable, partition) {
+            @Override
+            protected DataReaderTask createTask(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                final Pair<Object, Object> batchMarkersPair = Pair.of(lowerMarker.get(0),
+                        upperMarker == null ? null : upperMarker.get(0));
+                return partition == null
+                        ? new BatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn, batchMarkersPair, false)
+                        : new PartitionedBatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn,
+                                batchMarkersPair, false, partition);
+            }
+
+            @Override
+            protected DatabaseCopyBatch createBatch(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                return createCopyBatch(batchId, lowerMarker.get(0), upperMarker == null ? null : upperMarker.get(0));
+            }
+        };
+        batchMarkerStrategy.streamBatchMarkers(context, copyItem, dataRepositoryAdapter, queryDefinition,
+                rangeScheduler);
+        rangeScheduler.finish();
+    }
+
+    /**
+     * Streaming cursors read ranges assigned by position, which chunking across cluster nodes does not support.
+     * Deletions and LP tables are read by dedicated queries. A cursor waits while the data pipe is full, so the source
+     * has to keep its result set open meanwhile.
+     */
+    private static boolean isCursorApplicable(CopyContext context, boolean chunkedTable) {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        if (migrationContext.getReaderCursors() <= 0 || chunkedTable || migrationContext.isDeletionEnabled()
+                || migrationContext.isLpTableMigrationEnabled()) {
+            return false;
+        }
+        if (!migrationContext.getDataSourceRepository().isLongLivedResultSetSupported()) {
+            LOG.debug("Source does not keep result sets open while the pipe is full, reading batch by batch");
+            return false;
+        }
+        return true;
     }
 
+    /**
+     * Reads the table with a few streaming cursors over disjoint ranges of the batch column instead of a query per
+     * batch. Each cursor covers about the same number of batch markers, so sampled markers keep the ranges cheap to
+     * determine for large tables.
+     */
+    protected void createCursorDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor,
+            PipeTaskContext pipeTaskContext, DataRepositoryAdapter dataRepositoryAdapter, String batchColumn,
+            final CopyContext.DataCopyItem copyItem) throws Exception {
+        final CopyContext context = pipeTaskContext.getContext();
+        final List<List<Object>> batchMarkers = getBatchMarkers(context, copyItem, dataRepositoryAdapter,
+                copyItem.getSourceItem(), copyItem.getBatchSize(), batchColumn, new MarkersQueryDefinition());
+        final int cursors = Math.min(context.getMigrationContext().getReaderCursors(), batchMarkers.size());
+        LOG.debug("Reading table {} with {} cursor(s)", copyItem.getSourceItem(), cursors);
+        // batch ids of the pages are allocated after the ids of the cursor ranges
+        pipeTaskContext.reserveBatchIds(cursors);
+        final List<DatabaseCopyBatch> copyBatches = new ArrayList<>(cursors);
+        final List<DataReaderTask> dataReaderTasks = new ArrayList<>(cursors);
+        for (int i = 0; i < cursors; i++) {
+            final Object lastValue = batchMarkers.get(i * batchMarkers.size() / cursors).get(0);
+            final Object nextValue = i + 1 < cursors
+                    ? batchMarkers.get((i + 1) * batchMarkers.size() / cursors).get(0)
+                    : null;
+            dataReaderTasks.add(
+                    new CursorDataReaderTask(pipeTaskContext, i, batchColumn, Pair.of(lastValue, nextValue)));
+            copyBatches.add(createCopyBatch(i, lastValue, nextValue));
+        }
+        scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks, null);
+    }
+
+    /**
+     * Creates a reader task per range between two consecutive batch markers. Continued ranges span as many markers as
+     * fit into the adaptive page size of the table at the time their task is created.
+     */
     protected void createDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor, PipeTaskContext pipeTaskContext,
             String batchColumn, List<List<Object>> batchMarkersList, final CopyContext.DataCopyItem copyItem,
-            final boolean chunkedTable, String partition) throws Exception {
-        for (int i = 0; i < batchMarkersList.size(); i++) {
-            boolean processBatch = isCurrentChunkBatch(copyItem, chunkedTable, i);
-            if (processBatch) {
-                List<Object> lastBatchMarkerRow = batchMarkersList.get(i);
-                Optional<List<Object>> nextBatchMarkerRow = Optional.empty();
-                int nextIndex = i + 1;
-                if (nextIndex < batchMarkersList.size()) {
-                    nextBatchMarkerRow = Optional.of(batchMarkersList.get(nextIndex));
-                }
-                if (!Collections.isEmpty(lastBatchMarkerRow)) {
-                    Object lastBatchValue = lastBatchMarkerRow.get(0);
-                    Object nextValue = nextBatchMarkerRow.map(v -> v.get(0)).orElseGet(() -> null);
-                    // check if nextValue is null and allow Pair(value, null) only if it is last
-                    // chunk
-                    Pair<Object, Object> batchMarkersPair = Pair.of(lastBatchValue, nextValue);
-                    DataReaderTask dataReaderTask = partition == null
-                            ? new BatchMarkerDataReaderTask(pipeTaskContext, i, batchColumn, batchMarkersPair, false)
-                            : new PartitionedBatchMarkerDataReaderTask(pipeTaskContext, i, batchColumn,
-                                    batchMarkersPair, false, partition);
-                    // After creating the task, we register the batch in the db for later use if
-                    // necessary
-                    taskRepository.scheduleBatch(pipeTaskContext.getContext(), copyItem, i, batchMarkersPair.getLeft(),
-                            batchMarkersPair.getRight(), partition);
-                    workerExecutor.safelyExecute(dataReaderTask);
-                } else {
-                    throw new IllegalArgumentException("Invalid batch marker passed to task");
+            final boolean chunkedTable, String partition, boolean continueAfterFullPage) throws Exception {
+        if (batchMarkersList.isEmpty()) {
+            return;
+        }
+        // batch ids of continued pages are allocated after the ids of the markers
+        pipeTaskContext.reserveBatchIds(batchMarkersList.size());
+        final MarkerRangeScheduler rangeScheduler = new MarkerRangeScheduler(workerExecutor, pipeTaskContext,
+                copyItem, chunkedTable, partition) {
+            // readers of ranges spanning several markers have to continue after full pages
+            @Override
+            protected int getMarkersPerRange() {
+                return continueAfterFullPage ? pipeTaskContext.getBatchSizer().getMarkersPerRange() : 1;
+            }
+
+            @Override
+            protected DataReaderTask createTask(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                final Pair<Object, Object> batchMarkersPair = Pair.of(lowerMarker.get(0),
+                        upperMarker == null ? null : upperMarker.get(0));
+                return partition == null
+                        ? new BatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn, batchMarkersPair, false,
+                                continueAfterFullPage)
+                        : new PartitionedBatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn,
+                                batchMarkersPair, false, partition, continueAfterFullPage);
+            }
+
+            @Override
+            protected DatabaseCopyBatch createBatch(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                return createCopyBatch(batchId, lowerMarker.get(0), upperMarker == null ? null : upperMarker.get(0));
+            }
+        };
+        for (List<Object> batchMarker : batchMarkersList) {
+            rangeScheduler.accept(batchMarker);
+        }
+        rangeScheduler.finish();
+    }
+
+    /**
+     * Resumes each pending batch of a pipeline from its own boundaries. Pending batches never overlap, as readers
+     * split off the rows after a full page before the page completes its batch. A pending batch may still hold more
+     * rows than a page, so its reader continues after full pages up to the upper boundary of the batch.
+     */
+    protected void createResumedDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor,
+            PipeTaskContext pipeTaskContext, String batchColumn, Set<DatabaseCopyBatch> pendingBatches,
+            final CopyContext.DataCopyItem copyItem, String partition) throws Exception {
+        // batch ids of continued pages are allocated after the ids of the pending batches
+        pipeTaskContext.reserveBatchIds(
+                pendingBatches.stream().mapToInt(b -> Integer.parseInt(b.getBatchId())).max().orElse(-1) + 1);
+        final List<DatabaseCopyBatch> copyBatches = new ArrayList<>(BATCH_SCHEDULING_CHUNK_SIZE);
+        final List<DataReaderTask> dataReaderTasks = new ArrayList<>(BATCH_SCHEDULING_CHUNK_SIZE);
+        for (DatabaseCopyBatch pendingBatch : pendingBatches) {
+            final int batchId = Integer.parseInt(pendingBatch.getBatchId());
+            final Pair<Object, Object> batchMarkersPair = Pair.of(pendingBatch.getLowerBoundary(),
+                    pendingBatch.getUpperBoundary());
+            dataReaderTasks.add(partition == null
+                    ? new BatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn, batchMarkersPair, false,
+                            true)
+                    : new PartitionedBatchMarkerDataReaderTask(pipeTaskContext, batchId, batchColumn,
+                            batchMarkersPair, false, true, partition));
+            copyBatches.add(createCopyBatch(batchId, batchMarkersPair.getLeft(), batchMarkersPair.getRight()));
+            if (copyBatches.size() == BATCH_SCHEDULING_CHUNK_SIZE) {
+                scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks,
+                        partition);
+            }
+        }
+        scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks, partition);
+    }
+
+    /**
+     * Streams the markers of the unique columns and creates a reader task per key range between two markers.
+     * When resuming, the markers are computed again and only the pending batches are read.
+     */
+    private void createKeysetDataReaderTasks(DataWorkerExecutor<Boolean> workerExecutor,
+            PipeTaskContext pipeTaskContext, DataRepositoryAdapter dataRepositoryAdapter, List<String> keyColumns,
+            CopyContext.DataCopyItem copyItem, boolean chunkedTable) throws Exception {
+        final CopyContext context = pipeTaskContext.getContext();
+        final Set<String> pendingBatchIds;
+        if (context.getMigrationContext().isSchedulerResumeEnabled()) {
+            pendingBatchIds = taskRepository.findPendingBatchesForPipeline(context, copyItem).stream()
+                    .map(DatabaseCopyBatch::getBatchId).collect(Collectors.toSet());
+            taskRepository.resetPipelineBatches(context, copyItem);
+        } else {
+            pendingBatchIds = null;
+        }
+        final int keySize = keyColumns.size();
+        final MarkerRangeScheduler rangeScheduler = new MarkerRangeScheduler(workerExecutor, pipeTaskContext,
+                copyItem, chunkedTable, null) {
+            @Override
+            protected boolean isIncluded(int batchId) {
+                return super.isIncluded(batchId)
+                        && (pendingBatchIds == null || pendingBatchIds.contains(String.valueOf(batchId)));
+            }
+
+            // marker rows hold the key values followed by the row number
+            @Override
+            protected DataReaderTask createTask(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                final List<Object> lastKey = new ArrayList<>(lowerMarker.subList(0, keySize));
+                final List<Object> nextKey = upperMarker == null
+                        ? null
+                        : new ArrayList<>(upperMarker.subList(0, keySize));
+                return new BatchKeysetDataReaderTask(pipeTaskContext, batchId, keyColumns, Pair.of(lastKey, nextKey));
+            }
+
+            // the row numbers are recorded as boundaries, the keys may exceed the boundary columns
+            @Override
+            protected DatabaseCopyBatch createBatch(int batchId, List<Object> lowerMarker, List<Object> upperMarker) {
+                return createCopyBatch(batchId, lowerMarker.get(keySize),
+                        upperMarker == null ? null : upperMarker.get(keySize));
+            }
+        };
+        final MarkersQueryDefinition queryDefinition = new MarkersQueryDefinition();
+        initMarkersQueryDefinition(context, copyItem.getSourceItem(), copyItem.getBatchSize(),
+                String.join(", ", keyColumns), queryDefinition);
+        queryDefinition.setKeyset(true);
+        batchMarkerStrategy.streamBatchMarkers(context, copyItem, dataRepositoryAdapter, queryDefinition,
+                rangeScheduler);
+        rangeScheduler.finish();
+    }
+
+    /**
+     * Seeking by the unique columns skips rows with null values in them, so it is only used if none of the columns
+     * is nullable. Deletions and LP tables are read by dedicated queries, which only support offsets.
+     */
+    private static boolean isKeysetApplicable(CopyContext context, String table, Set<String> batchColumns)
+            throws Exception {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        if (migrationContext.isDeletionEnabled() || migrationContext.isLpTableMigrationEnabled()) {
+            return false;
+        }
+        final String query = String.format("select %s from %s where 0 = 1", String.join(", ", batchColumns), table);
+        try (Connection connection = migrationContext.getDataSourceRepository().getConnection();
+                Statement stmt = connection.createStatement();
+                ResultSet metaResult = stmt.executeQuery(query)) {
+            final ResultSetMetaData metaData = metaResult.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (metaData.isNullable(i) != ResultSetMetaData.columnNoNulls) {
+                    LOG.debug("Unique column {} of table {} is nullable, using offset batches",
+                            metaData.getColumnName(i), table);
+                    return false;
                 }
             }
         }
+        return true;
+    }
+
+    private static DatabaseCopyBatch createCopyBatch(int batchId, Object lowerBoundary, Object upperBoundary) {
+        DatabaseCopyBatch copyBatch = new DatabaseCopyBatch();
+        copyBatch.setBatchId(String.valueOf(batchId));
+        copyBatch.setLowerBoundary(lowerBoundary);
+        copyBatch.setUpperBoundary(upperBoundary);
+        return copyBatch;
+    }
+
+    /**
+     * Creates a reader task per range between batch markers as soon as its upper marker is read. Tasks are scheduled
+     * in chunks growing from the number of reader workers up to the scheduling chunk size, so the first readers start
+     * after a few markers while later batches are still registered in bulk. A range spans up to the markers per range,
+     * but never markers of other cluster chunks, and takes the batch id of its first marker.
+     */
+    private abstract class MarkerRangeScheduler implements BatchMarkerHandler {
+        private final DataWorkerExecutor<Boolean> workerExecutor;
+        private final PipeTaskContext pipeTaskContext;
+        private final CopyContext.DataCopyItem copyItem;
+        private final boolean chunkedTable;
+        private final String partition;
+        private final List<DatabaseCopyBatch> copyBatches = new ArrayList<>();
+        private final List<DataReaderTask> dataReaderTasks = new ArrayList<>();
+        private int chunkSize;
+        private List<Object> lowerMarker;
+        private int lowerMarkerIndex;
+        private int markerCount;
+
+        private MarkerRangeScheduler(DataWorkerExecutor<Boolean> workerExecutor, PipeTaskContext pipeTaskContext,
+                CopyContext.DataCopyItem copyItem, boolean chunkedTable, String partition) {
+            this.workerExecutor = workerExecutor;
+            this.pipeTaskContext = pipeTaskContext;
+            this.copyItem = copyItem;
+            this.chunkedTable = chunkedTable;
+            this.partition = partition;
+            this.chunkSize = Math.min(BATCH_SCHEDULING_CHUNK_SIZE,
+                    Math.max(1, pipeTaskContext.getContext().getMigrationContext().getMaxParallelReaderWorkers()));
+        }
+
+        @Override
+        public void accept(List<Object> marker) throws Exception {
+            final int markerIndex = markerCount++;
+            if (lowerMarker != null && !isRangeComplete(markerIndex)) {
+                return;
+            }
+            if (lowerMarker != null) {
+                addRange(lowerMarkerIndex, lowerMarker, marker);
+            }
+            lowerMarker = marker;
+            lowerMarkerIndex = markerIndex;
+        }
+
+        /**
+         * Creates the task of the last, open range and schedules the remaining tasks
+         */
+        void finish() throws Exception {
+            if (lowerMarker == null) {
+                throw new RuntimeException("Could not retrieve batch values for table " + pipeTaskContext.getTable());
+            }
+            addRange(lowerMarkerIndex, lowerMarker, null);
+            scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks, partition);
+        }
+
+        private boolean isRangeComplete(int markerIndex) {
+            return markerIndex - lowerMarkerIndex >= getMarkersPerRange() || !isIncluded(lowerMarkerIndex)
+                    || !isIncluded(markerIndex);
+        }
+
+        protected boolean isIncluded(int batchId) {
+            return isCurrentChunkBatch(copyItem, chunkedTable, batchId);
+        }
+
+        protected int getMarkersPerRange() {
+            return 1;
+        }
+
+        protected abstract DataReaderTask createTask(int batchId, List<Object> lowerMarker, List<Object> upperMarker);
+
+        protected abstract DatabaseCopyBatch createBatch(int batchId, List<Object> lowerMarker,
+                List<Object> upperMarker);
+
+        private void addRange(int batchId, List<Object> lowerMarker, List<Object> upperMarker) throws Exception {
+            if (!isIncluded(batchId)) {
+                return;
+            }
+            if (Collections.isEmpty(lowerMarker)) {
+                throw new IllegalArgumentException("Invalid batch marker passed to task");
+            }
+            dataReaderTasks.add(createTask(batchId, lowerMarker, upperMarker));
+            copyBatches.add(createBatch(batchId, lowerMarker, upperMarker));
+            if (copyBatches.size() >= chunkSize) {
+                scheduleAndExecute(workerExecutor, pipeTaskContext, copyItem, copyBatches, dataReaderTasks,
+                        partition);
+                chunkSize = Math.min(chunkSize * 2, BATCH_SCHEDULING_CHUNK_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Schedules the collected batches in one go and starts their reader tasks, so reading of the first batches
+     * overlaps with scheduling of the remaining ones. Starting a task blocks while the maximum number of reader
+     * tasks is in flight, no more tasks are started once the pipe is aborted.
+     */
+    private void scheduleAndExecute(DataWorkerExecutor<Boolean> workerExecutor, PipeTaskContext pipeTaskContext,
+            CopyContext.DataCopyItem copyItem, List<DatabaseCopyBatch> copyBatches,
+            List<DataReaderTask> dataReaderTasks, String partition) throws Exception {
+        if (pipeTaskContext.getPipe().isAborted()) {
+            throw new PipeAbortedException("Pipe aborted, stop scheduling reader tasks");
+        }
+        taskRepository.scheduleBatches(pipeTaskContext.getContext(), copyItem, copyBatches, partition);
+        for (DataReaderTask dataReaderTask : dataReaderTasks) {
+            if (pipeTaskContext.getPipe().isAborted()) {
+                throw new PipeAbortedException("Pipe aborted, stop scheduling reader tasks");
+            }
+            workerExecutor.safelyExecute(dataReaderTask);
+        }
+        copyBatches.clear();
+        dataReaderTasks.clear();
     }
 
     protected Set<String> getBatchColumns(CopyContext context, String table) throws Exception {
@@ -0,0 +1,158 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
+import com.sap.cx.boosters.commercedbsync.concurrent.PipeAbortedException;
+import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Byte budget over the pages held by the data pipes of a node. The budget is a percentage of the maximum heap and is
+ * resolved on every reservation, so that configuration changes apply to the next migration. Reservations are tracked
+ * per page, releasing a page twice has no effect.
+ */
+public class DefaultDataPipeMemoryBudget implements DataPipeMemoryBudget {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultDataPipeMemoryBudget.class);
+    private static final long ABORT_CHECK_INTERVAL_MILLIS = 1000;
+
+    private final Map<DataSet, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LongAdder waitCount = new LongAdder();
+    private long reserved;
+    private volatile long capacity;
+
+    @Override
+    public boolean isEnabled(CopyContext context) {
+        return context.getMigrationContext().getDataPipeMemoryBudget() > 0;
+    }
+
+    @Override
+    public void reserve(CopyContext context, DataSet page, DataPipe<DataSet> pipe) throws Exception {
+        final int budget = context.getMigrationContext().getDataPipeMemoryBudget();
+        if (budget <= 0) {
+            return;
+        }
+        capacity = Runtime.getRuntime().maxMemory() / 100 * Math.min(budget, 100);
+        final Reservation reservation = new Reservation(pipe, page.estimateSize());
+        final long timeout = TimeUnit.SECONDS.toNanos(context.getMigrationContext().getDataPipeTimeout());
+        final long start = System.nanoTime();
+        long waitNanos = 0;
+        while (!tryReserve(reservation, waitNanos)) {
+            if (waitNanos == 0) {
+                waitCount.increment();
+                LOG.debug("Batch {}: waiting for {} bytes of the data pipe memory budget ({} of {} bytes reserved)",
+                        page.getBatchId(), reservation.size, getReserved(), capacity);
+            }
+            if (pipe.isAborted()) {
+                throw new PipeAbortedException("Pipe aborted while waiting for memory budget");
+            }
+            final long remaining = timeout - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                throw new RuntimeException(String.format(
+                        "cannot reserve memory for new item in time. Consider increasing the value of the property '%s' or '%s'",
+                        CommercedbsyncConstants.MIGRATION_DATA_PIPE_MEMORY_BUDGET,
+                        CommercedbsyncConstants.MIGRATION_DATA_PIPE_TIMEOUT));
+            }
+            waitNanos = Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(ABORT_CHECK_INTERVAL_MILLIS));
+        }
+        reservations.put(page, reservation);
+    }
+
+    /**
+     * Reserves the size if it fits into the budget, waiting up to the given time for a release otherwise
+     */
+    private boolean tryReserve(final Reservation reservation, final long waitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!fits(reservation) && waitNanos > 0) {
+                released.awaitNanos(waitNanos);
+            }
+            if (!fits(reservation)) {
+                return false;
+            }
+            reserved += reservation.size;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(final Reservation reservation) {
+        return reserved == 0 || reserved + reservation.size <= capacity;
+    }
+
+    @Override
+    public void release(DataSet page) {
+        final Reservation reservation = reservations.remove(page);
+        if (reservation != null) {
+            release(reservation);
+        }
+    }
+
+    @Override
+    public void releaseAll(DataPipe<DataSet> pipe) {
+        for (final Map.Entry<DataSet, Reservation> entry : reservations.entrySet()) {
+            if (entry.getValue().pipe == pipe
+                    && reservations.remove(entry.getKey(), entry.getValue())) {
+                release(entry.getValue());
+            }
+        }
+    }
+
+    private void release(final Reservation reservation) {
+        lock.lock();
+        try {
+            reserved -= reservation.size;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getReserved() {
+        lock.lock();
+        try {
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    private static class Reservation {
+        private final DataPipe<DataSet> pipe;
+        private final long size;
+
+        private Reservation(final DataPipe<DataSet> pipe, final long size) {
+            this.pipe = pipe;
+            this.size = size;
+        }
+    }
+}
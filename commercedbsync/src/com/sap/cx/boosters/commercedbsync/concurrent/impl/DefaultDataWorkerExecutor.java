@@ -19,6 +19,7 @@ import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 public class DefaultDataWorkerExecutor<T> implements DataWorkerExecutor<T> {
 
@@ -26,18 +27,63 @@ public class DefaultDataWorkerExecutor<T> implements DataWorkerExecutor<T> {
 
     private final AsyncTaskExecutor executor;
     private final Queue<Future<T>> futures = new ArrayDeque<>();
+    private final Semaphore inFlightPermits;
 
     public DefaultDataWorkerExecutor(AsyncTaskExecutor executor) {
+        this(executor, 0);
+    }
+
+    /**
+     * @param maxInFlight
+     *            maximum number of submitted tasks which are not finished yet, submitting blocks while it is
+     *            reached. 0 for no limit.
+     */
+    public DefaultDataWorkerExecutor(AsyncTaskExecutor executor, int maxInFlight) {
         this.executor = executor;
+        this.inFlightPermits = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
     }
 
     @Override
     public Future<T> safelyExecute(Callable<T> callable) throws InterruptedException {
-        Future<T> future = internalSafelyExecute(callable, 0);
+        final Future<T> future;
+        if (inFlightPermits == null) {
+            future = internalSafelyExecute(callable, 0);
+        } else {
+            inFlightPermits.acquire();
+            try {
+                future = internalSafelyExecute(() -> {
+                    try {
+                        return callable.call();
+                    } finally {
+                        inFlightPermits.release();
+                    }
+                }, 0);
+            } catch (InterruptedException | RuntimeException e) {
+                inFlightPermits.release();
+                throw e;
+            }
+        }
+        // keep failed futures for waitAndRethrowUncaughtExceptions, forget about the others
+        futures.removeIf(DefaultDataWorkerExecutor::isCompletedNormally);
         futures.add(future);
         return future;
     }
 
+    private static boolean isCompletedNormally(Future<?> future) {
+        if (!future.isDone() || future.isCancelled()) {
+            return false;
+        }
+        try {
+            future.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     private Future<T> internalSafelyExecute(Callable<T> callable, int rejections) throws InterruptedException {
         try {
             return executor.submit(callable);
@@ -0,0 +1,105 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
+
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the pages read from a table to a target byte size and read latency. The rows per page follow from the bytes
+ * per row and the read time per row measured over the pages read so far, bounded by a factor of the configured batch
+ * size. The configured batch size is used until the first pages are measured, or if adaptive sizing is disabled.
+ */
+public class AdaptiveBatchSizer {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBatchSizer.class);
+    private static final int SAMPLE_PAGES = 3;
+
+    private final String table;
+    private final long batchSize;
+    private final boolean enabled;
+    private final long targetBytes;
+    private final long targetLatencyNanos;
+    private final long minPageSize;
+    private final long maxPageSize;
+    private long pages;
+    private long rows;
+    private long bytes;
+    private long nanos;
+    private volatile long pageSize;
+
+    public AdaptiveBatchSizer(MigrationContext migrationContext, String table, long batchSize) {
+        this.table = table;
+        this.batchSize = batchSize;
+        this.enabled = migrationContext.isAdaptiveBatchSizeEnabled() && batchSize > 0;
+        this.targetBytes = migrationContext.getAdaptiveBatchTargetBytes();
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(migrationContext.getAdaptiveBatchTargetLatency());
+        final int factor = Math.max(1, migrationContext.getAdaptiveBatchSizeFactor());
+        this.minPageSize = Math.max(1, batchSize / factor);
+        this.maxPageSize = batchSize * factor;
+        this.pageSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return number of rows to read with the next page
+     */
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return number of consecutive batch markers the range of a new batch may span, each marker covering the
+     *         configured batch size
+     */
+    public int getMarkersPerRange() {
+        return (int) Math.max(1, pageSize / batchSize);
+    }
+
+    /**
+     * Records a page read from the table
+     *
+     * @param pageRows
+     *            rows of the page
+     * @param pageBytes
+     *            estimated size of the page in bytes
+     * @param readNanos
+     *            time taken to read the page
+     */
+    public synchronized void record(int pageRows, long pageBytes, long readNanos) {
+        if (!enabled || pageRows == 0) {
+            return;
+        }
+        pages++;
+        rows += pageRows;
+        bytes += pageBytes;
+        nanos += readNanos;
+        if (pages < SAMPLE_PAGES) {
+            return;
+        }
+        final double bytesPerRow = Math.max(1d, (double) bytes / rows);
+        final double nanosPerRow = Math.max(1d, (double) nanos / rows);
+        long rowsInEnvelope = Long.MAX_VALUE;
+        if (targetBytes > 0) {
+            rowsInEnvelope = Math.min(rowsInEnvelope, (long) (targetBytes / bytesPerRow));
+        }
+        if (targetLatencyNanos > 0) {
+            rowsInEnvelope = Math.min(rowsInEnvelope, (long) (targetLatencyNanos / nanosPerRow));
+        }
+        final long newPageSize = Math.max(minPageSize, Math.min(maxPageSize, rowsInEnvelope));
+        if (newPageSize != pageSize) {
+            LOG.debug("Page size of table {} adjusted from {} to {} rows ({} bytes/row, {} us/row)", table, pageSize,
+                    newPageSize, Math.round(bytesPerRow), Math.round(nanosPerRow / 1000));
+            pageSize = newPageSize;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
+
+import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.List;
+
+/**
+ * Reads the rows between two markers of a unique key spanning one or more columns. The markers are lists of key
+ * values, the upper marker is null for the last batch.
+ */
+public class BatchKeysetDataReaderTask extends BatchMarkerDataReaderTask {
+
+    private final List<String> keyColumns;
+
+    public BatchKeysetDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, List<String> keyColumns,
+            Pair<Object, Object> batchMarkersPair) {
+        super(pipeTaskContext, batchId, String.join(", ", keyColumns), batchMarkersPair, false);
+        this.keyColumns = keyColumns;
+    }
+
+    @Override
+    protected SeekQueryDefinition createSeekQueryDefinition(final Object lastValue, final Object nextValue,
+            final String table, final long pageSize, final CopyContext ctx) {
+        final SeekQueryDefinition seekQueryDefinition = super.createSeekQueryDefinition(lastValue, nextValue, table,
+                pageSize, ctx);
+        seekQueryDefinition.setKeyColumns(keyColumns);
+        return seekQueryDefinition;
+    }
+}
@@ -7,8 +7,6 @@
 package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
 import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
-import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
-import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
@@ -23,39 +21,97 @@ public class BatchMarkerDataReaderTask extends DataReaderTask {
     private final Pair<Object, Object> batchMarkersPair;
     private final int batchId;
     private final boolean upperBoundInclusive;
+    private final boolean continueAfterFullPage;
+    // start of the rows not put yet and their batch, a retry continues there
+    private Object lastValue;
+    private int pageBatchId;
 
     public BatchMarkerDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, String batchColumn,
             Pair<Object, Object> batchMarkersPair, boolean upperBoundInclusive) {
+        this(pipeTaskContext, batchId, batchColumn, batchMarkersPair, upperBoundInclusive, false);
+    }
+
+    /**
+     * @param continueAfterFullPage
+     *            true if the batch may hold more rows than the page size, e.g. for approximate markers. The rows
+     *            after a full page are then split off into a batch of their own and read by this task as well, so
+     *            the pages follow the adaptive page size of the table.
+     */
+    public BatchMarkerDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, String batchColumn,
+            Pair<Object, Object> batchMarkersPair, boolean upperBoundInclusive, boolean continueAfterFullPage) {
         super(pipeTaskContext);
         this.batchId = batchId;
         this.batchColumn = batchColumn;
         this.batchMarkersPair = batchMarkersPair;
         this.upperBoundInclusive = upperBoundInclusive;
+        this.continueAfterFullPage = continueAfterFullPage;
+        this.lastValue = batchMarkersPair.getLeft();
+        this.pageBatchId = batchId;
     }
 
     @Override
     protected Boolean internalRun() throws Exception {
         waitForFreeMemory();
-        process(batchMarkersPair.getLeft(), batchMarkersPair.getRight());
+        process();
         return Boolean.TRUE;
     }
 
-    private void process(Object lastValue, Object nextValue) throws Exception {
-        CopyContext ctx = getPipeTaskContext().getContext();
-        DataRepositoryAdapter adapter = getPipeTaskContext().getDataRepositoryAdapter();
-        String table = getPipeTaskContext().getTable();
-        long pageSize = getPipeTaskContext().getPageSize();
-        SeekQueryDefinition queryDefinition = createSeekQueryDefinition(lastValue, nextValue, table, pageSize, ctx);
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Executing markers query for {} with lastvalue: {}, nextvalue: {}, batchsize: {}", table,
-                    lastValue, nextValue, pageSize);
+    private void process() throws Exception {
+        final CopyContext ctx = getPipeTaskContext().getContext();
+        final Object nextValue = batchMarkersPair.getRight();
+        long pageSize = getNextPageSize();
+        DataSet page = readPage(ctx, pageBatchId, lastValue, false, nextValue, pageSize);
+        while (true) {
+            if (!continueAfterFullPage || page.getRowCount() < pageSize) {
+                putPage(page);
+                return;
+            }
+            final Object pageLastValue = page.getValue(page.getRowCount() - 1, page.getColumnIndex(batchColumn));
+            final int nextBatchId = getPipeTaskContext().nextBatchId();
+            final long nextPageSize = getNextPageSize();
+            final DataSet nextPage = readPage(ctx, nextBatchId, pageLastValue, true, nextValue, nextPageSize);
+            if (!nextPage.isNotEmpty()) {
+                putPage(page);
+                return;
+            }
+            // the remaining rows are split off the batch before this page can complete it, so a resumed migration
+            // reads them exactly once, starting at the first value of the next page
+            final Object nextPageValue = nextPage.getValue(0, nextPage.getColumnIndex(batchColumn));
+            getPipeTaskContext().getTaskRepository().splitBatch(ctx, getPipeTaskContext().getCopyItem(), pageBatchId,
+                    nextBatchId, nextPageValue, nextValue, getPartition());
+            putPage(page);
+            lastValue = nextPageValue;
+            pageBatchId = nextBatchId;
+            pageSize = nextPageSize;
+            page = nextPage;
         }
-        DataSet page = adapter.getBatchOrderedByColumn(ctx.getMigrationContext(), queryDefinition);
+    }
 
-        profileData(ctx, batchId, table, pageSize, page);
+    // continued ranges may be cut into pages of any size
+    private long getNextPageSize() {
+        return continueAfterFullPage
+                ? getPipeTaskContext().getBatchSizer().getPageSize()
+                : getPipeTaskContext().getPageSize();
+    }
 
-        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, pageSize);
-        getPipeTaskContext().getPipe().put(MaybeFinished.of(page));
+    private DataSet readPage(final CopyContext ctx, final int readBatchId, final Object fromValue,
+            final boolean fromValueExclusive, final Object nextValue, final long pageSize) throws Exception {
+        final String table = getPipeTaskContext().getTable();
+        final SeekQueryDefinition queryDefinition = createSeekQueryDefinition(fromValue, nextValue, table, pageSize,
+                ctx);
+        queryDefinition.setBatchId(readBatchId);
+        queryDefinition.setLastColumnValueExclusive(fromValueExclusive);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Executing markers query for {} with lastvalue: {}, nextvalue: {}, batchsize: {}", table,
+                    fromValue, nextValue, pageSize);
+        }
+        final long start = System.nanoTime();
+        final DataSet page = getPipeTaskContext().getDataRepositoryAdapter()
+                .getBatchOrderedByColumn(ctx.getMigrationContext(), queryDefinition);
+        recordPage(page, System.nanoTime() - start);
+        profileData(ctx, readBatchId, table, pageSize, page);
+        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, page.getRowCount());
+        return page;
     }
 
     protected SeekQueryDefinition createSeekQueryDefinition(final Object lastValue, final Object nextValue,
@@ -67,8 +123,16 @@ public class BatchMarkerDataReaderTask extends DataReaderTask {
         queryDefinition.setLastColumnValue(lastValue);
         queryDefinition.setNextColumnValue(nextValue);
         queryDefinition.setBatchSize(pageSize);
+        queryDefinition.setColumns(getPipeTaskContext().getColumns());
         queryDefinition.setDeletionEnabled(ctx.getMigrationContext().isDeletionEnabled());
         queryDefinition.setLpTableEnabled(ctx.getMigrationContext().isLpTableMigrationEnabled());
         return queryDefinition;
     }
+
+    /**
+     * @return the partition read, null if the table is not partitioned
+     */
+    protected String getPartition() {
+        return null;
+    }
 }
@@ -8,7 +8,6 @@ package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
 import com.sap.cx.boosters.commercedbsync.OffsetQueryDefinition;
 import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
-import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
@@ -51,12 +50,13 @@ public class BatchOffsetDataReaderTask extends DataReaderTask {
         queryDefinition.setOrderByColumns(batchColumns.stream().collect(Collectors.joining(",")));
         queryDefinition.setBatchSize(pageSize);
         queryDefinition.setOffset(offset);
+        queryDefinition.setColumns(getPipeTaskContext().getColumns());
         queryDefinition.setDeletionEnabled(context.getMigrationContext().isDeletionEnabled());
         queryDefinition.setLpTableEnabled(context.getMigrationContext().isLpTableMigrationEnabled());
         DataSet result = adapter.getBatchWithoutIdentifier(context.getMigrationContext(), queryDefinition);
         profileData(context, batchId, table, pageSize, result);
-        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, result.getAllResults().size());
-        getPipeTaskContext().getPipe().put(MaybeFinished.of(result));
+        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, result.getRowCount());
+        putPage(result);
     }
 
 }
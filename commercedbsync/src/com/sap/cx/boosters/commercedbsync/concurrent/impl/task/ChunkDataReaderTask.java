@@ -8,7 +8,6 @@ package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
 import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
 import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
-import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
@@ -50,6 +49,7 @@ public class ChunkDataReaderTask extends DataReaderTask {
         queryDefinition.setLastColumnValue(lastValue);
         queryDefinition.setNextColumnValue(nextValue);
         queryDefinition.setBatchSize(pageSize);
+        queryDefinition.setColumns(getPipeTaskContext().getColumns());
         queryDefinition.setDeletionEnabled(ctx.getMigrationContext().isDeletionEnabled());
         queryDefinition.setLpTableEnabled(ctx.getMigrationContext().isLpTableMigrationEnabled());
         if (LOG.isDebugEnabled()) {
@@ -61,6 +61,6 @@ public class ChunkDataReaderTask extends DataReaderTask {
         profileData(ctx, batchId, table, pageSize, page);
 
         getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, pageSize);
-        getPipeTaskContext().getPipe().put(MaybeFinished.of(page));
+        putPage(page);
     }
 }
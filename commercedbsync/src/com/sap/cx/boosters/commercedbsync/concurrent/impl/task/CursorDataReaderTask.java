@@ -0,0 +1,106 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
+
+import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
+import com.sap.cx.boosters.commercedbsync.repository.DataSetCursor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads a range of the batch column with a single streaming cursor and puts its pages into the pipe as the rows
+ * arrive. Every page is a batch of its own, sized by the adaptive page size of the table: the rows from the first value
+ * of the next page are split off into a batch of their own before the current page is put, so a resumed migration
+ * reads every row not written exactly once.
+ */
+public class CursorDataReaderTask extends DataReaderTask {
+    private static final Logger LOG = LoggerFactory.getLogger(CursorDataReaderTask.class);
+
+    private final String batchColumn;
+    private final Object nextValue;
+    // start of the rows not put yet, a retry continues there
+    private Object lastValue;
+    private int batchId;
+
+    public CursorDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, String batchColumn,
+            Pair<Object, Object> batchMarkersPair) {
+        super(pipeTaskContext);
+        this.batchId = batchId;
+        this.batchColumn = batchColumn;
+        this.lastValue = batchMarkersPair.getLeft();
+        this.nextValue = batchMarkersPair.getRight();
+    }
+
+    @Override
+    protected Boolean internalRun() throws Exception {
+        waitForFreeMemory();
+        process();
+        return Boolean.TRUE;
+    }
+
+    private void process() throws Exception {
+        final CopyContext ctx = getPipeTaskContext().getContext();
+        final String table = getPipeTaskContext().getTable();
+        final AdaptiveBatchSizer batchSizer = getPipeTaskContext().getBatchSizer();
+        LOG.debug("Opening cursor for {} with lastvalue: {}, nextvalue: {}, batchsize: {}", table, lastValue,
+                nextValue, getPipeTaskContext().getPageSize());
+        try (DataSetCursor cursor = getPipeTaskContext().getDataRepositoryAdapter()
+                .openBatchCursorOrderedByColumn(ctx.getMigrationContext(), createSeekQueryDefinition(ctx))) {
+            long pageSize = batchSizer.getPageSize();
+            DataSet page = readPage(cursor, batchId, pageSize);
+            while (true) {
+                profileData(ctx, batchId, table, pageSize, page);
+                getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, page.getRowCount());
+                if (page.getRowCount() < pageSize) {
+                    putPage(page);
+                    return;
+                }
+                final int nextBatchId = getPipeTaskContext().nextBatchId();
+                final long nextPageSize = batchSizer.getPageSize();
+                final DataSet nextPage = readPage(cursor, nextBatchId, nextPageSize);
+                if (!nextPage.isNotEmpty()) {
+                    putPage(page);
+                    return;
+                }
+                final Object nextPageValue = nextPage.getValue(0, nextPage.getColumnIndex(batchColumn));
+                getPipeTaskContext().getTaskRepository().splitBatch(ctx, getPipeTaskContext().getCopyItem(),
+                        batchId, nextBatchId, nextPageValue, nextValue, null);
+                putPage(page);
+                lastValue = nextPageValue;
+                batchId = nextBatchId;
+                pageSize = nextPageSize;
+                page = nextPage;
+            }
+        }
+    }
+
+    private DataSet readPage(final DataSetCursor cursor, final int pageBatchId, final long pageSize)
+            throws Exception {
+        final long start = System.nanoTime();
+        final DataSet page = cursor.next(pageBatchId, pageSize);
+        recordPage(page, System.nanoTime() - start);
+        return page;
+    }
+
+    private SeekQueryDefinition createSeekQueryDefinition(final CopyContext ctx) {
+        SeekQueryDefinition queryDefinition = new SeekQueryDefinition();
+        queryDefinition.setBatchId(batchId);
+        queryDefinition.setTable(getPipeTaskContext().getTable());
+        queryDefinition.setColumn(batchColumn);
+        queryDefinition.setLastColumnValue(lastValue);
+        queryDefinition.setNextColumnValue(nextValue);
+        queryDefinition.setBatchSize(getPipeTaskContext().getPageSize());
+        queryDefinition.setColumns(getPipeTaskContext().getColumns());
+        queryDefinition.setDeletionEnabled(ctx.getMigrationContext().isDeletionEnabled());
+        queryDefinition.setLpTableEnabled(ctx.getMigrationContext().isLpTableMigrationEnabled());
+        return queryDefinition;
+    }
+}
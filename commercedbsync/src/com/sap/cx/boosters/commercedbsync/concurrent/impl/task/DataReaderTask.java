@@ -6,10 +6,14 @@
 
 package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
+import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.concurrent.PipeAbortedException;
 import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
 import de.hybris.platform.core.MasterTenant;
 import org.openjdk.jol.info.GraphLayout;
 import org.slf4j.Logger;
@@ -32,6 +36,10 @@ public abstract class DataReaderTask extends RetriableTask {
 
     protected void waitForFreeMemory() throws Exception {
         CopyContext context = getPipeTaskContext().getContext();
+        if (getPipeTaskContext().getMemoryBudget().isEnabled(context)) {
+            // pages are admitted to the pipe by the memory budget instead
+            return;
+        }
         final long minMem = context.getMigrationContext().getMemoryMin();
         long freeMem = Runtime.getRuntime().freeMemory();
 
@@ -48,10 +56,36 @@ public abstract class DataReaderTask extends RetriableTask {
         }
     }
 
+    /**
+     * Puts the page into the pipe once its estimated size fits into the memory budget of the node. The reservation
+     * is released by the writer of the page.
+     */
+    protected void putPage(final DataSet page) throws Exception {
+        final DataPipe<DataSet> pipe = getPipeTaskContext().getPipe();
+        final DataPipeMemoryBudget memoryBudget = getPipeTaskContext().getMemoryBudget();
+        memoryBudget.reserve(getPipeTaskContext().getContext(), page, pipe);
+        try {
+            pipe.put(MaybeFinished.of(page));
+        } catch (Exception e) {
+            memoryBudget.release(page);
+            throw e;
+        }
+    }
+
+    /**
+     * Records the rows and the estimated size of a page read in the given time, for the performance of the table and
+     * the sizes of its later pages
+     */
+    protected void recordPage(final DataSet page, final long readNanos) {
+        final long pageBytes = page.estimateSize();
+        getPipeTaskContext().getRecorder().record(PerformanceUnit.MB, pageBytes / (1024d * 1024d));
+        getPipeTaskContext().getBatchSizer().record(page.getRowCount(), pageBytes, readNanos);
+    }
+
     protected void profileData(final CopyContext context, final int batchId, final String table, final long pageSize,
             final DataSet result) {
         if (context.getMigrationContext().isProfiling() && result != null) {
-            final long objSize = GraphLayout.parseInstance(result.getAllResults()).totalSize();
+            final long objSize = GraphLayout.parseInstance(result).totalSize();
             final long freeMem = Runtime.getRuntime().freeMemory();
             final int clusterID = MasterTenant.getInstance().getClusterID();
             LOG.trace(
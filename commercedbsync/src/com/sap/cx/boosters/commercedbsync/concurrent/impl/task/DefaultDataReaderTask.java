@@ -6,7 +6,6 @@
 
 package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
-import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
@@ -30,7 +29,7 @@ public class DefaultDataReaderTask extends DataReaderTask {
                 getPipeTaskContext().getTable());
         profileData(getPipeTaskContext().getContext(), -1, getPipeTaskContext().getTable(),
                 getPipeTaskContext().getPageSize(), all);
-        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, all.getAllResults().size());
-        getPipeTaskContext().getPipe().put(MaybeFinished.of(all));
+        getPipeTaskContext().getRecorder().record(PerformanceUnit.ROWS, all.getRowCount());
+        putPage(all);
     }
 }
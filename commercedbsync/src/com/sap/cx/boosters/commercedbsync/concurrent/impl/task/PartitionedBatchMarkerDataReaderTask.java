@@ -15,7 +15,13 @@ public class PartitionedBatchMarkerDataReaderTask extends BatchMarkerDataReaderT
 
     public PartitionedBatchMarkerDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, String batchColumn,
             Pair<Object, Object> batchMarkersPair, boolean upperBoundInclusive, String partition) {
-        super(pipeTaskContext, batchId, batchColumn, batchMarkersPair, upperBoundInclusive);
+        this(pipeTaskContext, batchId, batchColumn, batchMarkersPair, upperBoundInclusive, false, partition);
+    }
+
+    public PartitionedBatchMarkerDataReaderTask(PipeTaskContext pipeTaskContext, int batchId, String batchColumn,
+            Pair<Object, Object> batchMarkersPair, boolean upperBoundInclusive, boolean continueAfterFullPage,
+            String partition) {
+        super(pipeTaskContext, batchId, batchColumn, batchMarkersPair, upperBoundInclusive, continueAfterFullPage);
         this.partition = partition;
     }
 
@@ -27,6 +33,7 @@ public class PartitionedBatchMarkerDataReaderTask extends BatchMarkerDataReaderT
         return seekQueryDefinition;
     }
 
+    @Override
     public String getPartition() {
         return partition;
     }
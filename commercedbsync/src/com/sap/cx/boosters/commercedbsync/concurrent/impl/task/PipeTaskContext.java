@@ -8,11 +8,15 @@ package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
 
 import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class PipeTaskContext {
     private final CopyContext context;
     private final DataPipe<DataSet> pipe;
@@ -21,10 +25,16 @@ public class PipeTaskContext {
     private final long pageSize;
     private final PerformanceRecorder recorder;
     private final DatabaseCopyTaskRepository taskRepository;
+    private final List<String> columns;
+    private final DataPipeMemoryBudget memoryBudget;
+    private final CopyContext.DataCopyItem copyItem;
+    private final AdaptiveBatchSizer batchSizer;
+    private final AtomicInteger batchIdSequence = new AtomicInteger();
 
     public PipeTaskContext(CopyContext context, DataPipe<DataSet> pipe, String table,
             DataRepositoryAdapter dataRepositoryAdapter, long pageSize, PerformanceRecorder recorder,
-            DatabaseCopyTaskRepository taskRepository) {
+            DatabaseCopyTaskRepository taskRepository, List<String> columns, DataPipeMemoryBudget memoryBudget,
+            CopyContext.DataCopyItem copyItem) {
         this.context = context;
         this.pipe = pipe;
         this.table = table;
@@ -32,6 +42,10 @@ public class PipeTaskContext {
         this.pageSize = pageSize;
         this.recorder = recorder;
         this.taskRepository = taskRepository;
+        this.columns = columns;
+        this.memoryBudget = memoryBudget;
+        this.copyItem = copyItem;
+        this.batchSizer = new AdaptiveBatchSizer(context.getMigrationContext(), table, pageSize);
     }
 
     public CopyContext getContext() {
@@ -50,10 +64,20 @@ public class PipeTaskContext {
         return dataRepositoryAdapter;
     }
 
+    /**
+     * @return the configured batch size of the table
+     */
     public long getPageSize() {
         return pageSize;
     }
 
+    /**
+     * @return the page sizes for readers that are free to cut their range into pages of any size
+     */
+    public AdaptiveBatchSizer getBatchSizer() {
+        return batchSizer;
+    }
+
     public PerformanceRecorder getRecorder() {
         return recorder;
     }
@@ -61,4 +85,33 @@ public class PipeTaskContext {
     public DatabaseCopyTaskRepository getTaskRepository() {
         return taskRepository;
     }
+
+    /**
+     * @return the columns to read from the source table, null to read all columns
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public DataPipeMemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public CopyContext.DataCopyItem getCopyItem() {
+        return copyItem;
+    }
+
+    /**
+     * Marks the batch ids below the given count as taken by scheduled batches
+     */
+    public void reserveBatchIds(int count) {
+        batchIdSequence.accumulateAndGet(count, Math::max);
+    }
+
+    /**
+     * @return an id not taken by any batch of the pipeline, for batches scheduled by the readers themselves
+     */
+    public int nextBatchId() {
+        return batchIdSequence.getAndIncrement();
+    }
 }
@@ -27,12 +27,26 @@ public final class CommercedbsyncConstants extends GeneratedCommercedbsyncConsta
     public static final String MIGRATION_DATA_FULLDATABASE = "migration.data.fulldatabase.enabled";
     public static final String MIGRATION_DATA_READER_BATCHSIZE = "migration.data.reader.batchsize";
     public static final String MIGRATION_DATA_READER_BATCHSIZE_FOR_TABLE = "migration.data.reader.batchsize.{table}";
+    public static final String MIGRATION_DATA_READER_LOB_SPILL_THRESHOLD = "migration.data.reader.lob.spill.threshold";
+    public static final String MIGRATION_DATA_READER_BATCHMARKERS_SAMPLING_THRESHOLD = "migration.data.reader.batchmarkers.sampling.threshold";
+    public static final String MIGRATION_DATA_READER_CURSORS = "migration.data.reader.cursors";
+    public static final String MIGRATION_DATA_READER_ADAPTIVE_ENABLED = "migration.data.reader.adaptive.enabled";
+    public static final String MIGRATION_DATA_READER_ADAPTIVE_TARGET_BYTES = "migration.data.reader.adaptive.target.bytes";
+    public static final String MIGRATION_DATA_READER_ADAPTIVE_TARGET_LATENCY = "migration.data.reader.adaptive.target.latency";
+    public static final String MIGRATION_DATA_READER_ADAPTIVE_FACTOR = "migration.data.reader.adaptive.factor";
     public static final String MIGRATION_CLUSTER_CHUNK_SIZE = "migration.cluster.chunk.size";
     public static final String MIGRATION_CLUSTER_CHUNK_SIZE_FOR_TABLE = "migration.cluster.chunk.size.{table}";
     public static final String MIGRATION_DATA_TRUNCATE_ENABLED = "migration.data.truncate.enabled";
     public static final String MIGRATION_DATA_TRUNCATE_EXCLUDED = "migration.data.truncate.excluded";
     public static final String MIGRATION_DATA_WORKERS_READER_MAXTASKS = "migration.data.workers.reader.maxtasks";
     public static final String MIGRATION_DATA_WORKERS_WRITER_MAXTASKS = "migration.data.workers.writer.maxtasks";
+    public static final String MIGRATION_DATA_WRITER_METHOD = "migration.data.writer.method";
+    public static final String MIGRATION_DATA_WRITER_METHOD_FOR_TABLE = "migration.data.writer.method.{table}";
+    public static final String MIGRATION_DATA_WRITER_BULKCOPY_TABLOCK = "migration.data.writer.bulkcopy.tablock";
+    public static final String MIGRATION_DATA_WRITER_BULKCOPY_BATCHSIZE = "migration.data.writer.bulkcopy.batchsize";
+    public static final String MIGRATION_DATA_WRITER_DIRECTPATH_NOLOGGING = "migration.data.writer.directpath.nologging";
+    public static final String MIGRATION_DATA_WRITER_DIRECTPATH_MINBATCHSIZE = "migration.data.writer.directpath.minbatchsize";
+    public static final String MIGRATION_DATA_WRITER_UPSERT_STAGING_ENABLED = "migration.data.writer.upsert.staging.enabled";
     public static final String MIGRATION_DATA_WORKERS_RETRYATTEMPTS = "migration.data.workers.retryattempts";
     public static final String MIGRATION_DATA_MAXPRALLELTABLECOPY = "migration.data.maxparalleltablecopy";
     public static final String MIGRATION_DATA_FAILONEERROR_ENABLED = "migration.data.failonerror.enabled";
@@ -55,11 +69,14 @@ public final class CommercedbsyncConstants extends GeneratedCommercedbsyncConsta
     public static final String MIGRATION_DATA_INCREMENTAL_TIMESTAMP = "migration.data.incremental.timestamp";
     public static final String MIGRATION_DATA_PIPE_TIMEOUT = "migration.data.pipe.timeout";
     public static final String MIGRATION_DATA_PIPE_CAPACITY = "migration.data.pipe.capacity";
+    public static final String MIGRATION_DATA_PIPE_MEMORY_BUDGET = "migration.data.pipe.memory.budget";
     public static final String MIGRATION_STALLED_TIMEOUT = "migration.stalled.timeout";
     public static final String MIGRATION_FILE_STORAGE_CONNECTIONSTRING = "migration.data.report.connectionstring";
     public static final String MIGRATION_DATATYPE_CHECK = "migration.datatype.check";
     public static final String MIGRATION_TABLESPREFIX = "MIGRATIONTOOLKIT_";
     public static final String MIGRATION_SCHEDULER_RESUME_ENABLED = "migration.scheduler.resume.enabled";
+    public static final String MIGRATION_SCHEDULER_PROGRESS_FLUSH_INTERVAL = "migration.scheduler.progress.flush.interval";
+    public static final String MIGRATION_SCHEDULER_ABORT_CHECK_INTERVAL = "migration.scheduler.abort.check.interval";
     public static final String MIGRATION_LOG_SQL = "migration.log.sql";
     public static final String MIGRATION_LOG_SQL_PARAMS_SOURCE = "migration.log.sql.source.showparameters";
     public static final String MIGRATION_SQL_STORE_FLUSH_THRESHOLD = "migration.log.sql.memory.flush.threshold.nbentries";
@@ -6,6 +6,7 @@
 
 package com.sap.cx.boosters.commercedbsync.context;
 
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
 import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
 import org.slf4j.Logger;
 
@@ -51,6 +52,55 @@ public interface MigrationContext {
      */
     Integer getReaderBatchSize(final String tableName);
 
+    /**
+     * Size above which BLOB, CLOB and NCLOB values read from the source are spilled to temporary files instead of
+     * being held in memory until they are written
+     *
+     * @return threshold in bytes (characters for character LOBs), 0 to keep all LOB values in memory
+     */
+    long getLobSpillThreshold();
+
+    /**
+     * Number of rows from which the batch markers of a table are derived from a sample of the batch column instead
+     * of numbering all rows
+     *
+     * @return threshold in rows, 0 to always number all rows
+     */
+    long getBatchMarkersSamplingThreshold();
+
+    /**
+     * Number of streaming cursors reading a table copied by the values of its batch column. Each cursor reads a range
+     * of the table with a single query and cuts it into pages.
+     *
+     * @return number of cursors per table, 0 to read each batch with a query of its own
+     */
+    int getReaderCursors();
+
+    /**
+     * Flag to size the pages read from tables copied by the values of their batch column to the target byte size and
+     * latency, based on the pages read so far
+     *
+     * @return true if page sizes adapt to the rows of each table
+     */
+    boolean isAdaptiveBatchSizeEnabled();
+
+    /**
+     * @return target size of a page in bytes, 0 for no byte target
+     */
+    long getAdaptiveBatchTargetBytes();
+
+    /**
+     * @return target time to read a page in milliseconds, 0 for no latency target
+     */
+    int getAdaptiveBatchTargetLatency();
+
+    /**
+     * Bounds adaptive page sizes to the batch size of the table divided and multiplied by the factor
+     *
+     * @return factor
+     */
+    int getAdaptiveBatchSizeFactor();
+
     long getClusterChunkSize();
 
     /**
@@ -71,6 +121,41 @@ public interface MigrationContext {
 
     int getMaxParallelWriterWorkers();
 
+    /**
+     * Retrieves the method used to write data into an individual table.
+     *
+     * @param tableName
+     * @return write method configured for the given tableName or the global one if not defined
+     */
+    DataWriteMethod getDataWriteMethod(final String tableName);
+
+    /**
+     * @return true if the SQL Server bulk copy writer holds a table lock for the duration of a bulk copy
+     */
+    boolean isBulkCopyTableLockEnabled();
+
+    /**
+     * @return number of rows per batch sent to the server by the SQL Server bulk copy writer, 0 for all rows of a
+     *         page in a single batch
+     */
+    int getBulkCopyBatchSize();
+
+    /**
+     * @return true if redo logging of a target table is switched off while it is loaded with direct-path inserts
+     */
+    boolean isDirectPathNoLoggingEnabled();
+
+    /**
+     * @return minimum batch size of a table for direct-path inserts, as every direct-path insert allocates new blocks
+     */
+    int getDirectPathMinBatchSize();
+
+    /**
+     * @return true if incremental upserts load each batch into a staging table and merge it into the target table
+     *         with a single statement
+     */
+    boolean isStagedUpsertEnabled();
+
     int getMaxParallelTableCopy();
 
     int getMaxWorkerRetryAttempts();
@@ -115,6 +200,14 @@ public interface MigrationContext {
 
     int getDataPipeCapacity();
 
+    /**
+     * Share of the maximum heap that the pages held by all data pipes of a node may occupy. Readers wait before
+     * putting a page into a pipe until its estimated size fits into the budget.
+     *
+     * @return percentage of the maximum heap, 0 to wait for free memory instead
+     */
+    int getDataPipeMemoryBudget();
+
     boolean isReversed();
 
     int getStalledTimeout();
@@ -133,6 +226,22 @@ public interface MigrationContext {
 
     boolean isSchedulerResumeEnabled();
 
+    /**
+     * Interval in which pending task progress and batch completions of a pipeline are written to the scheduler
+     * tables. Batch completions are written immediately if the scheduler resume is enabled.
+     *
+     * @return interval in milliseconds, 0 to write every update immediately
+     */
+    int getSchedulerProgressFlushInterval();
+
+    /**
+     * Interval in which the abort status of the migration is read from the database. Aborts on any node are
+     * propagated immediately through a cluster event.
+     *
+     * @return interval in milliseconds, 0 to read the status on every check
+     */
+    int getAbortCheckInterval();
+
     boolean isMssqlUpdateStatisticsEnabled();
 
     boolean isFullDatabaseMigration();
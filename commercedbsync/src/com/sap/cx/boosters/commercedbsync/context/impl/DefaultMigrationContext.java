@@ -7,6 +7,7 @@
 package com.sap.cx.boosters.commercedbsync.context.impl;
 
 import com.google.common.base.Splitter;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
 import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
 import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
@@ -129,6 +130,41 @@ public class DefaultMigrationContext implements MigrationContext {
         return configuration.getInteger(tblConfKey, getReaderBatchSize());
     }
 
+    @Override
+    public long getLobSpillThreshold() {
+        return getLongProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_LOB_SPILL_THRESHOLD);
+    }
+
+    @Override
+    public long getBatchMarkersSamplingThreshold() {
+        return getLongProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_BATCHMARKERS_SAMPLING_THRESHOLD);
+    }
+
+    @Override
+    public int getReaderCursors() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_CURSORS);
+    }
+
+    @Override
+    public boolean isAdaptiveBatchSizeEnabled() {
+        return getBooleanProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_ADAPTIVE_ENABLED);
+    }
+
+    @Override
+    public long getAdaptiveBatchTargetBytes() {
+        return getLongProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_ADAPTIVE_TARGET_BYTES);
+    }
+
+    @Override
+    public int getAdaptiveBatchTargetLatency() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_ADAPTIVE_TARGET_LATENCY);
+    }
+
+    @Override
+    public int getAdaptiveBatchSizeFactor() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_READER_ADAPTIVE_FACTOR);
+    }
+
     @Override
     public long getClusterChunkSize() {
         return getLongProperty(CommercedbsyncConstants.MIGRATION_CLUSTER_CHUNK_SIZE);
@@ -166,6 +202,42 @@ public class DefaultMigrationContext implements MigrationContext {
         return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_WORKERS_WRITER_MAXTASKS);
     }
 
+    @Override
+    public DataWriteMethod getDataWriteMethod(final String tableName) {
+        String tblConfKey = CommercedbsyncConstants.MIGRATION_DATA_WRITER_METHOD_FOR_TABLE.replace("{table}",
+                tableName);
+        String writeMethod = configuration.getString(tblConfKey,
+                getStringProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_METHOD));
+        return StringUtils.isBlank(writeMethod)
+                ? DataWriteMethod.BATCH
+                : DataWriteMethod.valueOf(writeMethod.trim().toUpperCase());
+    }
+
+    @Override
+    public boolean isBulkCopyTableLockEnabled() {
+        return getBooleanProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_BULKCOPY_TABLOCK);
+    }
+
+    @Override
+    public int getBulkCopyBatchSize() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_BULKCOPY_BATCHSIZE);
+    }
+
+    @Override
+    public boolean isDirectPathNoLoggingEnabled() {
+        return getBooleanProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_DIRECTPATH_NOLOGGING);
+    }
+
+    @Override
+    public int getDirectPathMinBatchSize() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_DIRECTPATH_MINBATCHSIZE);
+    }
+
+    @Override
+    public boolean isStagedUpsertEnabled() {
+        return getBooleanProperty(CommercedbsyncConstants.MIGRATION_DATA_WRITER_UPSERT_STAGING_ENABLED);
+    }
+
     @Override
     public int getMaxWorkerRetryAttempts() {
         return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_WORKERS_RETRYATTEMPTS);
@@ -284,6 +356,11 @@ public class DefaultMigrationContext implements MigrationContext {
         return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_PIPE_CAPACITY);
     }
 
+    @Override
+    public int getDataPipeMemoryBudget() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_DATA_PIPE_MEMORY_BUDGET);
+    }
+
     @Override
     public String getFileStorageConnectionString() {
         return getStringProperty(CommercedbsyncConstants.MIGRATION_FILE_STORAGE_CONNECTIONSTRING);
@@ -316,6 +393,16 @@ public class DefaultMigrationContext implements MigrationContext {
         return getBooleanProperty(CommercedbsyncConstants.MIGRATION_SCHEDULER_RESUME_ENABLED);
     }
 
+    @Override
+    public int getSchedulerProgressFlushInterval() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_SCHEDULER_PROGRESS_FLUSH_INTERVAL);
+    }
+
+    @Override
+    public int getAbortCheckInterval() {
+        return getNumericProperty(CommercedbsyncConstants.MIGRATION_SCHEDULER_ABORT_CHECK_INTERVAL);
+    }
+
     @Override
     public boolean isMssqlUpdateStatisticsEnabled() {
         return getBooleanProperty(CommercedbsyncConstants.MIGRATION_DATA_MSSQL_UPDATE_STATISTICS_ENABLED);
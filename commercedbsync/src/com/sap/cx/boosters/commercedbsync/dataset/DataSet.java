@@ -22,8 +22,64 @@ public interface DataSet {
 
     List<List<Object>> getAllResults();
 
+    /**
+     * @return number of rows of the data set
+     */
+    default int getRowCount() {
+        return getAllResults().size();
+    }
+
+    /**
+     * @return value of the given cell, boxed if the column is held as primitive values
+     */
+    default Object getValue(int rowIndex, int columnIndex) {
+        return getAllResults().get(rowIndex).get(columnIndex);
+    }
+
+    default boolean isNull(int rowIndex, int columnIndex) {
+        return getValue(rowIndex, columnIndex) == null;
+    }
+
+    /**
+     * @return value of the given cell as long, 0 if the value is null
+     */
+    default long getLong(int rowIndex, int columnIndex) {
+        final Object value = getValue(rowIndex, columnIndex);
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    /**
+     * @return value of the given cell as int, 0 if the value is null
+     */
+    default int getInt(int rowIndex, int columnIndex) {
+        final Object value = getValue(rowIndex, columnIndex);
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    /**
+     * @return value of the given cell as double, 0 if the value is null
+     */
+    default double getDouble(int rowIndex, int columnIndex) {
+        final Object value = getValue(rowIndex, columnIndex);
+        return value == null ? 0d : ((Number) value).doubleValue();
+    }
+
+    /**
+     * @return true if the values of the column are held as primitive longs, so that {@link #getLong(int, int)} reads
+     *         them without boxing
+     */
+    default boolean isLongColumn(int columnIndex) {
+        return false;
+    }
+
     Object getColumnValue(String column, List<Object> row, DataColumn sourceColumn, int targetColumnType);
 
+    Object getColumnValue(int columnIndex, List<Object> row, DataColumn sourceColumn, int targetColumnType);
+
+    default Object getColumnValue(int columnIndex, int rowIndex, DataColumn sourceColumn, int targetColumnType) {
+        return getColumnValue(columnIndex, getAllResults().get(rowIndex), sourceColumn, targetColumnType);
+    }
+
     default Object getColumnValue(String column, List<Object> row) {
         var dataColumn = getColumn(column);
 
@@ -40,5 +96,19 @@ public interface DataSet {
 
     DataColumn getColumn(String columnName);
 
+    /**
+     * @param columnName
+     *            name of the column, case-insensitive
+     * @return index of the column within a row, or -1 if the column is not part of the result
+     */
+    int getColumnIndex(String columnName);
+
     String getPartition();
+
+    /**
+     * Estimates the heap held by the data set from its values, without walking the object graph
+     *
+     * @return estimated size in bytes
+     */
+    long estimateSize();
 }
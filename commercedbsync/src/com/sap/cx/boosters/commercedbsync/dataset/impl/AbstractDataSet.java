@@ -0,0 +1,177 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.dataset.impl;
+
+import com.github.freva.asciitable.AsciiTable;
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import org.apache.commons.collections4.IterableUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.sql.Types.CHAR;
+import static java.sql.Types.SMALLINT;
+
+/**
+ * Column layout and value conversion shared by the data set implementations, independent of how the rows are held
+ */
+public abstract class AbstractDataSet implements DataSet {
+
+    private final int batchId;
+    private final int columnCount;
+    private final List<DataColumn> columnOrder;
+    private final String partition;
+    private final Map<String, Integer> columnIndexes;
+
+    protected AbstractDataSet(int batchId, int columnCount, List<DataColumn> columnOrder, final String partition) {
+        this.batchId = batchId;
+        this.columnCount = columnCount;
+        this.columnOrder = Collections.unmodifiableList(columnOrder);
+        this.partition = partition;
+        this.columnIndexes = new HashMap<>(columnOrder.size() * 2);
+        for (int i = 0; i < columnOrder.size(); i++) {
+            columnIndexes.putIfAbsent(toColumnKey(columnOrder.get(i).getColumnName()), i);
+        }
+    }
+
+    @Override
+    public int getBatchId() {
+        return batchId;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    @Override
+    public Object getColumnValue(String columnName, List<Object> row, DataColumn sourceColumn, int targetColumnType) {
+        final int columnIndex = columnName == null ? -1 : findColumnIndex(columnName);
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException(String.format("Column %s is not part of the result", columnName));
+        }
+
+        return getColumnValue(columnIndex, row, sourceColumn, targetColumnType);
+    }
+
+    @Override
+    public Object getColumnValue(int columnIndex, List<Object> row, DataColumn sourceColumn, int targetColumnType) {
+        return convertColumnValue(row.get(columnIndex), sourceColumn, targetColumnType);
+    }
+
+    @Override
+    public Object getColumnValue(int columnIndex, int rowIndex, DataColumn sourceColumn, int targetColumnType) {
+        return convertColumnValue(getValue(rowIndex, columnIndex), sourceColumn, targetColumnType);
+    }
+
+    protected Object convertColumnValue(Object columnValue, DataColumn sourceColumn, int targetColumnType) {
+        if (ObjectUtils.isNotEmpty(columnValue)) {
+            switch (sourceColumn.getColumnType()) {
+                case CHAR :
+                    if (sourceColumn.getPrecision() == 4 && targetColumnType == SMALLINT) {
+                        if (columnValue instanceof String && ((String) columnValue).length() == 4) {
+                            columnValue = (int) (((String) columnValue).charAt(0)); // cannot use trim() to not loose
+                                                                                    // \n, \t, space etc chars
+                        }
+                    }
+                    break;
+                case SMALLINT :
+                    if (targetColumnType == CHAR && StringUtils.isNumeric(String.valueOf(columnValue))
+                            && columnValue instanceof Number) {
+                        columnValue = Character.toString((char) ((Number) columnValue).intValue());
+                    }
+                    break;
+                default :
+                    break;
+
+            }
+        }
+
+        return columnValue;
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return getRowCount() > 0;
+    }
+
+    @Override
+    public boolean hasColumn(String column) {
+        if (StringUtils.isEmpty(column)) {
+            return false;
+        }
+        return columnIndexes.containsKey(toColumnKey(column));
+    }
+
+    @Override
+    public DataColumn getColumn(int columnIndex) {
+        return IterableUtils.get(columnOrder, columnIndex);
+    }
+
+    @Override
+    public DataColumn getColumn(String columnName) {
+        return IterableUtils.get(columnOrder, findColumnIndex(columnName));
+    }
+
+    @Override
+    public int getColumnIndex(String columnName) {
+        return StringUtils.isEmpty(columnName) ? -1 : findColumnIndex(columnName);
+    }
+
+    @Override
+    public String getPartition() {
+        return partition;
+    }
+
+    /**
+     * Estimates the heap held by a single value, including its object header
+     */
+    protected static long estimateValueSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else if (value instanceof ByteArrayInputStream) {
+            return 48 + ((ByteArrayInputStream) value).available();
+        } else if (value instanceof BigDecimal) {
+            return 64;
+        } else if (value instanceof java.util.Date) {
+            return 32;
+        }
+        // boxed primitives, spilled LOB values and other small values
+        return 24;
+    }
+
+    protected List<DataColumn> getColumnOrder() {
+        return columnOrder;
+    }
+
+    protected int findColumnIndex(String columnName) {
+        return columnIndexes.getOrDefault(toColumnKey(columnName), -1);
+    }
+
+    private static String toColumnKey(String columnName) {
+        return columnName.toLowerCase(Locale.ROOT);
+    }
+
+    public String toString() {
+        String[] headers = columnOrder.stream().map(DataColumn::getColumnName).toArray(String[]::new);
+        String[][] data = getAllResults().stream().map(l -> l.stream().map(String::valueOf).toArray(String[]::new))
+                .toArray(String[][]::new);
+        return AsciiTable.getTable(headers, data);
+    }
+}
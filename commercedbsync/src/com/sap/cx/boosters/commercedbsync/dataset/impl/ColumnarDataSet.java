@@ -0,0 +1,440 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.dataset.impl;
+
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+
+import javax.annotation.concurrent.Immutable;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Data set holding its values column by column. Integral and floating point columns are held in primitive arrays
+ * with a null bitmap, all other columns in object arrays, so a page does not keep a boxed value per numeric cell.
+ * <p>
+ * Rows returned by {@link #getAllResults()} are views over the columns and box numeric values on access, typed
+ * accessors like {@link #getLong(int, int)} read them without boxing.
+ */
+@Immutable
+public class ColumnarDataSet extends AbstractDataSet {
+
+    private final ColumnVector[] columns;
+    private final int rowCount;
+    private final List<List<Object>> rows;
+
+    private ColumnarDataSet(int batchId, List<DataColumn> columnOrder, ColumnVector[] columns, int rowCount,
+            final String partition) {
+        super(batchId, columns.length, columnOrder, partition);
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.rows = new RowList();
+    }
+
+    /**
+     * How the values of a column are held
+     */
+    public enum ColumnStorage {
+        LONG, INT, DOUBLE, OBJECT;
+
+        /**
+         * Resolves the storage of a column, primitive storage is only used where it yields the same boxed type as
+         * {@code ResultSet.getObject()}
+         *
+         * @param jdbcType
+         *            JDBC type of the column
+         * @param signed
+         *            false for unsigned integral columns, which may exceed the range of the primitive type
+         * @return the storage of the column
+         */
+        public static ColumnStorage forColumn(int jdbcType, boolean signed) {
+            switch (jdbcType) {
+                case Types.BIGINT :
+                    return signed ? LONG : OBJECT;
+                case Types.INTEGER :
+                    return signed ? INT : OBJECT;
+                case Types.DOUBLE :
+                case Types.FLOAT :
+                    return DOUBLE;
+                default :
+                    return OBJECT;
+            }
+        }
+    }
+
+    @Override
+    public List<List<Object>> getAllResults() {
+        return rows;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Object getValue(int rowIndex, int columnIndex) {
+        return columns[columnIndex].get(checkRowIndex(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex, int columnIndex) {
+        return columns[columnIndex].isNull(checkRowIndex(rowIndex));
+    }
+
+    @Override
+    public long getLong(int rowIndex, int columnIndex) {
+        return columns[columnIndex].getLong(checkRowIndex(rowIndex));
+    }
+
+    @Override
+    public int getInt(int rowIndex, int columnIndex) {
+        return columns[columnIndex].getInt(checkRowIndex(rowIndex));
+    }
+
+    @Override
+    public double getDouble(int rowIndex, int columnIndex) {
+        return columns[columnIndex].getDouble(checkRowIndex(rowIndex));
+    }
+
+    @Override
+    public boolean isLongColumn(int columnIndex) {
+        return columns[columnIndex] instanceof LongVector;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = 0;
+        for (final ColumnVector column : columns) {
+            size += column.estimateSize(rowCount);
+        }
+        return size;
+    }
+
+    private int checkRowIndex(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + rowIndex + " out of " + rowCount);
+        }
+        return rowIndex;
+    }
+
+    /**
+     * Collects the values of a data set row by row. Values of a row are appended column by column in column order,
+     * followed by {@link #endRow()}.
+     */
+    public static class Builder {
+        private final int batchId;
+        private final List<DataColumn> columnOrder;
+        private final String partition;
+        private final ColumnVector[] columns;
+        private int rowCount;
+
+        /**
+         * @param storages
+         *            storage of each column, in column order
+         * @param expectedRows
+         *            expected number of rows, used to size the column vectors
+         */
+        public Builder(int batchId, List<DataColumn> columnOrder, ColumnStorage[] storages, final String partition,
+                int expectedRows) {
+            this.batchId = batchId;
+            this.columnOrder = columnOrder;
+            this.partition = partition;
+            this.columns = new ColumnVector[storages.length];
+            final int capacity = Math.max(expectedRows, 16);
+            for (int i = 0; i < storages.length; i++) {
+                switch (storages[i]) {
+                    case LONG :
+                        columns[i] = new LongVector(capacity);
+                        break;
+                    case INT :
+                        columns[i] = new IntVector(capacity);
+                        break;
+                    case DOUBLE :
+                        columns[i] = new DoubleVector(capacity);
+                        break;
+                    default :
+                        columns[i] = new ObjectVector(capacity);
+                        break;
+                }
+            }
+        }
+
+        public void appendLong(int columnIndex, long value, boolean isNull) {
+            ((LongVector) columns[columnIndex]).append(rowCount, value, isNull);
+        }
+
+        public void appendInt(int columnIndex, int value, boolean isNull) {
+            ((IntVector) columns[columnIndex]).append(rowCount, value, isNull);
+        }
+
+        public void appendDouble(int columnIndex, double value, boolean isNull) {
+            ((DoubleVector) columns[columnIndex]).append(rowCount, value, isNull);
+        }
+
+        public void appendObject(int columnIndex, Object value) {
+            ((ObjectVector) columns[columnIndex]).append(rowCount, value);
+        }
+
+        public void endRow() {
+            rowCount++;
+        }
+
+        public ColumnarDataSet build() {
+            for (final ColumnVector column : columns) {
+                column.trim(rowCount);
+            }
+            return new ColumnarDataSet(batchId, columnOrder, columns, rowCount, partition);
+        }
+    }
+
+    private abstract static class ColumnVector {
+        protected BitSet nulls;
+
+        abstract Object get(int rowIndex);
+
+        abstract void trim(int size);
+
+        abstract long estimateValuesSize(int rowCount);
+
+        long estimateSize(int rowCount) {
+            return 16 + estimateValuesSize(rowCount) + (nulls == null ? 0 : nulls.size() / 8);
+        }
+
+        boolean isNull(int rowIndex) {
+            return nulls != null && nulls.get(rowIndex);
+        }
+
+        long getLong(int rowIndex) {
+            final Object value = get(rowIndex);
+            return value == null ? 0L : ((Number) value).longValue();
+        }
+
+        int getInt(int rowIndex) {
+            final Object value = get(rowIndex);
+            return value == null ? 0 : ((Number) value).intValue();
+        }
+
+        double getDouble(int rowIndex) {
+            final Object value = get(rowIndex);
+            return value == null ? 0d : ((Number) value).doubleValue();
+        }
+
+        protected void markNull(int rowIndex) {
+            if (nulls == null) {
+                nulls = new BitSet();
+            }
+            nulls.set(rowIndex);
+        }
+
+        protected static int grow(int capacity, int rowIndex) {
+            return Math.max(capacity * 2, rowIndex + 1);
+        }
+    }
+
+    private static class LongVector extends ColumnVector {
+        private long[] values;
+
+        LongVector(int capacity) {
+            values = new long[capacity];
+        }
+
+        void append(int rowIndex, long value, boolean isNull) {
+            if (rowIndex == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rowIndex));
+            }
+            if (isNull) {
+                markNull(rowIndex);
+            } else {
+                values[rowIndex] = value;
+            }
+        }
+
+        @Override
+        Object get(int rowIndex) {
+            return isNull(rowIndex) ? null : values[rowIndex];
+        }
+
+        @Override
+        long getLong(int rowIndex) {
+            return values[rowIndex];
+        }
+
+        @Override
+        void trim(int size) {
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        @Override
+        long estimateValuesSize(int rowCount) {
+            return 8L * values.length;
+        }
+    }
+
+    private static class IntVector extends ColumnVector {
+        private int[] values;
+
+        IntVector(int capacity) {
+            values = new int[capacity];
+        }
+
+        void append(int rowIndex, int value, boolean isNull) {
+            if (rowIndex == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rowIndex));
+            }
+            if (isNull) {
+                markNull(rowIndex);
+            } else {
+                values[rowIndex] = value;
+            }
+        }
+
+        @Override
+        Object get(int rowIndex) {
+            return isNull(rowIndex) ? null : values[rowIndex];
+        }
+
+        @Override
+        long getLong(int rowIndex) {
+            return values[rowIndex];
+        }
+
+        @Override
+        int getInt(int rowIndex) {
+            return values[rowIndex];
+        }
+
+        @Override
+        void trim(int size) {
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        @Override
+        long estimateValuesSize(int rowCount) {
+            return 4L * values.length;
+        }
+    }
+
+    private static class DoubleVector extends ColumnVector {
+        private double[] values;
+
+        DoubleVector(int capacity) {
+            values = new double[capacity];
+        }
+
+        void append(int rowIndex, double value, boolean isNull) {
+            if (rowIndex == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rowIndex));
+            }
+            if (isNull) {
+                markNull(rowIndex);
+            } else {
+                values[rowIndex] = value;
+            }
+        }
+
+        @Override
+        Object get(int rowIndex) {
+            return isNull(rowIndex) ? null : values[rowIndex];
+        }
+
+        @Override
+        double getDouble(int rowIndex) {
+            return values[rowIndex];
+        }
+
+        @Override
+        void trim(int size) {
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        @Override
+        long estimateValuesSize(int rowCount) {
+            return 8L * values.length;
+        }
+    }
+
+    private static class ObjectVector extends ColumnVector {
+        private Object[] values;
+
+        ObjectVector(int capacity) {
+            values = new Object[capacity];
+        }
+
+        void append(int rowIndex, Object value) {
+            if (rowIndex == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rowIndex));
+            }
+            values[rowIndex] = value;
+        }
+
+        @Override
+        Object get(int rowIndex) {
+            return values[rowIndex];
+        }
+
+        @Override
+        boolean isNull(int rowIndex) {
+            return values[rowIndex] == null;
+        }
+
+        @Override
+        void trim(int size) {
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        @Override
+        long estimateValuesSize(int rowCount) {
+            long size = 4L * values.length;
+            for (int i = 0; i < rowCount; i++) {
+                size += estimateValueSize(values[i]);
+            }
+            return size;
+        }
+    }
+
+    private class RowList extends AbstractList<List<Object>> implements RandomAccess {
+        @Override
+        public List<Object> get(int index) {
+            return new RowView(checkRowIndex(index));
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private class RowView extends AbstractList<Object> implements RandomAccess {
+        private final int rowIndex;
+
+        private RowView(int rowIndex) {
+            this.rowIndex = rowIndex;
+        }
+
+        @Override
+        public Object get(int index) {
+            return columns[index].get(rowIndex);
+        }
+
+        @Override
+        public int size() {
+            return columns.length;
+        }
+    }
+}
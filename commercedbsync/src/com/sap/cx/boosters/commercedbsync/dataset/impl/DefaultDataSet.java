@@ -6,47 +6,44 @@
 
 package com.sap.cx.boosters.commercedbsync.dataset.impl;
 
-import com.github.freva.asciitable.AsciiTable;
-import org.apache.commons.collections4.IterableUtils;
-import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.lang3.StringUtils;
 import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
-import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.AbstractList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
-import static java.sql.Types.CHAR;
-import static java.sql.Types.SMALLINT;
-
 @Immutable
-public class DefaultDataSet implements DataSet {
+public class DefaultDataSet extends AbstractDataSet {
 
-    private final int batchId;
-    private final int columnCount;
-    private final List<DataColumn> columnOrder;
     private final List<List<Object>> result;
-    private final String partition;
 
     public DefaultDataSet(int batchId, int columnCount, List<DataColumn> columnOrder, List<List<Object>> result,
             final String partition) {
-        this.batchId = batchId;
-        this.columnCount = columnCount;
-        this.columnOrder = Collections.unmodifiableList(columnOrder);
-        this.result = result.stream().map(Collections::unmodifiableList).collect(Collectors.toList());
-        this.partition = partition;
+        super(batchId, columnCount, columnOrder, partition);
+        this.result = toUnmodifiableRows(result);
     }
 
-    @Override
-    public int getBatchId() {
-        return batchId;
+    /**
+     * Creates an unmodifiable row backed by the given values, which is taken over by a data set without copying
+     *
+     * @param values
+     *            column values of the row, must not be modified afterwards
+     * @return the row
+     */
+    public static List<Object> newRow(Object[] values) {
+        return new Row(values);
     }
 
-    @Override
-    public int getColumnCount() {
-        return columnCount;
+    private static List<List<Object>> toUnmodifiableRows(List<List<Object>> rows) {
+        for (List<Object> row : rows) {
+            if (!(row instanceof Row)) {
+                return rows.stream().map(Collections::unmodifiableList).collect(Collectors.toList());
+            }
+        }
+        return Collections.unmodifiableList(rows);
     }
 
     @Override
@@ -55,74 +52,47 @@ public class DefaultDataSet implements DataSet {
     }
 
     @Override
-    public Object getColumnValue(String columnName, List<Object> row, DataColumn sourceColumn, int targetColumnType) {
-        if (columnName == null || !hasColumn(columnName)) {
-            throw new IllegalArgumentException(String.format("Column %s is not part of the result", columnName));
-        }
-
-        Object columnValue = row.get(findColumnIndex(columnName));
-
-        if (ObjectUtils.isNotEmpty(columnValue)) {
-            switch (sourceColumn.getColumnType()) {
-                case CHAR :
-                    if (sourceColumn.getPrecision() == 4 && targetColumnType == SMALLINT) {
-                        if (columnValue instanceof String && ((String) columnValue).length() == 4) {
-                            columnValue = (int) (((String) columnValue).charAt(0)); // cannot use trim() to not loose
-                                                                                    // \n, \t, space etc chars
-                        }
-                    }
-                    break;
-                case SMALLINT :
-                    if (targetColumnType == CHAR && StringUtils.isNumeric(String.valueOf(columnValue))
-                            && columnValue instanceof Number) {
-                        columnValue = Character.toString((char) ((Number) columnValue).intValue());
-                    }
-                    break;
-                default :
-                    break;
-
-            }
-        }
-
-        return columnValue;
+    public int getRowCount() {
+        return result.size();
     }
 
     @Override
-    public boolean isNotEmpty() {
-        return getAllResults() != null && !getAllResults().isEmpty();
+    public Object getValue(int rowIndex, int columnIndex) {
+        return result.get(rowIndex).get(columnIndex);
     }
 
     @Override
-    public boolean hasColumn(String column) {
-        if (StringUtils.isEmpty(column)) {
-            return false;
+    public long estimateSize() {
+        long size = 16 + 4L * result.size();
+        for (List<Object> row : result) {
+            size += 32 + 4L * row.size();
+            for (Object value : row) {
+                size += estimateValueSize(value);
+            }
         }
-        return columnOrder.stream().map(DataColumn::getColumnName).anyMatch(column::equalsIgnoreCase);
+        return size;
     }
 
     @Override
-    public DataColumn getColumn(int columnIndex) {
-        return IterableUtils.get(columnOrder, columnIndex);
+    public boolean isNotEmpty() {
+        return getAllResults() != null && !getAllResults().isEmpty();
     }
 
-    @Override
-    public DataColumn getColumn(String columnName) {
-        return IterableUtils.get(columnOrder, findColumnIndex(columnName));
-    }
-    @Override
-    public String getPartition() {
-        return partition;
-    }
+    private static final class Row extends AbstractList<Object> implements RandomAccess {
+        private final Object[] values;
 
-    protected int findColumnIndex(String columnName) {
-        return IterableUtils.indexOf(columnOrder,
-                dataColumn -> dataColumn.getColumnName().equalsIgnoreCase(columnName));
-    }
+        private Row(Object[] values) {
+            this.values = values;
+        }
 
-    public String toString() {
-        String[] headers = columnOrder.stream().map(DataColumn::getColumnName).toArray(String[]::new);
-        String[][] data = getAllResults().stream().map(l -> l.stream().map(String::valueOf).toArray(String[]::new))
-                .toArray(String[][]::new);
-        return AsciiTable.getTable(headers, data);
+        @Override
+        public Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
     }
 }
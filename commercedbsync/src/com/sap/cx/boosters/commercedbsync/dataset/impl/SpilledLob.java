@@ -0,0 +1,225 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.dataset.impl;
+
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LOB value of a data set that has been spilled to a temporary file while reading, so that large values do not stay
+ * in memory until the page is written. Writers bind the value as stream read from the file.
+ * <p>
+ * The file is deleted when the value is released, at the latest when the value becomes unreachable.
+ */
+public final class SpilledLob {
+    private static final Logger LOG = LoggerFactory.getLogger(SpilledLob.class);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final String FILE_PREFIX = "commercedbsync-lob-";
+
+    private final Path file;
+    private final long length;
+    private final boolean characterData;
+    private final SpillFile spillFile;
+    private final Cleaner.Cleanable cleanable;
+
+    private SpilledLob(final Path file, final long length, final boolean characterData) {
+        this.file = file;
+        this.length = length;
+        this.characterData = characterData;
+        this.spillFile = new SpillFile(file);
+        this.cleanable = CLEANER.register(this, spillFile);
+    }
+
+    /**
+     * Copies the given binary stream into a temporary file and closes it
+     */
+    public static SpilledLob spill(final InputStream in) throws IOException {
+        final Path file = Files.createTempFile(FILE_PREFIX, ".bin");
+        try (in; OutputStream out = Files.newOutputStream(file)) {
+            return new SpilledLob(file, IOUtils.copyLarge(in, out), false);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the given character stream into a temporary UTF-8 encoded file and closes it
+     */
+    public static SpilledLob spill(final Reader in) throws IOException {
+        final Path file = Files.createTempFile(FILE_PREFIX, ".txt");
+        try (in; Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return new SpilledLob(file, IOUtils.copyLarge(in, out), true);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true for character LOB and long text values, false for binary values
+     */
+    public boolean isCharacterData() {
+        return characterData;
+    }
+
+    /**
+     * @return length of the value in bytes, in characters for character data
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Opens a new stream over the spilled value, closed at the latest when the value is released
+     */
+    public InputStream openBinaryStream() throws IOException {
+        return spillFile.register(new BufferedInputStream(Files.newInputStream(file)));
+    }
+
+    /**
+     * Opens a new reader over the spilled value, closed at the latest when the value is released
+     */
+    public Reader openCharacterStream() throws IOException {
+        return spillFile.register(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Binds the value as stream to the given statement parameter. The stream stays open until the value is released,
+     * since drivers may consume it only when the statement or batch is executed.
+     */
+    public void bind(final PreparedStatement statement, final int parameterIndex) throws SQLException {
+        try {
+            if (characterData) {
+                statement.setCharacterStream(parameterIndex, openCharacterStream(), length);
+            } else {
+                statement.setBinaryStream(parameterIndex, openBinaryStream(), length);
+            }
+        } catch (final IOException e) {
+            throw new SQLException("Could not read spilled LOB value from " + file, e);
+        }
+    }
+
+    /**
+     * Reads the whole value into memory, for writers that cannot stream it
+     *
+     * @return the value as byte array for binary data, as string for character data
+     */
+    public Object readFully() throws IOException {
+        if (characterData) {
+            try (Reader reader = openCharacterStream()) {
+                return IOUtils.toString(reader);
+            }
+        }
+        try (InputStream in = openBinaryStream()) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    /**
+     * Closes all streams opened over the value and deletes its file
+     */
+    public void release() {
+        cleanable.clean();
+    }
+
+    /**
+     * Releases all spilled values of the spillable columns of the given data set
+     */
+    public static void release(final DataSet dataSet) {
+        final int rowCount = dataSet.getRowCount();
+        for (int columnIndex = 0; columnIndex < dataSet.getColumnCount(); columnIndex++) {
+            if (!isSpillable(dataSet.getColumn(columnIndex).getColumnType())) {
+                continue;
+            }
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                final Object value = dataSet.getValue(rowIndex, columnIndex);
+                if (value instanceof SpilledLob) {
+                    ((SpilledLob) value).release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Besides LOB columns, values of variable length binary and text columns are spilled, as some databases store
+     * large values in those (e.g. bytea, LONGBLOB, varbinary(max) or nvarchar(max))
+     *
+     * @return true if values of columns of the given JDBC type may be spilled
+     */
+    public static boolean isSpillable(final int jdbcType) {
+        switch (jdbcType) {
+            case Types.BLOB :
+            case Types.CLOB :
+            case Types.NCLOB :
+            case Types.BINARY :
+            case Types.VARBINARY :
+            case Types.LONGVARBINARY :
+            case Types.VARCHAR :
+            case Types.NVARCHAR :
+            case Types.LONGVARCHAR :
+            case Types.LONGNVARCHAR :
+                return true;
+            default :
+                return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (characterData ? "SpilledClob[" : "SpilledBlob[") + length + "]";
+    }
+
+    /**
+     * State released by the cleaner, must not reference the spilled value itself
+     */
+    private static class SpillFile implements Runnable {
+        private final Path file;
+        private final List<Closeable> openStreams = new ArrayList<>();
+
+        private SpillFile(final Path file) {
+            this.file = file;
+        }
+
+        private synchronized <T extends Closeable> T register(final T stream) {
+            openStreams.add(stream);
+            return stream;
+        }
+
+        @Override
+        public synchronized void run() {
+            for (final Closeable stream : openStreams) {
+                IOUtils.closeQuietly(stream);
+            }
+            openStreams.clear();
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException e) {
+                LOG.warn("Could not delete spilled LOB file {}", file, e);
+            }
+        }
+    }
+}
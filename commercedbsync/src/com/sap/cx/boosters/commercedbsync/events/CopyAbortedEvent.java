@@ -0,0 +1,18 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.events;
+
+/**
+ * ClusterAwareEvent to signal that a migration was aborted, so all nodes stop
+ * their copy tasks without waiting for the next status check
+ */
+public class CopyAbortedEvent extends OperationEvent {
+
+    public CopyAbortedEvent(final Integer sourceNodeId, final String migrationId, final boolean reversed) {
+        super(sourceNodeId, migrationId, reversed);
+    }
+}
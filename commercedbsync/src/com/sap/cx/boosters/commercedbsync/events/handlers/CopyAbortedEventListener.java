@@ -0,0 +1,34 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.events.handlers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.cx.boosters.commercedbsync.events.CopyAbortedEvent;
+import com.sap.cx.boosters.commercedbsync.scheduler.DatabaseCopyScheduler;
+
+import de.hybris.platform.servicelayer.event.impl.AbstractEventListener;
+
+/**
+ * Receives an Event when a node has aborted the migration
+ */
+public class CopyAbortedEventListener extends AbstractEventListener<CopyAbortedEvent> {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyAbortedEventListener.class.getName());
+
+    private DatabaseCopyScheduler databaseCopyScheduler;
+
+    @Override
+    protected void onEvent(final CopyAbortedEvent event) {
+        LOG.info("Migration {} aborted on Node {}", event.getOperationId(), event.getSourceNodeId());
+        databaseCopyScheduler.invalidateAbortStatus(event.getOperationId());
+    }
+
+    public void setDatabaseCopyScheduler(final DatabaseCopyScheduler databaseCopyScheduler) {
+        this.databaseCopyScheduler = databaseCopyScheduler;
+    }
+}
@@ -18,6 +18,7 @@ import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.events.CopyCompleteEvent;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceProfiler;
 import com.sap.cx.boosters.commercedbsync.processors.MigrationPostProcessor;
+import com.sap.cx.boosters.commercedbsync.scheduler.DatabaseCopyScheduler;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
 
 import de.hybris.platform.servicelayer.event.impl.AbstractEventListener;
@@ -35,12 +36,14 @@ public class CopyCompleteEventListener extends AbstractEventListener<CopyComplet
     private PerformanceProfiler performanceProfiler;
     private List<MigrationPostProcessor> postProcessors;
     private MigrationContext reverseMigrationContext;
+    private DatabaseCopyScheduler databaseCopyScheduler;
 
     @Override
     protected void onEvent(final CopyCompleteEvent event) {
         final String migrationId = event.getOperationId();
 
         LOG.info("Migration finished on Node {} with result {}", event.getSourceNodeId(), event.getCopyResult());
+        databaseCopyScheduler.clearAbortStatus(migrationId);
         final CopyContext copyContext = event.isReversed()
                 ? new CopyContext(migrationId, reverseMigrationContext, new HashSet<>(), performanceProfiler)
                 : new CopyContext(migrationId, migrationContext, new HashSet<>(), performanceProfiler);
@@ -107,4 +110,8 @@ public class CopyCompleteEventListener extends AbstractEventListener<CopyComplet
     public void setReverseMigrationContext(final MigrationContext reverseMigrationContext) {
         this.reverseMigrationContext = reverseMigrationContext;
     }
+
+    public void setDatabaseCopyScheduler(final DatabaseCopyScheduler databaseCopyScheduler) {
+        this.databaseCopyScheduler = databaseCopyScheduler;
+    }
 }
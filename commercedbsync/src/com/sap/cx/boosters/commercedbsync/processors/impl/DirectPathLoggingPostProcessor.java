@@ -0,0 +1,69 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.processors.impl;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.processors.MigrationPostProcessor;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTask;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * <b>Restore logging of direct-path loaded tables post processor</b> <br/>
+ * <br/>
+ * Switches the Oracle target tables loaded with the DIRECTPATH write method back to LOGGING once the migration has
+ * terminated, successful or not. Chunks of a table are loaded by several pipelines, possibly on different nodes, so
+ * none of them can restore the logging of the table when it finishes. This post processor is active if property
+ * `migration.data.writer.directpath.nologging` is set to true.
+ */
+public class DirectPathLoggingPostProcessor implements MigrationPostProcessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DirectPathLoggingPostProcessor.class);
+    private DatabaseCopyTaskRepository databaseCopyTaskRepository;
+
+    @Override
+    public void process(CopyContext context) {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        final Set<String> tables;
+        try {
+            tables = databaseCopyTaskRepository.getAllTasks(context).stream()
+                    .map(DatabaseCopyTask::getTargettablename)
+                    .filter(table -> migrationContext.getDataWriteMethod(table) == DataWriteMethod.DIRECTPATH)
+                    .collect(Collectors.toCollection(() -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER)));
+        } catch (Exception e) {
+            LOG.error("Error executing post processor", e);
+            return;
+        }
+        for (final String table : tables) {
+            try {
+                migrationContext.getDataTargetRepository().setTableLoggingEnabled(table, true);
+                LOG.debug("Enabled logging for table '{}'", table);
+            } catch (SQLException e) {
+                LOG.error("Could not enable logging for table '{}', it has to be enabled manually", table, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean shouldExecute(CopyContext context) {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        return migrationContext.isDirectPathNoLoggingEnabled() && !migrationContext.isIncrementalModeEnabled()
+                && migrationContext.getDataTargetRepository().getDatabaseProvider().isOracleUsed();
+    }
+
+    public void setDatabaseCopyTaskRepository(final DatabaseCopyTaskRepository databaseCopyTaskRepository) {
+        this.databaseCopyTaskRepository = databaseCopyTaskRepository;
+    }
+}
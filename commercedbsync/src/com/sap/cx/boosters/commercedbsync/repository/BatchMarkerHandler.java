@@ -0,0 +1,23 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.repository;
+
+import java.util.List;
+
+/**
+ * Receives the batch markers of a table one by one, in the order of the batch column, while the markers query is
+ * still running
+ */
+@FunctionalInterface
+public interface BatchMarkerHandler {
+
+    /**
+     * @param marker
+     *            row of the markers query, starting with the value of the batch column
+     */
+    void accept(List<Object> marker) throws Exception;
+}
@@ -54,8 +54,28 @@ public interface DataRepository {
 
     DataSet getBatchOrderedByColumn(SeekQueryDefinition queryDefinition, Instant time) throws Exception;
 
+    /**
+     * Opens a single query over the range of the query definition, ordered by its column. Pages are read from the
+     * cursor as the rows arrive, instead of querying each page on its own. The batch size is the fetch size.
+     */
+    DataSetCursor openBatchCursorOrderedByColumn(SeekQueryDefinition queryDefinition, Instant time) throws Exception;
+
     DataSet getBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition) throws Exception;
 
+    /**
+     * Passes the batch markers to the handler as they are read, instead of collecting them into a data set
+     */
+    void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, BatchMarkerHandler handler)
+            throws Exception;
+
+    /**
+     * Cursors and streamed markers keep their result set open while the consumer of the rows waits, e.g. for room in
+     * a data pipe or for a free reader worker.
+     *
+     * @return true if a result set stays valid while no rows are fetched from it for a long time
+     */
+    boolean isLongLivedResultSetSupported();
+
     long getRowCount(String table) throws Exception;
 
     long getRowCountModifiedAfter(String table, Instant time, boolean isDeletionEnabled,
@@ -101,6 +121,9 @@ public interface DataRepository {
 
     DataSet getBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, Instant time) throws Exception;
 
+    void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, Instant time,
+            BatchMarkerHandler handler) throws Exception;
+
     DataSet getUniqueColumns(String table) throws Exception;
 
     boolean validateConnection() throws Exception;
@@ -119,6 +142,132 @@ public interface DataRepository {
 
     String buildBulkUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs);
 
+    /**
+     * Get the name of the session scoped staging table used for set based upserts
+     * into the given table
+     *
+     * @param table
+     *            target table
+     * @return staging table name
+     * @throws UnsupportedOperationException
+     *             if the database does not support staged upserts
+     */
+    String getStagingTableName(String table);
+
+    /**
+     * Create the staging table of the given table in the session of the given
+     * connection, unless it exists already. The staging table has the given
+     * columns of the target table, without constraints.
+     *
+     * @param connection
+     *            connection the staging table is used with
+     * @param table
+     *            target table
+     * @param columnsToCopy
+     *            columns of the staging table
+     * @throws SQLException
+     */
+    void createStagingTable(Connection connection, String table, List<String> columnsToCopy) throws SQLException;
+
+    /**
+     * Build the statement upserting all rows of the staging table into the given
+     * table with a single set based statement
+     *
+     * @param table
+     *            target table
+     * @param columnsToCopy
+     *            columns of the staging table
+     * @param upsertIDs
+     *            columns identifying a row
+     * @return staged upsert statement
+     * @throws UnsupportedOperationException
+     *             if the database does not support staged upserts
+     */
+    String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs);
+
+    /**
+     * Build the statement removing all rows from the staging table of the given
+     * table
+     *
+     * @param table
+     *            target table
+     * @return statement clearing the staging table
+     */
+    String buildClearStagingTableStatement(String table);
+
+    /**
+     * Builds an insert statement writing the given number of rows at once
+     *
+     * @param table
+     *            target table
+     * @param columnsToCopy
+     *            columns to insert, each row binds one parameter per column
+     * @param rowCount
+     *            number of rows inserted by the statement
+     * @return multi row insert statement
+     */
+    String buildBulkInsertStatement(String table, List<String> columnsToCopy, int rowCount);
+
+    /**
+     * Get the maximum number of rows a single statement built by
+     * {@link #buildBulkInsertStatement(String, List, int)} may insert, so that the
+     * parameter limit of the database/driver is not exceeded
+     *
+     * @param columnCount
+     *            number of columns per row
+     * @return maximum number of rows per statement, at least 1
+     */
+    int getMaxBulkInsertRows(int columnCount);
+
+    /**
+     * Build a statement deleting the rows with the given keys from a table
+     *
+     * @param table
+     *            target table
+     * @param keyColumn
+     *            column identifying a row
+     * @param keyCount
+     *            number of keys bound to the statement, at most
+     *            {@link #getMaxBulkDeleteKeys()}
+     * @return bulk delete statement
+     */
+    String buildBulkDeleteStatement(String table, String keyColumn, int keyCount);
+
+    /**
+     * Get the maximum number of keys a single statement built by
+     * {@link #buildBulkDeleteStatement(String, String, int)} may delete, so that
+     * neither the parameter nor the IN list limit of the database is exceeded
+     *
+     * @return maximum number of keys per statement, at least 1
+     */
+    int getMaxBulkDeleteKeys();
+
+    /**
+     * Build a single row insert statement that loads the rows of a JDBC batch with
+     * a direct-path insert, bypassing the buffer cache
+     *
+     * @param table
+     *            target table
+     * @param columnsToCopy
+     *            columns to insert
+     * @return direct-path insert statement
+     * @throws UnsupportedOperationException
+     *             if the database does not support direct-path inserts
+     */
+    String buildDirectPathInsertStatement(String table, List<String> columnsToCopy);
+
+    /**
+     * Switch redo logging of the given table on or off. Does nothing if the
+     * database does not support logging per table.
+     *
+     * @param table
+     *            target table
+     * @param enabled
+     *            true to enable logging
+     * @throws SQLException
+     */
+    void setTableLoggingEnabled(String table, boolean enabled) throws SQLException;
+
     List<String> getPartitions(String table) throws SQLException;
 
     long getRowCount(String table, String currentPartition) throws Exception;
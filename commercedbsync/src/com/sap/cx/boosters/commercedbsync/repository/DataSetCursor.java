@@ -0,0 +1,30 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.repository;
+
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+
+/**
+ * Open query over a range of a table, read page by page while the database streams the rows. The cursor holds its
+ * connection until it is closed.
+ */
+public interface DataSetCursor extends AutoCloseable {
+
+    /**
+     * Reads the next page
+     *
+     * @param batchId
+     *            batch id of the page
+     * @param maxRows
+     *            maximum number of rows of the page
+     * @return the page, empty once all rows are read
+     */
+    DataSet next(int batchId, long maxRows) throws Exception;
+
+    @Override
+    void close() throws Exception;
+}
@@ -6,10 +6,13 @@
 
 package com.sap.cx.boosters.commercedbsync.repository.impl;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
@@ -21,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -53,12 +57,15 @@ import com.sap.cx.boosters.commercedbsync.TypeSystemTable;
 import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
 import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.ColumnarDataSet;
 import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataColumn;
 import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataSet;
 import com.sap.cx.boosters.commercedbsync.datasource.MigrationDataSourceFactory;
 import com.sap.cx.boosters.commercedbsync.datasource.impl.DefaultMigrationDataSourceFactory;
 import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
 import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import com.sap.cx.boosters.commercedbsync.repository.DataSetCursor;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseMigrationDataTypeMapperService;
 
 import de.hybris.bootstrap.ddl.DatabaseSettings;
@@ -271,52 +278,111 @@ public abstract class AbstractDataRepository implements DataRepository {
         }
     }
 
-    protected DefaultDataSet convertToDataSet(ResultSet resultSet) throws Exception {
+    protected DataSet convertToDataSet(ResultSet resultSet) throws Exception {
         return convertToDataSet(resultSet, Collections.emptySet(), null);
     }
 
-    protected DefaultDataSet convertToDataSet(int batchId, ResultSet resultSet, final String partition)
+    protected DataSet convertToDataSet(int batchId, ResultSet resultSet, final String partition)
             throws Exception {
         return convertToDataSet(batchId, resultSet, Collections.emptySet(), partition);
     }
 
-    protected DefaultDataSet convertToDataSet(ResultSet resultSet, Set<String> ignoreColumns, final String partition)
+    protected DataSet convertToDataSet(ResultSet resultSet, Set<String> ignoreColumns, final String partition)
             throws Exception {
         return convertToDataSet(0, resultSet, ignoreColumns, partition);
     }
 
-    protected DefaultDataSet convertToDataSet(int batchId, ResultSet resultSet, Set<String> ignoreColumns,
+    protected DataSet convertToDataSet(int batchId, ResultSet resultSet, Set<String> ignoreColumns,
             final String partition) throws Exception {
-        int realColumnCount = resultSet.getMetaData().getColumnCount();
-        List<DataColumn> columnOrder = new ArrayList<>();
+        return convertToDataSet(batchId, resultSet, ignoreColumns, partition, 0);
+    }
+
+    /**
+     * @param maxRows
+     *            maximum number of rows to read from the result set, 0 to read all rows
+     */
+    protected DataSet convertToDataSet(int batchId, ResultSet resultSet, Set<String> ignoreColumns,
+            final String partition, int maxRows) throws Exception {
+        // column positions and types are resolved once per result set, not per cell
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int realColumnCount = metaData.getColumnCount();
+        final List<DataColumn> columnOrder = new ArrayList<>(realColumnCount);
+        final int[] columnIndexes = new int[realColumnCount];
+        final int[] columnTypes = new int[realColumnCount];
+        final ColumnarDataSet.ColumnStorage[] columnStorages = new ColumnarDataSet.ColumnStorage[realColumnCount];
+        boolean primitiveColumns = false;
         int columnCount = 0;
         for (int i = 1; i <= realColumnCount; i++) {
-            String columnName = resultSet.getMetaData().getColumnName(i);
-            int columnType = resultSet.getMetaData().getColumnType(i);
-            int precision = resultSet.getMetaData().getPrecision(i);
-            int scale = resultSet.getMetaData().getScale(i);
+            String columnName = metaData.getColumnName(i);
             if (ignoreColumns.stream().anyMatch(columnName::equalsIgnoreCase)) {
                 continue;
             }
+            int columnType = metaData.getColumnType(i);
+            columnOrder.add(new DefaultDataColumn(columnName, columnType, metaData.getPrecision(i),
+                    metaData.getScale(i)));
+            columnIndexes[columnCount] = i;
+            columnTypes[columnCount] = columnType;
+            columnStorages[columnCount] = ColumnarDataSet.ColumnStorage.forColumn(columnType, metaData.isSigned(i));
+            primitiveColumns |= columnStorages[columnCount] != ColumnarDataSet.ColumnStorage.OBJECT;
             columnCount += 1;
-            columnOrder.add(new DefaultDataColumn(columnName, columnType, precision, scale));
         }
-        List<List<Object>> results = new ArrayList<>();
-        while (resultSet.next()) {
-            List<Object> row = new ArrayList<>();
-            for (DataColumn dataColumn : columnOrder) {
-                int idx = resultSet.findColumn(dataColumn.getColumnName());
-                Object object = resultSet.getObject(idx);
-                // TODO: improve CLOB/BLOB handling
-                Object mappedValue = databaseMigrationDataTypeMapperService.dataTypeMapper(object,
-                        resultSet.getMetaData().getColumnType(idx));
-                row.add(mappedValue);
+        final long lobSpillThreshold = migrationContext.getLobSpillThreshold();
+        final int fetchSize = resultSet.getFetchSize();
+        final int expectedRows = fetchSize > 0 ? Math.min(fetchSize, 10_000) : 16;
+        final int rowLimit = maxRows > 0 ? maxRows : Integer.MAX_VALUE;
+        if (primitiveColumns) {
+            return convertToColumnarDataSet(batchId, resultSet, columnOrder,
+                    Arrays.copyOf(columnIndexes, columnCount), Arrays.copyOf(columnTypes, columnCount),
+                    Arrays.copyOf(columnStorages, columnCount), partition, expectedRows, lobSpillThreshold,
+                    rowLimit);
+        }
+        final List<List<Object>> results = new ArrayList<>(expectedRows);
+        while (results.size() < rowLimit && resultSet.next()) {
+            final Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = databaseMigrationDataTypeMapperService.dataTypeMapper(resultSet.getObject(columnIndexes[i]),
+                        columnTypes[i], lobSpillThreshold);
             }
-            results.add(row);
+            results.add(DefaultDataSet.newRow(row));
         }
         return new DefaultDataSet(batchId, columnCount, columnOrder, results, partition);
     }
 
+    /**
+     * Reads integral and floating point columns with the typed getters of the result set into primitive column
+     * vectors, all other columns are read as objects and passed through the data type mapper.
+     */
+    private DataSet convertToColumnarDataSet(int batchId, ResultSet resultSet, List<DataColumn> columnOrder,
+            int[] columnIndexes, int[] columnTypes, ColumnarDataSet.ColumnStorage[] columnStorages,
+            final String partition, int expectedRows, long lobSpillThreshold, int rowLimit) throws Exception {
+        final ColumnarDataSet.Builder builder = new ColumnarDataSet.Builder(batchId, columnOrder, columnStorages,
+                partition, expectedRows);
+        for (int rows = 0; rows < rowLimit && resultSet.next(); rows++) {
+            for (int i = 0; i < columnStorages.length; i++) {
+                switch (columnStorages[i]) {
+                    case LONG :
+                        final long longValue = resultSet.getLong(columnIndexes[i]);
+                        builder.appendLong(i, longValue, resultSet.wasNull());
+                        break;
+                    case INT :
+                        final int intValue = resultSet.getInt(columnIndexes[i]);
+                        builder.appendInt(i, intValue, resultSet.wasNull());
+                        break;
+                    case DOUBLE :
+                        final double doubleValue = resultSet.getDouble(columnIndexes[i]);
+                        builder.appendDouble(i, doubleValue, resultSet.wasNull());
+                        break;
+                    default :
+                        builder.appendObject(i, databaseMigrationDataTypeMapperService.dataTypeMapper(
+                                resultSet.getObject(columnIndexes[i]), columnTypes[i], lobSpillThreshold));
+                        break;
+                }
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
     @Override
     public void disableIndexesOfTable(String table) throws SQLException {
         final String disableIndexesScript;
@@ -572,10 +638,10 @@ public abstract class AbstractDataRepository implements DataRepository {
         }
         LOG.debug("Batch query table: {}, offset: {}, batchSize: {}, orderByColumns: {}", queryDefinition.getTable(),
                 queryDefinition.getOffset(), queryDefinition.getBatchSize(), queryDefinition.getOrderByColumns());
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildOffsetBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             int paramIdx = 0;
             if (time != null) {
                 stmt.setTimestamp(++paramIdx, Timestamp.from(time));
@@ -600,44 +666,201 @@ public abstract class AbstractDataRepository implements DataRepository {
         // get batches with modifiedts >= configured time for incremental migration
         List<String> conditionsList = new ArrayList<>(2);
         processDefaultConditions(queryDefinition.getTable(), conditionsList);
-        int conditionIndex = 1;
-        int timeConditionIndex = 0;
+        final List<String> keyColumns = queryDefinition.getKeyColumns();
+        final boolean keyset = keyColumns != null && !keyColumns.isEmpty();
         if (time != null) {
             conditionsList.add("modifiedts > ?");
-            timeConditionIndex = conditionIndex++;
         }
-        int lastColumnConditionIndex = 0;
         if (queryDefinition.getLastColumnValue() != null) {
-            conditionsList.add(String.format(getLastValueCondition(), queryDefinition.getColumn()));
-            lastColumnConditionIndex = conditionIndex++;
+            conditionsList.add(keyset
+                    ? getKeysetCondition(keyColumns, true)
+                    : String.format(queryDefinition.isLastColumnValueExclusive()
+                            ? getLastValueExclusiveCondition()
+                            : getLastValueCondition(), queryDefinition.getColumn()));
         }
-        int nextColumnConditionIndex = 0;
         if (queryDefinition.getNextColumnValue() != null) {
-            conditionsList.add(String.format(getNextValueCondition(), queryDefinition.getColumn()));
-            nextColumnConditionIndex = conditionIndex++;
+            conditionsList.add(keyset
+                    ? getKeysetCondition(keyColumns, false)
+                    : String.format(getNextValueCondition(), queryDefinition.getColumn()));
         }
         String[] conditions = null;
         if (conditionsList.size() > 0) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildValueBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
-            if (timeConditionIndex > 0) {
-                stmt.setTimestamp(timeConditionIndex, Timestamp.from(time));
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
+            // parameters are bound in the order the conditions were added
+            int paramIdx = 0;
+            if (time != null) {
+                stmt.setTimestamp(++paramIdx, Timestamp.from(time));
             }
-            if (lastColumnConditionIndex > 0) {
-                stmt.setObject(lastColumnConditionIndex, queryDefinition.getLastColumnValue());
+            if (queryDefinition.getLastColumnValue() != null) {
+                paramIdx = keyset
+                        ? setKeysetParameters(stmt, paramIdx, (List<?>) queryDefinition.getLastColumnValue())
+                        : setParameter(stmt, paramIdx, queryDefinition.getLastColumnValue());
             }
-            if (nextColumnConditionIndex > 0) {
-                stmt.setObject(nextColumnConditionIndex, queryDefinition.getNextColumnValue());
+            if (queryDefinition.getNextColumnValue() != null) {
+                paramIdx = keyset
+                        ? setKeysetParameters(stmt, paramIdx, (List<?>) queryDefinition.getNextColumnValue())
+                        : setParameter(stmt, paramIdx, queryDefinition.getNextColumnValue());
             }
             ResultSet resultSet = stmt.executeQuery();
             return convertToBatchDataSet(queryDefinition.getBatchId(), resultSet, queryDefinition.getPartition());
         }
     }
 
+    @Override
+    public DataSetCursor openBatchCursorOrderedByColumn(SeekQueryDefinition queryDefinition, Instant time)
+            throws Exception {
+        List<String> conditionsList = new ArrayList<>(3);
+        processDefaultConditions(queryDefinition.getTable(), conditionsList);
+        if (time != null) {
+            conditionsList.add("modifiedts > ?");
+        }
+        if (queryDefinition.getLastColumnValue() != null) {
+            conditionsList.add(String.format(getLastValueCondition(), queryDefinition.getColumn()));
+        }
+        if (queryDefinition.getNextColumnValue() != null) {
+            conditionsList.add(String.format(getNextValueCondition(), queryDefinition.getColumn()));
+        }
+        String[] conditions = null;
+        if (!conditionsList.isEmpty()) {
+            conditions = conditionsList.toArray(new String[conditionsList.size()]);
+        }
+        final Connection connection = getReadConnection();
+        try {
+            final PreparedStatement stmt = connection
+                    .prepareStatement(buildValueCursorQuery(queryDefinition, conditions));
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
+            int paramIdx = 0;
+            if (time != null) {
+                stmt.setTimestamp(++paramIdx, Timestamp.from(time));
+            }
+            if (queryDefinition.getLastColumnValue() != null) {
+                paramIdx = setParameter(stmt, paramIdx, queryDefinition.getLastColumnValue());
+            }
+            if (queryDefinition.getNextColumnValue() != null) {
+                setParameter(stmt, paramIdx, queryDefinition.getNextColumnValue());
+            }
+            return new ResultSetCursor(connection, stmt, stmt.executeQuery(), queryDefinition.getPartition());
+        } catch (Exception e) {
+            closeCursorConnection(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the query reading all rows of the range of the query definition ordered by its column, without limiting
+     * them to the batch size
+     */
+    protected String buildValueCursorQuery(SeekQueryDefinition queryDefinition, String... conditions) {
+        return String.format("SELECT %s FROM %s WHERE %s ORDER BY %s", getSelectList(queryDefinition.getColumns()),
+                queryDefinition.getTable(), expandConditions(conditions), queryDefinition.getColumn());
+    }
+
+    private static void closeCursorConnection(Connection connection) throws SQLException {
+        try {
+            if (!connection.getAutoCommit()) {
+                // the cursor only read, nothing to commit
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private class ResultSetCursor implements DataSetCursor {
+        private final Connection connection;
+        private final PreparedStatement stmt;
+        private final ResultSet resultSet;
+        private final String partition;
+
+        private ResultSetCursor(Connection connection, PreparedStatement stmt, ResultSet resultSet,
+                String partition) {
+            this.connection = connection;
+            this.stmt = stmt;
+            this.resultSet = resultSet;
+            this.partition = partition;
+        }
+
+        @Override
+        public DataSet next(int batchId, long maxRows) throws Exception {
+            return convertToDataSet(batchId, resultSet, Collections.emptySet(), partition,
+                    (int) Math.min(maxRows, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                resultSet.close();
+                stmt.close();
+            } finally {
+                closeCursorConnection(connection);
+            }
+        }
+    }
+
+    private static int setParameter(PreparedStatement stmt, int paramIdx, Object value) throws SQLException {
+        stmt.setObject(++paramIdx, value);
+        return paramIdx;
+    }
+
+    /**
+     * Builds the condition comparing the key columns with a key in lexicographic order. Unless the database
+     * compares row values, the comparison is expanded to {@code (a > ?) OR (a = ? AND b >= ?)}, which the
+     * databases still resolve as a range on an index over the key columns.
+     *
+     * @param lowerBound
+     *            true for the inclusive lower bound of a batch, false for its exclusive upper bound
+     */
+    protected String getKeysetCondition(List<String> keyColumns, boolean lowerBound) {
+        if (hasRowValueComparison()) {
+            return String.format("(%s) %s (%s)", Joiner.on(", ").join(keyColumns), lowerBound ? ">=" : "<",
+                    Joiner.on(", ").join(Collections.nCopies(keyColumns.size(), "?")));
+        }
+        final List<String> terms = new ArrayList<>(keyColumns.size());
+        for (int i = 0; i < keyColumns.size(); i++) {
+            final StringBuilder term = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                term.append(keyColumns.get(j)).append(" = ? AND ");
+            }
+            final boolean lastColumn = i == keyColumns.size() - 1;
+            term.append(keyColumns.get(i)).append(lowerBound ? (lastColumn ? " >= ?" : " > ?") : " < ?").append(')');
+            terms.add(term.toString());
+        }
+        return "(" + Joiner.on(" OR ").join(terms) + ")";
+    }
+
+    /**
+     * Binds the key values to the parameters of a condition built by {@link #getKeysetCondition(List, boolean)}
+     *
+     * @return the index of the last bound parameter
+     */
+    protected int setKeysetParameters(PreparedStatement stmt, int paramIdx, List<?> keyValues) throws SQLException {
+        if (hasRowValueComparison()) {
+            for (Object keyValue : keyValues) {
+                stmt.setObject(++paramIdx, keyValue);
+            }
+        } else {
+            for (int i = 0; i < keyValues.size(); i++) {
+                for (int j = 0; j <= i; j++) {
+                    stmt.setObject(++paramIdx, keyValues.get(j));
+                }
+            }
+        }
+        return paramIdx;
+    }
+
+    /**
+     * @return true if the database compares row values like {@code (a, b) >= (?, ?)} and uses indexes for them
+     */
+    protected boolean hasRowValueComparison() {
+        return false;
+    }
+
     protected String getLastValueCondition() {
         return "%s >= ?";
     }
@@ -646,6 +869,10 @@ public abstract class AbstractDataRepository implements DataRepository {
         return "%s < ?";
     }
 
+    protected String getLastValueExclusiveCondition() {
+        return "%s > ?";
+    }
+
     @Override
     public DataSet getBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition) throws Exception {
         return getBatchMarkersOrderedByColumn(queryDefinition, null);
@@ -664,10 +891,18 @@ public abstract class AbstractDataRepository implements DataRepository {
         if (!conditionsList.isEmpty()) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connection = getConnection();
+        if (queryDefinition.getSamplePercent() > 0) {
+            final String sampleQuery = buildBatchMarkersSampleQuery(queryDefinition, conditions);
+            if (sampleQuery != null) {
+                return getSampledBatchMarkers(queryDefinition, sampleQuery, conditions, time);
+            }
+            LOG.debug("Sampling not supported, numbering all rows of {} for batch markers",
+                    queryDefinition.getTable());
+        }
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildBatchMarkersQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             int paramIdx = 0;
             if (time != null) {
                 stmt.setTimestamp(++paramIdx, Timestamp.from(time));
@@ -680,6 +915,119 @@ public abstract class AbstractDataRepository implements DataRepository {
         }
     }
 
+    @Override
+    public void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, BatchMarkerHandler handler)
+            throws Exception {
+        streamBatchMarkersOrderedByColumn(queryDefinition, null, handler);
+    }
+
+    @Override
+    public void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, Instant time,
+            BatchMarkerHandler handler) throws Exception {
+        if (queryDefinition.isDeletionEnabled() || queryDefinition.isLpTableEnabled()
+                || queryDefinition.getSamplePercent() > 0) {
+            // markers of those are read by dedicated queries or are few, they are passed on once all are read
+            for (List<Object> marker : getBatchMarkersOrderedByColumn(queryDefinition, time).getAllResults()) {
+                handler.accept(marker);
+            }
+            return;
+        }
+        List<String> conditionsList = new ArrayList<>(2);
+        processDefaultConditions(queryDefinition.getTable(), conditionsList);
+        if (time != null) {
+            conditionsList.add("modifiedts > ?");
+        }
+        String[] conditions = null;
+        if (!conditionsList.isEmpty()) {
+            conditions = conditionsList.toArray(new String[conditionsList.size()]);
+        }
+        try (Connection connection = getReadConnection();
+                PreparedStatement stmt = connection
+                        .prepareStatement(buildBatchMarkersQuery(queryDefinition, conditions))) {
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
+            int paramIdx = 0;
+            if (time != null) {
+                stmt.setTimestamp(++paramIdx, Timestamp.from(time));
+            }
+            if (hasParameterizedBatchMarkersQuery()) {
+                stmt.setLong(++paramIdx, queryDefinition.getBatchSize());
+            }
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                final ResultSetMetaData metaData = resultSet.getMetaData();
+                final int columnCount = metaData.getColumnCount();
+                final int[] columnTypes = new int[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnTypes[i] = metaData.getColumnType(i + 1);
+                }
+                final long lobSpillThreshold = migrationContext.getLobSpillThreshold();
+                while (resultSet.next()) {
+                    final Object[] marker = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        marker[i] = databaseMigrationDataTypeMapperService
+                                .dataTypeMapper(resultSet.getObject(i + 1), columnTypes[i], lobSpillThreshold);
+                    }
+                    handler.accept(DefaultDataSet.newRow(marker));
+                }
+            }
+        }
+    }
+
+    /**
+     * Derives the batch markers from a sample of the batch column: the smallest value, followed by every n-th sampled
+     * value, n being the number of values expected to be sampled per batch. The batches between the markers hold
+     * approximately the batch size of rows.
+     */
+    private DataSet getSampledBatchMarkers(MarkersQueryDefinition queryDefinition, String sampleQuery,
+            String[] conditions, Instant time) throws Exception {
+        final String column = queryDefinition.getColumn();
+        final double valuesPerBatch = Math.max(1d,
+                queryDefinition.getBatchSize() * queryDefinition.getSamplePercent() / 100);
+        final List<List<Object>> markers = new ArrayList<>();
+        final List<DataColumn> columnOrder = new ArrayList<>(1);
+        try (Connection connection = getReadConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement(String.format("SELECT MIN(%s) FROM %s WHERE %s",
+                    column, queryDefinition.getTable(), expandConditions(conditions)))) {
+                if (time != null) {
+                    stmt.setTimestamp(1, Timestamp.from(time));
+                }
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    if (resultSet.next() && resultSet.getObject(1) != null) {
+                        markers.add(DefaultDataSet.newRow(new Object[]{resultSet.getObject(1)}));
+                    }
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(sampleQuery)) {
+                setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
+                if (time != null) {
+                    stmt.setTimestamp(1, Timestamp.from(time));
+                }
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    final ResultSetMetaData metaData = resultSet.getMetaData();
+                    columnOrder.add(new DefaultDataColumn(metaData.getColumnName(1), metaData.getColumnType(1),
+                            metaData.getPrecision(1), metaData.getScale(1)));
+                    Object previousMarker = markers.isEmpty() ? null : markers.get(0).get(0);
+                    long sampledValues = 0;
+                    double nextMarker = valuesPerBatch;
+                    while (resultSet.next() && !markers.isEmpty()) {
+                        if (++sampledValues < nextMarker) {
+                            continue;
+                        }
+                        nextMarker += valuesPerBatch;
+                        final Object value = resultSet.getObject(1);
+                        // the smallest value may have been sampled as well
+                        if (!Objects.equals(previousMarker, value)) {
+                            markers.add(DefaultDataSet.newRow(new Object[]{value}));
+                            previousMarker = value;
+                        }
+                    }
+                }
+            }
+        }
+        LOG.debug("Derived {} batch markers for {} from a {}% sample", markers.size(), queryDefinition.getTable(),
+                queryDefinition.getSamplePercent());
+        return new DefaultDataSet(0, 1, columnOrder, markers, queryDefinition.getPartition());
+    }
+
     @Override
     public DataSet getUniqueColumns(String table) throws Exception {
         try (Connection connection = getConnection(); Statement stmt = connection.createStatement()) {
@@ -698,10 +1046,58 @@ public abstract class AbstractDataRepository implements DataRepository {
 
     protected abstract String buildBatchMarkersQuery(MarkersQueryDefinition queryDefinition, String... conditions);
 
+    /**
+     * Opens a connection for reading rows of the source. Together with {@link #setStreamingFetchSize(Statement, long)}
+     * the dialects make sure the driver streams the rows by the fetch size, instead of buffering the whole result on
+     * the client.
+     */
+    protected Connection getReadConnection() throws SQLException {
+        final Connection connection = getConnection();
+        if (isStreamingInTransaction()) {
+            // the pool rolls back and restores the auto-commit mode when the connection is returned
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    /**
+     * @return true if the driver only fetches results by the fetch size within a transaction
+     */
+    protected boolean isStreamingInTransaction() {
+        return false;
+    }
+
+    @Override
+    public boolean isLongLivedResultSetSupported() {
+        return true;
+    }
+
+    /**
+     * Sets the fetch size of a statement reading rows of the source, the number of rows the driver holds at a time
+     */
+    protected void setStreamingFetchSize(Statement stmt, long fetchSize) throws SQLException {
+        stmt.setFetchSize(Long.valueOf(fetchSize).intValue());
+    }
+
     protected boolean hasParameterizedBatchMarkersQuery() {
         return false;
     }
 
+    /**
+     * Builds the query reading a sample of the batch column of about the percentage of the table given by the query
+     * definition, ordered by the column. Block sampling is sufficient, as only the distribution of the values matters.
+     *
+     * @return the query, null if the database does not support sampling
+     */
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        return null;
+    }
+
+    protected static String formatSamplePercent(double samplePercent) {
+        return BigDecimal.valueOf(samplePercent).setScale(6, RoundingMode.HALF_UP).stripTrailingZeros()
+                .toPlainString();
+    }
+
     protected abstract String createUniqueColumnsQuery(String tableName);
 
     protected void processDefaultConditions(String table, List<String> conditionsList) {
@@ -735,6 +1131,17 @@ public abstract class AbstractDataRepository implements DataRepository {
         }
     }
 
+    /**
+     * @return the select list reading the given columns, all columns if none are given
+     */
+    protected String getSelectList(Collection<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return "*";
+        } else {
+            return Joiner.on(", ").join(columns);
+        }
+    }
+
     protected DataSet convertToBatchDataSet(int batchId, ResultSet resultSet) throws Exception {
         return convertToDataSet(batchId, resultSet, null);
     }
@@ -796,6 +1203,184 @@ public abstract class AbstractDataRepository implements DataRepository {
         return StringUtils.removeEndIgnoreCase(tableName, LP_SUFFIX);
     }
 
+    @Override
+    public String buildBulkInsertStatement(String table, List<String> columnsToCopy, int rowCount) {
+        final String rowParams = columnsToCopy.stream().map(column -> "?").collect(Collectors.joining(", ", "(", ")"));
+        return String.format("INSERT INTO %s (%s) VALUES %s", table, String.join(", ", columnsToCopy),
+                String.join(", ", Collections.nCopies(rowCount, rowParams)));
+    }
+
+    @Override
+    public int getMaxBulkInsertRows(int columnCount) {
+        return Math.max(1, Math.min(getMaxBulkInsertRowsPerStatement(),
+                getMaxStatementParameters() / Math.max(1, columnCount)));
+    }
+
+    @Override
+    public String getStagingTableName(String table) {
+        throw new UnsupportedOperationException(
+                "Staged upsert is not supported for '" + getDatabaseProvider().getDbName() + "' database");
+    }
+
+    /**
+     * Builds the name of a staging table from the given prefix and table name. Names exceeding the identifier limit
+     * of the database are shortened and suffixed with a hash of the table name, so that tables sharing a prefix get
+     * staging tables of their own.
+     */
+    protected static String getStagingTableName(String prefix, String table, int maxLength) {
+        final String stagingTable = prefix + table;
+        if (stagingTable.length() <= maxLength) {
+            return stagingTable;
+        }
+        final String hash = String.format("_%08x", table.toLowerCase(Locale.ROOT).hashCode());
+        return stagingTable.substring(0, maxLength - hash.length()) + hash;
+    }
+
+    /**
+     * A staging table left by a previous use of the session, or a permanent one, is reused if its columns match the
+     * given columns of the target table, otherwise it is dropped and created again.
+     */
+    @Override
+    public void createStagingTable(Connection connection, String table, List<String> columnsToCopy)
+            throws SQLException {
+        final String createStagingTableStatement = buildCreateStagingTableStatement(table, columnsToCopy);
+        LOG.debug("Running query: {}", createStagingTableStatement);
+        try (Statement stmt = connection.createStatement()) {
+            try {
+                stmt.execute(createStagingTableStatement);
+            } catch (SQLException e) {
+                if (!isDuplicateTableError(e)) {
+                    throw e;
+                }
+            }
+            if (!hasSameColumns(stmt, getStagingTableName(table), table, columnsToCopy)) {
+                LOG.info("Recreating staging table {}, its columns differ from table {}", getStagingTableName(table),
+                        table);
+                stmt.execute(buildDropStagingTableStatement(table));
+                stmt.execute(createStagingTableStatement);
+            }
+        }
+    }
+
+    private static boolean hasSameColumns(Statement stmt, String stagingTable, String table,
+            List<String> columnsToCopy) throws SQLException {
+        final int[][] stagingColumns;
+        try (ResultSet stagingResult = stmt.executeQuery(
+                String.format("SELECT * FROM %s WHERE 1 = 0", stagingTable))) {
+            final ResultSetMetaData stagingMeta = stagingResult.getMetaData();
+            if (stagingMeta.getColumnCount() != columnsToCopy.size()) {
+                return false;
+            }
+            stagingColumns = new int[columnsToCopy.size()][];
+            for (int i = 0; i < columnsToCopy.size(); i++) {
+                if (!stagingMeta.getColumnName(i + 1)
+                        .equalsIgnoreCase(StringUtils.strip(columnsToCopy.get(i), "\"`[]"))) {
+                    return false;
+                }
+                stagingColumns[i] = new int[]{stagingMeta.getColumnType(i + 1), stagingMeta.getPrecision(i + 1),
+                        stagingMeta.getScale(i + 1)};
+            }
+        }
+        try (ResultSet targetResult = stmt.executeQuery(
+                String.format("SELECT %s FROM %s WHERE 1 = 0", String.join(", ", columnsToCopy), table))) {
+            final ResultSetMetaData targetMeta = targetResult.getMetaData();
+            for (int i = 0; i < columnsToCopy.size(); i++) {
+                if (stagingColumns[i][0] != targetMeta.getColumnType(i + 1)
+                        || stagingColumns[i][1] != targetMeta.getPrecision(i + 1)
+                        || stagingColumns[i][2] != targetMeta.getScale(i + 1)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        throw new UnsupportedOperationException(
+                "Staged upsert is not supported for '" + getDatabaseProvider().getDbName() + "' database");
+    }
+
+    /**
+     * @return true if the error was raised by creating a staging table that exists already
+     */
+    protected boolean isDuplicateTableError(SQLException e) {
+        return false;
+    }
+
+    protected String buildDropStagingTableStatement(String table) {
+        return "DROP TABLE " + getStagingTableName(table);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        throw new UnsupportedOperationException(
+                "Staged upsert is not supported for '" + getDatabaseProvider().getDbName() + "' database");
+    }
+
+    @Override
+    public String buildClearStagingTableStatement(String table) {
+        return "DELETE FROM " + getStagingTableName(table);
+    }
+
+    @Override
+    public String buildDirectPathInsertStatement(String table, List<String> columnsToCopy) {
+        throw new UnsupportedOperationException(
+                "Direct-path insert is not supported for '" + getDatabaseProvider().getDbName() + "' database");
+    }
+
+    @Override
+    public void setTableLoggingEnabled(String table, boolean enabled) throws SQLException {
+        final String tableLoggingStatement;
+
+        try {
+            tableLoggingStatement = getTableLoggingStatement(table, enabled);
+        } catch (UnsupportedOperationException ignored) {
+            LOG.debug("Table logging operation is not supported for '{}' database", getDatabaseProvider().getDbName());
+            return;
+        }
+
+        LOG.debug("Running query: {}", tableLoggingStatement);
+        executeUpdateAndCommit(tableLoggingStatement);
+    }
+
+    protected String getTableLoggingStatement(String table, boolean enabled) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String buildBulkDeleteStatement(String table, String keyColumn, int keyCount) {
+        return String.format("DELETE FROM %s WHERE %s IN (%s)", table, keyColumn,
+                String.join(", ", Collections.nCopies(keyCount, "?")));
+    }
+
+    @Override
+    public int getMaxBulkDeleteKeys() {
+        return Math.max(1, Math.min(getMaxInListSize(), getMaxStatementParameters()));
+    }
+
+    /**
+     * @return maximum number of expressions of an IN list
+     */
+    protected int getMaxInListSize() {
+        // Oracle rejects IN lists with more than 1000 expressions (ORA-01795)
+        return 1000;
+    }
+
+    /**
+     * @return maximum number of bind parameters of a single statement
+     */
+    protected int getMaxStatementParameters() {
+        return Short.MAX_VALUE;
+    }
+
+    /**
+     * @return maximum number of rows of a single multi row insert statement,
+     *         regardless of the number of parameters
+     */
+    protected int getMaxBulkInsertRowsPerStatement() {
+        return 1000;
+    }
+
     protected abstract String getBulkInsertStatementParamList(List<String> columnsToCopy,
             List<String> columnsToCopyValues);
 
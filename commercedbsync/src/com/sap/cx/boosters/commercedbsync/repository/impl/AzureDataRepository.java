@@ -18,6 +18,7 @@ import javax.sql.DataSource;
 import com.google.common.base.Joiner;
 import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import org.apache.ddlutils.Platform;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,16 @@ public class AzureDataRepository extends AbstractDataRepository {
     public AzureDataRepository(MigrationContext migrationContext, DataSourceConfiguration dataSourceConfiguration,
             DatabaseMigrationDataTypeMapperService databaseMigrationDataTypeMapperService) {
         super(migrationContext, dataSourceConfiguration, databaseMigrationDataTypeMapperService);
+        ensureAdaptiveResponseBuffering(dataSourceConfiguration);
+    }
+
+    private static void ensureAdaptiveResponseBuffering(DataSourceConfiguration dataSourceConfiguration) {
+        // mssql-jdbc streams results with adaptive response buffering, its default
+        if (StringUtils.containsIgnoreCase(dataSourceConfiguration.getConnectionString(), "responseBuffering=full")) {
+            LOG.warn("Connection {} reads whole results at once (responseBuffering=full), "
+                    + "remove the setting to stream the rows of large batches",
+                    dataSourceConfiguration.getProfile());
+        }
     }
 
     @Override
@@ -60,8 +71,9 @@ public class AzureDataRepository extends AbstractDataRepository {
     @Override
     protected String buildOffsetBatchQuery(OffsetQueryDefinition queryDefinition, String... conditions) {
         final String batchQuery = String.format(
-                "SELECT * FROM %s WHERE %s ORDER BY %s OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
-                queryDefinition.getTable(), expandConditions(conditions), queryDefinition.getOrderByColumns());
+                "SELECT %s FROM %s WHERE %s ORDER BY %s OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getOrderByColumns());
         LOG.debug("Executing batch query {}", batchQuery);
         return batchQuery;
     }
@@ -73,8 +85,9 @@ public class AzureDataRepository extends AbstractDataRepository {
 
     @Override
     protected String buildValueBatchQuery(SeekQueryDefinition queryDefinition, String... conditions) {
-        return String.format("SELECT TOP %s * FROM %s WHERE %s ORDER BY %s", queryDefinition.getBatchSize(),
-                queryDefinition.getTable(), expandConditions(conditions), queryDefinition.getColumn());
+        return String.format("SELECT TOP %s %s FROM %s WHERE %s ORDER BY %s", queryDefinition.getBatchSize(),
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getColumn());
     }
 
     @Override
@@ -101,6 +114,14 @@ public class AzureDataRepository extends AbstractDataRepository {
         return true;
     }
 
+    @Override
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        return String.format("SELECT %s FROM %s TABLESAMPLE (%s PERCENT) WHERE %s ORDER BY %s",
+                queryDefinition.getColumn(), queryDefinition.getTable(),
+                formatSamplePercent(queryDefinition.getSamplePercent()), expandConditions(conditions),
+                queryDefinition.getColumn());
+    }
+
     @Override
     public String buildBulkUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
         /*
@@ -131,6 +152,59 @@ public class AzureDataRepository extends AbstractDataRepository {
         return sqlBuilder.toString();
     }
 
+    @Override
+    public String getStagingTableName(String table) {
+        // names of local temporary tables are limited to 116 characters
+        return getStagingTableName("#migration_stage_", table, 116);
+    }
+
+    @Override
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        // the UNION ALL drops the identity property of the copied columns, the
+        // staging table must not be created as prepared statement, otherwise it is
+        // dropped again at the end of the statement
+        final String stagingTable = getStagingTableName(table);
+        final String columns = String.join(", ", columnsToCopy);
+        return String.format(
+                "IF OBJECT_ID('tempdb..%s') IS NULL SELECT TOP 0 %s INTO %s FROM %s UNION ALL SELECT TOP 0 %s FROM %s",
+                stagingTable, columns, stagingTable, table, columns, table);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+
+        sqlBuilder.append(String.format("MERGE %s WITH (HOLDLOCK) AS t", table));
+        sqlBuilder.append("\n");
+        sqlBuilder.append(String.format("USING %s AS s ON ", getStagingTableName(table)));
+        sqlBuilder.append(String.format("( %s )", upsertIDs.stream()
+                .map(column -> String.format(" t.%s = s.%s", column, column)).collect(Collectors.joining(" AND "))));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN MATCHED THEN UPDATE"); // update
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkUpdateStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList()), upsertIDs));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN NOT MATCHED THEN INSERT"); // insert
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkInsertStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList())));
+        sqlBuilder.append(";");
+
+        return sqlBuilder.toString();
+    }
+
+    @Override
+    public String buildClearStagingTableStatement(String table) {
+        return "TRUNCATE TABLE " + getStagingTableName(table);
+    }
+
+    @Override
+    protected int getMaxStatementParameters() {
+        // SQL Server accepts at most 2100 parameters per request, keep some headroom for the driver
+        return 2000;
+    }
+
     @Override
     protected String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
         return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
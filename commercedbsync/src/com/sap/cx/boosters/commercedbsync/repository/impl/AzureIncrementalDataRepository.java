@@ -121,10 +121,10 @@ public class AzureIncrementalDataRepository extends AzureDataRepository {
         if (conditionsList.size() > 0) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connectionForPk = getConnection();
+        try (Connection connectionForPk = getReadConnection();
                 PreparedStatement stmt = connectionForPk
                         .prepareStatement(buildValueBatchQueryForLpTable(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             if (time != null) {
                 stmt.setTimestamp(1, Timestamp.from(time));
             }
@@ -188,10 +188,10 @@ public class AzureIncrementalDataRepository extends AzureDataRepository {
                     .add(String.format("%s < %s", queryDefinition.getColumn(), queryDefinition.getNextColumnValue()));
         }
         String[] conditions = conditionsList.toArray(new String[conditionsList.size()]);
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildValueBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             stmt.setString(1, queryDefinition.getTable());
 
             if (time != null) {
@@ -226,10 +226,10 @@ public class AzureIncrementalDataRepository extends AzureDataRepository {
             conditionsList.add("modifiedts > ?");
         }
         String[] conditions = conditionsList.toArray(new String[conditionsList.size()]);
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildOffsetBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             stmt.setString(1, queryDefinition.getTable());
 
             if (time != null) {
@@ -253,10 +253,10 @@ public class AzureIncrementalDataRepository extends AzureDataRepository {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
         List<String> pkList;
-        try (Connection connectionForPk = getConnection();
+        try (Connection connectionForPk = getReadConnection();
                 PreparedStatement stmt = connectionForPk
                         .prepareStatement(buildOffsetBatchQueryForLpTable(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             if (time != null) {
                 stmt.setTimestamp(1, Timestamp.from(time));
             }
@@ -292,10 +292,10 @@ public class AzureIncrementalDataRepository extends AzureDataRepository {
 
         String[] conditions = conditionsList.toArray(new String[conditionsList.size()]);
 
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildBatchMarkersQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
 
             stmt.setString(1, queryDefinition.getTable());
 
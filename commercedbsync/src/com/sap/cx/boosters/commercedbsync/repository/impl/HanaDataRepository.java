@@ -10,6 +10,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Types;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -50,20 +51,22 @@ public class HanaDataRepository extends AbstractDataRepository {
 
     @Override
     protected String buildOffsetBatchQuery(OffsetQueryDefinition queryDefinition, String... conditions) {
-        return String.format("select * from %s where %s order by %s limit %s offset %s", queryDefinition.getTable(),
-                expandConditions(conditions), queryDefinition.getOrderByColumns(), queryDefinition.getBatchSize(),
-                queryDefinition.getOffset());
+        return String.format("select %s from %s where %s order by %s limit %s offset %s",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getOrderByColumns(), queryDefinition.getBatchSize(), queryDefinition.getOffset());
     }
 
     @Override
     protected String buildValueBatchQuery(SeekQueryDefinition queryDefinition, String... conditions) {
         if (queryDefinition.getPartition() == null) {
-            return String.format("select * from %s where %s order by %s limit %s", queryDefinition.getTable(),
+            return String.format("select %s from %s where %s order by %s limit %s",
+                    getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(),
                     expandConditions(conditions), queryDefinition.getColumn(), queryDefinition.getBatchSize());
         } else {
-            return String.format("select * from %s PARTITION(%s) where %s order by %s limit %s",
-                    queryDefinition.getTable(), queryDefinition.getPartition(), expandConditions(conditions),
-                    queryDefinition.getColumn(), queryDefinition.getBatchSize());
+            return String.format("select %s from %s PARTITION(%s) where %s order by %s limit %s",
+                    getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(),
+                    queryDefinition.getPartition(), expandConditions(conditions), queryDefinition.getColumn(),
+                    queryDefinition.getBatchSize());
         }
     }
 
@@ -133,6 +136,14 @@ public class HanaDataRepository extends AbstractDataRepository {
         databasePopulator.execute(getDataSource());
     }
 
+    @Override
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        return String.format("select %s from %s tablesample system (%s) where %s order by %s",
+                queryDefinition.getColumn(), queryDefinition.getTable(),
+                formatSamplePercent(queryDefinition.getSamplePercent()), expandConditions(conditions),
+                queryDefinition.getColumn());
+    }
+
     @Override
     protected String createUniqueColumnsQuery(String tableName) {
         // spotless:off
@@ -189,6 +200,55 @@ public class HanaDataRepository extends AbstractDataRepository {
         return sqlBuilder.toString();
     }
 
+    @Override
+    public String getStagingTableName(String table) {
+        // identifiers are limited to 127 characters
+        return getStagingTableName("#MIGRATION_STAGE_", table, 127);
+    }
+
+    @Override
+    protected boolean isDuplicateTableError(SQLException e) {
+        // 288: cannot use duplicate table name, the session created it already
+        return e.getErrorCode() == 288;
+    }
+
+    @Override
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        return String.format("CREATE LOCAL TEMPORARY TABLE %s AS (SELECT %s FROM %s) WITH NO DATA",
+                getStagingTableName(table), String.join(", ", columnsToCopy), table);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+
+        sqlBuilder.append(String.format("MERGE INTO %s t", table));
+        sqlBuilder.append("\n");
+        sqlBuilder.append(String.format("USING %s s ON ", getStagingTableName(table)));
+        sqlBuilder.append(String.format("( %s )", upsertIDs.stream()
+                .map(column -> String.format(" t.%s = s.%s", column, column)).collect(Collectors.joining(" AND "))));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN MATCHED THEN UPDATE"); // update
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkUpdateStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList()), upsertIDs));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN NOT MATCHED THEN INSERT"); // insert
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkInsertStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList())));
+
+        return sqlBuilder.toString();
+    }
+
+    @Override
+    public String buildBulkInsertStatement(String table, List<String> columnsToCopy, int rowCount) {
+        final String rowSelect = String.format("SELECT %s FROM dummy",
+                columnsToCopy.stream().map(column -> "?").collect(Collectors.joining(", ")));
+        return String.format("INSERT INTO %s (%s) %s", table, String.join(", ", columnsToCopy),
+                String.join(" UNION ALL ", Collections.nCopies(rowCount, rowSelect)));
+    }
+
     @Override
     protected String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
         return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
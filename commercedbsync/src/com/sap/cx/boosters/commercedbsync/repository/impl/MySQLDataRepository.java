@@ -18,6 +18,7 @@ import de.hybris.bootstrap.ddl.DataBaseProvider;
 import de.hybris.bootstrap.ddl.DatabaseSettings;
 import de.hybris.bootstrap.ddl.HybrisPlatform;
 import org.apache.ddlutils.Platform;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
@@ -27,15 +28,21 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collections;
 import java.util.List;
 
 public class MySQLDataRepository extends AbstractDataRepository {
     private static final Logger LOG = LoggerFactory.getLogger(MySQLDataRepository.class);
 
+    private final boolean cursorFetch;
+
     public MySQLDataRepository(MigrationContext migrationContext, DataSourceConfiguration dataSourceConfiguration,
             DatabaseMigrationDataTypeMapperService databaseMigrationDataTypeMapperService) {
         super(migrationContext, dataSourceConfiguration, databaseMigrationDataTypeMapperService);
+        this.cursorFetch = StringUtils.containsIgnoreCase(dataSourceConfiguration.getConnectionString(),
+                "useCursorFetch=true");
     }
 
     @Override
@@ -47,8 +54,9 @@ public class MySQLDataRepository extends AbstractDataRepository {
 
     @Override
     protected String buildOffsetBatchQuery(OffsetQueryDefinition queryDefinition, String... conditions) {
-        return String.format("select * from %s where %s order by %s limit ?,?", queryDefinition.getTable(),
-                expandConditions(conditions), queryDefinition.getOrderByColumns());
+        return String.format("select %s from %s where %s order by %s limit ?,?",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getOrderByColumns());
     }
 
     @Override
@@ -66,8 +74,9 @@ public class MySQLDataRepository extends AbstractDataRepository {
 
     @Override
     protected String buildValueBatchQuery(SeekQueryDefinition queryDefinition, String... conditions) {
-        return String.format("select * from %s where %s order by %s limit %s", queryDefinition.getTable(),
-                expandConditions(conditions), queryDefinition.getColumn(), queryDefinition.getBatchSize());
+        return String.format("select %s from %s where %s order by %s limit %s",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getColumn(), queryDefinition.getBatchSize());
     }
 
     @Override
@@ -90,6 +99,41 @@ public class MySQLDataRepository extends AbstractDataRepository {
         return true;
     }
 
+    @Override
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        // no table sampling, the rows are still scanned but only the sampled values are sorted
+        return String.format("select %s from %s where %s and rand() < %s order by %s", queryDefinition.getColumn(),
+                queryDefinition.getTable(), expandConditions(conditions),
+                formatSamplePercent(queryDefinition.getSamplePercent() / 100), queryDefinition.getColumn());
+    }
+
+    @Override
+    protected boolean hasRowValueComparison() {
+        return true;
+    }
+
+    /**
+     * Connector/J reads the whole result at once unless it fetches by a server side cursor (useCursorFetch=true) or
+     * streams the rows one by one, which is requested by the minimal fetch size
+     */
+    @Override
+    protected void setStreamingFetchSize(Statement stmt, long fetchSize) throws SQLException {
+        if (cursorFetch) {
+            super.setStreamingFetchSize(stmt, fetchSize);
+        } else {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Rows streamed one by one are pushed by the server, which aborts the connection once it could not send for
+     * net_write_timeout seconds. Rows fetched by a server side cursor wait in a temporary table instead.
+     */
+    @Override
+    public boolean isLongLivedResultSetSupported() {
+        return cursorFetch;
+    }
+
     @Override
     protected String createAllTableNamesQuery() {
         return String.format(
@@ -124,6 +168,11 @@ public class MySQLDataRepository extends AbstractDataRepository {
                 getDataSourceConfiguration().getSchema(), tableName);
     }
 
+    @Override
+    protected int getMaxStatementParameters() {
+        return 65535;
+    }
+
     @Override
     protected String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
         return null;
@@ -158,6 +207,41 @@ public class MySQLDataRepository extends AbstractDataRepository {
         return sqlBuilder.toString();
     }
 
+    @Override
+    public String getStagingTableName(String table) {
+        // identifiers are limited to 64 characters
+        return getStagingTableName("migration_stage_", table, 64);
+    }
+
+    @Override
+    protected String buildDropStagingTableStatement(String table) {
+        return "DROP TEMPORARY TABLE " + getStagingTableName(table);
+    }
+
+    @Override
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        return String.format("CREATE TEMPORARY TABLE IF NOT EXISTS %s AS SELECT %s FROM %s WHERE 1 = 0",
+                getStagingTableName(table), String.join(", ", columnsToCopy), table);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+
+        sqlBuilder.append(String.format("INSERT INTO %s (", table));
+        sqlBuilder.append(String.join(", ", columnsToCopy));
+        sqlBuilder.append(") SELECT ");
+        sqlBuilder.append(String.join(", ", columnsToCopy));
+        sqlBuilder.append(String.format(" FROM %s ", getStagingTableName(table)));
+        sqlBuilder.append("ON DUPLICATE KEY UPDATE ");
+        for (String column : columnsToCopy) {
+            sqlBuilder.append(String.format("%s = VALUES(%s), ", column, column));
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 2);
+        sqlBuilder.append(";");
+        return sqlBuilder.toString();
+    }
+
     @Override
     public String getDatabaseTimezone() {
         String query = "SELECT @@system_time_zone as timezone";
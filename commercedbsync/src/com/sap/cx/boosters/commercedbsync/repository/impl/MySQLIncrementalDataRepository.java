@@ -98,10 +98,10 @@ public class MySQLIncrementalDataRepository extends MySQLDataRepository {
         if (conditionsList.size() > 0) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildValueBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             if (time != null) {
                 stmt.setTimestamp(1, Timestamp.from(time));
             }
@@ -130,10 +130,10 @@ public class MySQLIncrementalDataRepository extends MySQLDataRepository {
         if (conditionsList.size() > 0) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildOffsetBatchQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             if (time != null) {
                 stmt.setTimestamp(1, Timestamp.from(time));
             }
@@ -165,10 +165,10 @@ public class MySQLIncrementalDataRepository extends MySQLDataRepository {
         if (conditionsList.size() > 0) {
             conditions = conditionsList.toArray(new String[conditionsList.size()]);
         }
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
                 PreparedStatement stmt = connection
                         .prepareStatement(buildBatchMarkersQuery(queryDefinition, conditions))) {
-            stmt.setFetchSize(Long.valueOf(queryDefinition.getBatchSize()).intValue());
+            setStreamingFetchSize(stmt, queryDefinition.getBatchSize());
             if (time != null) {
                 stmt.setTimestamp(1, Timestamp.from(time));
             }
@@ -14,7 +14,9 @@ import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
 import com.sap.cx.boosters.commercedbsync.logging.JDBCQueriesStore;
 import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
 import com.sap.cx.boosters.commercedbsync.profile.impl.InvalidDataSourceConfigurationException;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
 import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import com.sap.cx.boosters.commercedbsync.repository.DataSetCursor;
 import de.hybris.bootstrap.ddl.DataBaseProvider;
 import org.apache.ddlutils.Platform;
 import org.apache.ddlutils.model.Database;
@@ -96,11 +98,28 @@ public class NullRepository implements DataRepository {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
     }
 
+    @Override
+    public DataSetCursor openBatchCursorOrderedByColumn(SeekQueryDefinition queryDefinition, Instant time)
+            throws Exception {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
     @Override
     public DataSet getBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition) throws Exception {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
     }
 
+    @Override
+    public void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, BatchMarkerHandler handler)
+            throws Exception {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public boolean isLongLivedResultSetSupported() {
+        return false;
+    }
+
     @Override
     public long getRowCount(String table) throws Exception {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
@@ -213,6 +232,12 @@ public class NullRepository implements DataRepository {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
     }
 
+    @Override
+    public void streamBatchMarkersOrderedByColumn(MarkersQueryDefinition queryDefinition, Instant time,
+            BatchMarkerHandler handler) throws Exception {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
     @Override
     public DataSet getUniqueColumns(String table) throws Exception {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
@@ -238,6 +263,57 @@ public class NullRepository implements DataRepository {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
     }
 
+    @Override
+    public String buildBulkInsertStatement(String table, List<String> columnsToCopy, int rowCount) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public int getMaxBulkInsertRows(int columnCount) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public String getStagingTableName(String table) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public void createStagingTable(Connection connection, String table, List<String> columnsToCopy)
+            throws SQLException {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public String buildClearStagingTableStatement(String table) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public String buildBulkDeleteStatement(String table, String keyColumn, int keyCount) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public int getMaxBulkDeleteKeys() {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public String buildDirectPathInsertStatement(String table, List<String> columnsToCopy) {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
+    @Override
+    public void setTableLoggingEnabled(String table, boolean enabled) throws SQLException {
+        throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
+    }
+
     @Override
     public List<String> getPartitions(final String table) throws SQLException {
         throw new InvalidDataSourceConfigurationException(this.message, this.dataSourceConfiguration);
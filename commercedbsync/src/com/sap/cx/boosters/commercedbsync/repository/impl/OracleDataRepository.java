@@ -63,7 +63,7 @@ public class OracleDataRepository extends AbstractDataRepository {
     protected String buildOffsetBatchQuery(OffsetQueryDefinition queryDefinition, String... conditions) {
         // spotless:off
         return String.format(
-                "select * " +
+                "select %s " +
                         " from ( " +
                         " select /*+ first_rows(%s) */ " +
                         "  t.*, " +
@@ -73,7 +73,8 @@ public class OracleDataRepository extends AbstractDataRepository {
                         "where rn between %s and %s " +
                         "order by rn",
         // spotless:on
-                queryDefinition.getBatchSize(), queryDefinition.getOrderByColumns(), queryDefinition.getTable(),
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getBatchSize(),
+                queryDefinition.getOrderByColumns(), queryDefinition.getTable(),
                 expandConditions(conditions), queryDefinition.getOffset() + 1,
                 queryDefinition.getOffset() + queryDefinition.getBatchSize());
     }
@@ -84,7 +85,7 @@ public class OracleDataRepository extends AbstractDataRepository {
     protected String buildValueBatchQuery(SeekQueryDefinition queryDefinition, String... conditions) {
         // spotless:off
         return String.format(
-                "select * " +
+                "select %s " +
                         " from ( " +
                         " select /*+ first_rows(%s) */ " +
                         "  t.*, " +
@@ -94,8 +95,9 @@ public class OracleDataRepository extends AbstractDataRepository {
                         "where rn <= %s " +
                         "order by rn",
         // spotless:on
-                queryDefinition.getBatchSize(), queryDefinition.getColumn(), queryDefinition.getTable(),
-                expandConditions(conditions), queryDefinition.getBatchSize());
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getBatchSize(),
+                queryDefinition.getColumn(), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getBatchSize());
     }
 
     @Override
@@ -128,6 +130,13 @@ public class OracleDataRepository extends AbstractDataRepository {
                 getDataSourceConfiguration().getSchema(), table);
     }
 
+    @Override
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        return String.format("select %s from %s sample block (%s) where %s order by %s", queryDefinition.getColumn(),
+                queryDefinition.getTable(), formatSamplePercent(queryDefinition.getSamplePercent()),
+                expandConditions(conditions), queryDefinition.getColumn());
+    }
+
     @Override
     protected String createUniqueColumnsQuery(String tableName) {
         // spotless:off
@@ -245,6 +254,64 @@ public class OracleDataRepository extends AbstractDataRepository {
         return sqlBuilder.toString();
     }
 
+    @Override
+    public String getStagingTableName(String table) {
+        // global temporary table, names are limited to 30 characters before 12.2
+        return getStagingTableName("MIG_STG_", table, 30);
+    }
+
+    @Override
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        // global temporary tables are permanent, ignore ORA-00955 if another session
+        // or migration created it already, its columns are verified afterwards
+        final String createStatement = String.format(
+                "CREATE GLOBAL TEMPORARY TABLE %s ON COMMIT DELETE ROWS AS SELECT %s FROM %s WHERE 1 = 0",
+                getStagingTableName(table), String.join(", ", columnsToCopy), table);
+        return String.format(
+                "BEGIN EXECUTE IMMEDIATE '%s'; EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF; END;",
+                createStatement);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+
+        sqlBuilder.append(String.format("MERGE INTO %s t", table));
+        sqlBuilder.append("\n");
+        sqlBuilder.append(String.format("USING %s s ON (t.%s = s.%s)", getStagingTableName(table), upsertIDs.get(0),
+                upsertIDs.get(0)));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN MATCHED THEN UPDATE"); // update
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkUpdateStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList()), upsertIDs));
+        sqlBuilder.append("\n");
+        sqlBuilder.append("WHEN NOT MATCHED THEN INSERT"); // insert
+        sqlBuilder.append("\n");
+        sqlBuilder.append(getBulkInsertStatementParamList(columnsToCopy,
+                columnsToCopy.stream().map(column -> "s." + column).collect(Collectors.toList())));
+
+        return sqlBuilder.toString();
+    }
+
+    @Override
+    public String buildBulkInsertStatement(String table, List<String> columnsToCopy, int rowCount) {
+        final String rowInsert = String.format("INTO %s (%s) VALUES (%s)", table, String.join(", ", columnsToCopy),
+                columnsToCopy.stream().map(column -> "?").collect(Collectors.joining(", ")));
+        return "INSERT ALL " + String.join(" ", Collections.nCopies(rowCount, rowInsert)) + " SELECT 1 FROM dual";
+    }
+
+    @Override
+    public String buildDirectPathInsertStatement(String table, List<String> columnsToCopy) {
+        return String.format("INSERT /*+ APPEND_VALUES */ INTO %s %s", table, getBulkInsertStatementParamList(
+                columnsToCopy, columnsToCopy.stream().map(column -> "?").collect(Collectors.toList())));
+    }
+
+    @Override
+    protected String getTableLoggingStatement(String table, boolean enabled) {
+        return String.format("ALTER TABLE %s %s", table, enabled ? "LOGGING" : "NOLOGGING");
+    }
+
     @Override
     protected String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
         return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
@@ -44,8 +44,9 @@ public class PostGresDataRepository extends AbstractDataRepository {
     @Override
     protected String buildOffsetBatchQuery(OffsetQueryDefinition queryDefinition, String... conditions) {
         final String batchQuery = String.format(
-                "SELECT * FROM %s WHERE %s ORDER BY %s OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
-                queryDefinition.getTable(), expandConditions(conditions), queryDefinition.getOrderByColumns());
+                "SELECT %s FROM %s WHERE %s ORDER BY %s OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getOrderByColumns());
         return batchQuery;
     }
 
@@ -64,8 +65,9 @@ public class PostGresDataRepository extends AbstractDataRepository {
 
     @Override
     protected String buildValueBatchQuery(SeekQueryDefinition queryDefinition, String... conditions) {
-        return String.format("select * from %s where %s order by %s limit %s", queryDefinition.getTable(),
-                expandConditions(conditions), queryDefinition.getColumn(), queryDefinition.getBatchSize());
+        return String.format("select %s from %s where %s order by %s limit %s",
+                getSelectList(queryDefinition.getColumns()), queryDefinition.getTable(), expandConditions(conditions),
+                queryDefinition.getColumn(), queryDefinition.getBatchSize());
     }
 
     @Override
@@ -90,6 +92,25 @@ public class PostGresDataRepository extends AbstractDataRepository {
         return true;
     }
 
+    @Override
+    protected String buildBatchMarkersSampleQuery(MarkersQueryDefinition queryDefinition, String... conditions) {
+        return String.format("select %s from %s tablesample system (%s) where %s order by %s",
+                queryDefinition.getColumn(), queryDefinition.getTable(),
+                formatSamplePercent(queryDefinition.getSamplePercent()), expandConditions(conditions),
+                queryDefinition.getColumn());
+    }
+
+    @Override
+    protected boolean hasRowValueComparison() {
+        return true;
+    }
+
+    @Override
+    protected boolean isStreamingInTransaction() {
+        // pgjdbc reads the whole result at once in auto-commit mode, regardless of the fetch size
+        return true;
+    }
+
     @Override
     protected String getLastValueCondition() {
         /*
@@ -105,6 +126,11 @@ public class PostGresDataRepository extends AbstractDataRepository {
         return "%s < CAST(? AS BIGINT)";
     }
 
+    @Override
+    protected String getLastValueExclusiveCondition() {
+        return "%s > CAST(? AS BIGINT)";
+    }
+
     @Override
     protected String createAllTableNamesQuery() {
         return String.format(
@@ -160,6 +186,31 @@ public class PostGresDataRepository extends AbstractDataRepository {
         return sqlBuilder.toString();
     }
 
+    @Override
+    public String getStagingTableName(String table) {
+        // identifiers are limited to 63 characters
+        return getStagingTableName("migration_stage_", table, 63);
+    }
+
+    @Override
+    protected String buildCreateStagingTableStatement(String table, List<String> columnsToCopy) {
+        return String.format("CREATE TEMP TABLE IF NOT EXISTS %s AS SELECT %s FROM %s WHERE 1 = 0",
+                getStagingTableName(table), String.join(", ", columnsToCopy), table);
+    }
+
+    @Override
+    public String buildStagedUpsertStatement(String table, List<String> columnsToCopy, List<String> upsertIDs) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+
+        sqlBuilder.append("INSERT INTO ").append(table).append(" \n");
+        sqlBuilder.append(String.format("(%s) SELECT %s FROM %s", String.join(", ", columnsToCopy),
+                String.join(", ", columnsToCopy), getStagingTableName(table)));
+        sqlBuilder.append(String.format(" ON CONFLICT (%s) DO UPDATE ", upsertIDs.get(0))).append('\n');
+        sqlBuilder.append(getBulkUpdateStatementParamList(columnsToCopy, Collections.emptyList(), upsertIDs));
+
+        return sqlBuilder.toString();
+    }
+
     @Override
     protected String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
         return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
@@ -21,7 +21,44 @@ public interface DatabaseCopyScheduler {
 
     MigrationStatus getCurrentState(CopyContext context, OffsetDateTime since) throws Exception;
 
+    /**
+     * Checks if the migration was aborted. The status may be cached for a short interval.
+     *
+     * @param context
+     * @return true if the migration was aborted
+     * @throws Exception
+     */
     boolean isAborted(CopyContext context) throws Exception;
 
+    /**
+     * Aborts the migration and notifies all nodes about it
+     *
+     * @param context
+     * @throws Exception
+     */
     void abort(CopyContext context) throws Exception;
+
+    /**
+     * Forgets a cached abort status, so the next check reads it from the database
+     *
+     * @param migrationId
+     */
+    void invalidateAbortStatus(String migrationId);
+
+    /**
+     * Drops the cached abort status of a terminated migration
+     *
+     * @param migrationId
+     */
+    void clearAbortStatus(String migrationId);
+
+    /**
+     * @return number of abort status checks on this node
+     */
+    long getAbortStatusChecks();
+
+    /**
+     * @return number of abort status checks on this node which read the status from the database
+     */
+    long getAbortStatusQueries();
 }
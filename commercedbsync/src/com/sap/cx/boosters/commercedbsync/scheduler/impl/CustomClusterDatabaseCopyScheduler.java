@@ -9,6 +9,7 @@ package com.sap.cx.boosters.commercedbsync.scheduler.impl;
 import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
 import com.sap.cx.boosters.commercedbsync.adapter.impl.ContextualDataRepositoryAdapter;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.events.CopyAbortedEvent;
 import com.sap.cx.boosters.commercedbsync.events.CopyCompleteEvent;
 import com.sap.cx.boosters.commercedbsync.events.CopyDatabaseTableEvent;
 import com.sap.cx.boosters.commercedbsync.scheduler.ClusterTableSplittingStrategy;
@@ -38,6 +39,9 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
@@ -57,6 +61,12 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
 
     private DatabaseOperationSchedulerAlgorithm databaseOperationSchedulerAlgorithm;
 
+    private final Map<String, AbortStatus> abortStatuses = new ConcurrentHashMap<>();
+
+    private final LongAdder abortStatusChecks = new LongAdder();
+
+    private final LongAdder abortStatusQueries = new LongAdder();
+
     private ClusterTableSplittingStrategy clusterTableSplittingStrategy;
 
     /**
@@ -120,6 +130,7 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
                     databaseOperationSchedulerAlgorithm.next());
         }
         databaseCopyTaskRepository.resetMigration(copyContext);
+        invalidateAbortStatus(copyContext.getMigrationId());
         startMonitorThread(copyContext);
         final CopyDatabaseTableEvent event = new CopyDatabaseTableEvent(
                 databaseOperationSchedulerAlgorithm.getOwnNodeId(), copyContext.getMigrationId(),
@@ -193,14 +204,55 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
 
     @Override
     public boolean isAborted(CopyContext context) throws Exception {
+        final AbortStatus abortStatus = abortStatuses.computeIfAbsent(context.getMigrationId(),
+                k -> new AbortStatus());
+        abortStatus.checks.increment();
+        abortStatusChecks.increment();
+        final AbortStatus.Snapshot cached = abortStatus.snapshot.get();
+        final long now = System.currentTimeMillis();
+        if (now - cached.queried < context.getMigrationContext().getAbortCheckInterval()) {
+            return cached.aborted;
+        }
+        abortStatus.queries.increment();
+        abortStatusQueries.increment();
         MigrationStatus current = this.databaseCopyTaskRepository.getMigrationStatus(context);
-        return MigrationProgress.ABORTED == current.getStatus();
+        final boolean aborted = MigrationProgress.ABORTED == current.getStatus();
+        // an invalidation arriving while the status was read wins, so the next check reads the status again
+        abortStatus.snapshot.compareAndSet(cached, new AbortStatus.Snapshot(aborted, now));
+        return aborted;
     }
 
     @Override
     public void abort(CopyContext context) throws Exception {
         this.databaseCopyTaskRepository.setMigrationStatus(context, MigrationProgress.RUNNING,
                 MigrationProgress.ABORTED);
+        invalidateAbortStatus(context.getMigrationId());
+        final CopyAbortedEvent event = new CopyAbortedEvent(databaseOperationSchedulerAlgorithm.getOwnNodeId(),
+                context.getMigrationId(), context.getMigrationContext().isReversed());
+        eventService.publishEvent(event);
+    }
+
+    @Override
+    public void invalidateAbortStatus(String migrationId) {
+        final AbortStatus abortStatus = abortStatuses.get(migrationId);
+        if (abortStatus != null) {
+            abortStatus.snapshot.set(AbortStatus.Snapshot.UNKNOWN);
+        }
+    }
+
+    @Override
+    public void clearAbortStatus(String migrationId) {
+        abortStatuses.remove(migrationId);
+    }
+
+    @Override
+    public long getAbortStatusChecks() {
+        return abortStatusChecks.sum();
+    }
+
+    @Override
+    public long getAbortStatusQueries() {
+        return abortStatusQueries.sum();
     }
 
     public void setDatabaseCopyTaskRepository(DatabaseCopyTaskRepository databaseCopyTaskRepository) {
@@ -243,6 +295,7 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
             try {
                 prepareThread();
                 pollState();
+                logAbortStatusChecks();
                 notifyFinished();
             } catch (Exception e) {
                 LOG.error("Failed getting current state", e);
@@ -279,10 +332,19 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
             } while (!currentState.isCompleted() && !currentState.isAborted());
         }
 
+        private void logAbortStatusChecks() {
+            final AbortStatus abortStatus = abortStatuses.get(context.getMigrationId());
+            if (abortStatus != null) {
+                LOG.info("Abort status checked {} times on this node, {} of them read from the database",
+                        abortStatus.checks.sum(), abortStatus.queries.sum());
+            }
+        }
+
         /**
          * Notifies nodes about termination
          */
         private void notifyFinished() {
+            clearAbortStatus(context.getMigrationId());
             final CopyCompleteEvent completeEvent = new CopyCompleteEvent(
                     databaseOperationSchedulerAlgorithm.getOwnNodeId(), context.getMigrationId(),
                     context.getMigrationContext().isReversed());
@@ -346,4 +408,29 @@ public class CustomClusterDatabaseCopyScheduler implements DatabaseCopyScheduler
             Registry.unsetCurrentTenant();
         }
     }
+
+    /**
+     * Last known abort status of a migration on this node
+     */
+    private static class AbortStatus {
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.UNKNOWN);
+
+        /**
+         * Abort status read from the database at a point in time, replaced as a whole so a status read before an
+         * invalidation never overwrites it
+         */
+        private static final class Snapshot {
+            private static final Snapshot UNKNOWN = new Snapshot(false, 0);
+
+            private final boolean aborted;
+            private final long queried;
+
+            private Snapshot(boolean aborted, long queried) {
+                this.aborted = aborted;
+                this.queried = queried;
+            }
+        }
+    }
 }
@@ -14,6 +14,7 @@ import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 
 import java.time.OffsetDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -106,6 +107,56 @@ public interface DatabaseCopyTaskRepository {
     void scheduleBatch(CopyContext context, DataCopyItem copyItem, int batchId, Object lowerBoundary,
             Object upperBoundary, String partition) throws Exception;
 
+    /**
+     * Schedules the given batches of a copy Task with as few round trips as possible
+     *
+     * @param context
+     *            the migration context
+     * @param copyItem
+     *            the item to copy
+     * @param batches
+     *            id and boundaries of the batches to schedule
+     * @param partition
+     *            the partition of the batches, null if the table is not partitioned
+     * @throws Exception
+     */
+    void scheduleBatches(CopyContext context, DataCopyItem copyItem, List<DatabaseCopyBatch> batches,
+            String partition) throws Exception;
+
+    /**
+     * Narrows a scheduled batch to the rows below the split boundary and schedules the rows from the split boundary
+     * up to its upper boundary as a new batch, in one transaction. Pending batches of a pipeline thus never overlap,
+     * whichever of them completes first.
+     *
+     * @param context
+     *            the migration context
+     * @param copyItem
+     *            the item to copy
+     * @param batchId
+     *            id of the batch to narrow
+     * @param newBatchId
+     *            id of the batch holding the remaining rows
+     * @param splitBoundary
+     *            upper boundary of the narrowed batch and lower boundary of the new batch
+     * @param upperBoundary
+     *            upper boundary of the new batch
+     * @param partition
+     *            the partition of the batches, null if the table is not partitioned
+     * @throws Exception
+     */
+    void splitBatch(CopyContext context, DataCopyItem copyItem, int batchId, int newBatchId, Object splitBoundary,
+            Object upperBoundary, String partition) throws Exception;
+
+    /**
+     * Marks a batch as completed. The completion may be buffered and written later, together with other updates of
+     * the Task, unless the scheduler resume is enabled. Then it is written before this method returns and a failed
+     * write fails the caller. A completed batch without batch record fails the Task, whichever caller finds it.
+     *
+     * @param context
+     * @param copyItem
+     * @param batchId
+     * @throws Exception
+     */
     void markBatchCompleted(CopyContext context, DataCopyItem copyItem, int batchId) throws Exception;
 
     void markBatchCompleted(CopyContext context, DataCopyItem copyItem, int batchId, String partition) throws Exception;
@@ -138,7 +189,9 @@ public interface DatabaseCopyTaskRepository {
     Set<DatabaseCopyTask> findFailedTasks(CopyContext context) throws Exception;
 
     /**
-     * Updates progress on a Task
+     * Updates progress on a Task. The progress may be buffered and written later, together with other updates of the
+     * Task. Updates that cannot be written are kept for the next flush instead of failing the caller. Buffered updates
+     * are flushed in the background as well, so they are written even if no further update arrives.
      *
      * @param context
      * @param copyItem
@@ -147,6 +200,26 @@ public interface DatabaseCopyTaskRepository {
      */
     void updateTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem, long itemCount) throws Exception;
 
+    /**
+     * Writes the progress and batch completions of a Task which are still buffered. Pending updates are written
+     * implicitly when the Task is marked as completed or failed.
+     *
+     * @param context
+     * @param copyItem
+     * @throws Exception
+     */
+    void flushTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem) throws Exception;
+
+    /**
+     * Writes the progress and batch completions of a Task which are still buffered and drops its buffer, once no
+     * writer of the Task is left. The buffer is kept if the updates cannot be written.
+     *
+     * @param context
+     * @param copyItem
+     * @throws Exception
+     */
+    void closeTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem) throws Exception;
+
     /**
      * Marks the Task as Completed
      *
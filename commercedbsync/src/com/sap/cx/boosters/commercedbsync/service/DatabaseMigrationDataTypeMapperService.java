@@ -18,4 +18,17 @@ public interface DatabaseMigrationDataTypeMapperService {
      * Converts BLOB, CLOB and NCLOB Data
      */
     Object dataTypeMapper(final Object sourceColumnValue, final int jdbcType) throws IOException, SQLException;
+
+    /**
+     * Converts BLOB, CLOB and NCLOB Data, spilling LOB and long binary or text values larger than the given threshold
+     * to temporary files
+     *
+     * @param lobSpillThreshold
+     *            size in bytes (characters for character LOBs) above which values are spilled, 0 to keep all values
+     *            in memory
+     */
+    default Object dataTypeMapper(final Object sourceColumnValue, final int jdbcType, final long lobSpillThreshold)
+            throws IOException, SQLException {
+        return dataTypeMapper(sourceColumnValue, jdbcType);
+    }
 }
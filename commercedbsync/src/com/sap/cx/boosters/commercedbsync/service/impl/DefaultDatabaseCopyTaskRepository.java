@@ -17,6 +17,7 @@ import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
 import com.sap.cx.boosters.commercedbsync.service.DataCopyChunk;
 import de.hybris.platform.servicelayer.cluster.ClusterService;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import com.sap.cx.boosters.commercedbsync.MigrationProgress;
 import com.sap.cx.boosters.commercedbsync.MigrationStatus;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
@@ -31,19 +32,31 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
 import static com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants.MIGRATION_TABLESPREFIX;
@@ -51,6 +64,12 @@ import static com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstan
 /**
  * Repository to manage the status on of the migration copy tasks across the
  * cluster
+ * <p>
+ * The repository holds no locks across pipelines: every state change is a single
+ * statement on the rows of one pipeline, guarded by its WHERE clause (e.g. a task
+ * is only completed while its duration is not set), so concurrent updates are
+ * serialized by the database on row level. Buffered progress is kept per pipeline
+ * and written by its writers or by a background flush once per flush interval.
  */
 public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskRepository {
 
@@ -63,6 +82,11 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     private static final String TABLECOPYBATCHES = MIGRATION_TABLESPREFIX + "TABLECOPYBATCHES";
     private static final String TABLECOPYBATCHES_PART = MIGRATION_TABLESPREFIX + "TABLECOPYBATCHES_PART";
 
+    private final Map<String, PipelineProgress> pipelineProgresses = new ConcurrentHashMap<>();
+    private final Object progressFlushLock = new Object();
+    private ScheduledExecutorService progressFlushExecutor;
+    private ScheduledFuture<?> progressFlushTask;
+
     @Override
     public String getMostRecentMigrationID(MigrationContext context) {
         String query = "SELECT migrationId FROM " + TABLECOPYSTATUS;
@@ -79,7 +103,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void createMigrationStatus(CopyContext context, int numberOfItems) throws Exception {
+    public void createMigrationStatus(CopyContext context, int numberOfItems) throws Exception {
         String insert = "INSERT INTO " + TABLECOPYSTATUS + " (migrationId, total) VALUES (?, ?)";
         try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(insert)) {
             stmt.setObject(1, context.getMigrationId());
@@ -89,7 +113,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void resetMigration(CopyContext context) throws Exception {
+    public void resetMigration(CopyContext context) throws Exception {
         String update = "UPDATE " + TABLECOPYSTATUS
                 + " SET completed = total - failed, status = ?, failed=?, lastUpdate=? WHERE migrationId = ?";
         try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(update)) {
@@ -107,7 +131,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized boolean setMigrationStatus(CopyContext context, MigrationProgress from, MigrationProgress to)
+    public boolean setMigrationStatus(CopyContext context, MigrationProgress from, MigrationProgress to)
             throws Exception {
         final String update = "UPDATE " + TABLECOPYSTATUS + " SET status = ? WHERE status = ? AND migrationId = ?";
         try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(update)) {
@@ -181,7 +205,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void scheduleTask(CopyContext context, CopyContext.DataCopyItem copyItem, long itemOrder,
+    public void scheduleTask(CopyContext context, CopyContext.DataCopyItem copyItem, long itemOrder,
             long sourceRowCount, int targetNode) throws Exception {
         String insert = "INSERT INTO " + TABLECOPYTASKS
                 + " (targetnodeid, pipelinename, itemorder, sourcetablename, targettablename, columnmap, migrationid, sourcerowcount, batchsize, lastupdate, chunked, chunksize, chunknumber) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
@@ -204,7 +228,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void rescheduleTask(CopyContext context, String pipelineName, int targetNode) throws Exception {
+    public void rescheduleTask(CopyContext context, String pipelineName, int targetNode) throws Exception {
         String sql = "UPDATE " + TABLECOPYTASKS
                 + " SET failure='0', duration=NULL, error='',  targetnodeid=?, lastupdate=? WHERE migrationId=? AND pipelinename=? ";
         try (Connection connection = getConnection(context);
@@ -218,7 +242,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void scheduleBatch(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId,
+    public void scheduleBatch(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId,
             Object lowerBoundary, Object upperBoundary) throws Exception {
         LOG.debug("Schedule Batch for {} with ID {}", copyItem.getPipelineName(), batchId);
         String insert = "INSERT INTO " + TABLECOPYBATCHES
@@ -255,46 +279,121 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void markBatchCompleted(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId)
-            throws Exception {
-        LOG.debug("Mark batch completed for {} with ID {}", copyItem.getPipelineName(), batchId);
-        String insert = "DELETE FROM " + TABLECOPYBATCHES + " WHERE migrationId=? AND batchId=? AND pipelinename=?";
+    public void scheduleBatches(CopyContext context, CopyContext.DataCopyItem copyItem,
+            List<DatabaseCopyBatch> batches, String partition) throws Exception {
+        if (batches.isEmpty()) {
+            return;
+        }
+        LOG.debug("Schedule {} batches for {}, partition {}", batches.size(), copyItem.getPipelineName(), partition);
+        String insert = partition == null
+                ? "INSERT INTO " + TABLECOPYBATCHES
+                        + " (migrationId, batchId, pipelinename, lowerBoundary, upperBoundary) VALUES (?, ?, ?, ?, ?)"
+                : "INSERT INTO " + TABLECOPYBATCHES_PART
+                        + " (migrationId, batchId, pipelinename, lowerBoundary, upperBoundary, partition) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(insert)) {
-            stmt.setObject(1, context.getMigrationId());
-            stmt.setObject(2, batchId);
-            stmt.setObject(3, copyItem.getPipelineName());
-            // exactly one batch record should be affected
-            if (stmt.executeUpdate() != 1) {
-                throw new IllegalStateException("No (exact) match for batch with id '" + batchId + "' found.");
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (DatabaseCopyBatch batch : batches) {
+                    stmt.setObject(1, context.getMigrationId());
+                    stmt.setObject(2, Integer.valueOf(batch.getBatchId()));
+                    stmt.setObject(3, copyItem.getPipelineName());
+                    stmt.setObject(4, batch.getLowerBoundary());
+                    stmt.setObject(5, batch.getUpperBoundary());
+                    if (partition != null) {
+                        stmt.setObject(6, partition);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
         }
     }
 
     @Override
-    public void markBatchCompleted(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId,
-            final String partition) throws Exception {
-        if (partition == null) {
-            markBatchCompleted(context, copyItem, batchId);
-        } else {
-            LOG.debug("Mark batch completed for {} with ID {}", copyItem.getPipelineName(), batchId);
-            String insert = "DELETE FROM " + TABLECOPYBATCHES_PART
-                    + " WHERE migrationId = ? AND batchId = ? AND pipelinename = ? AND partition = ?";
-            try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(insert)) {
-                stmt.setObject(1, context.getMigrationId());
-                stmt.setObject(2, batchId);
-                stmt.setObject(3, copyItem.getPipelineName());
-                stmt.setObject(4, partition);
-                // exactly one batch record should be affected
-                if (stmt.executeUpdate() != 1) {
-                    throw new IllegalStateException("No (exact) match for batch with id '" + batchId + "' found.");
+    public void splitBatch(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId, int newBatchId,
+            Object splitBoundary, Object upperBoundary, String partition) throws Exception {
+        LOG.debug("Split batch {} of {} at {} into batch {}", batchId, copyItem.getPipelineName(), splitBoundary,
+                newBatchId);
+        final String update = partition == null
+                ? "UPDATE " + TABLECOPYBATCHES
+                        + " SET upperBoundary=? WHERE migrationId=? AND batchId=? AND pipelinename=?"
+                : "UPDATE " + TABLECOPYBATCHES_PART
+                        + " SET upperBoundary=? WHERE migrationId=? AND batchId=? AND pipelinename=? AND partition=?";
+        final String insert = partition == null
+                ? "INSERT INTO " + TABLECOPYBATCHES
+                        + " (migrationId, batchId, pipelinename, lowerBoundary, upperBoundary) VALUES (?, ?, ?, ?, ?)"
+                : "INSERT INTO " + TABLECOPYBATCHES_PART
+                        + " (migrationId, batchId, pipelinename, lowerBoundary, upperBoundary, partition) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection(context);
+                PreparedStatement updateStmt = conn.prepareStatement(update);
+                PreparedStatement insertStmt = conn.prepareStatement(insert)) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                updateStmt.setObject(1, splitBoundary);
+                updateStmt.setObject(2, context.getMigrationId());
+                updateStmt.setObject(3, batchId);
+                updateStmt.setObject(4, copyItem.getPipelineName());
+                if (partition != null) {
+                    updateStmt.setObject(5, partition);
                 }
+                updateStmt.executeUpdate();
+                insertStmt.setObject(1, context.getMigrationId());
+                insertStmt.setObject(2, newBatchId);
+                insertStmt.setObject(3, copyItem.getPipelineName());
+                insertStmt.setObject(4, splitBoundary);
+                insertStmt.setObject(5, upperBoundary);
+                if (partition != null) {
+                    insertStmt.setObject(6, partition);
+                }
+                insertStmt.executeUpdate();
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
         }
+    }
 
+    @Override
+    public void markBatchCompleted(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId)
+            throws Exception {
+        markBatchCompleted(context, copyItem, batchId, null);
+    }
+
+    @Override
+    public void markBatchCompleted(CopyContext context, CopyContext.DataCopyItem copyItem, int batchId,
+            final String partition) throws Exception {
+        LOG.debug("Mark batch completed for {} with ID {}", copyItem.getPipelineName(), batchId);
+        final PipelineProgress progress = getPipelineProgress(context, copyItem);
+        progress.throwIfFailed();
+        final Pair<Integer, String> completedBatch = Pair.of(batchId, partition);
+        progress.completedBatches.add(completedBatch);
+        // a batch must not be copied twice on resume, hence the writer waits until its completion is written
+        if (context.getMigrationContext().isSchedulerResumeEnabled()) {
+            try {
+                flushPipelineProgress(context, progress, true);
+            } catch (Exception e) {
+                // the failed writer is retried and completes the batch again
+                progress.completedBatches.remove(completedBatch);
+                throw e;
+            }
+        } else {
+            flushPipelineProgressIfDue(context, progress);
+        }
     }
 
     @Override
-    public synchronized void resetPipelineBatches(CopyContext context, CopyContext.DataCopyItem copyItem)
+    public void resetPipelineBatches(CopyContext context, CopyContext.DataCopyItem copyItem)
             throws Exception {
         String insert = "DELETE FROM " + TABLECOPYBATCHES + " WHERE migrationId=? AND pipelinename=?";
         try (Connection conn = getConnection(context); PreparedStatement stmt = conn.prepareStatement(insert)) {
@@ -441,12 +540,253 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void updateTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem, long itemCount)
+    public void updateTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem, long itemCount)
+            throws Exception {
+        final PipelineProgress progress = getPipelineProgress(context, copyItem);
+        progress.throwIfFailed();
+        progress.itemCount.set(itemCount);
+        flushPipelineProgressIfDue(context, progress);
+    }
+
+    @Override
+    public void flushTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem) throws Exception {
+        final PipelineProgress progress = pipelineProgresses.get(getPipelineKey(context, copyItem));
+        if (progress != null) {
+            flushPipelineProgress(context, progress, true);
+            progress.throwIfFailed();
+        }
+    }
+
+    @Override
+    public void closeTaskProgress(CopyContext context, CopyContext.DataCopyItem copyItem) throws Exception {
+        final String pipelineKey = getPipelineKey(context, copyItem);
+        final PipelineProgress progress = removePipelineProgress(pipelineKey);
+        if (progress != null) {
+            try {
+                flushPipelineProgress(context, progress, true);
+            } catch (Exception e) {
+                // kept for the flush when the task is marked as completed or failed, unless it cannot succeed
+                if (e != progress.failure) {
+                    pipelineProgresses.putIfAbsent(pipelineKey, progress);
+                    startProgressFlush(context);
+                }
+                throw e;
+            }
+            progress.throwIfFailed();
+        }
+    }
+
+    private PipelineProgress getPipelineProgress(CopyContext context, CopyContext.DataCopyItem copyItem) {
+        final String pipelineKey = getPipelineKey(context, copyItem);
+        PipelineProgress progress = pipelineProgresses.get(pipelineKey);
+        if (progress == null) {
+            progress = pipelineProgresses.computeIfAbsent(pipelineKey, k -> new PipelineProgress(context, copyItem));
+            startProgressFlush(context);
+        }
+        return progress;
+    }
+
+    private PipelineProgress removePipelineProgress(String pipelineKey) {
+        final PipelineProgress progress = pipelineProgresses.remove(pipelineKey);
+        if (progress != null) {
+            stopProgressFlushIfIdle();
+        }
+        return progress;
+    }
+
+    /**
+     * Starts flushing the buffered progress of all pipelines of this node in the background, so that progress of
+     * pipelines whose writers stall or are done reaches the scheduler tables after one flush interval at the latest.
+     */
+    private void startProgressFlush(CopyContext context) {
+        final long flushInterval = context.getMigrationContext().getSchedulerProgressFlushInterval();
+        if (flushInterval <= 0) {
+            return;
+        }
+        synchronized (progressFlushLock) {
+            if (progressFlushTask != null) {
+                return;
+            }
+            if (progressFlushExecutor == null) {
+                progressFlushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "migration-progress-flush");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            progressFlushTask = progressFlushExecutor.scheduleWithFixedDelay(this::flushDueProgresses,
+                    flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void stopProgressFlushIfIdle() {
+        synchronized (progressFlushLock) {
+            if (progressFlushTask != null && pipelineProgresses.isEmpty()) {
+                progressFlushTask.cancel(false);
+                progressFlushTask = null;
+            }
+        }
+    }
+
+    private void flushDueProgresses() {
+        for (final PipelineProgress progress : pipelineProgresses.values()) {
+            // a failed pipeline is reported to its writers, its remaining progress is written when it is closed
+            if (progress.failure != null) {
+                continue;
+            }
+            try {
+                flushPipelineProgressIfDue(progress.context, progress);
+            } catch (Exception e) {
+                LOG.error("Could not write progress of pipeline {}: {}", progress.copyItem.getPipelineName(),
+                        ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+
+    private String getPipelineKey(CopyContext context, CopyContext.DataCopyItem copyItem) {
+        return context.getMigrationId() + ":" + copyItem.getPipelineName();
+    }
+
+    /**
+     * Flushes the progress of a pipeline once the flush interval has passed. A failed write must not fail the writer
+     * whose batch is already committed and whose retry would write the batch again, its updates are requeued and
+     * written by a later flush instead. Batches without record cannot be written by a later flush, they fail the
+     * pipeline.
+     */
+    private void flushPipelineProgressIfDue(CopyContext context, PipelineProgress progress) throws Exception {
+        final long flushInterval = context.getMigrationContext().getSchedulerProgressFlushInterval();
+        if (System.currentTimeMillis() - progress.lastFlush < flushInterval) {
+            return;
+        }
+        try {
+            // writers finding a flush in progress leave their updates to it or to the next one
+            flushPipelineProgress(context, progress, false);
+        } catch (Exception e) {
+            if (e == progress.failure) {
+                throw e;
+            }
+            LOG.warn("Could not write progress of pipeline {}, retrying with the next flush: {}",
+                    progress.copyItem.getPipelineName(), ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    /**
+     * Writes the pending batch completions and the latest item count of a pipeline in one transaction. Concurrent
+     * writers of the pipeline are coalesced: whoever holds the lock writes the updates of all of them.
+     *
+     * @param wait
+     *            true to wait for a flush in progress, false to skip the flush in that case
+     */
+    private void flushPipelineProgress(CopyContext context, PipelineProgress progress, boolean wait)
             throws Exception {
+        if (wait) {
+            progress.lock.lock();
+        } else if (!progress.lock.tryLock()) {
+            return;
+        }
+        try {
+            final List<Pair<Integer, String>> completedBatches = new ArrayList<>();
+            Pair<Integer, String> completedBatch;
+            while ((completedBatch = progress.completedBatches.poll()) != null) {
+                completedBatches.add(completedBatch);
+            }
+            final long itemCount = progress.itemCount.getAndSet(-1);
+            if (completedBatches.isEmpty() && itemCount < 0) {
+                return;
+            }
+            List<Pair<Integer, String>> unmatchedBatches = List.of();
+            try (Connection connection = getConnection(context)) {
+                final boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    unmatchedBatches = deleteCompletedBatches(connection, context, progress.copyItem,
+                            completedBatches);
+                    if (itemCount >= 0) {
+                        writeTaskProgress(connection, context, progress.copyItem, itemCount);
+                    }
+                    connection.commit();
+                } catch (Exception e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (Exception e) {
+                // nothing was written, the updates are requeued unless a newer item count arrived meanwhile
+                progress.completedBatches.addAll(completedBatches);
+                if (itemCount >= 0) {
+                    progress.itemCount.compareAndSet(-1, itemCount);
+                }
+                throw e;
+            }
+            progress.lastFlush = System.currentTimeMillis();
+            if (!unmatchedBatches.isEmpty()) {
+                // writing them again cannot succeed, so they are not requeued but fail the pipeline
+                progress.failure = new IllegalStateException("No (exact) match for batch(es) with id(s) "
+                        + unmatchedBatches.stream().map(Pair::getLeft).toList() + " found.");
+                throw progress.failure;
+            }
+        } finally {
+            progress.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the completed batches no batch record was found for
+     */
+    private List<Pair<Integer, String>> deleteCompletedBatches(Connection connection, CopyContext context,
+            CopyContext.DataCopyItem copyItem, List<Pair<Integer, String>> completedBatches) throws Exception {
+        final List<Pair<Integer, String>> unmatchedBatches = new ArrayList<>();
+        final List<Pair<Integer, String>> batches = completedBatches.stream().filter(b -> b.getRight() == null)
+                .toList();
+        final List<Pair<Integer, String>> partitionBatches = completedBatches.stream()
+                .filter(b -> b.getRight() != null).toList();
+        if (!batches.isEmpty()) {
+            String delete = "DELETE FROM " + TABLECOPYBATCHES + " WHERE migrationId=? AND batchId=? AND pipelinename=?";
+            try (PreparedStatement stmt = connection.prepareStatement(delete)) {
+                for (Pair<Integer, String> batch : batches) {
+                    stmt.setObject(1, context.getMigrationId());
+                    stmt.setObject(2, batch.getLeft());
+                    stmt.setObject(3, copyItem.getPipelineName());
+                    stmt.addBatch();
+                }
+                unmatchedBatches.addAll(verifyCompletedBatches(stmt.executeBatch(), batches));
+            }
+        }
+        if (!partitionBatches.isEmpty()) {
+            String delete = "DELETE FROM " + TABLECOPYBATCHES_PART
+                    + " WHERE migrationId = ? AND batchId = ? AND pipelinename = ? AND partition = ?";
+            try (PreparedStatement stmt = connection.prepareStatement(delete)) {
+                for (Pair<Integer, String> batch : partitionBatches) {
+                    stmt.setObject(1, context.getMigrationId());
+                    stmt.setObject(2, batch.getLeft());
+                    stmt.setObject(3, copyItem.getPipelineName());
+                    stmt.setObject(4, batch.getRight());
+                    stmt.addBatch();
+                }
+                unmatchedBatches.addAll(verifyCompletedBatches(stmt.executeBatch(), partitionBatches));
+            }
+        }
+        return unmatchedBatches;
+    }
+
+    private List<Pair<Integer, String>> verifyCompletedBatches(int[] updateCounts,
+            List<Pair<Integer, String>> batches) {
+        final List<Pair<Integer, String>> unmatchedBatches = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            // exactly one batch record should be affected
+            if (updateCounts[i] != 1 && updateCounts[i] != Statement.SUCCESS_NO_INFO) {
+                unmatchedBatches.add(batches.get(i));
+            }
+        }
+        return unmatchedBatches;
+    }
+
+    private void writeTaskProgress(Connection connection, CopyContext context, CopyContext.DataCopyItem copyItem,
+            long itemCount) throws Exception {
         String sql = "UPDATE " + TABLECOPYTASKS
                 + " SET targetrowcount=?, lastupdate=?, avgwriterrowthroughput=?, avgreaderrowthroughput=? WHERE targetnodeid=? AND migrationid=? AND pipelinename=?";
-        try (Connection connection = getConnection(context);
-                PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setObject(1, itemCount);
             setTimestamp(stmt, 2, now());
             stmt.setObject(3, getAvgPerformanceValue(context, PerformanceCategory.DB_WRITE, copyItem.getTargetItem()));
@@ -468,9 +808,11 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void markTaskCompleted(final CopyContext context, final CopyContext.DataCopyItem copyItem,
+    public void markTaskCompleted(final CopyContext context, final CopyContext.DataCopyItem copyItem,
             final String duration, final float durationseconds) throws Exception {
         Objects.requireNonNull(duration, "duration must not be null");
+        flushTaskProgress(context, copyItem);
+        removePipelineProgress(getPipelineKey(context, copyItem));
         // spotless:off
         String sql = "UPDATE " + TABLECOPYTASKS + " SET duration=?, lastupdate=?, avgwriterrowthroughput=?, avgreaderrowthroughput=?, durationinseconds=? WHERE targetnodeid=? AND migrationid=? AND pipelinename=? AND duration IS NULL";
         // spotless:on
@@ -490,8 +832,16 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void markTaskFailed(CopyContext context, CopyContext.DataCopyItem copyItem, Exception error)
+    public void markTaskFailed(CopyContext context, CopyContext.DataCopyItem copyItem, Exception error)
             throws Exception {
+        try {
+            flushTaskProgress(context, copyItem);
+        } catch (Exception e) {
+            LOG.warn("Could not write pending progress of failed pipeline {}: {}", copyItem.getPipelineName(),
+                    ExceptionUtils.getRootCauseMessage(e));
+        } finally {
+            removePipelineProgress(getPipelineKey(context, copyItem));
+        }
         // spotless:off
         String sql = "UPDATE " + TABLECOPYTASKS + " SET failure='1', duration='-1', error=?, lastupdate=? WHERE targetnodeid=? AND migrationId=? AND pipelinename=? AND failure = '0'";
         // spotless:on
@@ -512,7 +862,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void markRemainingTasksAborted(CopyContext context) throws Exception {
+    public void markRemainingTasksAborted(CopyContext context) throws Exception {
         // spotless:off
         String sql = "UPDATE " + TABLECOPYTASKS + " SET failure='1', duration='-1', error='Aborted', lastupdate=? WHERE migrationId=? AND duration IS NULL AND failure = '0'";
         // spotless:on
@@ -525,7 +875,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void markTaskTruncated(CopyContext context, CopyContext.DataCopyItem copyItem)
+    public void markTaskTruncated(CopyContext context, CopyContext.DataCopyItem copyItem)
             throws Exception {
         String sql = "UPDATE " + TABLECOPYTASKS
                 + " SET truncated = '1' WHERE targetnodeid=? AND migrationId=? AND sourcetablename=? AND targettablename=? ";
@@ -540,7 +890,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void updateTaskCopyMethod(CopyContext context, CopyContext.DataCopyItem copyItem,
+    public void updateTaskCopyMethod(CopyContext context, CopyContext.DataCopyItem copyItem,
             String copyMethod) throws Exception {
         String sql = "UPDATE " + TABLECOPYTASKS
                 + " SET copymethod=? WHERE targetnodeid=? AND migrationId=? AND pipelinename=? ";
@@ -555,7 +905,7 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
     }
 
     @Override
-    public synchronized void updateTaskKeyColumns(CopyContext context, CopyContext.DataCopyItem copyItem,
+    public void updateTaskKeyColumns(CopyContext context, CopyContext.DataCopyItem copyItem,
             Collection<String> keyColumns) throws Exception {
         String sql = "UPDATE " + TABLECOPYTASKS
                 + " SET keycolumns=? WHERE targetnodeid=? AND migrationId=? AND pipelinename=? ";
@@ -686,4 +1036,31 @@ public class DefaultDatabaseCopyTaskRepository implements DatabaseCopyTaskReposi
         context.getPerformanceProfiler().muteRecorder(PerformanceCategory.DB_WRITE, copyItem.getTargetItem());
     }
 
+    /**
+     * Pending progress of a pipeline, written behind by the next flush
+     */
+    private static class PipelineProgress {
+        private final CopyContext context;
+        private final CopyContext.DataCopyItem copyItem;
+        private final Queue<Pair<Integer, String>> completedBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicLong itemCount = new AtomicLong(-1);
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastFlush;
+        private volatile IllegalStateException failure;
+
+        private PipelineProgress(CopyContext context, CopyContext.DataCopyItem copyItem) {
+            this.context = context;
+            this.copyItem = copyItem;
+        }
+
+        /**
+         * Reports a failure found by any flush of the pipeline to each of its writers, no matter which of them or
+         * the background flush found it
+         */
+        private void throwIfFailed() {
+            if (failure != null) {
+                throw new IllegalStateException(failure.getMessage(), failure);
+            }
+        }
+    }
 }
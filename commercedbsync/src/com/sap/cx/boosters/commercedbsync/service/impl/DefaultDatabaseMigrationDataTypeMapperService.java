@@ -8,6 +8,7 @@ package com.sap.cx.boosters.commercedbsync.service.impl;
 
 import com.google.common.io.ByteStreams;
 import org.apache.commons.io.IOUtils;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseMigrationDataTypeMapperService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.sql.Blob;
 import java.sql.Clob;
@@ -45,6 +47,30 @@ public class DefaultDatabaseMigrationDataTypeMapperService implements DatabaseMi
         return targetColumnValue;
     }
 
+    /**
+     * LOB values are spilled from their stream. Values of variable length binary and text columns are already read
+     * into memory by the driver, spilling them only keeps them out of memory until the page is written.
+     */
+    @Override
+    public Object dataTypeMapper(final Object sourceColumnValue, final int jdbcType, final long lobSpillThreshold)
+            throws IOException, SQLException {
+        if (lobSpillThreshold > 0 && SpilledLob.isSpillable(jdbcType)) {
+            if (sourceColumnValue instanceof Blob && ((Blob) sourceColumnValue).length() > lobSpillThreshold) {
+                return SpilledLob.spill(((Blob) sourceColumnValue).getBinaryStream());
+            } else if (sourceColumnValue instanceof Clob
+                    && ((Clob) sourceColumnValue).length() > lobSpillThreshold) {
+                return SpilledLob.spill(((Clob) sourceColumnValue).getCharacterStream());
+            } else if (sourceColumnValue instanceof byte[]
+                    && ((byte[]) sourceColumnValue).length > lobSpillThreshold) {
+                return SpilledLob.spill(new ByteArrayInputStream((byte[]) sourceColumnValue));
+            } else if (sourceColumnValue instanceof String
+                    && ((String) sourceColumnValue).length() > lobSpillThreshold) {
+                return SpilledLob.spill(new StringReader((String) sourceColumnValue));
+            }
+        }
+        return dataTypeMapper(sourceColumnValue, jdbcType);
+    }
+
     private String getValue(final NClob nClob) throws SQLException, IOException {
         return getValue(nClob.getCharacterStream());
     }
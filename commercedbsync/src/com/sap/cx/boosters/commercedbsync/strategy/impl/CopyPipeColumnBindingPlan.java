@@ -0,0 +1,399 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.AnonymizerConfiguration;
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Table;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
+import de.hybris.bootstrap.ddl.DataBaseProvider;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.BLOB;
+import static java.sql.Types.CLOB;
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.NUMERIC;
+import static java.sql.Types.VARCHAR;
+
+/**
+ * Column binding plan of a table pipeline. Resolves once per pipeline everything the writer needs to bind a row to
+ * the insert/upsert statement (source index, target JDBC type, nullify/override/anonymize decision and dialect
+ * specifics), so that binding a row only walks the array of binders.
+ */
+class CopyPipeColumnBindingPlan {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyPipeColumnBindingPlan.class);
+
+    private final ColumnBinder[] binders;
+    private final ValueBinder[] anonymizedBinders;
+
+    private CopyPipeColumnBindingPlan(final ColumnBinder[] binders, final ValueBinder[] anonymizedBinders) {
+        this.binders = binders;
+        this.anonymizedBinders = anonymizedBinders;
+    }
+
+    /**
+     * Creates the binding plan for the pipeline described by the given writer context
+     *
+     * @param ctx
+     *            writer context of the pipeline
+     * @param dataSet
+     *            a non-empty page of the pipeline, used to resolve the source column layout
+     * @param targetColumnTypes
+     *            JDBC types of the target table columns, keyed case-insensitively by column name
+     * @param anonymizerConfiguration
+     *            anonymizer configuration, may be null if anonymization is disabled
+     * @return the binding plan
+     */
+    static CopyPipeColumnBindingPlan create(final CopyPipeWriterContext ctx, final DataSet dataSet,
+            final Map<String, Integer> targetColumnTypes, final AnonymizerConfiguration anonymizerConfiguration) {
+        final CopyContext.DataCopyItem item = ctx.getCopyItem();
+        final DataBaseProvider dbProvider = ctx.getContext().getMigrationContext().getDataTargetRepository()
+                .getDatabaseProvider();
+        final Table anonymizedTable = ctx.getContext().getMigrationContext().isAnonymizerEnabled()
+                && anonymizerConfiguration != null ? anonymizerConfiguration.getTable(item.getTargetItem()) : null;
+
+        final List<ColumnBinder> binders = new ArrayList<>(ctx.getColumnsToCopy().size());
+        final List<ValueBinder> anonymizedBinders = new ArrayList<>();
+        int paramIdx = 1;
+        for (final String columnName : ctx.getColumnsToCopy()) {
+            final Integer targetColumnType = targetColumnTypes.get(columnName);
+            if (targetColumnType == null) {
+                throw new IllegalStateException(String.format("%s: column %s does not exist in target table %s",
+                        item.getPipelineName(), columnName, item.getTargetItem()));
+            }
+            if (ctx.getNullifyColumns().contains(columnName)) {
+                binders.add(new NullifyBinder(paramIdx, columnName, targetColumnType));
+            } else if (MapUtils.isNotEmpty(item.getColumnMap()) && item.getColumnMap().containsKey(columnName)) {
+                binders.add(new OverrideBinder(paramIdx, columnName, targetColumnType,
+                        item.getColumnMap().get(columnName)));
+            } else {
+                final int sourceColumnIdx = dataSet.getColumnIndex(columnName);
+                if (sourceColumnIdx < 0) {
+                    throw new IllegalArgumentException(
+                            String.format("Column %s is not part of the result", columnName));
+                }
+                final Column anonymizedColumn = anonymizedTable == null
+                        ? null
+                        : anonymizedTable.getColumn(columnName);
+                final ValueBinder binder = new ValueBinder(paramIdx, columnName, targetColumnType, sourceColumnIdx,
+                        dataSet.getColumn(sourceColumnIdx), anonymizedColumn,
+                        ValueSetter.forColumn(dbProvider, ctx.getWriteMethod(), targetColumnType));
+                binders.add(binder);
+                if (anonymizedColumn != null) {
+                    anonymizedBinders.add(binder);
+                }
+            }
+            paramIdx++;
+        }
+        return new CopyPipeColumnBindingPlan(binders.toArray(new ColumnBinder[0]),
+                anonymizedBinders.toArray(new ValueBinder[0]));
+    }
+
+    ColumnBinder[] getBinders() {
+        return binders;
+    }
+
+    ValueBinder[] getAnonymizedBinders() {
+        return anonymizedBinders;
+    }
+
+    boolean hasAnonymizedColumns() {
+        return anonymizedBinders.length > 0;
+    }
+
+    /**
+     * Binds all columns of the given row to the statement parameters
+     *
+     * @param statement
+     *            statement to bind the row to
+     * @param paramOffset
+     *            number of parameters of the statement preceding the row, 0 for single row statements
+     * @param dataSet
+     *            page the row belongs to
+     * @param rowIndex
+     *            index of the row to bind
+     * @param anonymizedValues
+     *            anonymized values of the row, may be null or empty
+     * @throws SQLException
+     */
+    void bindRow(final PreparedStatement statement, final int paramOffset, final DataSet dataSet, final int rowIndex,
+            final Map<Column, Object> anonymizedValues) throws SQLException {
+        final Map<Column, Object> values = anonymizedValues == null ? Collections.emptyMap() : anonymizedValues;
+        for (final ColumnBinder binder : binders) {
+            binder.bind(statement, paramOffset + binder.paramIdx, dataSet, rowIndex, values);
+        }
+    }
+
+    abstract static class ColumnBinder {
+        protected final int paramIdx;
+        protected final String columnName;
+        protected final int targetColumnType;
+
+        ColumnBinder(final int paramIdx, final String columnName, final int targetColumnType) {
+            this.paramIdx = paramIdx;
+            this.columnName = columnName;
+            this.targetColumnType = targetColumnType;
+        }
+
+        String getColumnName() {
+            return columnName;
+        }
+
+        int getTargetColumnType() {
+            return targetColumnType;
+        }
+
+        /**
+         * Resolves the value written to the target column for the given row, without binding it
+         */
+        abstract Object resolveValue(DataSet dataSet, int rowIndex, Map<Column, Object> anonymizedValues);
+
+        abstract void bind(PreparedStatement statement, int parameterIndex, DataSet dataSet, int rowIndex,
+                Map<Column, Object> anonymizedValues) throws SQLException;
+    }
+
+    private static class NullifyBinder extends ColumnBinder {
+        NullifyBinder(final int paramIdx, final String columnName, final int targetColumnType) {
+            super(paramIdx, columnName, targetColumnType);
+        }
+
+        @Override
+        Object resolveValue(final DataSet dataSet, final int rowIndex, final Map<Column, Object> anonymizedValues) {
+            return null;
+        }
+
+        @Override
+        void bind(final PreparedStatement statement, final int parameterIndex, final DataSet dataSet,
+                final int rowIndex, final Map<Column, Object> anonymizedValues) throws SQLException {
+            statement.setNull(parameterIndex, targetColumnType);
+            LOG.trace("Column {} is nullified. Setting NULL value...", columnName);
+        }
+    }
+
+    private static class OverrideBinder extends ColumnBinder {
+        private final Object value;
+
+        OverrideBinder(final int paramIdx, final String columnName, final int targetColumnType, final Object value) {
+            super(paramIdx, columnName, targetColumnType);
+            this.value = value;
+        }
+
+        @Override
+        Object resolveValue(final DataSet dataSet, final int rowIndex, final Map<Column, Object> anonymizedValues) {
+            return value;
+        }
+
+        @Override
+        void bind(final PreparedStatement statement, final int parameterIndex, final DataSet dataSet,
+                final int rowIndex, final Map<Column, Object> anonymizedValues) throws SQLException {
+            statement.setObject(parameterIndex, value, targetColumnType);
+        }
+    }
+
+    static class ValueBinder extends ColumnBinder {
+        private final int sourceColumnIdx;
+        private final DataColumn sourceColumn;
+        private final Column anonymizedColumn;
+        private final ValueSetter setter;
+        private final boolean longTarget;
+
+        ValueBinder(final int paramIdx, final String columnName, final int targetColumnType,
+                final int sourceColumnIdx, final DataColumn sourceColumn, final Column anonymizedColumn,
+                final ValueSetter setter) {
+            super(paramIdx, columnName, targetColumnType);
+            this.sourceColumnIdx = sourceColumnIdx;
+            this.sourceColumn = sourceColumn;
+            this.anonymizedColumn = anonymizedColumn;
+            this.setter = setter;
+            this.longTarget = targetColumnType == BIGINT || targetColumnType == NUMERIC
+                    || targetColumnType == DECIMAL;
+        }
+
+        Column getAnonymizedColumn() {
+            return anonymizedColumn;
+        }
+
+        Object getSourceValue(final DataSet dataSet, final int rowIndex) {
+            return dataSet.getColumnValue(sourceColumnIdx, rowIndex, sourceColumn, targetColumnType);
+        }
+
+        @Override
+        Object resolveValue(final DataSet dataSet, final int rowIndex, final Map<Column, Object> anonymizedValues) {
+            final Object anonymizedValue = anonymizedColumn == null ? null : anonymizedValues.get(anonymizedColumn);
+            return anonymizedValue != null ? anonymizedValue : getSourceValue(dataSet, rowIndex);
+        }
+
+        @Override
+        void bind(final PreparedStatement statement, final int parameterIndex, final DataSet dataSet,
+                final int rowIndex, final Map<Column, Object> anonymizedValues) throws SQLException {
+            if (longTarget && anonymizedColumn == null && dataSet.isLongColumn(sourceColumnIdx)) {
+                // primitive source column, bound without boxing
+                if (dataSet.isNull(rowIndex, sourceColumnIdx)) {
+                    statement.setNull(parameterIndex, targetColumnType);
+                } else {
+                    statement.setLong(parameterIndex, dataSet.getLong(rowIndex, sourceColumnIdx));
+                }
+                return;
+            }
+            final Object value = resolveValue(dataSet, rowIndex, anonymizedValues);
+            if (value == null) {
+                statement.setNull(parameterIndex, targetColumnType);
+                return;
+            }
+            if (value instanceof SpilledLob) {
+                ((SpilledLob) value).bind(statement, parameterIndex);
+                return;
+            }
+            try {
+                setter.set(statement, parameterIndex, this, value);
+            } catch (final NumberFormatException e) {
+                LOG.error("NumberFormatException - Error setting Type on sourceColumnName = " + columnName
+                        + ", sourceColumnValue = " + value + ", targetColumnType =" + targetColumnType
+                        + ", source type = " + value.getClass().getTypeName());
+                setter.setOnNumberFormatError(statement, parameterIndex, this, value);
+            } catch (final SQLException | RuntimeException e) {
+                LOG.error("Error setting Type on sourceColumnName = " + columnName + ", sourceColumnValue = " + value
+                        + ", targetColumnType =" + targetColumnType + ", source type = "
+                        + value.getClass().getTypeName(), e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Dialect specific way of binding a non-null value to a statement parameter, resolved once per column
+     */
+    private enum ValueSetter {
+        DEFAULT {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                statement.setObject(parameterIndex, value, binder.targetColumnType);
+            }
+        },
+        /*
+         * Code to handle \u0000 (NULL) characters in PostgreSQL as those are not allowed within text fields,
+         * exception example: PSQLException: ERROR: invalid byte sequence for encoding "UTF8": 0x00
+         */
+        POSTGRESQL_VARCHAR {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                final Object sanitizedValue = value instanceof String
+                        ? StringUtils.remove((String) value, Character.MIN_VALUE)
+                        : value;
+                statement.setObject(parameterIndex, sanitizedValue, binder.targetColumnType);
+            }
+        },
+        ORACLE_DEFAULT {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                statement.setObject(parameterIndex, value, binder.targetColumnType);
+            }
+
+            @Override
+            void setOnNumberFormatError(final PreparedStatement statement, final int parameterIndex,
+                    final ValueBinder binder, final Object value) throws SQLException {
+                if (binder.targetColumnType == NUMERIC && value instanceof String && !((String) value).isEmpty()) {
+                    statement.setInt(parameterIndex, Character.codePointAt((String) value, 0));
+                }
+            }
+        },
+        /*
+         * code to handle BLOB, because setObject throws exception example Products.p_buyerids is varbinary(max) in
+         * (sqlserver) AND blob in (oracle)
+         */
+        ORACLE_BLOB {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                statement.setBytes(parameterIndex, (byte[]) value);
+            }
+        },
+        /*
+         * code to handle CLOB, because setObject throws exception example Promotion.description is nvarchar(max) in
+         * (sqlserver) AND blob in (oracle)
+         */
+        ORACLE_CLOB {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                if (value instanceof String) {
+                    final String clobString = (String) value;
+                    if (!clobString.isEmpty()) {
+                        statement.setClob(parameterIndex, new StringReader(clobString), clobString.length());
+                    } else {
+                        LOG.debug("CLOB is empty... setting null");
+                        statement.setNull(parameterIndex, binder.targetColumnType);
+                    }
+                }
+            }
+        },
+        /*
+         * CLOB bound as string for direct-path inserts, stream binds would make the driver execute the JDBC batch row
+         * by row instead of with array binding
+         */
+        ORACLE_CLOB_STRING {
+            @Override
+            void set(final PreparedStatement statement, final int parameterIndex, final ValueBinder binder,
+                    final Object value) throws SQLException {
+                if (value instanceof String) {
+                    final String clobString = (String) value;
+                    if (!clobString.isEmpty()) {
+                        statement.setString(parameterIndex, clobString);
+                    } else {
+                        LOG.debug("CLOB is empty... setting null");
+                        statement.setNull(parameterIndex, binder.targetColumnType);
+                    }
+                }
+            }
+        };
+
+        abstract void set(PreparedStatement statement, int parameterIndex, ValueBinder binder, Object value)
+                throws SQLException;
+
+        void setOnNumberFormatError(final PreparedStatement statement, final int parameterIndex,
+                final ValueBinder binder, final Object value) throws SQLException {
+            // no fallback binding by default
+        }
+
+        static ValueSetter forColumn(final DataBaseProvider dbProvider, final DataWriteMethod writeMethod,
+                final int targetColumnType) {
+            if (dbProvider.isOracleUsed()) {
+                switch (targetColumnType) {
+                    case BLOB :
+                        return ORACLE_BLOB;
+                    case CLOB :
+                        return writeMethod == DataWriteMethod.DIRECTPATH ? ORACLE_CLOB_STRING : ORACLE_CLOB;
+                    default :
+                        return ORACLE_DEFAULT;
+                }
+            }
+            if (dbProvider.isPostgreSqlUsed() && targetColumnType == VARCHAR) {
+                return POSTGRESQL_VARCHAR;
+            }
+            return DEFAULT;
+        }
+    }
+}
@@ -6,6 +6,7 @@
 
 package com.sap.cx.boosters.commercedbsync.strategy.impl;
 
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
 import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
@@ -24,11 +25,14 @@ class CopyPipeWriterContext {
     private final List<String> upsertIds;
     private final boolean requiresIdentityInsert;
     private final DatabaseCopyTaskRepository databaseCopyTaskRepository;
+    private final DataWriteMethod writeMethod;
+    private final boolean stagedUpsert;
 
     public CopyPipeWriterContext(CopyContext context, CopyContext.DataCopyItem copyItem, List<String> columnsToCopy,
             Set<String> nullifyColumns, PerformanceRecorder performanceRecorder, AtomicLong totalCount,
             List<String> upsertIds, boolean requiresIdentityInsert,
-            DatabaseCopyTaskRepository databaseCopyTaskRepository) {
+            DatabaseCopyTaskRepository databaseCopyTaskRepository, DataWriteMethod writeMethod,
+            boolean stagedUpsert) {
         this.context = context;
         this.copyItem = copyItem;
         this.columnsToCopy = columnsToCopy;
@@ -38,6 +42,8 @@ class CopyPipeWriterContext {
         this.upsertIds = upsertIds;
         this.requiresIdentityInsert = requiresIdentityInsert;
         this.databaseCopyTaskRepository = databaseCopyTaskRepository;
+        this.writeMethod = writeMethod;
+        this.stagedUpsert = stagedUpsert;
     }
 
     public CopyContext getContext() {
@@ -75,4 +81,15 @@ class CopyPipeWriterContext {
     public DatabaseCopyTaskRepository getDatabaseCopyTaskRepository() {
         return databaseCopyTaskRepository;
     }
+
+    public DataWriteMethod getWriteMethod() {
+        return writeMethod;
+    }
+
+    /**
+     * @return true if rows are loaded into a staging table and upserted into the target table per batch
+     */
+    public boolean isStagedUpsert() {
+        return stagedUpsert;
+    }
 }
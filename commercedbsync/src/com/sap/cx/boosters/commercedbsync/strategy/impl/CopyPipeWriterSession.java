@@ -0,0 +1,276 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Target connection of a writer worker, pinned for the lifetime of a table pipeline. Keeps the connection in manual
+ * commit mode, holds the prepared insert/upsert statement(s) and the identity insert state, so that writing a batch
+ * only needs to execute and commit the statement(s).
+ */
+class CopyPipeWriterSession implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyPipeWriterSession.class);
+    // statements of full size and of the remaining rows of a batch
+    private static final int MAX_BULK_INSERT_STATEMENTS = 2;
+
+    private final CopyPipeWriterContext ctx;
+    private final Connection connection;
+    private final boolean originalAutoCommit;
+    private PreparedStatement statement;
+    private final Map<Integer, PreparedStatement> bulkInsertStatements = new LinkedHashMap<>(4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, PreparedStatement> eldest) {
+            if (size() > MAX_BULK_INSERT_STATEMENTS) {
+                closeStatement(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, PreparedStatement> cachedStatements = new HashMap<>();
+    private int maxBulkInsertRows;
+    private int[][] bulkCopyPrecisionAndScale;
+    private boolean identityInsertOn;
+
+    private CopyPipeWriterSession(final CopyPipeWriterContext ctx, final Connection connection)
+            throws SQLException {
+        this.ctx = ctx;
+        this.connection = connection;
+        this.originalAutoCommit = connection.getAutoCommit();
+    }
+
+    /**
+     * Opens a new session on the target repository of the given writer context
+     *
+     * @param ctx
+     *            writer context of the pipeline
+     * @return the opened session
+     * @throws Exception
+     */
+    static CopyPipeWriterSession open(final CopyPipeWriterContext ctx) throws Exception {
+        final Connection connection = ctx.getContext().getMigrationContext().getDataTargetRepository()
+                .getConnection();
+        final CopyPipeWriterSession session;
+        try {
+            session = new CopyPipeWriterSession(ctx, connection);
+        } catch (final SQLException e) {
+            connection.close();
+            throw e;
+        }
+        try {
+            if (ctx.isStagedUpsert()) {
+                session.createStagingTable();
+            }
+            if (ctx.getWriteMethod() == DataWriteMethod.MULTIROW) {
+                session.maxBulkInsertRows = ctx.getContext().getMigrationContext().getDataTargetRepository()
+                        .getMaxBulkInsertRows(ctx.getColumnsToCopy().size());
+            } else if (ctx.getWriteMethod() == DataWriteMethod.BATCH
+                    || ctx.getWriteMethod() == DataWriteMethod.DIRECTPATH) {
+                session.statement = session.createPreparedStatement();
+            }
+            connection.setAutoCommit(false);
+            // bulk copy keeps the identity values by its own option, unless it only loads the staging table
+            if (ctx.isRequiresIdentityInsert()
+                    && (ctx.getWriteMethod() != DataWriteMethod.BULKCOPY || ctx.isStagedUpsert())) {
+                session.identityInsertOn = session.switchIdentityInsert(true);
+            }
+        } catch (final Exception e) {
+            session.close();
+            throw e;
+        }
+        LOG.debug("Opened writer session for table '{}'", ctx.getCopyItem().getTargetItem());
+        return session;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    PreparedStatement getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return maximum number of rows written by a single multi row insert statement
+     */
+    int getMaxBulkInsertRows() {
+        return maxBulkInsertRows;
+    }
+
+    /**
+     * Get the multi row insert statement for the given number of rows. The statements of the most recently used row
+     * counts are kept prepared, as the remaining rows of a batch vary with the size of the batch.
+     *
+     * @param rowCount
+     *            number of rows, at most {@link #getMaxBulkInsertRows()}
+     * @return prepared multi row insert statement
+     * @throws SQLException
+     */
+    PreparedStatement getBulkInsertStatement(final int rowCount) throws SQLException {
+        PreparedStatement bulkInsertStatement = bulkInsertStatements.get(rowCount);
+        if (bulkInsertStatement == null) {
+            final CopyContext.DataCopyItem item = ctx.getCopyItem();
+            final String sql = ctx.getContext().getMigrationContext().getDataTargetRepository()
+                    .buildBulkInsertStatement(item.getTargetItem(), ctx.getColumnsToCopy(), rowCount);
+            LOG.debug("Preparing multi row insert statement for {} rows on table '{}'", rowCount,
+                    item.getTargetItem());
+            bulkInsertStatement = connection.prepareStatement(sql);
+            bulkInsertStatements.put(rowCount, bulkInsertStatement);
+        }
+        return bulkInsertStatement;
+    }
+
+    /**
+     * Get a statement prepared once per session for the given SQL
+     *
+     * @param sql
+     *            statement to prepare
+     * @return prepared statement
+     * @throws SQLException
+     */
+    PreparedStatement prepareCached(final String sql) throws SQLException {
+        PreparedStatement cachedStatement = cachedStatements.get(sql);
+        if (cachedStatement == null) {
+            cachedStatement = connection.prepareStatement(sql);
+            cachedStatements.put(sql, cachedStatement);
+        }
+        return cachedStatement;
+    }
+
+    /**
+     * @return precision and scale of the target columns reported to the SQL Server bulk copy, read once per session
+     * @throws SQLException
+     */
+    int[][] getBulkCopyPrecisionAndScale() throws SQLException {
+        if (bulkCopyPrecisionAndScale == null) {
+            bulkCopyPrecisionAndScale = SqlServerBulkCopyWriter.getColumnPrecisionAndScale(connection,
+                    ctx.getCopyItem().getTargetItem(), ctx.getColumnsToCopy());
+        }
+        return bulkCopyPrecisionAndScale;
+    }
+
+    void commit() throws SQLException {
+        connection.commit();
+    }
+
+    void rollback() {
+        try {
+            connection.rollback();
+        } catch (final SQLException e) {
+            LOG.warn("Could not rollback writer session for table '{}'", ctx.getCopyItem().getTargetItem(), e);
+        }
+    }
+
+    private PreparedStatement createPreparedStatement() throws SQLException {
+        final CopyContext.DataCopyItem item = ctx.getCopyItem();
+        final List<String> columnsToCopy = ctx.getColumnsToCopy();
+        final DataRepository targetRepository = ctx.getContext().getMigrationContext().getDataTargetRepository();
+        if (ctx.isStagedUpsert()) {
+            return connection.prepareStatement(getBulkInsertStatement(
+                    targetRepository.getStagingTableName(item.getTargetItem()), columnsToCopy,
+                    columnsToCopy.stream().map(column -> "?").collect(Collectors.toList())));
+        } else if (ctx.getContext().getMigrationContext().isIncrementalModeEnabled()) {
+            if (!ctx.getUpsertIds().isEmpty()) {
+                final String upsertStatement = targetRepository.buildBulkUpsertStatement(item.getTargetItem(),
+                        columnsToCopy, ctx.getUpsertIds());
+
+                LOG.debug("Upsert statement for: {}\n{}", targetRepository.getDatabaseProvider(), upsertStatement);
+
+                return connection.prepareStatement(upsertStatement);
+            } else {
+                throw new RuntimeException(
+                        "The incremental approach can only be used on tables that have a valid identifier like PK or ID");
+            }
+        } else if (ctx.getWriteMethod() == DataWriteMethod.DIRECTPATH) {
+            return connection.prepareStatement(
+                    targetRepository.buildDirectPathInsertStatement(item.getTargetItem(), columnsToCopy));
+        } else {
+            return connection.prepareStatement(getBulkInsertStatement(item.getTargetItem(), columnsToCopy,
+                    columnsToCopy.stream().map(column -> "?").collect(Collectors.toList())));
+        }
+    }
+
+    private void createStagingTable() throws SQLException {
+        if (ctx.getUpsertIds().isEmpty()) {
+            throw new RuntimeException(
+                    "The incremental approach can only be used on tables that have a valid identifier like PK or ID");
+        }
+        ctx.getContext().getMigrationContext().getDataTargetRepository().createStagingTable(connection,
+                ctx.getCopyItem().getTargetItem(), ctx.getColumnsToCopy());
+    }
+
+    private String getBulkInsertStatement(String targetTableName, List<String> columnsToCopy,
+            List<String> columnsToCopyValues) {
+        return "INSERT INTO " + targetTableName + " "
+                + getBulkInsertStatementParamList(columnsToCopy, columnsToCopyValues);
+    }
+
+    private String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
+        return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
+    }
+
+    private boolean switchIdentityInsert(final boolean on) {
+        final String targetTableName = ctx.getCopyItem().getTargetItem();
+        final String onOff = on ? "ON" : "OFF";
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(String.format("SET IDENTITY_INSERT %s %s", targetTableName, onOff));
+            return on;
+        } catch (final Exception e) {
+            if (on) {
+                // without it every insert of the pipeline fails on the identity column
+                throw new RuntimeException(
+                        String.format("Could not switch identity insert %s for table '%s'", onOff, targetTableName),
+                        e);
+            }
+            LOG.warn("Could not switch identity insert {} for table '{}'", onOff, targetTableName, e);
+            return !on;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        closeStatement(statement);
+        bulkInsertStatements.values().forEach(this::closeStatement);
+        bulkInsertStatements.clear();
+        cachedStatements.values().forEach(this::closeStatement);
+        cachedStatements.clear();
+        try {
+            if (identityInsertOn) {
+                identityInsertOn = switchIdentityInsert(false);
+            }
+            connection.setAutoCommit(originalAutoCommit);
+        } finally {
+            connection.close();
+        }
+        LOG.debug("Closed writer session for table '{}'", ctx.getCopyItem().getTargetItem());
+    }
+
+    private void closeStatement(final PreparedStatement preparedStatement) {
+        try {
+            if (preparedStatement != null) {
+                preparedStatement.close();
+            }
+        } catch (final SQLException e) {
+            LOG.debug("Could not close writer statement for table '{}'", ctx.getCopyItem().getTargetItem(), e);
+        }
+    }
+}
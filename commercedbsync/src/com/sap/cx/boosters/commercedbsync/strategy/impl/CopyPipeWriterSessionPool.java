@@ -0,0 +1,83 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Writer sessions of a table pipeline. A writer task acquires a session for the batch it writes and releases it
+ * afterwards, so the number of open sessions never exceeds the number of writer workers of the pipeline.
+ */
+class CopyPipeWriterSessionPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyPipeWriterSessionPool.class);
+
+    private final CopyPipeWriterContext ctx;
+    private final Deque<CopyPipeWriterSession> idleSessions = new ConcurrentLinkedDeque<>();
+    private final Set<CopyPipeWriterSession> openSessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    CopyPipeWriterSessionPool(final CopyPipeWriterContext ctx) {
+        this.ctx = ctx;
+    }
+
+    CopyPipeWriterSession acquire() throws Exception {
+        if (closed) {
+            throw new IllegalStateException(
+                    "Writer sessions of table '" + ctx.getCopyItem().getTargetItem() + "' are already closed");
+        }
+        final CopyPipeWriterSession idleSession = idleSessions.pollFirst();
+        if (idleSession != null) {
+            return idleSession;
+        }
+        final CopyPipeWriterSession session = CopyPipeWriterSession.open(ctx);
+        openSessions.add(session);
+        if (closed) {
+            discard(session);
+            throw new IllegalStateException(
+                    "Writer sessions of table '" + ctx.getCopyItem().getTargetItem() + "' are already closed");
+        }
+        return session;
+    }
+
+    void release(final CopyPipeWriterSession session) {
+        idleSessions.offerFirst(session);
+        if (closed && idleSessions.remove(session)) {
+            discard(session);
+        }
+    }
+
+    /**
+     * Closes a session that must not be reused, e.g. because writing a batch failed
+     */
+    void discard(final CopyPipeWriterSession session) {
+        openSessions.remove(session);
+        try {
+            session.close();
+        } catch (final Exception e) {
+            LOG.warn("Could not close writer session of table '{}'", ctx.getCopyItem().getTargetItem(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        CopyPipeWriterSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            discard(session);
+        }
+        if (!openSessions.isEmpty()) {
+            LOG.debug("{} writer session(s) of table '{}' still in use, closing on release", openSessions.size(),
+                    ctx.getCopyItem().getTargetItem());
+        }
+    }
+}
@@ -7,6 +7,7 @@
 package com.sap.cx.boosters.commercedbsync.strategy.impl;
 
 import com.sap.cx.boosters.commercedbsync.anonymizer.AnonymizerConfigurator;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataWorkerExecutor;
 import com.sap.cx.boosters.commercedbsync.concurrent.MaybeFinished;
 import com.sap.cx.boosters.commercedbsync.constants.CommercedbsyncConstants;
@@ -19,6 +20,7 @@ import de.hybris.bootstrap.ddl.DataBaseProvider;
 import org.apache.commons.lang.StringUtils;
 import com.sap.cx.boosters.commercedbsync.DataThreadPoolConfig;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataThreadPoolConfigBuilder;
 import com.sap.cx.boosters.commercedbsync.concurrent.DataThreadPoolFactory;
 import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.RetriableTask;
@@ -39,8 +41,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -53,14 +57,17 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
 
     private final AnonymizerConfigurator anonymizerConfigurator;
 
+    private final DataPipeMemoryBudget memoryBudget;
+
     private static final String LP_SUFFIX = "lp";
 
     public CopyPipeWriterStrategy(final DatabaseCopyTaskRepository taskRepository,
             final DataThreadPoolFactory dataWriteWorkerPoolFactory,
-            final AnonymizerConfigurator anonymizerConfigurator) {
+            final AnonymizerConfigurator anonymizerConfigurator, final DataPipeMemoryBudget memoryBudget) {
         this.taskRepository = taskRepository;
         this.dataWriteWorkerPoolFactory = dataWriteWorkerPoolFactory;
         this.anonymizerConfigurator = anonymizerConfigurator;
+        this.memoryBudget = memoryBudget;
     }
 
     @Override
@@ -109,9 +116,12 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
         ThreadPoolTaskExecutor taskExecutor = dataWriteWorkerPoolFactory.create(context, threadPoolConfig);
         DataWorkerExecutor<Boolean> workerExecutor = new DefaultDataWorkerExecutor<>(taskExecutor);
         Connection targetConnection = null;
+        CopyPipeWriterSessionPool sessionPool = null;
+        boolean tableLoggingDisabled = false;
         AtomicLong totalCount = new AtomicLong(
                 taskRepository.findPipeline(context, item).map(DatabaseCopyTask::getTargetrowcount).orElse(0L));
         List<String> upsertIds = new ArrayList<>();
+        Exception failure = null;
         try {
             targetConnection = context.getMigrationContext().getDataTargetRepository().getConnection();
 
@@ -120,6 +130,7 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
             MaybeFinished<DataSet> sourcePage;
             boolean firstPage = true;
             CopyPipeWriterContext copyPipeWriterContext = null;
+            CopyPipeColumnBindingPlan columnBindingPlan = null;
             do {
                 sourcePage = pipe.get();
                 if (sourcePage.isPoison()) {
@@ -140,17 +151,39 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
                             determineUpsertId(upsertIds, dataSet);
                         }
                     }
+                    final DataWriteMethod writeMethod = getWriteMethod(context, item);
                     copyPipeWriterContext = new CopyPipeWriterContext(context, item, columnsToCopy, nullifyColumns,
-                            performanceRecorder, totalCount, upsertIds, requiresIdentityInsert, taskRepository);
+                            performanceRecorder, totalCount, upsertIds, requiresIdentityInsert, taskRepository,
+                            writeMethod, isStagedUpsert(context, item, writeMethod));
+                    sessionPool = new CopyPipeWriterSessionPool(copyPipeWriterContext);
+                    if (copyPipeWriterContext.getWriteMethod() == DataWriteMethod.DIRECTPATH
+                            && context.getMigrationContext().isDirectPathNoLoggingEnabled()) {
+                        tableLoggingDisabled = disableTableLogging(context, targetTableName);
+                    }
                     firstPage = false;
                 }
                 if (dataSet.isNotEmpty()) {
-                    RetriableTask writerTask = createWriterTask(copyPipeWriterContext, dataSet);
-                    workerExecutor.safelyExecute(writerTask);
+                    if (columnBindingPlan == null && !context.getMigrationContext().isDeletionEnabled()) {
+                        columnBindingPlan = CopyPipeColumnBindingPlan.create(copyPipeWriterContext, dataSet,
+                                getTargetColumnTypes(targetConnection, targetTableName),
+                                anonymizerConfigurator.getConfiguration());
+                    }
+                    RetriableTask writerTask = createWriterTask(copyPipeWriterContext, dataSet, columnBindingPlan,
+                            sessionPool);
+                    workerExecutor.safelyExecute(() -> {
+                        try {
+                            return writerTask.call();
+                        } finally {
+                            memoryBudget.release(dataSet);
+                        }
+                    });
+                } else {
+                    memoryBudget.release(dataSet);
                 }
             } while (!sourcePage.isDone());
             workerExecutor.waitAndRethrowUncaughtExceptions();
         } catch (Exception e) {
+            failure = e;
             pipe.requestAbort(e);
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
@@ -160,12 +193,39 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
             if (taskExecutor != null) {
                 dataWriteWorkerPoolFactory.destroy(taskExecutor);
             }
+            // pages left in the pipe after an abort are never written
+            memoryBudget.releaseAll(pipe);
+            if (sessionPool != null) {
+                sessionPool.close();
+            }
+            // chunks of a table are loaded by several pipelines, possibly on other nodes, their table logging is
+            // restored once the migration has terminated
+            if (tableLoggingDisabled && item.getChunkData() == null) {
+                restoreTableLogging(context, targetTableName);
+            }
             if (targetConnection != null) {
                 doTurnOnOffIndicesIfNecessary(context, item.getTargetItem(), true);
                 targetConnection.close();
             }
 
-            taskRepository.updateTaskProgress(context, item, totalCount.get());
+            closeTaskProgress(context, item, totalCount.get(), failure);
+        }
+    }
+
+    /**
+     * Writes the final progress of the pipeline. If the pipeline failed, an error writing the progress is attached to
+     * the failure instead of replacing it.
+     */
+    private void closeTaskProgress(CopyContext context, CopyContext.DataCopyItem item, long totalCount,
+            Exception failure) throws Exception {
+        try {
+            taskRepository.updateTaskProgress(context, item, totalCount);
+            taskRepository.closeTaskProgress(context, item);
+        } catch (Exception e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
         }
     }
 
@@ -229,6 +289,32 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
         }
     }
 
+    /**
+     * Switching the logging of a table fails while a direct-path insert of another pipeline of the table holds its
+     * lock, which has switched it already. The table is loaded with logging otherwise.
+     *
+     * @return true if logging of the table has been disabled
+     */
+    private boolean disableTableLogging(final CopyContext context, final String targetTableName) {
+        try {
+            LOG.debug("Disabling logging for table '{}'", targetTableName);
+            context.getMigrationContext().getDataTargetRepository().setTableLoggingEnabled(targetTableName, false);
+            return true;
+        } catch (final SQLException e) {
+            LOG.warn("Could not disable logging for table '{}', loading it with logging", targetTableName, e);
+            return false;
+        }
+    }
+
+    private void restoreTableLogging(final CopyContext context, final String targetTableName) {
+        try {
+            LOG.debug("Enabling logging for table '{}'", targetTableName);
+            context.getMigrationContext().getDataTargetRepository().setTableLoggingEnabled(targetTableName, true);
+        } catch (final SQLException e) {
+            LOG.error("Could not enable logging for table '{}', it has to be enabled manually", targetTableName, e);
+        }
+    }
+
     protected void assertTruncateAllowed(CopyContext context) {
         if (context.getMigrationContext().isIncrementalModeEnabled()) {
             throw new IllegalStateException("Truncating tables in incremental mode is illegal. Change the property "
@@ -300,12 +386,99 @@ public class CopyPipeWriterStrategy implements PipeWriterStrategy<DataSet> {
         }
     }
 
-    private RetriableTask createWriterTask(CopyPipeWriterContext dwc, DataSet dataSet) {
+    private DataWriteMethod getWriteMethod(final CopyContext context, final CopyContext.DataCopyItem item) {
+        final DataWriteMethod writeMethod = context.getMigrationContext().getDataWriteMethod(item.getTargetItem());
+        final boolean stagedBulkCopy = writeMethod == DataWriteMethod.BULKCOPY
+                && context.getMigrationContext().isStagedUpsertEnabled();
+        if ((writeMethod == DataWriteMethod.MULTIROW || writeMethod == DataWriteMethod.DIRECTPATH
+                || (writeMethod == DataWriteMethod.BULKCOPY && !stagedBulkCopy))
+                && context.getMigrationContext().isIncrementalModeEnabled()) {
+            LOG.info("Write method {} is not supported in incremental mode, using {} for table '{}'", writeMethod,
+                    DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        if (writeMethod == DataWriteMethod.COPY
+                && !context.getMigrationContext().getDataTargetRepository().getDatabaseProvider().isPostgreSqlUsed()) {
+            LOG.warn("Write method {} is only supported for PostgreSQL targets, using {} for table '{}'", writeMethod,
+                    DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        if (writeMethod == DataWriteMethod.BULKCOPY
+                && !context.getMigrationContext().getDataTargetRepository().getDatabaseProvider().isMssqlUsed()) {
+            LOG.warn("Write method {} is only supported for SQL Server targets, using {} for table '{}'", writeMethod,
+                    DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        if (writeMethod == DataWriteMethod.LOADDATA
+                && context.getMigrationContext().getDataTargetRepository().getDatabaseProvider() != DataBaseProvider.MYSQL) {
+            LOG.warn("Write method {} is only supported for MySQL targets, using {} for table '{}'", writeMethod,
+                    DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        if (writeMethod == DataWriteMethod.DIRECTPATH
+                && !context.getMigrationContext().getDataTargetRepository().getDatabaseProvider().isOracleUsed()) {
+            LOG.warn("Write method {} is only supported for Oracle targets, using {} for table '{}'", writeMethod,
+                    DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        if (writeMethod == DataWriteMethod.DIRECTPATH
+                && item.getBatchSize() < context.getMigrationContext().getDirectPathMinBatchSize()) {
+            // each direct-path insert starts new blocks above the high water mark, small batches waste space
+            LOG.info("Batch size {} is below the minimum of write method {}, using {} for table '{}'",
+                    item.getBatchSize(), writeMethod, DataWriteMethod.BATCH, item.getTargetItem());
+            return DataWriteMethod.BATCH;
+        }
+        LOG.debug("Using write method {} for table '{}'", writeMethod, item.getTargetItem());
+        return writeMethod;
+    }
+
+    /**
+     * Incremental copies are upserted through a staging table if enabled, or if the write method can only load
+     * tables (COPY). Falls back to row wise upserts if the target database does not support staging tables.
+     */
+    private boolean isStagedUpsert(final CopyContext context, final CopyContext.DataCopyItem item,
+            final DataWriteMethod writeMethod) {
+        final MigrationContext migrationContext = context.getMigrationContext();
+        if (!migrationContext.isIncrementalModeEnabled()) {
+            return false;
+        }
+        if (writeMethod != DataWriteMethod.COPY && (!migrationContext.isStagedUpsertEnabled()
+                || (writeMethod != DataWriteMethod.BATCH && writeMethod != DataWriteMethod.BULKCOPY))) {
+            return false;
+        }
+        try {
+            LOG.debug("Using staging table '{}' for table '{}'",
+                    migrationContext.getDataTargetRepository().getStagingTableName(item.getTargetItem()),
+                    item.getTargetItem());
+            return true;
+        } catch (final UnsupportedOperationException e) {
+            LOG.info("Staged upsert is not supported by the target database, using row wise upserts for table '{}'",
+                    item.getTargetItem());
+            return false;
+        }
+    }
+
+    private Map<String, Integer> getTargetColumnTypes(final Connection targetConnection, final String targetTableName)
+            throws SQLException {
+        final Map<String, Integer> targetColumnTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        try (Statement stmt = targetConnection.createStatement();
+                ResultSet metaResult = stmt
+                        .executeQuery(String.format("select * from %s where 0 = 1", targetTableName))) {
+            ResultSetMetaData targetMeta = metaResult.getMetaData();
+            for (int i = 1; i <= targetMeta.getColumnCount(); i++) {
+                targetColumnTypes.putIfAbsent(targetMeta.getColumnName(i), targetMeta.getColumnType(i));
+            }
+        }
+        return targetColumnTypes;
+    }
+
+    private RetriableTask createWriterTask(CopyPipeWriterContext dwc, DataSet dataSet,
+            CopyPipeColumnBindingPlan columnBindingPlan, CopyPipeWriterSessionPool sessionPool) {
         MigrationContext ctx = dwc.getContext().getMigrationContext();
         if (ctx.isDeletionEnabled()) {
             return new DataDeleteWriterTask(dwc, dataSet);
         } else {
-            return new CopyPipeWriterTask(dwc, dataSet, anonymizerConfigurator.getConfiguration());
+            return new CopyPipeWriterTask(dwc, dataSet, columnBindingPlan, sessionPool);
         }
     }
 
@@ -9,48 +9,53 @@ package com.sap.cx.boosters.commercedbsync.strategy.impl;
 import com.google.common.base.Stopwatch;
 import com.sap.cx.boosters.commercedbsync.anonymizer.TextEvaluator;
 import com.sap.cx.boosters.commercedbsync.anonymizer.TextTokenizer;
-import com.sap.cx.boosters.commercedbsync.anonymizer.model.AnonymizerConfiguration;
 import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
-import com.sap.cx.boosters.commercedbsync.anonymizer.model.Table;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
 import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.RetriableTask;
 import com.sap.cx.boosters.commercedbsync.context.CopyContext;
-import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
-import de.hybris.bootstrap.ddl.DataBaseProvider;
-import org.apache.commons.collections.MapUtils;
-import org.apache.commons.lang3.StringUtils;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.StringReader;
-import java.sql.Connection;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-import static java.sql.Types.*;
 
 class CopyPipeWriterTask extends RetriableTask {
     private static final Logger LOG = LoggerFactory.getLogger(CopyPipeWriterTask.class);
 
     private final CopyPipeWriterContext ctx;
     private final DataSet dataSet;
-    private final AnonymizerConfiguration anonymizerConfiguration;
+    private final CopyPipeColumnBindingPlan columnBindingPlan;
+    private final CopyPipeWriterSessionPool sessionPool;
 
     public CopyPipeWriterTask(final CopyPipeWriterContext ctx, final DataSet dataSet,
-            final AnonymizerConfiguration anonymizerConfiguration) {
+            final CopyPipeColumnBindingPlan columnBindingPlan, final CopyPipeWriterSessionPool sessionPool) {
         super(ctx.getContext(), ctx.getCopyItem().getTargetItem());
         this.ctx = ctx;
         this.dataSet = dataSet;
-        this.anonymizerConfiguration = anonymizerConfiguration;
+        this.columnBindingPlan = columnBindingPlan;
+        this.sessionPool = sessionPool;
+    }
+
+    @Override
+    public Boolean call() {
+        try {
+            return super.call();
+        } finally {
+            // spilled LOB values are kept across retries and deleted once the page is done
+            SpilledLob.release(dataSet);
+        }
     }
 
     @Override
@@ -65,52 +70,6 @@ class CopyPipeWriterTask extends RetriableTask {
         }
     }
 
-    private boolean isColumnOverride(CopyContext.DataCopyItem item, String sourceColumnName) {
-        return MapUtils.isNotEmpty(item.getColumnMap()) && item.getColumnMap().containsKey(sourceColumnName);
-    }
-
-    private void switchIdentityInsert(Connection connection, final String tableName, boolean on) {
-        try (Statement stmt = connection.createStatement()) {
-            String onOff = on ? "ON" : "OFF";
-            stmt.executeUpdate(String.format("SET IDENTITY_INSERT %s %s", tableName, onOff));
-        } catch (final Exception e) {
-            // TODO using brute force FIX
-            // throw new RuntimeException("Could not switch identity insert", e);
-        }
-    }
-
-    private String getBulkInsertStatement(String targetTableName, List<String> columnsToCopy,
-            List<String> columnsToCopyValues) {
-        return "INSERT INTO " + targetTableName + " "
-                + getBulkInsertStatementParamList(columnsToCopy, columnsToCopyValues);
-    }
-
-    private String getBulkInsertStatementParamList(List<String> columnsToCopy, List<String> columnsToCopyValues) {
-        return "(" + String.join(", ", columnsToCopy) + ") VALUES (" + String.join(", ", columnsToCopyValues) + ")";
-    }
-
-    private PreparedStatement createPreparedStatement(final CopyContext context, final String targetTableName,
-            final List<String> columnsToCopy, final List<String> upsertIds, final Connection targetConnection)
-            throws Exception {
-        if (context.getMigrationContext().isIncrementalModeEnabled()) {
-            if (!upsertIds.isEmpty()) {
-                final String upsertStatement = context.getMigrationContext().getDataTargetRepository()
-                        .buildBulkUpsertStatement(targetTableName, columnsToCopy, upsertIds);
-
-                LOG.debug("Upsert statement for: {}\n{}",
-                        context.getMigrationContext().getDataTargetRepository().getDatabaseProvider(), upsertStatement);
-
-                return targetConnection.prepareStatement(upsertStatement);
-            } else {
-                throw new RuntimeException(
-                        "The incremental approach can only be used on tables that have a valid identifier like PK or ID");
-            }
-        } else {
-            return targetConnection.prepareStatement(getBulkInsertStatement(targetTableName, columnsToCopy,
-                    columnsToCopy.stream().map(column -> "?").collect(Collectors.toList())));
-        }
-    }
-
     private void executeBatch(CopyContext.DataCopyItem item, PreparedStatement preparedStatement, long batchCount,
             PerformanceRecorder recorder) throws SQLException {
         final Stopwatch timer = Stopwatch.createStarted();
@@ -120,18 +79,7 @@ class CopyPipeWriterTask extends RetriableTask {
         recorder.record(PerformanceUnit.ROWS, batchCount);
     }
 
-    private Object anonymize(final String tableName, final String columnName, final Object columnValue) {
-        if (!anonymizerConfiguration.getTables().contains(new Table(tableName))) {
-            return columnValue;
-        }
-        final Table table = anonymizerConfiguration.getTable(tableName);
-        if (table == null) {
-            return columnValue;
-        }
-        final Column column = table.getColumn(columnName);
-        if (column == null) {
-            return columnValue;
-        }
+    private Object anonymize(final Column column, final Object columnValue) {
         if (column.getExclude().contains(columnValue)) {
             return columnValue;
         }
@@ -150,231 +98,201 @@ class CopyPipeWriterTask extends RetriableTask {
         return null;
     }
 
-    private Map<Column, Object> getColumnValuesAnonymized(final DataBaseProvider dbProvider,
-            final ResultSet tempTargetRs, final List<Object> row, final String tableName) throws SQLException {
-        final Table table = anonymizerConfiguration.getTable(tableName);
-        if (table == null) {
-            return Collections.emptyMap();
+    private static Object getAnonymizationInput(final Object sourceColumnValue) {
+        if (sourceColumnValue instanceof SpilledLob) {
+            try {
+                return ((SpilledLob) sourceColumnValue).readFully();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
+        return sourceColumnValue;
+    }
+
+    private Map<Column, Object> getColumnValuesAnonymized(final int rowIndex) {
         final Map<Column, Object> columnValuesAnonymized = new HashMap<>();
-        int paramIdx = 0;
-        for (final String sourceColumnName : ctx.getColumnsToCopy()) {
-            final Column column = table.getColumn(sourceColumnName);
-            if (column == null) {
-                continue;
-            }
-            final int targetColumnIdx = tempTargetRs.findColumn(sourceColumnName);
-            final DataColumn sourceColumnType = dataSet.getColumn(paramIdx++);
-            final int targetColumnType = tempTargetRs.getMetaData().getColumnType(targetColumnIdx);
-            if (!ctx.getNullifyColumns().contains(sourceColumnName)
-                    && !isColumnOverride(ctx.getCopyItem(), sourceColumnName)) {
-                Object sourceColumnValue = dataSet.getColumnValue(sourceColumnName, row, sourceColumnType,
-                        targetColumnType);
-                if (sourceColumnValue != null) {
-                    if (column.getExcludeRow().contains(sourceColumnValue)) {
-                        return Collections.emptyMap();
-                    }
-                    columnValuesAnonymized.put(column, anonymize(tableName, sourceColumnName, sourceColumnValue));
+        for (final CopyPipeColumnBindingPlan.ValueBinder binder : columnBindingPlan.getAnonymizedBinders()) {
+            final Column column = binder.getAnonymizedColumn();
+            final Object sourceColumnValue = getAnonymizationInput(binder.getSourceValue(dataSet, rowIndex));
+            if (sourceColumnValue != null) {
+                if (column.getExcludeRow().contains(sourceColumnValue)) {
+                    return Collections.emptyMap();
                 }
+                columnValuesAnonymized.put(column, anonymize(column, sourceColumnValue));
             }
         }
         return columnValuesAnonymized;
     }
 
-    private Object getColumnValue(final String tableName, final String columnName, Map<Column, Object> columnValues) {
-        final Table table = anonymizerConfiguration.getTable(tableName);
-        if (table == null) {
-            return null;
-        }
-        final Column column = table.getColumn(columnName);
-        if (column == null) {
-            return null;
+    private void process() throws Exception {
+        final int batchCount = dataSet.getRowCount();
+        final CopyPipeWriterSession session = sessionPool.acquire();
+        try {
+            if (ctx.isStagedUpsert()) {
+                writeStaged(session);
+            } else if (ctx.getWriteMethod() == DataWriteMethod.MULTIROW) {
+                writeMultiRow(session);
+            } else if (ctx.getWriteMethod() == DataWriteMethod.COPY) {
+                writeCopy(session);
+            } else if (ctx.getWriteMethod() == DataWriteMethod.BULKCOPY) {
+                writeBulkCopy(session);
+            } else if (ctx.getWriteMethod() == DataWriteMethod.LOADDATA) {
+                writeLoadData(session);
+            } else {
+                writeBatch(session);
+            }
+            session.commit();
+        } catch (Exception e) {
+            session.rollback();
+            sessionPool.discard(session);
+            throw e;
         }
-        return columnValues.get(column);
+        sessionPool.release(session);
+        ctx.getDatabaseCopyTaskRepository().markBatchCompleted(ctx.getContext(), ctx.getCopyItem(),
+                dataSet.getBatchId(), dataSet.getPartition());
+        long totalCount = ctx.getTotalCount().addAndGet(batchCount);
+        ctx.getDatabaseCopyTaskRepository().updateTaskProgress(ctx.getContext(), ctx.getCopyItem(), totalCount);
     }
 
-    private void process() throws Exception {
-        Connection connection = null;
-        Boolean originalAutoCommit = null;
-        boolean requiresIdentityInsert = ctx.isRequiresIdentityInsert();
-        try {
-            connection = ctx.getContext().getMigrationContext().getDataTargetRepository().getConnection();
+    private void writeBatch(final CopyPipeWriterSession session) throws SQLException {
+        final PreparedStatement bulkWriterStatement = session.getStatement();
+        final int rowCount = dataSet.getRowCount();
+        bindRows(bulkWriterStatement, 0, rowCount, true);
+        executeBatch(ctx.getCopyItem(), bulkWriterStatement, rowCount, ctx.getPerformanceRecorder());
+        bulkWriterStatement.clearParameters();
+    }
 
-            final DataBaseProvider dbProvider = ctx.getContext().getMigrationContext().getDataTargetRepository()
-                    .getDatabaseProvider();
-            final String tableName = ctx.getCopyItem().getTargetItem();
-            LOG.debug("TARGET DB name = " + dbProvider.getDbName() + " SOURCE TABLE = "
-                    + ctx.getCopyItem().getSourceItem() + ", TARGET Table = " + tableName);
+    /**
+     * Writes the rows with as few multi row insert statements as possible: all full statements are sent as one JDBC
+     * batch, the remaining rows with a statement sized to them.
+     */
+    private void writeMultiRow(final CopyPipeWriterSession session) throws SQLException {
+        final int rowCount = dataSet.getRowCount();
+        final int rowsPerStatement = Math.min(session.getMaxBulkInsertRows(), rowCount);
+        final int fullStatements = rowCount / rowsPerStatement;
+        final int tailRows = rowCount % rowsPerStatement;
+        final Stopwatch timer = Stopwatch.createStarted();
+        final PreparedStatement bulkInsertStatement = session.getBulkInsertStatement(rowsPerStatement);
+        for (int i = 0; i < fullStatements; i++) {
+            bindRows(bulkInsertStatement, i * rowsPerStatement, rowsPerStatement, false);
+            bulkInsertStatement.addBatch();
+        }
+        bulkInsertStatement.executeBatch();
+        bulkInsertStatement.clearBatch();
+        if (tailRows > 0) {
+            final PreparedStatement tailInsertStatement = session.getBulkInsertStatement(tailRows);
+            bindRows(tailInsertStatement, fullStatements * rowsPerStatement, tailRows, false);
+            tailInsertStatement.executeUpdate();
+            tailInsertStatement.clearParameters();
+        }
+        LOG.debug("Batch written ({} items in {} statements) for table '{}' in {}", rowCount,
+                fullStatements + (tailRows > 0 ? 1 : 0), ctx.getCopyItem().getTargetItem(), timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, rowCount);
+    }
 
-            originalAutoCommit = connection.getAutoCommit();
+    /**
+     * Streams the rows with PostgreSQL {@code COPY}. In incremental mode the rows are copied into a session local
+     * staging table first and moved into the target table with a single upsert statement.
+     */
+    private void writeCopy(final CopyPipeWriterSession session) throws SQLException {
+        final String targetTable = ctx.getCopyItem().getTargetItem();
+        final Stopwatch timer = Stopwatch.createStarted();
+        final long copied = PostgresCopyWriter.copyIn(session.getConnection(),
+                PostgresCopyWriter.buildCopyStatement(targetTable, ctx.getColumnsToCopy()), createCopyReader());
+        LOG.debug("Batch copied ({} items) for table '{}' in {}", copied, targetTable, timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, dataSet.getRowCount());
+    }
 
-            try (PreparedStatement bulkWriterStatement = createPreparedStatement(ctx.getContext(),
-                    ctx.getCopyItem().getTargetItem(), ctx.getColumnsToCopy(), ctx.getUpsertIds(), connection);
-                    Statement tempStmt = connection.createStatement();
-                    ResultSet tempTargetRs = tempStmt.executeQuery(
-                            String.format("select * from %s where 0 = 1", ctx.getCopyItem().getTargetItem()))) {
-                connection.setAutoCommit(false);
-                if (requiresIdentityInsert) {
-                    switchIdentityInsert(connection, ctx.getCopyItem().getTargetItem(), true);
-                }
+    /**
+     * Loads the rows into the staging table of the session with the write method of the pipeline and upserts them
+     * into the target table with a single set based statement.
+     */
+    private void writeStaged(final CopyPipeWriterSession session) throws SQLException {
+        final DataRepository targetRepository = ctx.getContext().getMigrationContext().getDataTargetRepository();
+        final String targetTable = ctx.getCopyItem().getTargetItem();
+        final String stagingTable = targetRepository.getStagingTableName(targetTable);
+        final Stopwatch timer = Stopwatch.createStarted();
+        switch (ctx.getWriteMethod()) {
+            case COPY :
+                PostgresCopyWriter.copyIn(session.getConnection(),
+                        PostgresCopyWriter.buildCopyStatement(stagingTable, ctx.getColumnsToCopy()),
+                        createCopyReader());
+                break;
+            case BULKCOPY :
+                SqlServerBulkCopyWriter.writeToServer(session.getConnection(), stagingTable, ctx.getColumnsToCopy(),
+                        session.getBulkCopyPrecisionAndScale(), createBulkCopyOptions(false), dataSet,
+                        columnBindingPlan,
+                        columnBindingPlan.hasAnonymizedColumns() ? this::getColumnValuesAnonymized : null);
+                break;
+            default :
+                final PreparedStatement stagingInsertStatement = session.getStatement();
+                bindRows(stagingInsertStatement, 0, dataSet.getRowCount(), true);
+                stagingInsertStatement.executeBatch();
+                stagingInsertStatement.clearBatch();
+                stagingInsertStatement.clearParameters();
+                break;
+        }
+        final int upserted = session.prepareCached(
+                targetRepository.buildStagedUpsertStatement(targetTable, ctx.getColumnsToCopy(), ctx.getUpsertIds()))
+                .executeUpdate();
+        session.prepareCached(targetRepository.buildClearStagingTableStatement(targetTable)).executeUpdate();
+        LOG.debug("Batch upserted ({} items, {} affected) for table '{}' in {}", dataSet.getRowCount(),
+                upserted, targetTable, timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, dataSet.getRowCount());
+    }
 
-                boolean printedBlobLog = false;
-                boolean printedClobLog = false;
+    private PostgresCopyWriter.DataSetReader createCopyReader() {
+        return new PostgresCopyWriter.DataSetReader(dataSet, columnBindingPlan,
+                columnBindingPlan.hasAnonymizedColumns() ? this::getColumnValuesAnonymized : null);
+    }
 
-                for (List<Object> row : dataSet.getAllResults()) {
-                    final Map<Column, Object> columnValuesAnonymized = ctx.getContext().getMigrationContext()
-                            .isAnonymizerEnabled()
-                                    ? getColumnValuesAnonymized(dbProvider, tempTargetRs, row, tableName)
-                                    : null;
-                    int paramIdx = 1;
-                    for (String sourceColumnName : ctx.getColumnsToCopy()) {
-                        int targetColumnIdx = tempTargetRs.findColumn(sourceColumnName);
-                        DataColumn sourceColumnType = dataSet.getColumn(paramIdx - 1);
-                        int targetColumnType = tempTargetRs.getMetaData().getColumnType(targetColumnIdx);
-                        if (ctx.getNullifyColumns().contains(sourceColumnName)) {
-                            bulkWriterStatement.setNull(paramIdx, targetColumnType);
-                            LOG.trace("Column {} is nullified. Setting NULL value...", sourceColumnName);
-                        } else {
-                            if (isColumnOverride(ctx.getCopyItem(), sourceColumnName)) {
-                                bulkWriterStatement.setObject(paramIdx,
-                                        ctx.getCopyItem().getColumnMap().get(sourceColumnName), targetColumnType);
-                            } else {
-                                final Object anonymizedValue = columnValuesAnonymized == null
-                                        ? null
-                                        : columnValuesAnonymized.get(new Column(sourceColumnName));
-                                Object sourceColumnValue = anonymizedValue != null
-                                        ? anonymizedValue
-                                        : dataSet.getColumnValue(sourceColumnName, row, sourceColumnType,
-                                                targetColumnType);
-                                if (sourceColumnValue != null) {
-                                    /*
-                                     * Code to handle \u0000 (NULL) characters in PostgreSQL as those are not
-                                     * allowed within text fields, exception example: PSQLException: ERROR: invalid
-                                     * byte sequence for encoding "UTF8": 0x00
-                                     */
-                                    if (dbProvider.isPostgreSqlUsed() && sourceColumnValue instanceof String
-                                            && targetColumnType == VARCHAR) {
-                                        final String stringValue = (String) sourceColumnValue;
-                                        sourceColumnValue = StringUtils.remove(stringValue, Character.MIN_VALUE);
-                                    }
+    private SqlServerBulkCopyWriter.Options createBulkCopyOptions(final boolean keepIdentity) {
+        final MigrationContext migrationContext = ctx.getContext().getMigrationContext();
+        return new SqlServerBulkCopyWriter.Options(migrationContext.isBulkCopyTableLockEnabled(),
+                migrationContext.getBulkCopyBatchSize(), keepIdentity);
+    }
 
-                                    // catch all exceptions, not to print each time, print one for each type/worker.
-                                    try {
-                                        if (!dbProvider.isOracleUsed()) {
-                                            // for all cases non-oracle
-                                            bulkWriterStatement.setObject(paramIdx, sourceColumnValue,
-                                                    targetColumnType);
-                                        } else {
-                                            switch (targetColumnType) {
-                                                /*
-                                                 * code to handle BLOB, because setObject throws exception example
-                                                 * Products.p_buyerids is varbinary(max) in (sqlserver) AND blob in
-                                                 * (oracle)
-                                                 */
-                                                case BLOB : {
-                                                    if (!printedBlobLog) {
-                                                        LOG.debug("BLOB 2004 sourceColumnName = " + sourceColumnName
-                                                                + " souce value type CN = "
-                                                                + sourceColumnValue.getClass().getCanonicalName()
-                                                                + " , Name = " + sourceColumnValue.getClass().getName()
-                                                                + " , Type Name = "
-                                                                + sourceColumnValue.getClass().getTypeName());
-                                                        printedBlobLog = true;
-                                                    }
-                                                    bulkWriterStatement.setBytes(paramIdx, (byte[]) sourceColumnValue);
-                                                    break;
+    /**
+     * Writes the rows with the SQL Server bulk copy API, keeping identity values of the source if the target table
+     * has an identity column.
+     */
+    private void writeBulkCopy(final CopyPipeWriterSession session) throws SQLException {
+        final SqlServerBulkCopyWriter.Options options = createBulkCopyOptions(ctx.isRequiresIdentityInsert());
+        final Stopwatch timer = Stopwatch.createStarted();
+        SqlServerBulkCopyWriter.writeToServer(session.getConnection(), ctx.getCopyItem().getTargetItem(),
+                ctx.getColumnsToCopy(), session.getBulkCopyPrecisionAndScale(), options, dataSet, columnBindingPlan,
+                columnBindingPlan.hasAnonymizedColumns() ? this::getColumnValuesAnonymized : null);
+        LOG.debug("Batch bulk copied ({} items) for table '{}' in {}", dataSet.getRowCount(),
+                ctx.getCopyItem().getTargetItem(), timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, dataSet.getRowCount());
+    }
 
-                                                }
-                                                /*
-                                                 * code to handle CLOB, because setObject throws exception example
-                                                 * Promotion.description is nvarchar(max) in (sqlserver) AND blob in
-                                                 * (oracle)
-                                                 */
-                                                case CLOB : {
-                                                    if (!printedClobLog) {
-                                                        LOG.debug("CLOB 2005 sourceColumnName = " + sourceColumnName
-                                                                + " souce value type CN = "
-                                                                + sourceColumnValue.getClass().getCanonicalName()
-                                                                + " , Name = " + sourceColumnValue.getClass().getName()
-                                                                + " , Type Name = "
-                                                                + sourceColumnValue.getClass().getTypeName());
-                                                        printedClobLog = true;
-                                                    }
-                                                    if (sourceColumnValue instanceof String) {
-                                                        final String clobString = (String) sourceColumnValue;
-                                                        if (!clobString.isEmpty()) {
-                                                            LOG.debug(" reading CLOB");
-                                                            bulkWriterStatement.setClob(paramIdx,
-                                                                    new StringReader(clobString), clobString.length());
-                                                            LOG.debug(" wrote CLOB");
-                                                        } else {
-                                                            LOG.debug("CLOB is empty... setting null");
-                                                            bulkWriterStatement.setNull(paramIdx, targetColumnType);
-                                                        }
-                                                    }
-                                                    break;
-                                                }
-                                                default : {
-                                                    bulkWriterStatement.setObject(paramIdx, sourceColumnValue,
-                                                            targetColumnType);
-                                                    break;
-                                                }
-                                            }
-                                        }
-                                    } catch (final NumberFormatException e) {
-                                        LOG.error("NumberFormatException - Error setting Type on sourceColumnName = "
-                                                + sourceColumnName + ", sourceColumnValue = " + sourceColumnValue
-                                                + ", targetColumnType =" + targetColumnType + ", source type = "
-                                                + sourceColumnValue.getClass().getTypeName());
-                                        if (dbProvider.isOracleUsed() && targetColumnType == NUMERIC
-                                                && sourceColumnValue instanceof String) {
-                                            final String stringValue = (String) sourceColumnValue;
-                                            if (!stringValue.isEmpty()) {
-                                                final int character = Character.codePointAt((String) sourceColumnValue,
-                                                        0);
-                                                bulkWriterStatement.setInt(paramIdx, character);
-                                            }
-                                        }
-                                    } catch (final Exception e) {
-                                        LOG.error("Error setting Type on sourceColumnName = " + sourceColumnName
-                                                + ", sourceColumnValue = " + sourceColumnValue + ", targetColumnType ="
-                                                + targetColumnType + ", source type = "
-                                                + sourceColumnValue.getClass().getTypeName(), e);
-                                        throw e;
-                                    }
-                                } else {
-                                    bulkWriterStatement.setNull(paramIdx, targetColumnType);
-                                }
-                            }
-                        }
-                        paramIdx++;
-                    }
-                    bulkWriterStatement.addBatch();
-                }
-                int batchCount = dataSet.getAllResults().size();
-                executeBatch(ctx.getCopyItem(), bulkWriterStatement, batchCount, ctx.getPerformanceRecorder());
-                bulkWriterStatement.clearParameters();
-                bulkWriterStatement.clearBatch();
-                connection.commit();
-                ctx.getDatabaseCopyTaskRepository().markBatchCompleted(ctx.getContext(), ctx.getCopyItem(),
-                        dataSet.getBatchId(), dataSet.getPartition());
-                long totalCount = ctx.getTotalCount().addAndGet(batchCount);
-                ctx.getDatabaseCopyTaskRepository().updateTaskProgress(ctx.getContext(), ctx.getCopyItem(), totalCount);
-            }
-        } catch (Exception e) {
-            if (connection != null) {
-                connection.rollback();
-            }
-            throw e;
-        } finally {
-            if (connection != null && originalAutoCommit != null) {
-                connection.setAutoCommit(originalAutoCommit);
-            }
-            if (connection != null) {
-                if (requiresIdentityInsert) {
-                    switchIdentityInsert(connection, ctx.getCopyItem().getTargetItem(), false);
-                }
-                connection.close();
+    /**
+     * Streams the rows with MySQL {@code LOAD DATA LOCAL INFILE}, replacing existing rows in incremental mode.
+     */
+    private void writeLoadData(final CopyPipeWriterSession session) throws SQLException {
+        final String loadDataStatement = MySqlLoadDataWriter.buildLoadDataStatement(ctx.getCopyItem().getTargetItem(),
+                ctx.getColumnsToCopy(), columnBindingPlan,
+                ctx.getContext().getMigrationContext().isIncrementalModeEnabled());
+        final Stopwatch timer = Stopwatch.createStarted();
+        final long loaded = MySqlLoadDataWriter.load(session.getConnection(), loadDataStatement, dataSet,
+                columnBindingPlan, columnBindingPlan.hasAnonymizedColumns() ? this::getColumnValuesAnonymized : null);
+        LOG.debug("Batch loaded ({} items) for table '{}' in {}", loaded, ctx.getCopyItem().getTargetItem(),
+                timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, dataSet.getRowCount());
+    }
+
+    private void bindRows(final PreparedStatement statement, final int fromRow, final int rowCount,
+            final boolean addBatchPerRow) throws SQLException {
+        final boolean anonymize = columnBindingPlan.hasAnonymizedColumns();
+        final int columnCount = ctx.getColumnsToCopy().size();
+        for (int i = 0; i < rowCount; i++) {
+            final int rowIndex = fromRow + i;
+            final Map<Column, Object> columnValuesAnonymized = anonymize ? getColumnValuesAnonymized(rowIndex) : null;
+            columnBindingPlan.bindRow(statement, addBatchPerRow ? 0 : i * columnCount, dataSet, rowIndex,
+                    columnValuesAnonymized);
+            if (addBatchPerRow) {
+                statement.addBatch();
             }
         }
     }
@@ -8,11 +8,9 @@ package com.sap.cx.boosters.commercedbsync.strategy.impl;
 
 import com.google.common.base.Stopwatch;
 import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.RetriableTask;
-import com.sap.cx.boosters.commercedbsync.context.CopyContext;
 import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
-import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
 import com.sap.cx.boosters.commercedbsync.performance.PerformanceUnit;
-import de.hybris.bootstrap.ddl.DataBaseProvider;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,9 +18,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.List;
-
-import static java.sql.Types.BIGINT;
+import java.util.Arrays;
 
 public class DataDeleteWriterTask extends RetriableTask {
     private static final Logger LOG = LoggerFactory.getLogger(DataDeleteWriterTask.class);
@@ -60,37 +56,14 @@ public class DataDeleteWriterTask extends RetriableTask {
         try {
             connection = ctx.getContext().getMigrationContext().getDataTargetRepository().getConnection();
             originalAutoCommit = connection.getAutoCommit();
-
-            String sqlDelete;
-            String targetItem = ctx.getCopyItem().getTargetItem();
-            DataBaseProvider dbProvider = ctx.getContext().getMigrationContext().getDataTargetRepository()
-                    .getDatabaseProvider();
-
-            if (dbProvider.isOracleUsed()) {
-                sqlDelete = getBulkDeleteStatementOracle(targetItem, PK);
-            } else if (dbProvider.isPostgreSqlUsed()) {
-                sqlDelete = getBulkDeleteStatementPostgreSql(targetItem, PK);
-            } else if (dbProvider.isMySqlUsed()) {
-                sqlDelete = getBulkDeleteStatementMySql(targetItem, PK);
-            } else {
-                sqlDelete = getBulkDeleteStatement(targetItem, PK);
-            }
-
-            try (PreparedStatement bulkWriterStatement = connection.prepareStatement(sqlDelete)) {
-                connection.setAutoCommit(false);
-                for (List<Object> row : dataSet.getAllResults()) {
-                    Long pkValue = (Long) dataSet.getColumnValue("p_itempk", row, dataSet.getColumn(1), BIGINT);
-                    bulkWriterStatement.setObject(1, pkValue);
-                    bulkWriterStatement.addBatch();
-                }
-                int batchCount = dataSet.getAllResults().size();
-                executeBatch(ctx.getCopyItem(), bulkWriterStatement, batchCount, ctx.getPerformanceRecorder());
-                bulkWriterStatement.clearParameters();
-                bulkWriterStatement.clearBatch();
-                connection.commit();
-                long totalCount = ctx.getTotalCount().addAndGet(batchCount);
-                ctx.getDatabaseCopyTaskRepository().updateTaskProgress(ctx.getContext(), ctx.getCopyItem(), totalCount);
-            }
+            connection.setAutoCommit(false);
+
+            final long[] itemPks = getItemPks();
+            deleteItems(connection, ctx.getCopyItem().getTargetItem(), PK, itemPks);
+            connection.commit();
+            int batchCount = dataSet.getRowCount();
+            long totalCount = ctx.getTotalCount().addAndGet(batchCount);
+            ctx.getDatabaseCopyTaskRepository().updateTaskProgress(ctx.getContext(), ctx.getCopyItem(), totalCount);
         } catch (Exception e) {
             if (connection != null) {
                 connection.rollback();
@@ -109,13 +82,66 @@ public class DataDeleteWriterTask extends RetriableTask {
         }
     }
 
-    protected void executeBatch(CopyContext.DataCopyItem item, PreparedStatement preparedStatement, long batchCount,
-            PerformanceRecorder recorder) throws SQLException {
+    /**
+     * @return the deleted item PKs of the batch, sorted so that concurrent writers delete in index order
+     */
+    private long[] getItemPks() {
+        final int itemPkIdx = dataSet.getColumnIndex("p_itempk");
+        if (itemPkIdx < 0) {
+            throw new IllegalArgumentException("Column p_itempk is not part of the result");
+        }
+        final int rowCount = dataSet.getRowCount();
+        final long[] itemPks = new long[rowCount];
+        int count = 0;
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            if (!dataSet.isNull(rowIndex, itemPkIdx)) {
+                itemPks[count++] = dataSet.getLong(rowIndex, itemPkIdx);
+            }
+        }
+        final long[] result = count == itemPks.length ? itemPks : Arrays.copyOf(itemPks, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Deletes the given keys with as few statements as possible: all full IN lists are sent as one JDBC batch, the
+     * remaining keys with a statement sized to them.
+     */
+    private void deleteItems(final Connection connection, final String targetTable, final String keyColumn,
+            final long[] keys) throws SQLException {
+        if (keys.length == 0) {
+            return;
+        }
+        final DataRepository targetRepository = ctx.getContext().getMigrationContext().getDataTargetRepository();
+        final int keysPerStatement = Math.min(targetRepository.getMaxBulkDeleteKeys(), keys.length);
+        final int fullStatements = keys.length / keysPerStatement;
+        final int tailKeys = keys.length % keysPerStatement;
         final Stopwatch timer = Stopwatch.createStarted();
-        preparedStatement.executeBatch();
-        preparedStatement.clearBatch();
-        LOG.debug("Batch written ({} items) for table '{}' in {}", batchCount, item.getTargetItem(), timer.stop());
-        recorder.record(PerformanceUnit.ROWS, batchCount);
+        try (PreparedStatement deleteStatement = connection
+                .prepareStatement(targetRepository.buildBulkDeleteStatement(targetTable, keyColumn, keysPerStatement))) {
+            for (int i = 0; i < fullStatements; i++) {
+                bindKeys(deleteStatement, keys, i * keysPerStatement, keysPerStatement);
+                deleteStatement.addBatch();
+            }
+            deleteStatement.executeBatch();
+        }
+        if (tailKeys > 0) {
+            try (PreparedStatement tailDeleteStatement = connection
+                    .prepareStatement(targetRepository.buildBulkDeleteStatement(targetTable, keyColumn, tailKeys))) {
+                bindKeys(tailDeleteStatement, keys, fullStatements * keysPerStatement, tailKeys);
+                tailDeleteStatement.executeUpdate();
+            }
+        }
+        LOG.debug("Batch deleted ({} items in {} statements) for table '{}' in {}", keys.length,
+                fullStatements + (tailKeys > 0 ? 1 : 0), targetTable, timer.stop());
+        ctx.getPerformanceRecorder().record(PerformanceUnit.ROWS, keys.length);
+    }
+
+    private void bindKeys(final PreparedStatement statement, final long[] keys, final int fromKey, final int keyCount)
+            throws SQLException {
+        for (int i = 0; i < keyCount; i++) {
+            statement.setLong(i + 1, keys[fromKey + i]);
+        }
     }
 
     private void switchIdentityInsert(Connection connection, final String tableName, boolean on) {
@@ -126,57 +152,4 @@ public class DataDeleteWriterTask extends RetriableTask {
             throw new RuntimeException("Could not switch identity insert", e);
         }
     }
-
-    private String getBulkDeleteStatement(String targetTableName, String columnId) {
-        /*
-         * https://michaeljswart.com/2017/07/sql-server-upsert-patterns-and-
-         * antipatterns/ We are not using a stored procedure here as CCv2 does not grant
-         * sp exec permission to the default db user
-         */
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append(String.format("MERGE %s WITH (HOLDLOCK) AS t", targetTableName));
-        sqlBuilder.append("\n");
-        sqlBuilder.append(String.format("USING (SELECT %s) AS s ON t.%s = s.%s", "? " + columnId, columnId, columnId));
-        sqlBuilder.append("\n");
-        sqlBuilder.append("WHEN MATCHED THEN DELETE"); // DELETE
-        sqlBuilder.append(";");
-        LOG.debug("MERGE-DELETE SQL Server " + sqlBuilder);
-        return sqlBuilder.toString();
-    }
-
-    private String getBulkDeleteStatementOracle(final String targetTableName, final String columnId) {
-        final StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append(String.format("MERGE INTO  %s  t", targetTableName));
-        sqlBuilder.append("\n");
-        sqlBuilder.append(
-                String.format("USING (SELECT %s from dual) s ON (t.%s = s.%s)", "? " + columnId, columnId, columnId));
-        sqlBuilder.append("\n");
-        sqlBuilder.append("WHEN MATCHED THEN "); // DELETE
-        sqlBuilder.append("UPDATE SET t.HJMPTS = 0 "); // IS INSERT OR UPDATE
-        sqlBuilder.append("DELETE WHERE " + String.format(" t.%s = s.%s ", columnId, columnId));// DELETE
-        LOG.debug("MERGE-DELETE ORACLE " + sqlBuilder);
-        return sqlBuilder.toString();
-    }
-
-    private String getBulkDeleteStatementMySql(final String targetTableName, final String columnId) {
-        final StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append(String.format("DELETE t FROM %s t", targetTableName));
-        sqlBuilder.append("\n");
-        sqlBuilder.append(String.format("JOIN (SELECT ? AS %s) s ON t.%s = s.%s", columnId, columnId, columnId));
-        LOG.debug("DELETE MYSQL " + sqlBuilder);
-        return sqlBuilder.toString();
-    }
-
-    // PostgreSql >= 15
-    private String getBulkDeleteStatementPostgreSql(final String targetTableName, final String columnId) {
-        final StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append(String.format("MERGE INTO %s AS t", targetTableName));
-        sqlBuilder.append("\n");
-        sqlBuilder.append(String.format("USING (SELECT ? AS %s) AS s ON (t.%s = s.%s)", columnId, columnId, columnId));
-        sqlBuilder.append("\n");
-        sqlBuilder.append("WHEN MATCHED THEN DELETE");
-        sqlBuilder.append(";");
-        LOG.debug("MERGE-DELETE PostgreSQL: " + sqlBuilder);
-        return sqlBuilder.toString();
-    }
 }
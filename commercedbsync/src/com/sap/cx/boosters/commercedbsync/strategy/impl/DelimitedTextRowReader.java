@@ -0,0 +1,256 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Encodes the rows of a data set as tab separated text with {@code \N} for null values and backslash escaping, as
+ * read by the bulk load statements of the target databases. Rows are encoded one at a time into a reused buffer
+ * while the reader is consumed. Spilled LOB values are encoded chunk by chunk from their file, so they never reside
+ * in memory as a whole. Subclasses define the escaping of characters, binary and boolean values.
+ */
+abstract class DelimitedTextRowReader extends Reader {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int CHUNK_SIZE = 4096;
+
+    protected final StringBuilder buffer = new StringBuilder(1024);
+    private final DataSet dataSet;
+    private final int rowCount;
+    private final CopyPipeColumnBindingPlan.ColumnBinder[] binders;
+    private final IntFunction<Map<Column, Object>> anonymizer;
+    private final char[] charChunk = new char[CHUNK_SIZE];
+    private final byte[] byteChunk = new byte[CHUNK_SIZE];
+    private int bufferPos;
+    private int rowIdx;
+    // row and column being encoded, the current row is -1 between rows
+    private int currentRow = -1;
+    private int columnIdx;
+    private Map<Column, Object> anonymizedValues;
+    // open stream of the spilled value being encoded
+    private Reader spilledText;
+    private InputStream spilledBinary;
+
+    /**
+     * @param anonymizer
+     *            resolves the anonymized values of a row, null if the pipeline has no anonymized columns
+     */
+    protected DelimitedTextRowReader(final DataSet dataSet, final CopyPipeColumnBindingPlan columnBindingPlan,
+            final IntFunction<Map<Column, Object>> anonymizer) {
+        this.dataSet = dataSet;
+        this.rowCount = dataSet.getRowCount();
+        this.binders = columnBindingPlan.getBinders();
+        this.anonymizer = anonymizer;
+    }
+
+    /**
+     * Appends the given character of a text value, escaped if necessary
+     */
+    protected abstract void appendChar(char c);
+
+    /**
+     * Appends the given boolean value for a column of the given JDBC type
+     */
+    protected abstract void appendBoolean(boolean value, int targetColumnType);
+
+    /**
+     * Appends whatever precedes the hex digits of a binary value
+     */
+    protected abstract void appendBinaryPrefix();
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < len) {
+            if (bufferPos == buffer.length()) {
+                buffer.setLength(0);
+                bufferPos = 0;
+                if (!encodeNext()) {
+                    break;
+                }
+                continue;
+            }
+            final int count = Math.min(len - read, buffer.length() - bufferPos);
+            buffer.getChars(bufferPos, bufferPos + count, cbuf, off + read);
+            bufferPos += count;
+            read += count;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // rows belong to the data set, only a partly encoded spilled value is still open
+        closeSpilledValue();
+    }
+
+    /**
+     * Encodes the next chunk of the spilled value being encoded, or the columns of the current or next row up to the
+     * next spilled value
+     *
+     * @return false if all rows are encoded
+     */
+    private boolean encodeNext() throws IOException {
+        if (spilledText != null || spilledBinary != null) {
+            if (appendSpilledChunk()) {
+                return true;
+            }
+            closeSpilledValue();
+        } else if (currentRow < 0) {
+            if (rowIdx == rowCount) {
+                return false;
+            }
+            currentRow = rowIdx++;
+            columnIdx = 0;
+            anonymizedValues = anonymizer == null ? null : anonymizer.apply(currentRow);
+        }
+        encodeColumns();
+        return true;
+    }
+
+    private void encodeColumns() throws IOException {
+        while (columnIdx < binders.length) {
+            final int i = columnIdx++;
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            final Object value = binders[i].resolveValue(dataSet, currentRow, anonymizedValues);
+            if (value instanceof SpilledLob) {
+                openSpilledValue((SpilledLob) value);
+                return;
+            }
+            appendValue(value, binders[i].getTargetColumnType());
+        }
+        buffer.append('\n');
+        currentRow = -1;
+        anonymizedValues = null;
+    }
+
+    private void openSpilledValue(final SpilledLob spilledLob) throws IOException {
+        if (spilledLob.isCharacterData()) {
+            spilledText = spilledLob.openCharacterStream();
+        } else {
+            spilledBinary = spilledLob.openBinaryStream();
+            appendBinaryPrefix();
+        }
+    }
+
+    /**
+     * @return false if the spilled value is completely encoded
+     */
+    private boolean appendSpilledChunk() throws IOException {
+        if (spilledText != null) {
+            final int count = spilledText.read(charChunk);
+            for (int i = 0; i < count; i++) {
+                appendChar(charChunk[i]);
+            }
+            return count != -1;
+        }
+        final int count = spilledBinary.read(byteChunk);
+        for (int i = 0; i < count; i++) {
+            buffer.append(HEX[(byteChunk[i] >> 4) & 0xF]).append(HEX[byteChunk[i] & 0xF]);
+        }
+        return count != -1;
+    }
+
+    private void closeSpilledValue() throws IOException {
+        try (Reader text = spilledText; InputStream binary = spilledBinary) {
+            spilledText = null;
+            spilledBinary = null;
+        }
+    }
+
+    private void appendValue(final Object value, final int targetColumnType) throws IOException {
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof byte[]) {
+            appendBytes((byte[]) value);
+        } else if (value instanceof InputStream) {
+            appendBytes((InputStream) value);
+        } else if (value instanceof Blob) {
+            try (InputStream binaryStream = ((Blob) value).getBinaryStream()) {
+                appendBytes(binaryStream);
+            } catch (final SQLException e) {
+                throw new IOException(e);
+            }
+        } else if (value instanceof Clob) {
+            try (Reader characterStream = ((Clob) value).getCharacterStream()) {
+                appendText(characterStream);
+            } catch (final SQLException e) {
+                throw new IOException(e);
+            }
+        } else if (value instanceof Boolean) {
+            appendBoolean((Boolean) value, targetColumnType);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            buffer.append(value);
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)
+                && !(value instanceof java.sql.Time) && !(value instanceof Timestamp)) {
+            buffer.append(new Timestamp(((java.util.Date) value).getTime()));
+        } else {
+            appendText(String.valueOf(value));
+        }
+    }
+
+    private void appendText(final CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            appendChar(text.charAt(i));
+        }
+    }
+
+    private void appendText(final Reader reader) throws IOException {
+        int count;
+        while ((count = reader.read(charChunk)) != -1) {
+            for (int i = 0; i < count; i++) {
+                appendChar(charChunk[i]);
+            }
+        }
+    }
+
+    private void appendBytes(final byte[] bytes) {
+        appendBinaryPrefix();
+        for (final byte b : bytes) {
+            buffer.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+    }
+
+    private void appendBytes(final InputStream stream) throws IOException {
+        if (stream.markSupported()) {
+            stream.reset();
+        }
+        appendBinaryPrefix();
+        appendHex(stream);
+    }
+
+    private void appendHex(final InputStream stream) throws IOException {
+        int count;
+        while ((count = stream.read(byteChunk)) != -1) {
+            for (int i = 0; i < count; i++) {
+                buffer.append(HEX[(byteChunk[i] >> 4) & 0xF]).append(HEX[byteChunk[i] & 0xF]);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import org.apache.commons.io.input.ReaderInputStream;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a data set to a MySQL target with {@code LOAD DATA LOCAL INFILE}. The rows are encoded as tab separated
+ * text while Connector/J streams them to the server from the input stream set on the statement, no file is written.
+ * <p>
+ * Connector/J is looked up reflectively, since the JDBC driver is provided by the platform at runtime only. The
+ * target connection must allow local infile ({@code allowLoadLocalInfile=true}).
+ */
+class MySqlLoadDataWriter {
+    private static final String[] STATEMENT_CLASSES = {"com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement"};
+
+    private static volatile LoadDataApi loadDataApi;
+
+    private MySqlLoadDataWriter() {
+    }
+
+    /**
+     * Builds the load statement for the given columns. Binary columns are transferred as hex and decoded by the
+     * server.
+     *
+     * @param replace
+     *            true to replace rows with the same unique key, otherwise such rows are skipped
+     * @return the load statement
+     */
+    static String buildLoadDataStatement(final String table, final List<String> columns,
+            final CopyPipeColumnBindingPlan columnBindingPlan, final boolean replace) {
+        final CopyPipeColumnBindingPlan.ColumnBinder[] binders = columnBindingPlan.getBinders();
+        final List<String> targets = new ArrayList<>(columns.size());
+        final List<String> assignments = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (isBinary(binders[i].getTargetColumnType())) {
+                targets.add("@v" + i);
+                assignments.add(columns.get(i) + " = UNHEX(@v" + i + ")");
+            } else {
+                targets.add(columns.get(i));
+            }
+        }
+        return "LOAD DATA LOCAL INFILE 'dataset.tsv' " + (replace ? "REPLACE" : "IGNORE") + " INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' ("
+                + String.join(", ", targets) + ")"
+                + (assignments.isEmpty() ? "" : " SET " + String.join(", ", assignments));
+    }
+
+    /**
+     * Streams all rows of the data set with the given load statement
+     *
+     * @param anonymizer
+     *            resolves the anonymized values of a row, null if the pipeline has no anonymized columns
+     * @return number of rows loaded
+     * @throws SQLException
+     *             if the connection is not a MySQL connection or the load fails
+     */
+    static long load(final Connection connection, final String loadDataStatement, final DataSet dataSet,
+            final CopyPipeColumnBindingPlan columnBindingPlan,
+            final IntFunction<Map<Column, Object>> anonymizer) throws SQLException {
+        final LoadDataApi api = getLoadDataApi();
+        final InputStream rows = new ReaderInputStream(new DataSetReader(dataSet, columnBindingPlan, anonymizer),
+                StandardCharsets.UTF_8);
+        try (Statement stmt = connection.createStatement()) {
+            final Object mysqlStatement = stmt.unwrap(api.statementClass);
+            api.setLocalInfileInputStream.invoke(mysqlStatement, rows);
+            try {
+                return stmt.executeUpdate(loadDataStatement);
+            } finally {
+                api.setLocalInfileInputStream.invoke(mysqlStatement, (Object) null);
+            }
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Could not load data with: " + loadDataStatement, cause);
+        } catch (final IllegalAccessException e) {
+            throw new SQLException("Could not access the MySQL local infile API", e);
+        }
+    }
+
+    private static boolean isBinary(final int targetColumnType) {
+        return targetColumnType == Types.BINARY || targetColumnType == Types.VARBINARY
+                || targetColumnType == Types.LONGVARBINARY || targetColumnType == Types.BLOB;
+    }
+
+    private static LoadDataApi getLoadDataApi() throws SQLException {
+        LoadDataApi api = loadDataApi;
+        if (api == null) {
+            for (final String statementClassName : STATEMENT_CLASSES) {
+                try {
+                    final Class<?> statementClass = Class.forName(statementClassName);
+                    api = new LoadDataApi(statementClass,
+                            statementClass.getMethod("setLocalInfileInputStream", InputStream.class));
+                    loadDataApi = api;
+                    break;
+                } catch (final ReflectiveOperationException e) {
+                    // try the next driver generation
+                }
+            }
+            if (api == null) {
+                throw new SQLException("MySQL JDBC driver with local infile stream API is not available");
+            }
+        }
+        return api;
+    }
+
+    private static class LoadDataApi {
+        private final Class<?> statementClass;
+        private final Method setLocalInfileInputStream;
+
+        private LoadDataApi(final Class<?> statementClass, final Method setLocalInfileInputStream) {
+            this.statementClass = statementClass;
+            this.setLocalInfileInputStream = setLocalInfileInputStream;
+        }
+    }
+
+    /**
+     * Encodes the rows of a data set in the default {@code LOAD DATA} text format
+     */
+    static class DataSetReader extends DelimitedTextRowReader {
+
+        DataSetReader(final DataSet dataSet, final CopyPipeColumnBindingPlan columnBindingPlan,
+                final IntFunction<Map<Column, Object>> anonymizer) {
+            super(dataSet, columnBindingPlan, anonymizer);
+        }
+
+        @Override
+        protected void appendBoolean(final boolean value, final int targetColumnType) {
+            buffer.append(value ? '1' : '0');
+        }
+
+        @Override
+        protected void appendBinaryPrefix() {
+            // hex digits only, decoded by UNHEX in the load statement
+        }
+
+        @Override
+        protected void appendChar(final char c) {
+            switch (c) {
+                case '\\' :
+                    buffer.append("\\\\");
+                    break;
+                case '\n' :
+                    buffer.append("\\n");
+                    break;
+                case '\r' :
+                    buffer.append("\\r");
+                    break;
+                case '\t' :
+                    buffer.append("\\t");
+                    break;
+                case '\u0000' :
+                    buffer.append("\\0");
+                    break;
+                case '\u001A' :
+                    buffer.append("\\Z");
+                    break;
+                default :
+                    buffer.append(c);
+            }
+        }
+    }
+}
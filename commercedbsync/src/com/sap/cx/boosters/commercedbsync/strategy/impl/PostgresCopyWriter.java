@@ -0,0 +1,145 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a data set to a PostgreSQL target with {@code COPY ... FROM STDIN} (text format). Rows are encoded on the
+ * fly while the driver consumes the stream, so no statement parameters or per-row strings are created.
+ * <p>
+ * The pgjdbc {@code CopyManager} is looked up reflectively, since the JDBC driver is provided by the platform at
+ * runtime only.
+ */
+class PostgresCopyWriter {
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    private static volatile CopyApi copyApi;
+
+    private PostgresCopyWriter() {
+    }
+
+    /**
+     * @return the statement copying the given columns from the client into the given table
+     */
+    static String buildCopyStatement(final String table, final List<String> columns) {
+        return "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+    }
+
+    /**
+     * Streams the given reader into the database with the given {@code COPY ... FROM STDIN} statement
+     *
+     * @return number of rows copied
+     * @throws SQLException
+     *             if the connection is not a PostgreSQL connection or the copy fails
+     */
+    static long copyIn(final Connection connection, final String copyStatement, final Reader reader)
+            throws SQLException {
+        final CopyApi api = getCopyApi();
+        try {
+            final Object pgConnection = connection.unwrap(api.pgConnectionClass);
+            final Object copyManager = api.getCopyApi.invoke(pgConnection);
+            return (Long) api.copyIn.invoke(copyManager, copyStatement, reader);
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Could not copy data with: " + copyStatement, cause);
+        } catch (final IllegalAccessException e) {
+            throw new SQLException("Could not access the PostgreSQL copy API", e);
+        }
+    }
+
+    private static CopyApi getCopyApi() throws SQLException {
+        CopyApi api = copyApi;
+        if (api == null) {
+            try {
+                final Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS);
+                final Method getCopyApi = pgConnectionClass.getMethod("getCopyAPI");
+                final Method copyIn = getCopyApi.getReturnType().getMethod("copyIn", String.class, Reader.class);
+                api = new CopyApi(pgConnectionClass, getCopyApi, copyIn);
+                copyApi = api;
+            } catch (final ReflectiveOperationException e) {
+                throw new SQLException("PostgreSQL JDBC driver with copy API is not available", e);
+            }
+        }
+        return api;
+    }
+
+    private static class CopyApi {
+        private final Class<?> pgConnectionClass;
+        private final Method getCopyApi;
+        private final Method copyIn;
+
+        private CopyApi(final Class<?> pgConnectionClass, final Method getCopyApi, final Method copyIn) {
+            this.pgConnectionClass = pgConnectionClass;
+            this.getCopyApi = getCopyApi;
+            this.copyIn = copyIn;
+        }
+    }
+
+    /**
+     * Encodes the rows of a data set in the {@code COPY} text format
+     */
+    static class DataSetReader extends DelimitedTextRowReader {
+
+        DataSetReader(final DataSet dataSet, final CopyPipeColumnBindingPlan columnBindingPlan,
+                final IntFunction<Map<Column, Object>> anonymizer) {
+            super(dataSet, columnBindingPlan, anonymizer);
+        }
+
+        @Override
+        protected void appendBoolean(final boolean value, final int targetColumnType) {
+            if (targetColumnType == Types.BOOLEAN || targetColumnType == Types.BIT) {
+                buffer.append(value ? 't' : 'f');
+            } else {
+                buffer.append(value ? '1' : '0');
+            }
+        }
+
+        @Override
+        protected void appendBinaryPrefix() {
+            // bytea hex format, the backslash itself is escaped in the text format
+            buffer.append("\\\\x");
+        }
+
+        @Override
+        protected void appendChar(final char c) {
+            switch (c) {
+                case '\\' :
+                    buffer.append("\\\\");
+                    break;
+                case '\n' :
+                    buffer.append("\\n");
+                    break;
+                case '\r' :
+                    buffer.append("\\r");
+                    break;
+                case '\t' :
+                    buffer.append("\\t");
+                    break;
+                case '\u0000' :
+                    // PostgreSQL does not support NUL characters in text
+                    break;
+                default :
+                    buffer.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a data set to a SQL Server target with the {@code SQLServerBulkCopy} API of the mssql-jdbc driver. The rows
+ * are fed through an {@code ISQLServerBulkData} adapter over the data set, so they are converted while the driver
+ * streams them to the server.
+ * <p>
+ * The driver classes are looked up reflectively, since the JDBC driver is provided by the platform at runtime only.
+ */
+class SqlServerBulkCopyWriter {
+    private static final String DRIVER_PACKAGE = "com.microsoft.sqlserver.jdbc.";
+    // longest binary or text column the driver sends in one piece, values of longer (max) columns are streamed
+    private static final int MAX_SHORT_VARTYPE_LENGTH = 8000;
+
+    private static volatile BulkCopyApi bulkCopyApi;
+
+    private SqlServerBulkCopyWriter() {
+    }
+
+    /**
+     * Options of a bulk copy, fixed for the lifetime of a table pipeline
+     */
+    static class Options {
+        private final boolean tableLock;
+        private final int batchSize;
+        private final boolean keepIdentity;
+
+        Options(final boolean tableLock, final int batchSize, final boolean keepIdentity) {
+            this.tableLock = tableLock;
+            this.batchSize = batchSize;
+            this.keepIdentity = keepIdentity;
+        }
+    }
+
+    /**
+     * Reads precision and scale of the given columns of the target table, as reported to the driver for the rows
+     *
+     * @return precision and scale per column, in the order of the given columns
+     * @throws SQLException
+     */
+    static int[][] getColumnPrecisionAndScale(final Connection connection, final String table,
+            final List<String> columns) throws SQLException {
+        final int[][] precisionAndScale = new int[columns.size()][];
+        try (Statement stmt = connection.createStatement();
+                ResultSet metaResult = stmt.executeQuery(
+                        "SELECT TOP 1 " + String.join(", ", columns) + " FROM " + table + " WHERE 0 = 1")) {
+            final ResultSetMetaData targetMeta = metaResult.getMetaData();
+            for (int i = 0; i < columns.size(); i++) {
+                precisionAndScale[i] = new int[]{targetMeta.getPrecision(i + 1), targetMeta.getScale(i + 1)};
+            }
+        }
+        return precisionAndScale;
+    }
+
+    /**
+     * Bulk copies all rows of the data set into the given table, within the current transaction of the connection
+     *
+     * @param anonymizer
+     *            resolves the anonymized values of a row, null if the pipeline has no anonymized columns
+     * @throws SQLException
+     *             if the connection is not a SQL Server connection or the bulk copy fails
+     */
+    static void writeToServer(final Connection connection, final String table, final List<String> columns,
+            final int[][] precisionAndScale, final Options options, final DataSet dataSet,
+            final CopyPipeColumnBindingPlan columnBindingPlan,
+            final IntFunction<Map<Column, Object>> anonymizer) throws SQLException {
+        final BulkCopyApi api = getBulkCopyApi();
+        final Object bulkData = Proxy.newProxyInstance(api.bulkDataClass.getClassLoader(),
+                new Class<?>[]{api.bulkDataClass}, new DataSetBulkData(dataSet, columnBindingPlan, columns,
+                        precisionAndScale, anonymizer));
+        Object bulkCopy = null;
+        try {
+            final Object sqlServerConnection = connection.unwrap(api.sqlServerConnectionClass);
+            bulkCopy = api.bulkCopyConstructor.newInstance(sqlServerConnection);
+            final Object bulkCopyOptions = api.optionsConstructor.newInstance();
+            api.setTableLock.invoke(bulkCopyOptions, options.tableLock);
+            api.setBatchSize.invoke(bulkCopyOptions, options.batchSize);
+            api.setKeepIdentity.invoke(bulkCopyOptions, options.keepIdentity);
+            api.setBulkCopyOptions.invoke(bulkCopy, bulkCopyOptions);
+            api.setDestinationTableName.invoke(bulkCopy, table);
+            for (int i = 0; i < columns.size(); i++) {
+                api.addColumnMapping.invoke(bulkCopy, i + 1, columns.get(i));
+            }
+            api.writeToServer.invoke(bulkCopy, bulkData);
+        } catch (final InvocationTargetException e) {
+            throw toSQLException(table, e.getCause());
+        } catch (final ReflectiveOperationException e) {
+            throw new SQLException("Could not access the SQL Server bulk copy API", e);
+        } finally {
+            if (bulkCopy != null) {
+                try {
+                    api.close.invoke(bulkCopy);
+                } catch (final ReflectiveOperationException e) {
+                    // closing only releases driver resources, the outcome of the bulk copy is already known
+                }
+            }
+        }
+    }
+
+    private static SQLException toSQLException(final String table, final Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        return new SQLException("Could not bulk copy data into table " + table, cause);
+    }
+
+    private static BulkCopyApi getBulkCopyApi() throws SQLException {
+        BulkCopyApi api = bulkCopyApi;
+        if (api == null) {
+            try {
+                api = new BulkCopyApi();
+                bulkCopyApi = api;
+            } catch (final ReflectiveOperationException e) {
+                throw new SQLException("SQL Server JDBC driver with bulk copy API is not available", e);
+            }
+        }
+        return api;
+    }
+
+    private static class BulkCopyApi {
+        private final Class<?> sqlServerConnectionClass;
+        private final Class<?> bulkDataClass;
+        private final Constructor<?> bulkCopyConstructor;
+        private final Constructor<?> optionsConstructor;
+        private final Method setTableLock;
+        private final Method setBatchSize;
+        private final Method setKeepIdentity;
+        private final Method setBulkCopyOptions;
+        private final Method setDestinationTableName;
+        private final Method addColumnMapping;
+        private final Method writeToServer;
+        private final Method close;
+
+        private BulkCopyApi() throws ReflectiveOperationException {
+            sqlServerConnectionClass = Class.forName(DRIVER_PACKAGE + "SQLServerConnection");
+            bulkDataClass = Class.forName(DRIVER_PACKAGE + "ISQLServerBulkData");
+            final Class<?> bulkCopyClass = Class.forName(DRIVER_PACKAGE + "SQLServerBulkCopy");
+            final Class<?> optionsClass = Class.forName(DRIVER_PACKAGE + "SQLServerBulkCopyOptions");
+            bulkCopyConstructor = bulkCopyClass.getConstructor(Connection.class);
+            optionsConstructor = optionsClass.getConstructor();
+            setTableLock = optionsClass.getMethod("setTableLock", boolean.class);
+            setBatchSize = optionsClass.getMethod("setBatchSize", int.class);
+            setKeepIdentity = optionsClass.getMethod("setKeepIdentity", boolean.class);
+            setBulkCopyOptions = bulkCopyClass.getMethod("setBulkCopyOptions", optionsClass);
+            setDestinationTableName = bulkCopyClass.getMethod("setDestinationTableName", String.class);
+            addColumnMapping = bulkCopyClass.getMethod("addColumnMapping", int.class, String.class);
+            writeToServer = bulkCopyClass.getMethod("writeToServer", bulkDataClass);
+            close = bulkCopyClass.getMethod("close");
+        }
+    }
+
+    /**
+     * {@code ISQLServerBulkData} over the rows of a data set. Column ordinals are 1-based and follow the columns to
+     * copy, column types are the JDBC types of the target columns.
+     */
+    static class DataSetBulkData implements InvocationHandler {
+        private final DataSet dataSet;
+        private final int rowCount;
+        private final CopyPipeColumnBindingPlan.ColumnBinder[] binders;
+        private final List<String> columns;
+        private final int[][] precisionAndScale;
+        private final IntFunction<Map<Column, Object>> anonymizer;
+        private final Set<Integer> columnOrdinals = new LinkedHashSet<>();
+        private int rowIdx = -1;
+
+        DataSetBulkData(final DataSet dataSet, final CopyPipeColumnBindingPlan columnBindingPlan,
+                final List<String> columns, final int[][] precisionAndScale,
+                final IntFunction<Map<Column, Object>> anonymizer) {
+            this.dataSet = dataSet;
+            this.rowCount = dataSet.getRowCount();
+            this.binders = columnBindingPlan.getBinders();
+            this.columns = columns;
+            this.precisionAndScale = precisionAndScale;
+            this.anonymizer = anonymizer;
+            for (int i = 1; i <= columns.size(); i++) {
+                columnOrdinals.add(i);
+            }
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getColumnOrdinals" :
+                    return columnOrdinals;
+                case "getColumnName" :
+                    return columns.get((Integer) args[0] - 1);
+                case "getColumnType" :
+                    return binders[(Integer) args[0] - 1].getTargetColumnType();
+                case "getPrecision" :
+                    return precisionAndScale[(Integer) args[0] - 1][0];
+                case "getScale" :
+                    return precisionAndScale[(Integer) args[0] - 1][1];
+                case "next" :
+                    return ++rowIdx < rowCount;
+                case "getRowData" :
+                    return getRowData();
+                case "hashCode" :
+                    return System.identityHashCode(proxy);
+                case "equals" :
+                    return proxy == args[0];
+                case "toString" :
+                    return "DataSetBulkData[" + String.join(", ", columns) + "]";
+                default :
+                    if (method.isDefault()) {
+                        return InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private Object[] getRowData() throws SQLException {
+            final Map<Column, Object> anonymizedValues = anonymizer == null ? null : anonymizer.apply(rowIdx);
+            final Object[] rowData = new Object[binders.length];
+            for (int i = 0; i < binders.length; i++) {
+                rowData[i] = toBulkValue(binders[i].resolveValue(dataSet, rowIdx, anonymizedValues),
+                        precisionAndScale[i][0]);
+            }
+            return rowData;
+        }
+
+        /**
+         * Spilled values are passed as stream to the driver, which reads them from the file while sending the row.
+         * Columns too short for streaming only hold values that fit into memory anyway.
+         */
+        private Object toBulkValue(final Object value, final int precision) throws SQLException {
+            try {
+                if (value instanceof SpilledLob) {
+                    final SpilledLob spilledLob = (SpilledLob) value;
+                    if (precision <= MAX_SHORT_VARTYPE_LENGTH) {
+                        return spilledLob.readFully();
+                    }
+                    // closed when the page is released
+                    return spilledLob.isCharacterData()
+                            ? spilledLob.openCharacterStream()
+                            : spilledLob.openBinaryStream();
+                } else if (value instanceof InputStream) {
+                    final InputStream stream = (InputStream) value;
+                    if (stream.markSupported()) {
+                        stream.reset();
+                    }
+                    return IOUtils.toByteArray(stream);
+                } else if (value instanceof Blob) {
+                    try (InputStream binaryStream = ((Blob) value).getBinaryStream()) {
+                        return IOUtils.toByteArray(binaryStream);
+                    }
+                } else if (value instanceof Clob) {
+                    try (Reader characterStream = ((Clob) value).getCharacterStream()) {
+                        return IOUtils.toString(characterStream);
+                    }
+                }
+                return value;
+            } catch (final IOException e) {
+                throw new SQLException("Could not read LOB value", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.MarkersQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.adapter.DataRepositoryAdapter;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.repository.BatchMarkerHandler;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+
+public class DefaultBatchMarkerStrategyTest {
+
+    private static final long SAMPLING_THRESHOLD = 10_000_000L;
+    private static final int BATCH_SIZE = 1000;
+
+    private DefaultBatchMarkerStrategy testObj;
+    private MigrationContext migrationContext;
+    private DataRepository dataSourceRepository;
+    private CopyContext context;
+    private CopyContext.DataCopyItem largeItem;
+
+    @Before
+    public void setUp() {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getBatchMarkersSamplingThreshold()).thenReturn(SAMPLING_THRESHOLD);
+        dataSourceRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(dataSourceRepository.isLongLivedResultSetSupported()).thenReturn(true);
+        Mockito.when(migrationContext.getDataSourceRepository()).thenReturn(dataSourceRepository);
+        context = new CopyContext("migration", migrationContext, Set.of(), null);
+        largeItem = new CopyContext.DataCopyItem("products", "products", Map.of(), 2 * SAMPLING_THRESHOLD,
+                BATCH_SIZE, null);
+        testObj = new DefaultBatchMarkerStrategy();
+    }
+
+    @Test
+    public void samplesSingleBatchColumnOfLargeTable() {
+        Assert.assertTrue(testObj.isApproximate(context, largeItem, createQueryDefinition("PK")));
+    }
+
+    @Test
+    public void neverSamplesKeysetOfSingleUniqueColumn() {
+        final MarkersQueryDefinition queryDefinition = createQueryDefinition("code");
+        queryDefinition.setKeyset(true);
+
+        Assert.assertFalse(testObj.isApproximate(context, largeItem, queryDefinition));
+    }
+
+    @Test
+    public void neverSamplesKeysetOfSeveralUniqueColumns() {
+        final MarkersQueryDefinition queryDefinition = createQueryDefinition("code, catalogversion");
+        queryDefinition.setKeyset(true);
+
+        Assert.assertFalse(testObj.isApproximate(context, largeItem, queryDefinition));
+    }
+
+    @Test
+    public void numbersAllRowsOfKeysetWhenReadingMarkers() throws Exception {
+        final MarkersQueryDefinition queryDefinition = createQueryDefinition("code");
+        queryDefinition.setKeyset(true);
+        final DataRepositoryAdapter adapter = Mockito.mock(DataRepositoryAdapter.class);
+        final DataSet markers = Mockito.mock(DataSet.class);
+        Mockito.when(markers.getAllResults()).thenReturn(List.<List<Object>>of(List.of("a", 1L)));
+        Mockito.when(adapter.getBatchMarkersOrderedByColumn(migrationContext, queryDefinition)).thenReturn(markers);
+
+        testObj.getBatchMarkers(context, largeItem, adapter, queryDefinition);
+
+        Assert.assertEquals(0d, queryDefinition.getSamplePercent(), 0d);
+    }
+
+    @Test
+    public void streamsMarkersIfSourceKeepsResultSetOpen() throws Exception {
+        final MarkersQueryDefinition queryDefinition = createQueryDefinition("PK");
+        final DataRepositoryAdapter adapter = Mockito.mock(DataRepositoryAdapter.class);
+        final BatchMarkerHandler handler = Mockito.mock(BatchMarkerHandler.class);
+
+        testObj.streamBatchMarkers(context, largeItem, adapter, queryDefinition, handler);
+
+        Mockito.verify(adapter).streamBatchMarkersOrderedByColumn(migrationContext, queryDefinition, handler);
+        Mockito.verify(adapter, Mockito.never()).getBatchMarkersOrderedByColumn(migrationContext, queryDefinition);
+    }
+
+    @Test
+    public void readsAllMarkersBeforePassingThemIfSourceCannotKeepResultSetOpen() throws Exception {
+        Mockito.when(dataSourceRepository.isLongLivedResultSetSupported()).thenReturn(false);
+        final MarkersQueryDefinition queryDefinition = createQueryDefinition("PK");
+        final DataRepositoryAdapter adapter = Mockito.mock(DataRepositoryAdapter.class);
+        final DataSet markers = Mockito.mock(DataSet.class);
+        Mockito.when(markers.getAllResults()).thenReturn(List.<List<Object>>of(List.of(1L), List.of(1001L)));
+        Mockito.when(adapter.getBatchMarkersOrderedByColumn(migrationContext, queryDefinition)).thenReturn(markers);
+        final BatchMarkerHandler handler = Mockito.mock(BatchMarkerHandler.class);
+
+        testObj.streamBatchMarkers(context, largeItem, adapter, queryDefinition, handler);
+
+        final InOrder inOrder = Mockito.inOrder(handler);
+        inOrder.verify(handler).accept(List.of(1L));
+        inOrder.verify(handler).accept(List.of(1001L));
+        Mockito.verify(adapter, Mockito.never()).streamBatchMarkersOrderedByColumn(Mockito.any(), Mockito.any(),
+                Mockito.any());
+    }
+
+    @Test
+    public void numbersAllRowsBelowThreshold() {
+        final CopyContext.DataCopyItem smallItem = new CopyContext.DataCopyItem("products", "products", Map.of(),
+                SAMPLING_THRESHOLD - 1, BATCH_SIZE, null);
+
+        Assert.assertFalse(testObj.isApproximate(context, smallItem, createQueryDefinition("PK")));
+    }
+
+    private static MarkersQueryDefinition createQueryDefinition(final String column) {
+        final MarkersQueryDefinition queryDefinition = new MarkersQueryDefinition();
+        queryDefinition.setTable("products");
+        queryDefinition.setColumn(column);
+        queryDefinition.setBatchSize(BATCH_SIZE);
+        return queryDefinition;
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWorkerExecutor;
+import com.sap.cx.boosters.commercedbsync.concurrent.PipeAbortedException;
+import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.DataReaderTask;
+import com.sap.cx.boosters.commercedbsync.concurrent.impl.task.PipeTaskContext;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyBatch;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
+
+public class DefaultDataPipeFactoryTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int READER_WORKERS = 2;
+
+    private DefaultDataPipeFactory testObj;
+    private MigrationContext migrationContext;
+    private DatabaseCopyTaskRepository taskRepository;
+    private DataWorkerExecutor<Boolean> workerExecutor;
+    private DataPipe<DataSet> pipe;
+    private CopyContext context;
+    private final List<List<DatabaseCopyBatch>> scheduledChunks = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getMaxParallelReaderWorkers()).thenReturn(READER_WORKERS);
+        taskRepository = Mockito.mock(DatabaseCopyTaskRepository.class);
+        // the factory clears the list once scheduled, keep a copy of each chunk
+        Mockito.doAnswer(invocation -> scheduledChunks
+                .add(new ArrayList<>(invocation.<List<DatabaseCopyBatch>>getArgument(2))))
+                .when(taskRepository).scheduleBatches(Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.any());
+        workerExecutor = Mockito.mock(DataWorkerExecutor.class);
+        pipe = Mockito.mock(DataPipe.class);
+        context = new CopyContext("migration", migrationContext, Set.of(), null);
+        testObj = new DefaultDataPipeFactory(null, taskRepository, null, null, null, null);
+    }
+
+    @Test
+    public void cutsRangeBetweenConsecutiveMarkers() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+
+        testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK", markers(0, 10, 20, 30),
+                copyItem, false, null, false);
+
+        assertBatches(getScheduledBatches(), "0:0-10", "1:10-20", "2:20-30", "3:30-null");
+        Mockito.verify(workerExecutor, Mockito.times(4)).safelyExecute(Mockito.any(DataReaderTask.class));
+    }
+
+    @Test
+    public void schedulesChunksGrowingFromNumberOfReaderWorkers() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+
+        testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK",
+                markers(0, 10, 20, 30, 40, 50, 60, 70, 80), copyItem, false, null, false);
+
+        Assert.assertEquals(List.of(2, 4, 3),
+                scheduledChunks.stream().map(List::size).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void spansSeveralMarkersOnceReadersContinueAfterFullPages() throws Exception {
+        enableAdaptiveBatchSize();
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+        final PipeTaskContext pipeTaskContext = createPipeTaskContext(copyItem);
+        growPageSize(pipeTaskContext);
+
+        testObj.createDataReaderTasks(workerExecutor, pipeTaskContext, "PK",
+                markers(0, 10, 20, 30, 40, 50, 60, 70, 80, 90), copyItem, false, null, true);
+
+        assertBatches(getScheduledBatches(), "0:0-40", "4:40-80", "8:80-null");
+    }
+
+    @Test
+    public void spansOneMarkerUnlessReadersContinueAfterFullPages() throws Exception {
+        enableAdaptiveBatchSize();
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+        final PipeTaskContext pipeTaskContext = createPipeTaskContext(copyItem);
+        growPageSize(pipeTaskContext);
+
+        testObj.createDataReaderTasks(workerExecutor, pipeTaskContext, "PK", markers(0, 10, 20), copyItem, false,
+                null, false);
+
+        assertBatches(getScheduledBatches(), "0:0-10", "1:10-20", "2:20-null");
+    }
+
+    @Test
+    public void cutsOnlyRangesOfCurrentChunk() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(
+                new CopyContext.DataCopyItem.ChunkData(1, 3L * BATCH_SIZE));
+
+        testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK",
+                markers(0, 10, 20, 30, 40, 50, 60, 70, 80), copyItem, true, null, false);
+
+        assertBatches(getScheduledBatches(), "3:30-40", "4:40-50", "5:50-60");
+    }
+
+    @Test
+    public void neverSpansMarkersOfOtherChunks() throws Exception {
+        enableAdaptiveBatchSize();
+        final CopyContext.DataCopyItem copyItem = createCopyItem(
+                new CopyContext.DataCopyItem.ChunkData(1, 3L * BATCH_SIZE));
+        final PipeTaskContext pipeTaskContext = createPipeTaskContext(copyItem);
+        growPageSize(pipeTaskContext);
+
+        testObj.createDataReaderTasks(workerExecutor, pipeTaskContext, "PK",
+                markers(0, 10, 20, 30, 40, 50, 60, 70, 80), copyItem, true, null, true);
+
+        assertBatches(getScheduledBatches(), "3:30-60");
+    }
+
+    @Test
+    public void stopsSchedulingOnceThePipeIsAborted() throws Exception {
+        Mockito.when(pipe.isAborted()).thenReturn(true);
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+
+        try {
+            testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK", markers(0, 10, 20),
+                    copyItem, false, null, false);
+            Assert.fail("scheduling must stop once the pipe is aborted");
+        } catch (PipeAbortedException expected) {
+            // expected
+        }
+
+        Mockito.verify(taskRepository, Mockito.never()).scheduleBatches(Mockito.any(), Mockito.any(),
+                Mockito.anyList(), Mockito.any());
+        Mockito.verify(workerExecutor, Mockito.never()).safelyExecute(Mockito.any());
+    }
+
+    @Test
+    public void insertsBatchesBeforeTheirReaderTasksAreSubmitted() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+
+        testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK", markers(0, 10, 20),
+                copyItem, false, null, false);
+
+        final InOrder inOrder = Mockito.inOrder(taskRepository, workerExecutor);
+        inOrder.verify(taskRepository).scheduleBatches(Mockito.eq(context), Mockito.eq(copyItem), Mockito.anyList(),
+                Mockito.isNull());
+        inOrder.verify(workerExecutor, Mockito.times(2)).safelyExecute(Mockito.any(DataReaderTask.class));
+        inOrder.verify(taskRepository).scheduleBatches(Mockito.eq(context), Mockito.eq(copyItem), Mockito.anyList(),
+                Mockito.isNull());
+        inOrder.verify(workerExecutor).safelyExecute(Mockito.any(DataReaderTask.class));
+    }
+
+    @Test
+    public void submitsNoReaderTaskIfBatchesCannotBeInserted() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+        final SQLException failure = new SQLException("deadlock");
+        Mockito.doThrow(failure).when(taskRepository).scheduleBatches(Mockito.any(), Mockito.any(),
+                Mockito.anyList(), Mockito.any());
+
+        try {
+            testObj.createDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), "PK", markers(0, 10, 20),
+                    copyItem, false, null, false);
+            Assert.fail("failure inserting the batches must be passed on");
+        } catch (SQLException expected) {
+            Assert.assertSame(failure, expected);
+        }
+
+        Mockito.verify(workerExecutor, Mockito.never()).safelyExecute(Mockito.any());
+    }
+
+    @Test
+    public void generatesOffsetBatchesFromRowCount() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null, 25L);
+
+        testObj.createOffsetDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), Set.of("code"),
+                copyItem, false);
+
+        assertBatches(getScheduledBatches(), "0:0-10", "1:10-20", "2:20-30");
+        Mockito.verify(workerExecutor, Mockito.times(3)).safelyExecute(Mockito.any(DataReaderTask.class));
+    }
+
+    @Test
+    public void generatesOffsetBatchesOfCurrentChunk() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(
+                new CopyContext.DataCopyItem.ChunkData(2, 3L * BATCH_SIZE), 25L);
+
+        testObj.createOffsetDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), Set.of("code"),
+                copyItem, true);
+
+        assertBatches(getScheduledBatches(), "0:60-70", "1:70-80", "2:80-90");
+    }
+
+    @Test
+    public void submitsOffsetBatchesWhileTheyAreGenerated() throws Exception {
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null, 1050L * BATCH_SIZE);
+        final List<Integer> submittedBeforeChunk = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            submittedBeforeChunk.add(Mockito.mockingDetails(workerExecutor).getInvocations().size());
+            return scheduledChunks.add(new ArrayList<>(invocation.<List<DatabaseCopyBatch>>getArgument(2)));
+        }).when(taskRepository).scheduleBatches(Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.any());
+
+        testObj.createOffsetDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), Set.of("code"),
+                copyItem, false);
+
+        Assert.assertEquals(List.of(1000, 50), scheduledChunks.stream().map(List::size).collect(Collectors.toList()));
+        // the tasks of the first chunk are submitted before the next chunk is generated
+        Assert.assertEquals(List.of(0, 1000), submittedBeforeChunk);
+    }
+
+    @Test
+    public void resumesPendingOffsetBatches() throws Exception {
+        Mockito.when(migrationContext.isSchedulerResumeEnabled()).thenReturn(true);
+        final CopyContext.DataCopyItem copyItem = createCopyItem(null);
+        final DatabaseCopyBatch pendingBatch = new DatabaseCopyBatch();
+        pendingBatch.setBatchId("7");
+        pendingBatch.setLowerBoundary("70");
+        pendingBatch.setUpperBoundary("80");
+        Mockito.when(taskRepository.findPendingBatchesForPipeline(context, copyItem)).thenReturn(Set.of(pendingBatch));
+
+        testObj.createOffsetDataReaderTasks(workerExecutor, createPipeTaskContext(copyItem), Set.of("code"),
+                copyItem, false);
+
+        assertBatches(getScheduledBatches(), "0:70-80");
+        Mockito.verify(taskRepository).resetPipelineBatches(context, copyItem);
+    }
+
+    @Test
+    public void readsOnlyColumnsWrittenFromSourceButAlwaysBatchColumn() {
+        Mockito.when(migrationContext.getExcludedColumns()).thenReturn(Map.of("products", Set.of("p_excluded")));
+        Mockito.when(migrationContext.getNullifyColumns()).thenReturn(Map.of("products", Set.of("P_NULLIFIED", "PK")));
+        final CopyContext.DataCopyItem copyItem = new CopyContext.DataCopyItem("products", "products",
+                Map.of("p_overridden", "1"), 10_000L, 1000, null);
+
+        final List<String> columnsToRead = DefaultDataPipeFactory.getColumnsToRead(context, copyItem,
+                new LinkedHashSet<>(
+                        List.of("PK", "p_code", "p_excluded", "p_nullified", "p_overridden", "p_name")),
+                "PK");
+
+        Assert.assertEquals(List.of("PK", "p_code", "p_name"), columnsToRead);
+    }
+
+    @Test
+    public void readsAllColumnsIfNoneIsSkipped() {
+        Mockito.when(migrationContext.getExcludedColumns()).thenReturn(Map.of("orders", Set.of("p_code")));
+
+        Assert.assertNull(DefaultDataPipeFactory.getColumnsToRead(context, createCopyItem(null),
+                new LinkedHashSet<>(List.of("PK", "p_code")), "PK"));
+    }
+
+    @Test
+    public void readsAllColumnsForDeletions() {
+        Mockito.when(migrationContext.getExcludedColumns()).thenReturn(Map.of("products", Set.of("p_code")));
+        Mockito.when(migrationContext.isDeletionEnabled()).thenReturn(true);
+
+        Assert.assertNull(DefaultDataPipeFactory.getColumnsToRead(context, createCopyItem(null),
+                new LinkedHashSet<>(List.of("PK", "p_code")), "PK"));
+    }
+
+    private void enableAdaptiveBatchSize() {
+        Mockito.when(migrationContext.isAdaptiveBatchSizeEnabled()).thenReturn(true);
+        Mockito.when(migrationContext.getAdaptiveBatchTargetBytes()).thenReturn(Long.MAX_VALUE);
+        Mockito.when(migrationContext.getAdaptiveBatchSizeFactor()).thenReturn(4);
+    }
+
+    /**
+     * Records pages of small and quickly read rows, so the page size grows to its maximum of four batches
+     */
+    private static void growPageSize(PipeTaskContext pipeTaskContext) {
+        for (int i = 0; i < 3; i++) {
+            pipeTaskContext.getBatchSizer().record(BATCH_SIZE, BATCH_SIZE, 1);
+        }
+        Assert.assertEquals(4, pipeTaskContext.getBatchSizer().getMarkersPerRange());
+    }
+
+    private CopyContext.DataCopyItem createCopyItem(CopyContext.DataCopyItem.ChunkData chunkData) {
+        return createCopyItem(chunkData, 1000L);
+    }
+
+    private CopyContext.DataCopyItem createCopyItem(CopyContext.DataCopyItem.ChunkData chunkData, long rowCount) {
+        return new CopyContext.DataCopyItem("products", "products", Map.of(), rowCount, BATCH_SIZE, chunkData);
+    }
+
+    private PipeTaskContext createPipeTaskContext(CopyContext.DataCopyItem copyItem) {
+        return new PipeTaskContext(context, pipe, "products", null, BATCH_SIZE, null, taskRepository, null, null,
+                copyItem);
+    }
+
+    private List<DatabaseCopyBatch> getScheduledBatches() {
+        return scheduledChunks.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private static List<List<Object>> markers(Object... values) {
+        return Arrays.stream(values).map(List::of).collect(Collectors.toList());
+    }
+
+    private static void assertBatches(List<DatabaseCopyBatch> batches, String... expected) {
+        Assert.assertEquals(List.of(expected),
+                batches.stream()
+                        .map(batch -> batch.getBatchId() + ":" + batch.getLowerBoundary() + "-"
+                                + batch.getUpperBoundary())
+                        .collect(Collectors.toList()));
+    }
+}
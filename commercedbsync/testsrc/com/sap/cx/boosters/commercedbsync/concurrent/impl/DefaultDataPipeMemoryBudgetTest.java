@@ -0,0 +1,173 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipe;
+import com.sap.cx.boosters.commercedbsync.concurrent.PipeAbortedException;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+
+public class DefaultDataPipeMemoryBudgetTest {
+
+    // a budget of 1 percent of the heap
+    private static final long CAPACITY = Runtime.getRuntime().maxMemory() / 100;
+
+    private DefaultDataPipeMemoryBudget testObj;
+    private MigrationContext migrationContext;
+    private CopyContext context;
+    private DataPipe<DataSet> pipe;
+    private ExecutorService executor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getDataPipeMemoryBudget()).thenReturn(1);
+        Mockito.when(migrationContext.getDataPipeTimeout()).thenReturn(60);
+        context = new CopyContext("migration", migrationContext, Set.of(), null);
+        pipe = Mockito.mock(DataPipe.class);
+        executor = Executors.newSingleThreadExecutor();
+        testObj = new DefaultDataPipeMemoryBudget();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reservesNothingIfDisabled() throws Exception {
+        Mockito.when(migrationContext.getDataPipeMemoryBudget()).thenReturn(0);
+        final DataSet page = createPage(CAPACITY);
+
+        testObj.reserve(context, page, pipe);
+
+        Assert.assertFalse(testObj.isEnabled(context));
+        Assert.assertEquals(0, testObj.getReserved());
+    }
+
+    @Test
+    public void reservesEstimatedSizeOfPagesUntilReleased() throws Exception {
+        final DataSet first = createPage(CAPACITY / 4);
+        final DataSet second = createPage(CAPACITY / 2);
+
+        testObj.reserve(context, first, pipe);
+        testObj.reserve(context, second, pipe);
+
+        Assert.assertTrue(testObj.isEnabled(context));
+        Assert.assertEquals(CAPACITY, testObj.getCapacity());
+        Assert.assertEquals(CAPACITY / 4 + CAPACITY / 2, testObj.getReserved());
+        testObj.release(first);
+        Assert.assertEquals(CAPACITY / 2, testObj.getReserved());
+        Assert.assertEquals(0, testObj.getWaitCount());
+    }
+
+    @Test
+    public void releasesPageOnlyOnce() throws Exception {
+        final DataSet first = createPage(CAPACITY / 4);
+        final DataSet second = createPage(CAPACITY / 4);
+        testObj.reserve(context, first, pipe);
+        testObj.reserve(context, second, pipe);
+
+        testObj.release(first);
+        testObj.release(first);
+        testObj.release(createPage(CAPACITY / 4));
+
+        Assert.assertEquals(CAPACITY / 4, testObj.getReserved());
+    }
+
+    @Test
+    public void admitsPageExceedingBudgetIfNothingIsReserved() throws Exception {
+        testObj.reserve(context, createPage(2 * CAPACITY), pipe);
+
+        Assert.assertEquals(2 * CAPACITY, testObj.getReserved());
+        Assert.assertEquals(0, testObj.getWaitCount());
+    }
+
+    @Test
+    public void waitsForBudgetUntilPageIsReleased() throws Exception {
+        final DataSet first = createPage(CAPACITY * 3 / 4);
+        final DataSet second = createPage(CAPACITY / 2);
+        testObj.reserve(context, first, pipe);
+
+        final Future<?> reservation = executor.submit(() -> {
+            testObj.reserve(context, second, pipe);
+            return null;
+        });
+        awaitWaitCount(1);
+        Assert.assertFalse(reservation.isDone());
+        testObj.release(first);
+
+        reservation.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(CAPACITY / 2, testObj.getReserved());
+    }
+
+    @Test(expected = PipeAbortedException.class)
+    public void stopsWaitingOncePipeIsAborted() throws Exception {
+        testObj.reserve(context, createPage(CAPACITY * 3 / 4), pipe);
+        Mockito.when(pipe.isAborted()).thenReturn(true);
+
+        testObj.reserve(context, createPage(CAPACITY / 2), pipe);
+    }
+
+    @Test
+    public void failsIfBudgetIsNotReleasedInTime() throws Exception {
+        Mockito.when(migrationContext.getDataPipeTimeout()).thenReturn(0);
+        testObj.reserve(context, createPage(CAPACITY * 3 / 4), pipe);
+
+        try {
+            testObj.reserve(context, createPage(CAPACITY / 2), pipe);
+            Assert.fail("reservation must fail once the data pipe timeout has passed");
+        } catch (RuntimeException expected) {
+            Assert.assertTrue(expected.getMessage().contains("migration.data.pipe.memory.budget"));
+        }
+        Assert.assertEquals(CAPACITY * 3 / 4, testObj.getReserved());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void releasesAllPagesOfPipe() throws Exception {
+        final DataPipe<DataSet> otherPipe = Mockito.mock(DataPipe.class);
+        testObj.reserve(context, createPage(CAPACITY / 8), pipe);
+        testObj.reserve(context, createPage(CAPACITY / 8), pipe);
+        final DataSet otherPage = createPage(CAPACITY / 4);
+        testObj.reserve(context, otherPage, otherPipe);
+
+        testObj.releaseAll(pipe);
+
+        Assert.assertEquals(CAPACITY / 4, testObj.getReserved());
+        testObj.release(otherPage);
+        Assert.assertEquals(0, testObj.getReserved());
+    }
+
+    private void awaitWaitCount(long waitCount) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (testObj.getWaitCount() < waitCount && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(waitCount, testObj.getWaitCount());
+    }
+
+    private static DataSet createPage(long size) {
+        final DataSet page = Mockito.mock(DataSet.class);
+        Mockito.when(page.estimateSize()).thenReturn(size);
+        return page;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+public class DefaultDataWorkerExecutorTest {
+
+    private ExecutorService workers;
+    private ExecutorService submitter;
+    private AsyncTaskExecutor taskExecutor;
+
+    @Before
+    public void setUp() {
+        workers = Executors.newFixedThreadPool(4);
+        submitter = Executors.newSingleThreadExecutor();
+        taskExecutor = new TaskExecutorAdapter(workers);
+    }
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+        submitter.shutdownNow();
+    }
+
+    @Test(timeout = 10_000)
+    public void blocksSubmissionWhileMaximumOfTasksIsInFlight() throws Exception {
+        final DefaultDataWorkerExecutor<Boolean> testObj = new DefaultDataWorkerExecutor<>(taskExecutor, 2);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+        testObj.safelyExecute(awaiting(finish, started));
+        testObj.safelyExecute(awaiting(finish, started));
+
+        final Future<?> thirdSubmission = submitter.submit(() -> testObj.safelyExecute(awaiting(finish, started)));
+
+        try {
+            thirdSubmission.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("submission must block while two tasks are in flight");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+        Assert.assertTrue(started.get() <= 2);
+        finish.countDown();
+        thirdSubmission.get(5, TimeUnit.SECONDS);
+        testObj.waitAndRethrowUncaughtExceptions();
+        Assert.assertEquals(3, started.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void releasesInFlightPermitOfFailedTask() throws Exception {
+        final DefaultDataWorkerExecutor<Boolean> testObj = new DefaultDataWorkerExecutor<>(taskExecutor, 1);
+        testObj.safelyExecute(() -> {
+            throw new IllegalStateException("read failed");
+        });
+
+        final Future<Boolean> next = testObj.safelyExecute(() -> Boolean.TRUE);
+
+        Assert.assertTrue(next.get());
+        try {
+            testObj.waitAndRethrowUncaughtExceptions();
+            Assert.fail("failure of the first task must be rethrown");
+        } catch (ExecutionException expected) {
+            Assert.assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(timeout = 10_000)
+    @SuppressWarnings("unchecked")
+    public void releasesInFlightPermitIfTaskCannotBeSubmitted() throws Exception {
+        final AsyncTaskExecutor failingExecutor = Mockito.mock(AsyncTaskExecutor.class);
+        final Future<Boolean> future = Mockito.mock(Future.class);
+        Mockito.when(failingExecutor.submit(Mockito.any(Callable.class)))
+                .thenThrow(new IllegalStateException("executor shut down")).thenReturn(future);
+        final DefaultDataWorkerExecutor<Boolean> testObj = new DefaultDataWorkerExecutor<>(failingExecutor, 1);
+
+        try {
+            testObj.safelyExecute(() -> Boolean.TRUE);
+            Assert.fail("submission failure must be passed on");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Assert.assertSame(future, testObj.safelyExecute(() -> Boolean.TRUE));
+    }
+
+    @Test(timeout = 10_000)
+    public void doesNotLimitTasksInFlightByDefault() throws Exception {
+        final DefaultDataWorkerExecutor<Boolean> testObj = new DefaultDataWorkerExecutor<>(taskExecutor);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            testObj.safelyExecute(awaiting(finish, started));
+        }
+
+        finish.countDown();
+        testObj.waitAndRethrowUncaughtExceptions();
+        Assert.assertEquals(4, started.get());
+    }
+
+    private static Callable<Boolean> awaiting(CountDownLatch finish, AtomicInteger started) {
+        return () -> {
+            started.incrementAndGet();
+            return finish.await(10, TimeUnit.SECONDS);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.concurrent.impl.task;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+
+public class AdaptiveBatchSizerTest {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private MigrationContext migrationContext;
+
+    @Before
+    public void setUp() {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.isAdaptiveBatchSizeEnabled()).thenReturn(true);
+        Mockito.when(migrationContext.getAdaptiveBatchTargetBytes()).thenReturn(1_000_000L);
+        Mockito.when(migrationContext.getAdaptiveBatchTargetLatency()).thenReturn(1000);
+        Mockito.when(migrationContext.getAdaptiveBatchSizeFactor()).thenReturn(4);
+    }
+
+    @Test
+    public void usesConfiguredBatchSizeUntilEnoughPagesAreMeasured() {
+        final AdaptiveBatchSizer testObj = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        testObj.record(1000, 10_000, TimeUnit.MILLISECONDS.toNanos(1));
+        testObj.record(1000, 10_000, TimeUnit.MILLISECONDS.toNanos(1));
+
+        Assert.assertEquals(BATCH_SIZE, testObj.getPageSize());
+        Assert.assertEquals(1, testObj.getMarkersPerRange());
+    }
+
+    @Test
+    public void sizesPagesToTargetBytes() {
+        final AdaptiveBatchSizer testObj = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        // 400 bytes per row and fast reads, the byte target allows 2500 rows
+        recordPages(testObj, 400, TimeUnit.MICROSECONDS.toNanos(1));
+
+        Assert.assertEquals(2500, testObj.getPageSize());
+        Assert.assertEquals(2, testObj.getMarkersPerRange());
+    }
+
+    @Test
+    public void sizesPagesToTargetLatency() {
+        final AdaptiveBatchSizer testObj = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        // small rows read at 0.5 ms each, the latency target allows 2000 rows
+        recordPages(testObj, 10, TimeUnit.MICROSECONDS.toNanos(500));
+
+        Assert.assertEquals(2000, testObj.getPageSize());
+    }
+
+    @Test
+    public void boundsPageSizeByFactorOfBatchSize() {
+        final AdaptiveBatchSizer largeRows = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+        final AdaptiveBatchSizer smallRows = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        recordPages(largeRows, 1_000_000, 1);
+        recordPages(smallRows, 1, 1);
+
+        Assert.assertEquals(BATCH_SIZE / 4, largeRows.getPageSize());
+        Assert.assertEquals(BATCH_SIZE * 4, smallRows.getPageSize());
+        Assert.assertEquals(4, smallRows.getMarkersPerRange());
+    }
+
+    @Test
+    public void ignoresEmptyPages() {
+        final AdaptiveBatchSizer testObj = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        for (int i = 0; i < 3; i++) {
+            testObj.record(0, 0, TimeUnit.SECONDS.toNanos(10));
+        }
+
+        Assert.assertEquals(BATCH_SIZE, testObj.getPageSize());
+    }
+
+    @Test
+    public void keepsConfiguredBatchSizeIfDisabled() {
+        Mockito.when(migrationContext.isAdaptiveBatchSizeEnabled()).thenReturn(false);
+        final AdaptiveBatchSizer testObj = new AdaptiveBatchSizer(migrationContext, "products", BATCH_SIZE);
+
+        recordPages(testObj, 1, 1);
+
+        Assert.assertFalse(testObj.isEnabled());
+        Assert.assertEquals(BATCH_SIZE, testObj.getPageSize());
+    }
+
+    private static void recordPages(AdaptiveBatchSizer batchSizer, long bytesPerRow, long nanosPerRow) {
+        for (int i = 0; i < 3; i++) {
+            batchSizer.record((int) BATCH_SIZE, BATCH_SIZE * bytesPerRow, BATCH_SIZE * nanosPerRow);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.dataset.impl;
+
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+
+public class ColumnarDataSetTest {
+
+    private static final List<DataColumn> COLUMNS = List.of(new DefaultDataColumn("PK", Types.BIGINT, 20, 0),
+            new DefaultDataColumn("p_sequence", Types.INTEGER, 10, 0),
+            new DefaultDataColumn("p_price", Types.DOUBLE, 15, 0),
+            new DefaultDataColumn("p_code", Types.VARCHAR, 255, 0));
+
+    private static final Object[][] ROWS = {{1L, 7, 1.5d, "a"}, {null, null, null, null},
+            {Long.MAX_VALUE, Integer.MIN_VALUE, -0d, "c"}};
+
+    private ColumnarDataSet testObj;
+    private DataSet boxedDataSet;
+
+    @Before
+    public void setUp() {
+        final ColumnarDataSet.Builder builder = new ColumnarDataSet.Builder(3, COLUMNS,
+                new ColumnarDataSet.ColumnStorage[]{ColumnarDataSet.ColumnStorage.LONG,
+                        ColumnarDataSet.ColumnStorage.INT, ColumnarDataSet.ColumnStorage.DOUBLE,
+                        ColumnarDataSet.ColumnStorage.OBJECT},
+                "p1", 1);
+        final List<List<Object>> boxedRows = new ArrayList<>();
+        for (final Object[] row : ROWS) {
+            builder.appendLong(0, row[0] == null ? 0L : (Long) row[0], row[0] == null);
+            builder.appendInt(1, row[1] == null ? 0 : (Integer) row[1], row[1] == null);
+            builder.appendDouble(2, row[2] == null ? 0d : (Double) row[2], row[2] == null);
+            builder.appendObject(3, row[3]);
+            builder.endRow();
+            boxedRows.add(DefaultDataSet.newRow(row.clone()));
+        }
+        testObj = builder.build();
+        boxedDataSet = new DefaultDataSet(3, COLUMNS.size(), COLUMNS, boxedRows, "p1");
+    }
+
+    @Test
+    public void boxesValuesLikeRowDataSet() {
+        Assert.assertEquals(boxedDataSet.getAllResults(), testObj.getAllResults());
+        for (int row = 0; row < ROWS.length; row++) {
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                final Object expected = boxedDataSet.getValue(row, column);
+                final Object actual = testObj.getValue(row, column);
+                Assert.assertEquals(expected, actual);
+                Assert.assertSame(expected == null ? null : expected.getClass(),
+                        actual == null ? null : actual.getClass());
+            }
+        }
+    }
+
+    @Test
+    public void readsTypedValuesLikeRowDataSet() {
+        for (int row = 0; row < ROWS.length; row++) {
+            Assert.assertEquals(boxedDataSet.getLong(row, 0), testObj.getLong(row, 0));
+            Assert.assertEquals(boxedDataSet.getInt(row, 1), testObj.getInt(row, 1));
+            Assert.assertEquals(boxedDataSet.getLong(row, 1), testObj.getLong(row, 1));
+            Assert.assertEquals(boxedDataSet.getDouble(row, 2), testObj.getDouble(row, 2), 0d);
+        }
+    }
+
+    @Test
+    public void keepsNullsOfPrimitiveColumns() {
+        for (int column = 0; column < COLUMNS.size(); column++) {
+            Assert.assertFalse(testObj.isNull(0, column));
+            Assert.assertTrue(testObj.isNull(1, column));
+            Assert.assertNull(testObj.getValue(1, column));
+            Assert.assertNull(testObj.getAllResults().get(1).get(column));
+        }
+        Assert.assertEquals(0L, testObj.getLong(1, 0));
+        Assert.assertEquals(0, testObj.getInt(1, 1));
+        Assert.assertEquals(0d, testObj.getDouble(1, 2), 0d);
+    }
+
+    @Test
+    public void keepsZeroApartFromNull() {
+        final ColumnarDataSet.Builder builder = new ColumnarDataSet.Builder(0, COLUMNS.subList(0, 1),
+                new ColumnarDataSet.ColumnStorage[]{ColumnarDataSet.ColumnStorage.LONG}, null, 1);
+        builder.appendLong(0, 0L, false);
+        builder.endRow();
+        builder.appendLong(0, 0L, true);
+        builder.endRow();
+
+        final ColumnarDataSet dataSet = builder.build();
+
+        Assert.assertEquals(Arrays.asList(0L, null),
+                Arrays.asList(dataSet.getValue(0, 0), dataSet.getValue(1, 0)));
+        Assert.assertFalse(dataSet.isNull(0, 0));
+        Assert.assertTrue(dataSet.isNull(1, 0));
+    }
+
+    @Test
+    public void convertsColumnValuesLikeRowDataSet() {
+        for (int row = 0; row < ROWS.length; row++) {
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                final DataColumn sourceColumn = COLUMNS.get(column);
+                Assert.assertEquals(
+                        boxedDataSet.getColumnValue(column, row, sourceColumn, sourceColumn.getColumnType()),
+                        testObj.getColumnValue(column, row, sourceColumn, sourceColumn.getColumnType()));
+            }
+        }
+    }
+
+    @Test
+    public void holdsRowsAndColumnsOfBuilder() {
+        Assert.assertEquals(ROWS.length, testObj.getRowCount());
+        Assert.assertEquals(COLUMNS.size(), testObj.getColumnCount());
+        Assert.assertEquals(3, testObj.getBatchId());
+        Assert.assertEquals("p1", testObj.getPartition());
+        Assert.assertTrue(testObj.isLongColumn(0));
+        Assert.assertFalse(testObj.isLongColumn(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsRowsBeyondRowCount() {
+        testObj.getValue(ROWS.length, 0);
+    }
+
+    @Test
+    public void storesOnlyColumnsBoxedLikeGetObjectAsPrimitives() {
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.LONG,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.BIGINT, true));
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.INT,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.INTEGER, true));
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.DOUBLE,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.DOUBLE, true));
+        // unsigned columns are read as BigInteger or Long by getObject()
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.OBJECT,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.BIGINT, false));
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.OBJECT,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.INTEGER, false));
+        // getObject() reads DECIMAL as BigDecimal and SMALLINT as Integer or Short depending on the driver
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.OBJECT,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.DECIMAL, true));
+        Assert.assertEquals(ColumnarDataSet.ColumnStorage.OBJECT,
+                ColumnarDataSet.ColumnStorage.forColumn(Types.SMALLINT, true));
+    }
+
+    @Test
+    public void keepsObjectsOfUnsignedColumnsAsRead() {
+        final ColumnarDataSet.Builder builder = new ColumnarDataSet.Builder(0, COLUMNS.subList(0, 1),
+                new ColumnarDataSet.ColumnStorage[]{ColumnarDataSet.ColumnStorage.forColumn(Types.BIGINT, false)},
+                null, 1);
+        final BigInteger value = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        builder.appendObject(0, value);
+        builder.endRow();
+
+        Assert.assertSame(value, builder.build().getValue(0, 0));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.repository.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseMigrationDataTypeMapperService;
+
+public class MySQLDataRepositoryTest {
+
+    private static final List<String> KEY_COLUMNS = List.of("code", "catalogversion", "language");
+
+    private MySQLDataRepository testObj;
+
+    @Before
+    public void setUp() {
+        testObj = createRepository("jdbc:mysql://localhost:3306/commerce?useSSL=false");
+    }
+
+    @Test
+    public void comparesKeysetAsRowValue() {
+        Assert.assertEquals("(code, catalogversion, language) >= (?, ?, ?)",
+                testObj.getKeysetCondition(KEY_COLUMNS, true));
+        Assert.assertEquals("(code, catalogversion, language) < (?, ?, ?)",
+                testObj.getKeysetCondition(KEY_COLUMNS, false));
+    }
+
+    @Test
+    public void bindsEachKeyValueOnceForRowValueComparison() throws Exception {
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        final int lastParamIdx = testObj.setKeysetParameters(stmt, 1, List.of("a", 7L, "en"));
+
+        Assert.assertEquals(4, lastParamIdx);
+        final InOrder inOrder = Mockito.inOrder(stmt);
+        inOrder.verify(stmt).setObject(2, "a");
+        inOrder.verify(stmt).setObject(3, 7L);
+        inOrder.verify(stmt).setObject(4, "en");
+        Mockito.verifyNoMoreInteractions(stmt);
+    }
+
+    @Test
+    public void streamsRowsOneByOneWithoutCursorFetch() throws Exception {
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        testObj.setStreamingFetchSize(stmt, 1000);
+
+        Mockito.verify(stmt).setFetchSize(Integer.MIN_VALUE);
+        Assert.assertFalse(testObj.isLongLivedResultSetSupported());
+    }
+
+    @Test
+    public void fetchesRowsByBatchSizeWithCursorFetch() throws Exception {
+        final MySQLDataRepository repository = createRepository(
+                "jdbc:mysql://localhost:3306/commerce?useSSL=false&useCursorFetch=true");
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        repository.setStreamingFetchSize(stmt, 1000);
+
+        Mockito.verify(stmt).setFetchSize(1000);
+        Assert.assertTrue(repository.isLongLivedResultSetSupported());
+    }
+
+    @Test
+    public void readsInAutoCommitMode() throws Exception {
+        final MySQLDataRepository repository = Mockito.spy(testObj);
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.doReturn(connection).when(repository).getConnection();
+
+        Assert.assertSame(connection, repository.getReadConnection());
+
+        Mockito.verify(connection, Mockito.never()).setAutoCommit(Mockito.anyBoolean());
+    }
+
+    private static MySQLDataRepository createRepository(String connectionString) {
+        final DataSourceConfiguration dataSourceConfiguration = Mockito.mock(DataSourceConfiguration.class);
+        Mockito.when(dataSourceConfiguration.getConnectionString()).thenReturn(connectionString);
+        return new MySQLDataRepository(Mockito.mock(MigrationContext.class), dataSourceConfiguration,
+                Mockito.mock(DatabaseMigrationDataTypeMapperService.class));
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.repository.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.ColumnarDataSet;
+import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseMigrationDataTypeMapperService;
+
+public class OracleDataRepositoryTest {
+
+    private static final List<String> COLUMNS = List.of("PK", "code");
+    private static final String STAGING_QUERY = "SELECT * FROM MIG_STG_products WHERE 1 = 0";
+    private static final String TARGET_QUERY = "SELECT PK, code FROM products WHERE 1 = 0";
+    private static final List<String> KEY_COLUMNS = List.of("code", "catalogversion", "language");
+
+    private OracleDataRepository testObj;
+    private Connection connection;
+    private Statement statement;
+
+    @Before
+    public void setUp() throws Exception {
+        testObj = new OracleDataRepository(Mockito.mock(MigrationContext.class),
+                Mockito.mock(DataSourceConfiguration.class),
+                Mockito.mock(DatabaseMigrationDataTypeMapperService.class));
+        connection = Mockito.mock(Connection.class);
+        statement = Mockito.mock(Statement.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+    }
+
+    @Test
+    public void keepsStagingTableNameWithinLimit() {
+        Assert.assertEquals("MIG_STG_products", testObj.getStagingTableName("products"));
+    }
+
+    @Test
+    public void shortensLongStagingTableNamesWithoutCollisions() {
+        final String first = testObj.getStagingTableName("productfeatures_localized_1");
+        final String second = testObj.getStagingTableName("productfeatures_localized_2");
+
+        Assert.assertEquals(30, first.length());
+        Assert.assertEquals(30, second.length());
+        Assert.assertNotEquals(first, second);
+        Assert.assertEquals(first, testObj.getStagingTableName("productfeatures_localized_1"));
+    }
+
+    @Test
+    public void reusesStagingTableWithSameColumns() throws Exception {
+        mockQuery(STAGING_QUERY, new String[]{"PK", "CODE"}, new int[]{Types.NUMERIC, Types.VARCHAR});
+        mockQuery(TARGET_QUERY, new String[]{"PK", "CODE"}, new int[]{Types.NUMERIC, Types.VARCHAR});
+
+        testObj.createStagingTable(connection, "products", COLUMNS);
+
+        Mockito.verify(statement, Mockito.times(1)).execute(Mockito.startsWith("BEGIN EXECUTE IMMEDIATE"));
+        Mockito.verify(statement, Mockito.never()).execute(Mockito.startsWith("DROP TABLE"));
+    }
+
+    @Test
+    public void recreatesStagingTableWithOtherColumnTypes() throws Exception {
+        mockQuery(STAGING_QUERY, new String[]{"PK", "CODE"}, new int[]{Types.NUMERIC, Types.CLOB});
+        mockQuery(TARGET_QUERY, new String[]{"PK", "CODE"}, new int[]{Types.NUMERIC, Types.VARCHAR});
+
+        testObj.createStagingTable(connection, "products", COLUMNS);
+
+        Mockito.verify(statement).execute("DROP TABLE MIG_STG_products");
+        Mockito.verify(statement, Mockito.times(2)).execute(Mockito.startsWith("BEGIN EXECUTE IMMEDIATE"));
+    }
+
+    @Test
+    public void recreatesStagingTableWithOtherColumns() throws Exception {
+        mockQuery(STAGING_QUERY, new String[]{"PK", "NAME"}, new int[]{Types.NUMERIC, Types.VARCHAR});
+
+        testObj.createStagingTable(connection, "products", COLUMNS);
+
+        Mockito.verify(statement).execute("DROP TABLE MIG_STG_products");
+        Mockito.verify(statement, Mockito.never()).executeQuery(TARGET_QUERY);
+    }
+
+    @Test
+    public void expandsKeysetLowerBoundIntoEqualityPrefixes() {
+        Assert.assertEquals("((code > ?) OR (code = ? AND catalogversion > ?)"
+                + " OR (code = ? AND catalogversion = ? AND language >= ?))",
+                testObj.getKeysetCondition(KEY_COLUMNS, true));
+    }
+
+    @Test
+    public void expandsKeysetUpperBoundIntoEqualityPrefixes() {
+        Assert.assertEquals("((code < ?) OR (code = ? AND catalogversion < ?)"
+                + " OR (code = ? AND catalogversion = ? AND language < ?))",
+                testObj.getKeysetCondition(KEY_COLUMNS, false));
+    }
+
+    @Test
+    public void expandsKeysetOfSingleColumnIntoPlainComparison() {
+        Assert.assertEquals("((code >= ?))", testObj.getKeysetCondition(List.of("code"), true));
+        Assert.assertEquals("((code < ?))", testObj.getKeysetCondition(List.of("code"), false));
+    }
+
+    @Test
+    public void bindsKeyValuesOfEveryTermOfExpandedKeyset() throws Exception {
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        final int lastParamIdx = testObj.setKeysetParameters(stmt, 1, List.of("a", 7L, "en"));
+
+        Assert.assertEquals(7, lastParamIdx);
+        final InOrder inOrder = Mockito.inOrder(stmt);
+        inOrder.verify(stmt).setObject(2, "a");
+        inOrder.verify(stmt).setObject(3, "a");
+        inOrder.verify(stmt).setObject(4, 7L);
+        inOrder.verify(stmt).setObject(5, "a");
+        inOrder.verify(stmt).setObject(6, 7L);
+        inOrder.verify(stmt).setObject(7, "en");
+        Mockito.verifyNoMoreInteractions(stmt);
+    }
+
+    @Test
+    public void bindsKeysetBoundsInOrderOfTheirConditions() throws Exception {
+        final Instant time = Instant.parse("2023-05-01T00:00:00Z");
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(Mockito.mock(ResultSetMetaData.class));
+        Mockito.when(stmt.executeQuery()).thenReturn(resultSet);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(stmt);
+        final OracleDataRepository repository = Mockito.spy(testObj);
+        Mockito.doReturn(connection).when(repository).getConnection();
+        final SeekQueryDefinition queryDefinition = new SeekQueryDefinition();
+        queryDefinition.setTable("products");
+        queryDefinition.setColumn("code, catalogversion");
+        queryDefinition.setKeyColumns(List.of("code", "catalogversion"));
+        queryDefinition.setLastColumnValue(List.of("a", 1L));
+        queryDefinition.setNextColumnValue(List.of("m", 2L));
+        queryDefinition.setBatchSize(1000);
+
+        repository.getBatchOrderedByColumn(queryDefinition, time);
+
+        Mockito.verify(connection).prepareStatement(Mockito.contains("modifiedts > ?"
+                + " AND ((code > ?) OR (code = ? AND catalogversion >= ?))"
+                + " AND ((code < ?) OR (code = ? AND catalogversion < ?))"));
+        final InOrder inOrder = Mockito.inOrder(stmt);
+        inOrder.verify(stmt).setTimestamp(1, Timestamp.from(time));
+        inOrder.verify(stmt).setObject(2, "a");
+        inOrder.verify(stmt).setObject(3, "a");
+        inOrder.verify(stmt).setObject(4, 1L);
+        inOrder.verify(stmt).setObject(5, "m");
+        inOrder.verify(stmt).setObject(6, "m");
+        inOrder.verify(stmt).setObject(7, 2L);
+        inOrder.verify(stmt).executeQuery();
+    }
+
+    @Test
+    public void readsNullsOfPrimitiveColumnsAsNull() throws Exception {
+        final DatabaseMigrationDataTypeMapperService dataTypeMapperService = Mockito
+                .mock(DatabaseMigrationDataTypeMapperService.class);
+        Mockito.when(dataTypeMapperService.dataTypeMapper(Mockito.any(), Mockito.anyInt(), Mockito.anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        final OracleDataRepository repository = new OracleDataRepository(Mockito.mock(MigrationContext.class),
+                Mockito.mock(DataSourceConfiguration.class), dataTypeMapperService);
+        final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(3);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("PK");
+        Mockito.when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        Mockito.when(metaData.getColumnName(2)).thenReturn("p_price");
+        Mockito.when(metaData.getColumnType(2)).thenReturn(Types.DOUBLE);
+        Mockito.when(metaData.getColumnName(3)).thenReturn("p_code");
+        Mockito.when(metaData.getColumnType(3)).thenReturn(Types.VARCHAR);
+        Mockito.when(metaData.isSigned(Mockito.anyInt())).thenReturn(true);
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, true, false);
+        // the typed getters return 0 for NULL, only wasNull() tells them apart
+        Mockito.when(resultSet.getLong(1)).thenReturn(5L, 0L);
+        Mockito.when(resultSet.getDouble(2)).thenReturn(0d, 0d);
+        Mockito.when(resultSet.wasNull()).thenReturn(false, false, true, true);
+        Mockito.when(resultSet.getObject(3)).thenReturn("a", null);
+
+        final DataSet dataSet = repository.convertToDataSet(0, resultSet, Set.of(), null);
+
+        Assert.assertTrue(dataSet instanceof ColumnarDataSet);
+        Assert.assertEquals(Arrays.asList(5L, 0d, "a"), dataSet.getAllResults().get(0));
+        Assert.assertEquals(Arrays.asList(null, null, null), dataSet.getAllResults().get(1));
+        Assert.assertTrue(dataSet.isNull(1, 0));
+        Assert.assertFalse(dataSet.isNull(0, 1));
+    }
+
+    @Test
+    public void resolvesColumnsOnceAndSkipsIgnoredColumns() throws Exception {
+        final DatabaseMigrationDataTypeMapperService dataTypeMapperService = Mockito
+                .mock(DatabaseMigrationDataTypeMapperService.class);
+        Mockito.when(dataTypeMapperService.dataTypeMapper(Mockito.any(), Mockito.anyInt(), Mockito.anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        final OracleDataRepository repository = new OracleDataRepository(Mockito.mock(MigrationContext.class),
+                Mockito.mock(DataSourceConfiguration.class), dataTypeMapperService);
+        final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(3);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("p_code");
+        Mockito.when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        Mockito.when(metaData.getColumnName(2)).thenReturn("HJMPTS");
+        Mockito.when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+        Mockito.when(metaData.getColumnName(3)).thenReturn("p_name");
+        Mockito.when(metaData.getColumnType(3)).thenReturn(Types.VARCHAR);
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, true, true, false);
+        Mockito.when(resultSet.getObject(1)).thenReturn("a", "b", "c");
+        Mockito.when(resultSet.getObject(3)).thenReturn("x", "y", "z");
+
+        final DataSet dataSet = repository.convertToDataSet(0, resultSet, Set.of("hjmpTS"), null, 2);
+
+        Assert.assertEquals(2, dataSet.getColumnCount());
+        Assert.assertEquals(List.of(List.of("a", "x"), List.of("b", "y")), dataSet.getAllResults());
+        Assert.assertEquals("p_name", dataSet.getColumn(1).getColumnName());
+        Mockito.verify(resultSet).getMetaData();
+        Mockito.verify(resultSet, Mockito.never()).findColumn(Mockito.anyString());
+        Mockito.verify(resultSet, Mockito.never()).getObject(2);
+    }
+
+    @Test
+    public void readsInAutoCommitMode() throws Exception {
+        final OracleDataRepository repository = Mockito.spy(testObj);
+        Mockito.doReturn(connection).when(repository).getConnection();
+
+        Assert.assertSame(connection, repository.getReadConnection());
+
+        Mockito.verify(connection, Mockito.never()).setAutoCommit(Mockito.anyBoolean());
+    }
+
+    @Test
+    public void fetchesRowsByBatchSize() throws Exception {
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        testObj.setStreamingFetchSize(stmt, 1000);
+
+        Mockito.verify(stmt).setFetchSize(1000);
+    }
+
+    @Test
+    public void projectsOuterQueryOfPagination() {
+        final SeekQueryDefinition queryDefinition = new SeekQueryDefinition();
+        queryDefinition.setTable("products");
+        queryDefinition.setColumn("PK");
+        queryDefinition.setBatchSize(1000);
+        queryDefinition.setColumns(COLUMNS);
+
+        final String query = testObj.buildValueBatchQuery(queryDefinition);
+
+        Assert.assertTrue(query, query.startsWith("select PK, code  from ( "));
+        // the inner view keeps all columns, the optimizer prunes those the outer query does not read
+        Assert.assertTrue(query, query.contains("  t.*, "));
+    }
+
+    private void mockQuery(final String query, final String[] columnNames, final int[] columnTypes)
+            throws SQLException {
+        final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(columnNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            Mockito.when(metaData.getColumnName(i + 1)).thenReturn(columnNames[i]);
+            Mockito.when(metaData.getColumnType(i + 1)).thenReturn(columnTypes[i]);
+        }
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(statement.executeQuery(query)).thenReturn(resultSet);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.repository.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.OffsetQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.SeekQueryDefinition;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.profile.DataSourceConfiguration;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseMigrationDataTypeMapperService;
+
+public class PostGresDataRepositoryTest {
+
+    private PostGresDataRepository testObj;
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        testObj = Mockito.spy(new PostGresDataRepository(Mockito.mock(MigrationContext.class),
+                Mockito.mock(DataSourceConfiguration.class),
+                Mockito.mock(DatabaseMigrationDataTypeMapperService.class)));
+        connection = Mockito.mock(Connection.class);
+        Mockito.doReturn(connection).when(testObj).getConnection();
+    }
+
+    @Test
+    public void readsWithinTransaction() throws Exception {
+        Assert.assertSame(connection, testObj.getReadConnection());
+
+        Mockito.verify(connection).setAutoCommit(false);
+    }
+
+    @Test
+    public void fetchesRowsByBatchSize() throws Exception {
+        final PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+
+        testObj.setStreamingFetchSize(stmt, 1000);
+
+        Mockito.verify(stmt).setFetchSize(1000);
+        Assert.assertTrue(testObj.isLongLivedResultSetSupported());
+    }
+
+    @Test
+    public void readsOnlyProjectedColumnsOfSeekBatches() {
+        final SeekQueryDefinition queryDefinition = new SeekQueryDefinition();
+        queryDefinition.setTable("products");
+        queryDefinition.setColumn("PK");
+        queryDefinition.setBatchSize(1000);
+        queryDefinition.setColumns(List.of("PK", "p_code"));
+
+        Assert.assertEquals("select PK, p_code from products where PK >= ? order by PK limit 1000",
+                testObj.buildValueBatchQuery(queryDefinition, "PK >= ?"));
+    }
+
+    @Test
+    public void readsAllColumnsOfOffsetBatchesWithoutProjection() {
+        final OffsetQueryDefinition queryDefinition = new OffsetQueryDefinition();
+        queryDefinition.setTable("products");
+        queryDefinition.setOrderByColumns("code");
+        queryDefinition.setBatchSize(1000);
+
+        Assert.assertEquals("SELECT * FROM products WHERE 1=1 ORDER BY code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+                testObj.buildOffsetBatchQuery(queryDefinition));
+    }
+}
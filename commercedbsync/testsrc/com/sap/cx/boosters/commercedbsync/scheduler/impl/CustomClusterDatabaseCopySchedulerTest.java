@@ -0,0 +1,103 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.scheduler.impl;
+
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.MigrationProgress;
+import com.sap.cx.boosters.commercedbsync.MigrationStatus;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
+
+public class CustomClusterDatabaseCopySchedulerTest {
+
+    private CustomClusterDatabaseCopyScheduler testObj;
+    private MigrationContext migrationContext;
+    private DatabaseCopyTaskRepository taskRepository;
+    private CopyContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getAbortCheckInterval()).thenReturn(60_000);
+        taskRepository = Mockito.mock(DatabaseCopyTaskRepository.class);
+        context = new CopyContext("migration", migrationContext, Set.of(), null);
+        testObj = new CustomClusterDatabaseCopyScheduler();
+        testObj.setDatabaseCopyTaskRepository(taskRepository);
+    }
+
+    @Test
+    public void readsAbortStatusOncePerInterval() throws Exception {
+        Mockito.when(taskRepository.getMigrationStatus(context)).thenReturn(status(MigrationProgress.RUNNING));
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertFalse(testObj.isAborted(context));
+        }
+
+        Mockito.verify(taskRepository).getMigrationStatus(context);
+        Assert.assertEquals(100, testObj.getAbortStatusChecks());
+        Assert.assertEquals(1, testObj.getAbortStatusQueries());
+    }
+
+    @Test
+    public void readsAbortStatusAgainOnceInvalidated() throws Exception {
+        Mockito.when(taskRepository.getMigrationStatus(context)).thenReturn(status(MigrationProgress.RUNNING),
+                status(MigrationProgress.ABORTED));
+        Assert.assertFalse(testObj.isAborted(context));
+
+        testObj.invalidateAbortStatus("migration");
+
+        Assert.assertTrue(testObj.isAborted(context));
+        Assert.assertTrue(testObj.isAborted(context));
+        Mockito.verify(taskRepository, Mockito.times(2)).getMigrationStatus(context);
+    }
+
+    @Test
+    public void keepsInvalidationArrivingWhileStatusIsRead() throws Exception {
+        Mockito.when(taskRepository.getMigrationStatus(context)).thenAnswer(invocation -> {
+            // an abort event of another node arrives while the status is read
+            testObj.invalidateAbortStatus("migration");
+            return status(MigrationProgress.RUNNING);
+        }).thenReturn(status(MigrationProgress.ABORTED));
+
+        Assert.assertFalse(testObj.isAborted(context));
+
+        Assert.assertTrue(testObj.isAborted(context));
+    }
+
+    @Test
+    public void forgetsAbortStatusOfClearedMigration() throws Exception {
+        Mockito.when(taskRepository.getMigrationStatus(context)).thenReturn(status(MigrationProgress.ABORTED),
+                status(MigrationProgress.RUNNING));
+        Assert.assertTrue(testObj.isAborted(context));
+
+        testObj.clearAbortStatus("migration");
+
+        Assert.assertFalse(testObj.isAborted(context));
+        Mockito.verify(taskRepository, Mockito.times(2)).getMigrationStatus(context);
+    }
+
+    @Test
+    public void ignoresInvalidationOfUnknownMigration() throws Exception {
+        testObj.invalidateAbortStatus("other");
+        testObj.clearAbortStatus("other");
+
+        Assert.assertEquals(0, testObj.getAbortStatusChecks());
+    }
+
+    private static MigrationStatus status(MigrationProgress progress) {
+        final MigrationStatus status = new MigrationStatus();
+        status.setStatus(progress);
+        return status;
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.service.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.performance.PerformanceProfiler;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyBatch;
+
+import de.hybris.platform.servicelayer.cluster.ClusterService;
+
+public class DefaultDatabaseCopyTaskRepositoryTest {
+
+    private DefaultDatabaseCopyTaskRepository testObj;
+    private MigrationContext migrationContext;
+    private CopyContext context;
+    private CopyContext.DataCopyItem copyItem;
+    private Connection connection;
+    private PreparedStatement deleteBatchesStmt;
+    private PreparedStatement updateTaskStmt;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        migrationContext = Mockito.mock(MigrationContext.class);
+        // progress is written behind, apart from the first update of a pipeline
+        Mockito.when(migrationContext.getSchedulerProgressFlushInterval()).thenReturn(Integer.MAX_VALUE);
+        final DataRepository dataRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(migrationContext.getDataRepository()).thenReturn(dataRepository);
+        connection = Mockito.mock(Connection.class);
+        Mockito.when(dataRepository.getConnection()).thenReturn(connection);
+        deleteBatchesStmt = Mockito.mock(PreparedStatement.class);
+        Mockito.when(connection.prepareStatement(Mockito.startsWith("DELETE"))).thenReturn(deleteBatchesStmt);
+        updateTaskStmt = Mockito.mock(PreparedStatement.class);
+        Mockito.when(connection.prepareStatement(Mockito.startsWith("UPDATE"))).thenReturn(updateTaskStmt);
+        context = new CopyContext("migration", migrationContext, Set.of(),
+                Mockito.mock(PerformanceProfiler.class));
+        copyItem = new CopyContext.DataCopyItem("products", "products", Map.of(), 10_000L, 1000, null);
+        testObj = new DefaultDatabaseCopyTaskRepository();
+        testObj.setClusterService(Mockito.mock(ClusterService.class));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void schedulesBatchesAsOneJdbcBatchInOneTransaction() throws Exception {
+        final PreparedStatement insertBatchesStmt = mockInsertBatchesStatement();
+        Mockito.when(connection.getAutoCommit()).thenReturn(true);
+
+        testObj.scheduleBatches(context, copyItem,
+                List.of(createCopyBatch(0, 0L, 10L), createCopyBatch(1, 10L, 20L), createCopyBatch(2, 20L, null)),
+                null);
+
+        final InOrder inOrder = Mockito.inOrder(connection, insertBatchesStmt);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(insertBatchesStmt, Mockito.times(3)).addBatch();
+        inOrder.verify(insertBatchesStmt).executeBatch();
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+        Mockito.verify(insertBatchesStmt).setObject(2, 2);
+        Mockito.verify(insertBatchesStmt).setObject(5, null);
+        Mockito.verify(insertBatchesStmt, Mockito.never()).executeUpdate();
+    }
+
+    @Test
+    public void schedulesNoBatchIfInsertFails() throws Exception {
+        final PreparedStatement insertBatchesStmt = mockInsertBatchesStatement();
+        Mockito.when(insertBatchesStmt.executeBatch()).thenThrow(new SQLException("deadlock"));
+
+        try {
+            testObj.scheduleBatches(context, copyItem, List.of(createCopyBatch(0, 0L, 10L)), null);
+            Assert.fail("failure inserting the batches must be passed on");
+        } catch (SQLException expected) {
+            // expected
+        }
+
+        Mockito.verify(connection).rollback();
+        Mockito.verify(connection, Mockito.never()).commit();
+    }
+
+    @Test
+    public void schedulesNothingForNoBatches() throws Exception {
+        testObj.scheduleBatches(context, copyItem, List.of(), null);
+
+        Mockito.verifyNoInteractions(connection);
+    }
+
+    @Test
+    public void coalescesProgressUntilFlushed() throws Exception {
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenReturn(new int[]{1}, new int[]{1, 1});
+
+        testObj.markBatchCompleted(context, copyItem, 1);
+        testObj.markBatchCompleted(context, copyItem, 2);
+        testObj.markBatchCompleted(context, copyItem, 3);
+        testObj.updateTaskProgress(context, copyItem, 500);
+        testObj.updateTaskProgress(context, copyItem, 700);
+
+        Mockito.verify(connection, Mockito.times(1)).commit();
+        testObj.flushTaskProgress(context, copyItem);
+
+        Mockito.verify(connection, Mockito.times(2)).commit();
+        Mockito.verify(deleteBatchesStmt, Mockito.times(3)).addBatch();
+        Mockito.verify(updateTaskStmt).setObject(1, 700L);
+        Mockito.verify(updateTaskStmt, Mockito.never()).setObject(1, 500L);
+    }
+
+    @Test
+    public void requeuesProgressOfFailedFlush() throws Exception {
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenThrow(new SQLException("deadlock"))
+                .thenReturn(new int[]{1, 1});
+
+        testObj.markBatchCompleted(context, copyItem, 1);
+        testObj.markBatchCompleted(context, copyItem, 2);
+        testObj.updateTaskProgress(context, copyItem, 500);
+        testObj.flushTaskProgress(context, copyItem);
+
+        // the second completion triggers the retry, as the failed flush did not count as flushed
+        Mockito.verify(connection).rollback();
+        Mockito.verify(connection, Mockito.times(2)).commit();
+        Mockito.verify(deleteBatchesStmt, Mockito.times(2)).setObject(2, 1);
+        Mockito.verify(deleteBatchesStmt).setObject(2, 2);
+        Mockito.verify(updateTaskStmt).setObject(1, 500L);
+    }
+
+    @Test
+    public void keepsNewerItemCountOverRequeuedOne() throws Exception {
+        Mockito.when(updateTaskStmt.executeUpdate()).thenAnswer(invocation -> {
+            // a writer of another thread reports a newer count while this flush is in progress
+            executor.submit(() -> {
+                testObj.updateTaskProgress(context, copyItem, 900);
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+            throw new SQLException("deadlock");
+        }).thenReturn(1);
+
+        testObj.updateTaskProgress(context, copyItem, 500);
+        testObj.flushTaskProgress(context, copyItem);
+
+        Mockito.verify(updateTaskStmt).setObject(1, 500L);
+        Mockito.verify(updateTaskStmt).setObject(1, 900L);
+        Mockito.verify(updateTaskStmt, Mockito.times(2)).executeUpdate();
+        Mockito.verify(connection).commit();
+    }
+
+    @Test
+    public void doesNotFailWriterIfFlushFails() throws Exception {
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenThrow(new SQLException("deadlock"));
+
+        testObj.markBatchCompleted(context, copyItem, 1);
+
+        Mockito.verify(connection).rollback();
+    }
+
+    @Test
+    public void failsWriterIfFlushFailsOnResume() throws Exception {
+        Mockito.when(migrationContext.isSchedulerResumeEnabled()).thenReturn(true);
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenThrow(new SQLException("deadlock"))
+                .thenReturn(new int[]{1});
+
+        try {
+            testObj.markBatchCompleted(context, copyItem, 1);
+            Assert.fail("completion must be written before the writer returns on resume");
+        } catch (SQLException expected) {
+            // expected
+        }
+        // the retried writer completes the batch again
+        testObj.markBatchCompleted(context, copyItem, 1);
+        testObj.flushTaskProgress(context, copyItem);
+
+        Mockito.verify(connection).rollback();
+        Mockito.verify(connection).commit();
+        Mockito.verify(deleteBatchesStmt, Mockito.times(2)).addBatch();
+    }
+
+    @Test
+    public void failsFlushButDoesNotRequeueBatchesWithoutRecord() throws Exception {
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenReturn(new int[]{1}, new int[]{0, 1});
+        testObj.markBatchCompleted(context, copyItem, 1);
+        testObj.markBatchCompleted(context, copyItem, 2);
+        testObj.markBatchCompleted(context, copyItem, 3);
+
+        try {
+            testObj.flushTaskProgress(context, copyItem);
+            Assert.fail("batches without record must be reported");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("[2]"));
+        }
+        try {
+            testObj.flushTaskProgress(context, copyItem);
+            Assert.fail("batches without record must fail the pipeline");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("[2]"));
+        }
+
+        Mockito.verify(connection, Mockito.times(2)).commit();
+        Mockito.verify(deleteBatchesStmt, Mockito.times(3)).addBatch();
+    }
+
+    @Test
+    public void failsEveryWriterOnceBatchesWithoutRecordAreFound() throws Exception {
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenReturn(new int[]{0});
+
+        try {
+            testObj.markBatchCompleted(context, copyItem, 1);
+            Assert.fail("batch without record must fail the writer finding it");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("[1]"));
+        }
+        try {
+            testObj.updateTaskProgress(context, copyItem, 500);
+            Assert.fail("batch without record must fail the other writers of the pipeline");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("[1]"));
+        }
+        try {
+            testObj.closeTaskProgress(context, copyItem);
+            Assert.fail("batch without record must fail the pipeline");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("[1]"));
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void flushesBufferedProgressWithoutFurtherUpdates() throws Exception {
+        Mockito.when(migrationContext.getSchedulerProgressFlushInterval()).thenReturn(50);
+        testObj.updateTaskProgress(context, copyItem, 100);
+        testObj.updateTaskProgress(context, copyItem, 500);
+
+        // written by the background flush, as no writer calls in anymore
+        Mockito.verify(updateTaskStmt, Mockito.timeout(5_000)).setObject(1, 500L);
+        Mockito.verify(connection, Mockito.timeout(5_000).times(2)).commit();
+        testObj.closeTaskProgress(context, copyItem);
+    }
+
+    @Test
+    public void keepsProgressOfPipelineIfClosingFails() throws Exception {
+        Mockito.when(updateTaskStmt.executeUpdate()).thenReturn(1).thenThrow(new SQLException("deadlock"))
+                .thenReturn(1);
+        testObj.updateTaskProgress(context, copyItem, 100);
+        testObj.updateTaskProgress(context, copyItem, 500);
+
+        try {
+            testObj.closeTaskProgress(context, copyItem);
+            Assert.fail("failure writing the final progress must be passed on");
+        } catch (SQLException expected) {
+            // expected
+        }
+        testObj.flushTaskProgress(context, copyItem);
+
+        Mockito.verify(updateTaskStmt, Mockito.times(2)).setObject(1, 500L);
+        Mockito.verify(connection, Mockito.times(2)).commit();
+    }
+
+    @Test
+    public void dropsProgressOfClosedPipeline() throws Exception {
+        testObj.updateTaskProgress(context, copyItem, 100);
+        testObj.updateTaskProgress(context, copyItem, 500);
+
+        testObj.closeTaskProgress(context, copyItem);
+        testObj.flushTaskProgress(context, copyItem);
+
+        Mockito.verify(updateTaskStmt).setObject(1, 500L);
+        Mockito.verify(connection, Mockito.times(2)).commit();
+    }
+
+    @Test(timeout = 10_000)
+    public void doesNotBlockOtherPipelineWhileFlushing() throws Exception {
+        Mockito.when(migrationContext.isSchedulerResumeEnabled()).thenReturn(true);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(deleteBatchesStmt.executeBatch()).thenAnswer(awaiting(entered, release, new int[]{1}))
+                .thenReturn(new int[]{1});
+        final Future<?> flush = executor.submit(() -> {
+            testObj.markBatchCompleted(context, copyItem, 1);
+            return null;
+        });
+        entered.await();
+
+        final CopyContext.DataCopyItem otherItem = new CopyContext.DataCopyItem("media", "media", Map.of(),
+                10_000L, 1000, null);
+        testObj.markBatchCompleted(context, otherItem, 1);
+        testObj.updateTaskCopyMethod(context, otherItem, "DEFAULT");
+
+        Assert.assertFalse(flush.isDone());
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        Mockito.verify(connection, Mockito.times(2)).commit();
+    }
+
+    @Test(timeout = 10_000)
+    public void skipsFlushOfPipelineInProgressInsteadOfWaiting() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(updateTaskStmt.executeUpdate()).thenAnswer(awaiting(entered, release, 1)).thenReturn(1);
+        final Future<?> flush = executor.submit(() -> {
+            testObj.updateTaskProgress(context, copyItem, 100);
+            return null;
+        });
+        entered.await();
+
+        // due as well, since the flush in progress has not completed yet
+        testObj.updateTaskProgress(context, copyItem, 500);
+
+        Assert.assertFalse(flush.isDone());
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        Mockito.verify(updateTaskStmt, Mockito.never()).setObject(1, 500L);
+        testObj.flushTaskProgress(context, copyItem);
+        Mockito.verify(updateTaskStmt).setObject(1, 500L);
+        Mockito.verify(connection, Mockito.times(2)).commit();
+    }
+
+    @Test(timeout = 10_000)
+    public void doesNotSerializeTaskUpdatesOfPipelines() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(updateTaskStmt.executeUpdate()).thenAnswer(awaiting(entered, release, 1)).thenReturn(1);
+        final Future<?> update = executor.submit(() -> {
+            testObj.updateTaskCopyMethod(context, copyItem, "DEFAULT");
+            return null;
+        });
+        entered.await();
+
+        testObj.updateTaskCopyMethod(context, new CopyContext.DataCopyItem("media", "media", Map.of(), 10_000L,
+                1000, null), "DEFAULT");
+
+        Assert.assertFalse(update.isDone());
+        release.countDown();
+        update.get(5, TimeUnit.SECONDS);
+        Mockito.verify(updateTaskStmt, Mockito.times(2)).executeUpdate();
+    }
+
+    private PreparedStatement mockInsertBatchesStatement() throws SQLException {
+        final PreparedStatement insertBatchesStmt = Mockito.mock(PreparedStatement.class);
+        Mockito.when(connection.prepareStatement(Mockito.startsWith("INSERT"))).thenReturn(insertBatchesStmt);
+        return insertBatchesStmt;
+    }
+
+    private static DatabaseCopyBatch createCopyBatch(int batchId, Object lowerBoundary, Object upperBoundary) {
+        final DatabaseCopyBatch copyBatch = new DatabaseCopyBatch();
+        copyBatch.setBatchId(String.valueOf(batchId));
+        copyBatch.setLowerBoundary(lowerBoundary);
+        copyBatch.setUpperBoundary(upperBoundary);
+        return copyBatch;
+    }
+
+    private static Answer<Object> awaiting(CountDownLatch entered, CountDownLatch release, Object result) {
+        return invocation -> {
+            entered.countDown();
+            Assert.assertTrue(release.await(10, TimeUnit.SECONDS));
+            return result;
+        };
+    }
+}
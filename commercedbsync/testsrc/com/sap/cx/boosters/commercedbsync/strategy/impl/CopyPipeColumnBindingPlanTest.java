@@ -0,0 +1,165 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataSet;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import de.hybris.bootstrap.ddl.DataBaseProvider;
+
+public class CopyPipeColumnBindingPlanTest {
+
+    // source layout differs from the target column order
+    private static final List<DataColumn> SOURCE_COLUMNS = List.of(
+            new DefaultDataColumn("p_code", Types.VARCHAR, 255, 0),
+            new DefaultDataColumn("p_name", Types.VARCHAR, 255, 0),
+            new DefaultDataColumn("PK", Types.BIGINT, 20, 0));
+
+    private CopyPipeWriterContext ctx;
+    private DataRepository targetRepository;
+    private Map<String, Integer> targetColumnTypes;
+    private DataSet dataSet;
+    private PreparedStatement statement;
+
+    @Before
+    public void setUp() {
+        targetRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(targetRepository.getDatabaseProvider()).thenReturn(DataBaseProvider.MSSQL);
+        final MigrationContext migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getDataTargetRepository()).thenReturn(targetRepository);
+        ctx = Mockito.mock(CopyPipeWriterContext.class);
+        Mockito.when(ctx.getContext()).thenReturn(new CopyContext("migration", migrationContext, Set.of(), null));
+        Mockito.when(ctx.getCopyItem()).thenReturn(new CopyContext.DataCopyItem("products", "products",
+                Map.of("p_flag", "1"), 10_000L, 1000, null));
+        Mockito.when(ctx.getColumnsToCopy()).thenReturn(List.of("PK", "p_code", "p_name", "p_flag"));
+        Mockito.when(ctx.getNullifyColumns()).thenReturn(Set.of("p_name"));
+        Mockito.when(ctx.getWriteMethod()).thenReturn(DataWriteMethod.BATCH);
+        targetColumnTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        targetColumnTypes.put("pk", Types.BIGINT);
+        targetColumnTypes.put("p_code", Types.VARCHAR);
+        targetColumnTypes.put("p_name", Types.VARCHAR);
+        targetColumnTypes.put("p_flag", Types.INTEGER);
+        dataSet = new DefaultDataSet(0, 3, SOURCE_COLUMNS,
+                List.of(Arrays.asList("a", "name a", 1L), Arrays.asList(null, "name b", 2L)), null);
+        statement = Mockito.mock(PreparedStatement.class);
+    }
+
+    @Test
+    public void bindsSourceColumnsByNameInTargetOrder() throws Exception {
+        final CopyPipeColumnBindingPlan testObj = CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes,
+                null);
+
+        testObj.bindRow(statement, 0, dataSet, 0, null);
+
+        Mockito.verify(statement).setObject(1, 1L, Types.BIGINT);
+        Mockito.verify(statement).setObject(2, "a", Types.VARCHAR);
+        Mockito.verify(statement).setNull(3, Types.VARCHAR);
+        Mockito.verify(statement).setObject(4, "1", Types.INTEGER);
+        Mockito.verifyNoMoreInteractions(statement);
+        Assert.assertFalse(testObj.hasAnonymizedColumns());
+    }
+
+    @Test
+    public void bindsRowAfterPrecedingRowsOfMultiRowStatement() throws Exception {
+        final CopyPipeColumnBindingPlan testObj = CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes,
+                null);
+
+        testObj.bindRow(statement, 4, dataSet, 1, null);
+
+        Mockito.verify(statement).setObject(5, 2L, Types.BIGINT);
+        Mockito.verify(statement).setNull(6, Types.VARCHAR);
+        Mockito.verify(statement).setNull(7, Types.VARCHAR);
+        Mockito.verify(statement).setObject(8, "1", Types.INTEGER);
+        Mockito.verifyNoMoreInteractions(statement);
+    }
+
+    @Test
+    public void resolvesValuesWithoutBinding() {
+        final CopyPipeColumnBindingPlan testObj = CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes,
+                null);
+
+        final CopyPipeColumnBindingPlan.ColumnBinder[] binders = testObj.getBinders();
+
+        Assert.assertEquals(4, binders.length);
+        Assert.assertEquals(1L, binders[0].resolveValue(dataSet, 0, Map.of()));
+        Assert.assertEquals("a", binders[1].resolveValue(dataSet, 0, Map.of()));
+        Assert.assertNull(binders[2].resolveValue(dataSet, 0, Map.of()));
+        Assert.assertEquals("1", binders[3].resolveValue(dataSet, 0, Map.of()));
+    }
+
+    @Test
+    public void failsForColumnMissingInTargetTable() {
+        targetColumnTypes.remove("p_code");
+
+        try {
+            CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes, null);
+            Assert.fail("column missing in the target table must not be bound");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("p_code"));
+        }
+    }
+
+    @Test
+    public void failsForColumnMissingInSource() {
+        Mockito.when(ctx.getColumnsToCopy()).thenReturn(List.of("PK", "p_code", "p_name", "p_flag", "p_other"));
+        targetColumnTypes.put("p_other", Types.VARCHAR);
+
+        try {
+            CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes, null);
+            Assert.fail("column missing in the source must not be bound");
+        } catch (IllegalArgumentException expected) {
+            Assert.assertTrue(expected.getMessage().contains("p_other"));
+        }
+    }
+
+    @Test
+    public void stripsNulCharactersOfVarcharsOnPostgreSql() throws Exception {
+        Mockito.when(targetRepository.getDatabaseProvider()).thenReturn(DataBaseProvider.POSTGRESQL);
+        final DataSet nulDataSet = new DefaultDataSet(0, 3, SOURCE_COLUMNS,
+                List.of(Arrays.asList("a\u0000b", null, 1L)), null);
+        final CopyPipeColumnBindingPlan testObj = CopyPipeColumnBindingPlan.create(ctx, nulDataSet,
+                targetColumnTypes, null);
+
+        testObj.bindRow(statement, 0, nulDataSet, 0, null);
+
+        Mockito.verify(statement).setObject(2, "ab", Types.VARCHAR);
+    }
+
+    @Test
+    public void bindsOracleClobsAsStreamUnlessWrittenDirectPath() throws Exception {
+        Mockito.when(targetRepository.getDatabaseProvider()).thenReturn(DataBaseProvider.ORACLE);
+        targetColumnTypes.put("p_code", Types.CLOB);
+
+        CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes, null).bindRow(statement, 0, dataSet, 0,
+                null);
+        Mockito.when(ctx.getWriteMethod()).thenReturn(DataWriteMethod.DIRECTPATH);
+        CopyPipeColumnBindingPlan.create(ctx, dataSet, targetColumnTypes, null).bindRow(statement, 4, dataSet, 0,
+                null);
+
+        Mockito.verify(statement).setClob(Mockito.eq(2), Mockito.any(Reader.class), Mockito.eq(1L));
+        Mockito.verify(statement).setString(6, "a");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+
+public class CopyPipeWriterSessionTest {
+
+    private static final List<String> COLUMNS = List.of("PK", "code");
+
+    private CopyPipeWriterSession testObj;
+    private Connection connection;
+    private DataRepository targetRepository;
+    private CopyPipeWriterContext ctx;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString()))
+                .thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        targetRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(targetRepository.getConnection()).thenReturn(connection);
+        Mockito.when(targetRepository.getMaxBulkInsertRows(COLUMNS.size())).thenReturn(1000);
+        Mockito.when(targetRepository.buildBulkInsertStatement(Mockito.eq("products"), Mockito.eq(COLUMNS),
+                Mockito.anyInt())).thenAnswer(invocation -> "INSERT " + invocation.getArgument(2));
+        final MigrationContext migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getDataTargetRepository()).thenReturn(targetRepository);
+        ctx = Mockito.mock(CopyPipeWriterContext.class);
+        Mockito.when(ctx.getContext()).thenReturn(new CopyContext("migration", migrationContext, Set.of(), null));
+        Mockito.when(ctx.getCopyItem())
+                .thenReturn(new CopyContext.DataCopyItem("products", "products", Map.of(), 10_000L, 1000, null));
+        Mockito.when(ctx.getColumnsToCopy()).thenReturn(COLUMNS);
+        Mockito.when(ctx.getWriteMethod()).thenReturn(DataWriteMethod.MULTIROW);
+        testObj = CopyPipeWriterSession.open(ctx);
+    }
+
+    @Test
+    public void reusesBulkInsertStatementsOfSameRowCount() throws Exception {
+        final PreparedStatement fullStatement = testObj.getBulkInsertStatement(1000);
+        final PreparedStatement tailStatement = testObj.getBulkInsertStatement(37);
+
+        Assert.assertSame(fullStatement, testObj.getBulkInsertStatement(1000));
+        Assert.assertSame(tailStatement, testObj.getBulkInsertStatement(37));
+        Mockito.verify(connection, Mockito.times(2)).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    public void closesStatementOfPreviousRemainderOnly() throws Exception {
+        final PreparedStatement fullStatement = testObj.getBulkInsertStatement(1000);
+        final PreparedStatement firstTailStatement = testObj.getBulkInsertStatement(37);
+        Assert.assertSame(fullStatement, testObj.getBulkInsertStatement(1000));
+
+        final PreparedStatement secondTailStatement = testObj.getBulkInsertStatement(12);
+
+        Mockito.verify(firstTailStatement).close();
+        Mockito.verify(fullStatement, Mockito.never()).close();
+        Assert.assertSame(fullStatement, testObj.getBulkInsertStatement(1000));
+        Assert.assertSame(secondTailStatement, testObj.getBulkInsertStatement(12));
+    }
+
+    @Test
+    public void closesAllBulkInsertStatementsWithSession() throws Exception {
+        final PreparedStatement fullStatement = testObj.getBulkInsertStatement(1000);
+        final PreparedStatement tailStatement = testObj.getBulkInsertStatement(37);
+
+        testObj.close();
+
+        Mockito.verify(fullStatement).close();
+        Mockito.verify(tailStatement).close();
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    public void failsToOpenSessionIfIdentityInsertCannotBeSwitchedOn() throws Exception {
+        final Statement identityInsertStmt = mockIdentityInsertStatement();
+        Mockito.when(identityInsertStmt.executeUpdate("SET IDENTITY_INSERT products ON"))
+                .thenThrow(new SQLException("no permission"));
+        Mockito.when(ctx.isRequiresIdentityInsert()).thenReturn(true);
+
+        try {
+            CopyPipeWriterSession.open(ctx);
+            Assert.fail("session must not be opened without identity insert");
+        } catch (RuntimeException expected) {
+            Assert.assertTrue(expected.getMessage().contains("'products'"));
+        }
+
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    public void closesSessionIfIdentityInsertCannotBeSwitchedOff() throws Exception {
+        final Statement identityInsertStmt = mockIdentityInsertStatement();
+        Mockito.when(identityInsertStmt.executeUpdate("SET IDENTITY_INSERT products OFF"))
+                .thenThrow(new SQLException("connection reset"));
+        Mockito.when(ctx.isRequiresIdentityInsert()).thenReturn(true);
+        final CopyPipeWriterSession session = CopyPipeWriterSession.open(ctx);
+
+        session.close();
+
+        Mockito.verify(identityInsertStmt).executeUpdate("SET IDENTITY_INSERT products ON");
+        Mockito.verify(connection).close();
+    }
+
+    private Statement mockIdentityInsertStatement() throws SQLException {
+        final Statement identityInsertStmt = Mockito.mock(Statement.class);
+        Mockito.when(connection.createStatement()).thenReturn(identityInsertStmt);
+        return identityInsertStmt;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataSet;
+import com.sap.cx.boosters.commercedbsync.performance.PerformanceRecorder;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import com.sap.cx.boosters.commercedbsync.service.DatabaseCopyTaskRepository;
+
+public class DataDeleteWriterTaskTest {
+
+    private CopyPipeWriterContext ctx;
+    private Connection connection;
+    private DataRepository targetRepository;
+    private final Map<Integer, PreparedStatement> statements = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> statements
+                .computeIfAbsent(Integer.valueOf(invocation.<String>getArgument(0).substring(7)),
+                        k -> Mockito.mock(PreparedStatement.class)));
+        targetRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(targetRepository.getConnection()).thenReturn(connection);
+        Mockito.when(targetRepository.getMaxBulkDeleteKeys()).thenReturn(2);
+        Mockito.when(targetRepository.buildBulkDeleteStatement(Mockito.eq("products"), Mockito.eq("PK"),
+                Mockito.anyInt())).thenAnswer(invocation -> "DELETE " + invocation.getArgument(2));
+        final MigrationContext migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getDataTargetRepository()).thenReturn(targetRepository);
+        Mockito.when(migrationContext.isDeletionEnabled()).thenReturn(true);
+        ctx = Mockito.mock(CopyPipeWriterContext.class);
+        Mockito.when(ctx.getContext()).thenReturn(new CopyContext("migration", migrationContext, Set.of(), null));
+        Mockito.when(ctx.getCopyItem())
+                .thenReturn(new CopyContext.DataCopyItem("products", "products", Map.of(), 10_000L, 1000, null));
+        Mockito.when(ctx.getTotalCount()).thenReturn(new AtomicLong());
+        Mockito.when(ctx.getPerformanceRecorder()).thenReturn(Mockito.mock(PerformanceRecorder.class));
+        Mockito.when(ctx.getDatabaseCopyTaskRepository()).thenReturn(Mockito.mock(DatabaseCopyTaskRepository.class));
+    }
+
+    @Test
+    public void deletesFullInListsAsBatchAndRemainingKeysWithTailStatement() throws Exception {
+        new DataDeleteWriterTask(ctx, createDataSet(5L, 3L, null, 1L, 4L, 2L)).call();
+
+        final PreparedStatement fullStatement = statements.get(2);
+        final InOrder inOrder = Mockito.inOrder(fullStatement);
+        inOrder.verify(fullStatement).setLong(1, 1L);
+        inOrder.verify(fullStatement).setLong(2, 2L);
+        inOrder.verify(fullStatement).addBatch();
+        inOrder.verify(fullStatement).setLong(1, 3L);
+        inOrder.verify(fullStatement).setLong(2, 4L);
+        inOrder.verify(fullStatement).addBatch();
+        inOrder.verify(fullStatement).executeBatch();
+        final PreparedStatement tailStatement = statements.get(1);
+        Mockito.verify(tailStatement).setLong(1, 5L);
+        Mockito.verify(tailStatement).executeUpdate();
+        Mockito.verify(connection).commit();
+    }
+
+    @Test
+    public void needsNoTailStatementIfKeysFillInLists() throws Exception {
+        new DataDeleteWriterTask(ctx, createDataSet(4L, 3L, 2L, 1L)).call();
+
+        Mockito.verify(statements.get(2), Mockito.times(2)).addBatch();
+        Mockito.verify(statements.get(2)).executeBatch();
+        Assert.assertEquals(Set.of(2), statements.keySet());
+    }
+
+    @Test
+    public void sizesInListToFewerKeysThanMaximum() throws Exception {
+        new DataDeleteWriterTask(ctx, createDataSet(7L)).call();
+
+        Assert.assertEquals(Set.of(1), statements.keySet());
+        Mockito.verify(statements.get(1)).setLong(1, 7L);
+        Mockito.verify(statements.get(1)).addBatch();
+        Mockito.verify(statements.get(1)).executeBatch();
+    }
+
+    @Test
+    public void deletesNothingWithoutKeys() throws Exception {
+        new DataDeleteWriterTask(ctx, createDataSet(null, null)).call();
+
+        Mockito.verify(connection, Mockito.never()).prepareStatement(Mockito.anyString());
+        Mockito.verify(connection).commit();
+    }
+
+    private static DataSet createDataSet(Long... itemPks) {
+        final List<List<Object>> rows = new ArrayList<>();
+        for (final Long itemPk : itemPks) {
+            rows.add(Arrays.asList(itemPk, "product"));
+        }
+        return new DefaultDataSet(0, 2,
+                List.of(new DefaultDataColumn("p_itempk", Types.BIGINT, 20, 0),
+                        new DefaultDataColumn("p_typecode", Types.VARCHAR, 255, 0)),
+                rows, null);
+    }
+}
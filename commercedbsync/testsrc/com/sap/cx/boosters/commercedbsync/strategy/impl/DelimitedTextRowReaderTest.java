@@ -0,0 +1,238 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.anonymizer.model.Column;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.SpilledLob;
+
+public class DelimitedTextRowReaderTest {
+
+    private final List<SpilledLob> spilledLobs = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        spilledLobs.forEach(SpilledLob::release);
+    }
+
+    @Test
+    public void encodesSpilledTextChunkByChunk() throws Exception {
+        final String text = "a\tb\\".repeat(10_000);
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.BIGINT, Types.CLOB},
+                new Object[]{1L, spill(text)}, new Object[]{2L, null});
+
+        final String encoded = readAll(reader, 100);
+
+        Assert.assertEquals("1\t" + "a\\tb\\\\".repeat(10_000) + "\n2\t\\N\n", encoded);
+        Assert.assertTrue("spilled value must not be buffered as a whole",
+                reader.buffer.capacity() < text.length());
+    }
+
+    @Test
+    public void encodesSpilledBinaryAsHexChunkByChunk() throws Exception {
+        final byte[] bytes = new byte[20_000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.BLOB, Types.VARCHAR},
+                new Object[]{spill(bytes), "x"});
+
+        final String encoded = readAll(reader, 333);
+
+        final StringBuilder expected = new StringBuilder("\\\\x");
+        for (final byte b : bytes) {
+            expected.append(String.format("%02x", b));
+        }
+        Assert.assertEquals(expected.append("\tx\n").toString(), encoded);
+        Assert.assertTrue("spilled value must not be buffered as a whole",
+                reader.buffer.capacity() < bytes.length);
+    }
+
+    @Test
+    public void encodesSeveralSpilledValuesOfARow() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(
+                new int[]{Types.CLOB, Types.CLOB, Types.INTEGER},
+                new Object[]{spill("first"), spill(""), 3});
+
+        Assert.assertEquals("first\t\t3\n", readAll(reader, 2));
+    }
+
+    @Test
+    public void escapesControlCharactersAndBackslashesOfPostgresText() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.VARCHAR},
+                new Object[]{"a\tb\nc\rd\\e"});
+
+        Assert.assertEquals("a\\tb\\nc\\rd\\\\e\n", readAll(reader, 3));
+    }
+
+    @Test
+    public void dropsNulCharactersOfPostgresText() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.VARCHAR},
+                new Object[]{"a\u0000b"});
+
+        Assert.assertEquals("ab\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void keepsNullApartFromEmptyAndNullMarkerTextForPostgres() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.VARCHAR, Types.VARCHAR,
+                Types.VARCHAR}, new Object[]{null, "", "\\N"});
+
+        Assert.assertEquals("\\N\t\t\\\\N\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void writesBooleansByTargetColumnTypeForPostgres() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(
+                new int[]{Types.BOOLEAN, Types.BIT, Types.SMALLINT, Types.SMALLINT},
+                new Object[]{true, false, true, false});
+
+        Assert.assertEquals("t\tf\t1\t0\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void writesBinaryAsEscapedHexForPostgres() throws Exception {
+        final PostgresCopyWriter.DataSetReader reader = createReader(new int[]{Types.VARBINARY},
+                new Object[]{new byte[]{0x00, 0x7f, (byte) 0xff}});
+
+        Assert.assertEquals("\\\\x007fff\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void writesNumbersAndDatesInPlainNotation() throws Exception {
+        final long time = Timestamp.valueOf("2023-05-01 12:30:00").getTime();
+        final PostgresCopyWriter.DataSetReader reader = createReader(
+                new int[]{Types.DECIMAL, Types.BIGINT, Types.TIMESTAMP},
+                new Object[]{new BigDecimal("1E+3"), -42L, new java.util.Date(time)});
+
+        Assert.assertEquals("1000\t-42\t2023-05-01 12:30:00.0\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void escapesControlCharactersAndBackslashesOfMySqlText() throws Exception {
+        final MySqlLoadDataWriter.DataSetReader reader = createMySqlReader(new int[]{Types.VARCHAR},
+                new Object[]{"a\tb\nc\rd\\e\u0000f\u001Ag"});
+
+        Assert.assertEquals("a\\tb\\nc\\rd\\\\e\\0f\\Zg\n", readAll(reader, 3));
+    }
+
+    @Test
+    public void keepsNullApartFromEmptyAndNullMarkerTextForMySql() throws Exception {
+        final MySqlLoadDataWriter.DataSetReader reader = createMySqlReader(new int[]{Types.VARCHAR, Types.VARCHAR,
+                Types.VARCHAR}, new Object[]{null, "", "\\N"});
+
+        Assert.assertEquals("\\N\t\t\\\\N\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void writesBooleansAsDigitsForMySql() throws Exception {
+        final MySqlLoadDataWriter.DataSetReader reader = createMySqlReader(new int[]{Types.BIT, Types.BOOLEAN},
+                new Object[]{true, false});
+
+        Assert.assertEquals("1\t0\n", readAll(reader, 16));
+    }
+
+    @Test
+    public void writesBinaryAsPlainHexForMySql() throws Exception {
+        final MySqlLoadDataWriter.DataSetReader reader = createMySqlReader(new int[]{Types.VARBINARY, Types.BLOB},
+                new Object[]{new byte[]{0x00, 0x7f, (byte) 0xff}, spill(new byte[]{0x10})});
+
+        Assert.assertEquals("007fff\t10\n", readAll(reader, 16));
+    }
+
+    private SpilledLob spill(final String text) throws IOException {
+        final SpilledLob spilledLob = SpilledLob.spill(new StringReader(text));
+        spilledLobs.add(spilledLob);
+        return spilledLob;
+    }
+
+    private SpilledLob spill(final byte[] bytes) throws IOException {
+        final SpilledLob spilledLob = SpilledLob.spill(new ByteArrayInputStream(bytes));
+        spilledLobs.add(spilledLob);
+        return spilledLob;
+    }
+
+    static PostgresCopyWriter.DataSetReader createReader(final int[] targetColumnTypes, final Object[]... rows) {
+        return new PostgresCopyWriter.DataSetReader(createDataSet(targetColumnTypes.length, rows),
+                createColumnBindingPlan(targetColumnTypes), null);
+    }
+
+    static MySqlLoadDataWriter.DataSetReader createMySqlReader(final int[] targetColumnTypes,
+            final Object[]... rows) {
+        return new MySqlLoadDataWriter.DataSetReader(createDataSet(targetColumnTypes.length, rows),
+                createColumnBindingPlan(targetColumnTypes), null);
+    }
+
+    private static DataSet createDataSet(final int columnCount, final Object[]... rows) {
+        final DataSet dataSet = Mockito.mock(DataSet.class);
+        Mockito.when(dataSet.getRowCount()).thenReturn(rows.length);
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                Mockito.when(dataSet.getValue(row, column)).thenReturn(rows[row][column]);
+            }
+        }
+        return dataSet;
+    }
+
+    private static CopyPipeColumnBindingPlan createColumnBindingPlan(final int[] targetColumnTypes) {
+        final CopyPipeColumnBindingPlan.ColumnBinder[] binders =
+                new CopyPipeColumnBindingPlan.ColumnBinder[targetColumnTypes.length];
+        for (int column = 0; column < targetColumnTypes.length; column++) {
+            binders[column] = new SourceValueBinder(column, targetColumnTypes[column]);
+        }
+        final CopyPipeColumnBindingPlan columnBindingPlan = Mockito.mock(CopyPipeColumnBindingPlan.class);
+        Mockito.when(columnBindingPlan.getBinders()).thenReturn(binders);
+        return columnBindingPlan;
+    }
+
+    static String readAll(final Reader reader, final int chunkSize) throws IOException {
+        final StringBuilder result = new StringBuilder();
+        final char[] chunk = new char[chunkSize];
+        int count;
+        while ((count = reader.read(chunk, 0, chunkSize)) != -1) {
+            result.append(chunk, 0, count);
+        }
+        return result.toString();
+    }
+
+    private static class SourceValueBinder extends CopyPipeColumnBindingPlan.ColumnBinder {
+        private final int sourceColumnIdx;
+
+        SourceValueBinder(final int sourceColumnIdx, final int targetColumnType) {
+            super(sourceColumnIdx + 1, "column" + sourceColumnIdx, targetColumnType);
+            this.sourceColumnIdx = sourceColumnIdx;
+        }
+
+        @Override
+        Object resolveValue(final DataSet dataSet, final int rowIndex, final Map<Column, Object> anonymizedValues) {
+            return dataSet.getValue(rowIndex, sourceColumnIdx);
+        }
+
+        @Override
+        void bind(final PreparedStatement statement, final int parameterIndex, final DataSet dataSet,
+                final int rowIndex, final Map<Column, Object> anonymizedValues) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsync.strategy.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataWriteMethod;
+import com.sap.cx.boosters.commercedbsync.context.CopyContext;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.dataset.DataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.DataSet;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataColumn;
+import com.sap.cx.boosters.commercedbsync.dataset.impl.DefaultDataSet;
+import com.sap.cx.boosters.commercedbsync.repository.DataRepository;
+import de.hybris.bootstrap.ddl.DataBaseProvider;
+
+public class SqlServerBulkCopyWriterTest {
+
+    private static final List<String> COLUMNS = List.of("PK", "p_code", "p_data");
+    private static final List<DataColumn> SOURCE_COLUMNS = List.of(
+            new DefaultDataColumn("PK", Types.BIGINT, 20, 0),
+            new DefaultDataColumn("p_code", Types.VARCHAR, 255, 0),
+            new DefaultDataColumn("p_data", Types.VARBINARY, 0, 0));
+    private static final int[][] PRECISION_AND_SCALE = {{19, 0}, {255, 0}, {Integer.MAX_VALUE, 0}};
+
+    private CopyPipeWriterContext ctx;
+    private Map<String, Integer> targetColumnTypes;
+
+    @Before
+    public void setUp() {
+        final DataRepository targetRepository = Mockito.mock(DataRepository.class);
+        Mockito.when(targetRepository.getDatabaseProvider()).thenReturn(DataBaseProvider.MSSQL);
+        final MigrationContext migrationContext = Mockito.mock(MigrationContext.class);
+        Mockito.when(migrationContext.getDataTargetRepository()).thenReturn(targetRepository);
+        ctx = Mockito.mock(CopyPipeWriterContext.class);
+        Mockito.when(ctx.getContext()).thenReturn(new CopyContext("migration", migrationContext, Set.of(), null));
+        Mockito.when(ctx.getCopyItem())
+                .thenReturn(new CopyContext.DataCopyItem("products", "products", Map.of(), 10_000L, 1000, null));
+        Mockito.when(ctx.getColumnsToCopy()).thenReturn(COLUMNS);
+        Mockito.when(ctx.getNullifyColumns()).thenReturn(Set.of());
+        Mockito.when(ctx.getWriteMethod()).thenReturn(DataWriteMethod.BULKCOPY);
+        targetColumnTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        targetColumnTypes.put("PK", Types.BIGINT);
+        targetColumnTypes.put("p_code", Types.NVARCHAR);
+        targetColumnTypes.put("p_data", Types.VARBINARY);
+    }
+
+    @Test
+    public void describesColumnsByOrdinalOfColumnsToCopy() {
+        final BulkData testObj = createBulkData(List.of(Arrays.asList(1L, "a", null)));
+
+        Assert.assertEquals(List.of(1, 2, 3), List.copyOf(testObj.getColumnOrdinals()));
+        Assert.assertEquals("p_code", testObj.getColumnName(2));
+        Assert.assertEquals(Types.NVARCHAR, testObj.getColumnType(2));
+        Assert.assertEquals(255, testObj.getPrecision(2));
+        Assert.assertEquals(0, testObj.getScale(2));
+        Assert.assertEquals(Types.BIGINT, testObj.getColumnType(1));
+    }
+
+    @Test
+    public void iteratesRowsOfDataSet() {
+        final BulkData testObj = createBulkData(
+                List.of(Arrays.asList(1L, "a", null), Arrays.asList(2L, null, new byte[]{7})));
+
+        Assert.assertTrue(testObj.next());
+        Assert.assertArrayEquals(new Object[]{1L, "a", null}, testObj.getRowData());
+        Assert.assertTrue(testObj.next());
+        final Object[] secondRow = testObj.getRowData();
+        Assert.assertEquals(2L, secondRow[0]);
+        Assert.assertNull(secondRow[1]);
+        Assert.assertArrayEquals(new byte[]{7}, (byte[]) secondRow[2]);
+        Assert.assertFalse(testObj.next());
+    }
+
+    @Test
+    public void readsLobLocatorsAndStreamsIntoValues() throws Exception {
+        final Clob clob = Mockito.mock(Clob.class);
+        Mockito.when(clob.getCharacterStream()).thenReturn(new StringReader("text"));
+        final byte[] bytes = "binary".getBytes(StandardCharsets.UTF_8);
+        final BulkData testObj = createBulkData(List.of(Arrays.asList(1L, clob, new ByteArrayInputStream(bytes))));
+
+        Assert.assertTrue(testObj.next());
+        final Object[] row = testObj.getRowData();
+
+        Assert.assertEquals("text", row[1]);
+        Assert.assertArrayEquals(bytes, (byte[]) row[2]);
+    }
+
+    @Test
+    public void readsPrecisionAndScaleOfTargetColumns() throws Exception {
+        final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getPrecision(1)).thenReturn(19);
+        Mockito.when(metaData.getPrecision(2)).thenReturn(10);
+        Mockito.when(metaData.getScale(2)).thenReturn(2);
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        final Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(statement.executeQuery("SELECT TOP 1 PK, p_price FROM products WHERE 0 = 1"))
+                .thenReturn(resultSet);
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+
+        final int[][] precisionAndScale = SqlServerBulkCopyWriter.getColumnPrecisionAndScale(connection, "products",
+                List.of("PK", "p_price"));
+
+        Assert.assertArrayEquals(new int[]{19, 0}, precisionAndScale[0]);
+        Assert.assertArrayEquals(new int[]{10, 2}, precisionAndScale[1]);
+        Mockito.verify(resultSet).close();
+        Mockito.verify(statement).close();
+    }
+
+    private BulkData createBulkData(final List<List<Object>> rows) {
+        final DataSet dataSet = new DefaultDataSet(0, 3, SOURCE_COLUMNS, rows, null);
+        final CopyPipeColumnBindingPlan columnBindingPlan = CopyPipeColumnBindingPlan.create(ctx, dataSet,
+                targetColumnTypes, null);
+        return (BulkData) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BulkData.class},
+                new SqlServerBulkCopyWriter.DataSetBulkData(dataSet, columnBindingPlan, COLUMNS, PRECISION_AND_SCALE,
+                        null));
+    }
+
+    /**
+     * Mirrors the methods of the driver's {@code ISQLServerBulkData}, which is not on the test classpath
+     */
+    public interface BulkData {
+        Set<Integer> getColumnOrdinals();
+
+        String getColumnName(int column);
+
+        int getColumnType(int column);
+
+        int getPrecision(int column);
+
+        int getScale(int column);
+
+        Object[] getRowData();
+
+        boolean next();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsynchac.metric.populator.impl;
+
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsync.scheduler.DatabaseCopyScheduler;
+import com.sap.cx.boosters.commercedbsynchac.metric.populator.MetricPopulator;
+import de.hybris.platform.commercedbsynchac.data.MetricData;
+
+public class AbortStatusMetricPopulator implements MetricPopulator {
+
+    private final DatabaseCopyScheduler scheduler;
+    private long lastChecks;
+    private long lastQueries;
+    private long lastPopulated;
+
+    public AbortStatusMetricPopulator(DatabaseCopyScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public synchronized MetricData populate(MigrationContext context) throws Exception {
+        final long now = System.currentTimeMillis();
+        final long checks = scheduler.getAbortStatusChecks();
+        final long queries = scheduler.getAbortStatusQueries();
+        double checkRate = -1;
+        double queryRate = -2;
+        // rates are measured between two refreshes of the metrics
+        if (lastPopulated > 0 && now > lastPopulated) {
+            final double seconds = (now - lastPopulated) / 1000d;
+            checkRate = (checks - lastChecks) / seconds;
+            queryRate = (queries - lastQueries) / seconds;
+        }
+        lastChecks = checks;
+        lastQueries = queries;
+        lastPopulated = now;
+        MetricData data = new MetricData();
+        data.setMetricId("abort-status");
+        data.setName("Abort Checks");
+        data.setDescription("The abort status checks of the data pipes per second and those read from the database");
+        data.setPrimaryValue(checkRate);
+        data.setPrimaryValueLabel("Checks");
+        data.setPrimaryValueUnit("#/s");
+        data.setPrimaryValueThreshold(-1d);
+        data.setSecondaryValue(queryRate);
+        data.setSecondaryValueLabel("Queries");
+        data.setSecondaryValueUnit("#/s");
+        data.setSecondaryValueThreshold(-1d);
+        populateColors(data);
+        return data;
+    }
+}
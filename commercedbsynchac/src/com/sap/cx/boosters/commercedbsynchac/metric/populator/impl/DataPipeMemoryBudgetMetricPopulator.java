@@ -0,0 +1,48 @@
+/*
+ *  Copyright: 2023 SAP SE or an SAP affiliate company and commerce-db-synccontributors.
+ *  License: Apache-2.0
+ *
+ */
+
+package com.sap.cx.boosters.commercedbsynchac.metric.populator.impl;
+
+import com.sap.cx.boosters.commercedbsync.concurrent.DataPipeMemoryBudget;
+import com.sap.cx.boosters.commercedbsync.context.MigrationContext;
+import com.sap.cx.boosters.commercedbsynchac.metric.populator.MetricPopulator;
+import de.hybris.platform.commercedbsynchac.data.MetricData;
+
+public class DataPipeMemoryBudgetMetricPopulator implements MetricPopulator {
+
+    private final DataPipeMemoryBudget memoryBudget;
+
+    public DataPipeMemoryBudgetMetricPopulator(DataPipeMemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public MetricData populate(MigrationContext context) throws Exception {
+        MetricData data = new MetricData();
+        double capacity = memoryBudget.getCapacity() / 1048576L;
+        double reserved = memoryBudget.getReserved() / 1048576L;
+        if (context.getDataPipeMemoryBudget() <= 0 || capacity < 1) {
+            // make primary and secondary value negative to indicate inactive widget
+            reserved = -1;
+            capacity = -2;
+        }
+        // a single page larger than the budget is admitted while nothing else is reserved
+        double free = reserved > capacity ? 0 : capacity - reserved;
+        data.setMetricId("pipe-memory");
+        data.setName("Pipe Memory");
+        data.setDescription("The memory budget reserved by pages waiting in the data pipes");
+        data.setPrimaryValue(reserved);
+        data.setPrimaryValueLabel("Reserved");
+        data.setPrimaryValueUnit("MB");
+        data.setPrimaryValueThreshold(capacity * 0.9);
+        data.setSecondaryValue(free);
+        data.setSecondaryValueLabel("Free");
+        data.setSecondaryValueUnit("MB");
+        data.setSecondaryValueThreshold(0d);
+        populateColors(data);
+        return data;
+    }
+}